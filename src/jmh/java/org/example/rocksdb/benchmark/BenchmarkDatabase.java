@@ -0,0 +1,68 @@
+package org.example.rocksdb.benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.example.rocksdb.RocksdbSampleApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 임시 디렉토리에 DB 를 두고 애플리케이션과 같은 설정(RocksDbInitializer, Repository, codec)으로
+ * Spring context 를 띄운다. 벤치마크가 끝나면 디렉토리까지 지운다.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+  private final Path directory;
+  private final ConfigurableApplicationContext context;
+
+  private BenchmarkDatabase(Path directory, ConfigurableApplicationContext context) {
+    this.directory = directory;
+    this.context = context;
+  }
+
+  static BenchmarkDatabase open(Map<String, Object> properties) {
+    try {
+      Path directory = Files.createTempDirectory("rocksdb-benchmark");
+      Map<String, Object> defaults = new HashMap<>();
+      defaults.put("rocksdb.path", directory.resolve("db").toString());
+      defaults.put("logging.level.root", "WARN");
+      defaults.putAll(properties);
+      ConfigurableApplicationContext context =
+          new SpringApplicationBuilder(RocksdbSampleApplication.class)
+              .web(WebApplicationType.NONE)
+              .properties(defaults)
+              .run();
+      return new BenchmarkDatabase(directory, context);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  <T> T bean(Class<T> type) {
+    return context.getBean(type);
+  }
+
+  // 이름 뒤에 채워 넣어 값 크기를 맞춘다
+  static String padding(int length) {
+    return "x".repeat(Math.max(0, length));
+  }
+
+  static String key(String prefix, int i) {
+    return String.format("%s%08d", prefix, i);
+  }
+
+  @Override
+  public void close() throws IOException {
+    context.close();
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package org.example.rocksdb.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.example.rocksdb.codec.Codec;
+import org.example.rocksdb.codec.CodecType;
+import org.example.rocksdb.codec.JsonCodec;
+import org.example.rocksdb.codec.ProductBinaryCodec;
+import org.example.rocksdb.codec.UserBinaryCodec;
+import org.example.rocksdb.model.Product;
+import org.example.rocksdb.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JSON(JsonSerializationUtils) 과 binary codec 의 encode/decode 비용 비교. DB 는 사용하지 않는다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+
+  @Param({"JSON", "BINARY"})
+  private CodecType codecType;
+
+  @Param({"16", "1000"})
+  private int valueSize;
+
+  private Codec<User> userCodec;
+  private Codec<Product> productCodec;
+  private User user;
+  private Product product;
+  private byte[] encodedUser;
+  private byte[] encodedProduct;
+
+  @Setup
+  public void setUp() {
+    userCodec = codecType == CodecType.JSON ? new JsonCodec<>(User.class) : new UserBinaryCodec();
+    productCodec = codecType == CodecType.JSON
+        ? new JsonCodec<>(Product.class) : new ProductBinaryCodec();
+    String name = BenchmarkDatabase.padding(valueSize);
+    user = User.builder().id("user00000001").name(name).age(42).build();
+    product = Product.builder().id("product00000001").name(name).price(1299.99).stock(17)
+        .build();
+    encodedUser = userCodec.encode(user);
+    encodedProduct = productCodec.encode(product);
+  }
+
+  @Benchmark
+  public byte[] encodeUser() {
+    return userCodec.encode(user);
+  }
+
+  @Benchmark
+  public User decodeUser() {
+    return userCodec.decode(encodedUser);
+  }
+
+  @Benchmark
+  public byte[] encodeProduct() {
+    return productCodec.encode(product);
+  }
+
+  @Benchmark
+  public Product decodeProduct() {
+    return productCodec.decode(encodedProduct);
+  }
+}
@@ -0,0 +1,90 @@
+package org.example.rocksdb.benchmark;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.example.rocksdb.model.User;
+import org.example.rocksdb.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 단건 find 의 direct ByteBuffer 경로와 byte[] 경로 비교. 객체 캐시는 끈다.
+ * 할당량은 GC profiler 로 본다: ./gradlew jmh -PjmhInclude=DirectBufferBenchmark -PjmhArgs="-prof gc"
+ * (gc.alloc.rate.norm = 조회 한 번당 힙 할당 바이트)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class DirectBufferBenchmark {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+
+  @Param({"true", "false"})
+  private boolean directBuffers;
+
+  @Param({"100000"})
+  private int datasetSize;
+
+  // 이름 필드 길이 (값 크기). 8000 은 처음 값 버퍼 (4KB) 보다 커서 한 번 키운 뒤 재사용한다
+  @Param({"100", "8000"})
+  private int valueSize;
+
+  private BenchmarkDatabase database;
+  private UserRepository repository;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    database = BenchmarkDatabase.open(Map.of(
+        "rocksdb.direct-buffers.enabled", directBuffers,
+        "rocksdb.column-families.users.cache.enabled", false));
+    repository = database.bean(UserRepository.class);
+    String name = BenchmarkDatabase.padding(valueSize);
+
+    Map<String, User> batch = new LinkedHashMap<>();
+    for (int i = 0; i < datasetSize; i++) {
+      String key = BenchmarkDatabase.key("user", i);
+      batch.put(key, User.builder().id(key).name(name).age(i % 100).build());
+      if (batch.size() == LOAD_BATCH_SIZE) {
+        repository.saveAll(batch);
+        batch.clear();
+      }
+    }
+    repository.saveAll(batch);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    database.close();
+  }
+
+  @Benchmark
+  public User find() {
+    return repository.find(
+        BenchmarkDatabase.key("user", ThreadLocalRandom.current().nextInt(datasetSize)));
+  }
+
+  @Benchmark
+  public User findMissing() {
+    return repository.find(
+        BenchmarkDatabase.key("none", ThreadLocalRandom.current().nextInt(datasetSize)));
+  }
+}
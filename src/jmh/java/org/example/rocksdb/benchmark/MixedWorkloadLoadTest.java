@@ -0,0 +1,142 @@
+package org.example.rocksdb.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import org.example.rocksdb.model.User;
+import org.example.rocksdb.repository.AsyncKeyValueRepository;
+import org.example.rocksdb.repository.RepositoryExecutors;
+import org.example.rocksdb.repository.UserRepository;
+
+/**
+ * 스캔과 단건 조회가 섞인 부하에서 단건 조회의 tail latency 비교.
+ * 모든 요청은 virtual thread 에서 실행된다 (virtual thread 웹 계층과 같은 조건).
+ * <ul>
+ *   <li>direct: 스캔/조회 모두 요청 thread 에서 바로 실행. JNI 스캔이 carrier thread 를 점유한다</li>
+ *   <li>lanes: {@link AsyncKeyValueRepository} 로 실행. 스캔은 scan executor 동시 실행 수로 제한된다</li>
+ * </ul>
+ *
+ * <pre>
+ * ./gradlew mixedWorkloadLoadTest -Pkeys=200000 -Pscanners=32 -Pgetters=64 -Pseconds=10
+ * </pre>
+ */
+public class MixedWorkloadLoadTest {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+  private static final int GROUPS = 20;
+
+  public static void main(String[] args) throws Exception {
+    int keyCount = Integer.getInteger("keys", 200_000);
+    int scanners = Integer.getInteger("scanners", 32);
+    int getters = Integer.getInteger("getters", 64);
+    int seconds = Integer.getInteger("seconds", 10);
+    int scanConcurrency = Integer.getInteger("scanConcurrency",
+        Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+
+    try (BenchmarkDatabase database = BenchmarkDatabase.open(Map.of(
+        "rocksdb.async.scan-concurrency", scanConcurrency))) {
+      UserRepository repository = database.bean(UserRepository.class);
+      AsyncKeyValueRepository<String, User> async =
+          database.bean(RepositoryExecutors.class).async(repository);
+      load(repository, keyCount);
+
+      System.out.printf("keys=%d, scanners=%d, getters=%d, seconds=%d, scan-concurrency=%d,"
+              + " carriers=%d%n", keyCount, scanners, getters, seconds, scanConcurrency,
+          Runtime.getRuntime().availableProcessors());
+      System.out.println("direct: " + run(keyCount, scanners, getters, seconds,
+          repository::findByPrefix, repository::find));
+      System.out.println("lanes : " + run(keyCount, scanners, getters, seconds,
+          prefix -> async.findByPrefix(prefix).join(), key -> async.find(key).join()));
+    }
+  }
+
+  private static void load(UserRepository repository, int keyCount) {
+    String name = BenchmarkDatabase.padding(100);
+    Map<String, User> batch = new LinkedHashMap<>();
+    for (int i = 0; i < keyCount; i++) {
+      String key = BenchmarkDatabase.key(group(i % GROUPS), i);
+      batch.put(key, User.builder().id(key).name(name).age(i % 100).build());
+      if (batch.size() == LOAD_BATCH_SIZE) {
+        repository.saveAll(batch);
+        batch.clear();
+      }
+    }
+    repository.saveAll(batch);
+  }
+
+  private static Result run(int keyCount, int scanners, int getters, int seconds,
+      Scan scan, Get get) throws InterruptedException {
+    long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+    LongAdder scans = new LongAdder();
+    List<long[]> latencies = new ArrayList<>();
+    List<Thread> threads = new ArrayList<>();
+
+    for (int i = 0; i < scanners; i++) {
+      threads.add(Thread.ofVirtual().start(() -> {
+        while (System.nanoTime() < deadline) {
+          scan.findByPrefix(group(ThreadLocalRandom.current().nextInt(GROUPS)));
+          scans.increment();
+        }
+      }));
+    }
+    for (int i = 0; i < getters; i++) {
+      long[] samples = new long[1 << 20];
+      int[] count = new int[1];
+      threads.add(Thread.ofVirtual().start(() -> {
+        while (System.nanoTime() < deadline && count[0] < samples.length) {
+          int n = ThreadLocalRandom.current().nextInt(keyCount);
+          long start = System.nanoTime();
+          get.find(BenchmarkDatabase.key(group(n % GROUPS), n));
+          samples[count[0]++] = System.nanoTime() - start;
+        }
+        synchronized (latencies) {
+          latencies.add(Arrays.copyOf(samples, count[0]));
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+    return new Result(all.length / (double) seconds, scans.sum() / (double) seconds,
+        percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999),
+        all.length == 0 ? 0 : all[all.length - 1]);
+  }
+
+  private static long percentile(long[] sorted, double quantile) {
+    return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1,
+        sorted.length * quantile)];
+  }
+
+  private static String group(int n) {
+    return String.format("%04d:", n);
+  }
+
+  @FunctionalInterface
+  private interface Scan {
+
+    List<User> findByPrefix(String prefix);
+  }
+
+  @FunctionalInterface
+  private interface Get {
+
+    User find(String key);
+  }
+
+  private record Result(double getsPerSecond, double scansPerSecond, long p50Nanos,
+                        long p99Nanos, long p999Nanos, long maxNanos) {
+
+    @Override
+    public String toString() {
+      return String.format("gets=%.0f/s, scans=%.1f/s, get p50=%.1fus, p99=%.1fus,"
+              + " p99.9=%.1fus, max=%.1fms", getsPerSecond, scansPerSecond, p50Nanos / 1e3,
+          p99Nanos / 1e3, p999Nanos / 1e3, maxNanos / 1e6);
+    }
+  }
+}
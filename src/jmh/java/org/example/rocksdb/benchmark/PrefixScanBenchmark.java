@@ -0,0 +1,93 @@
+package org.example.rocksdb.benchmark;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.example.rocksdb.model.User;
+import org.example.rocksdb.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * findByPrefix 지연 시간. 키를 "그룹(4자리):번호" 로 만들어 prefix 하나가
+ * 전체의 selectivity 비율만큼 매칭되도록 한다. (users CF 의 capped prefix extractor 길이 = 4)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PrefixScanBenchmark {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+  private static final int MAX_GROUPS = 10_000;
+
+  @Param({"100000"})
+  private int datasetSize;
+
+  // prefix 하나가 매칭하는 비율
+  @Param({"0.0001", "0.01", "0.1"})
+  private double selectivity;
+
+  @Param({"100"})
+  private int valueSize;
+
+  private BenchmarkDatabase database;
+  private UserRepository repository;
+  private int groups;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    database = BenchmarkDatabase.open(Map.of());
+    repository = database.bean(UserRepository.class);
+    groups = (int) Math.min(MAX_GROUPS, Math.max(1, Math.round(1 / selectivity)));
+
+    String name = BenchmarkDatabase.padding(valueSize);
+    Map<String, User> batch = new LinkedHashMap<>();
+    for (int i = 0; i < datasetSize; i++) {
+      String key = BenchmarkDatabase.key(group(i % groups), i);
+      batch.put(key, User.builder().id(key).name(name).age(i % 100).build());
+      if (batch.size() == LOAD_BATCH_SIZE) {
+        repository.saveAll(batch);
+        batch.clear();
+      }
+    }
+    repository.saveAll(batch);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    database.close();
+  }
+
+  @Benchmark
+  public List<User> findByPrefix() {
+    return repository.findByPrefix(group(ThreadLocalRandom.current().nextInt(groups)));
+  }
+
+  // 존재하지 않는 prefix (prefix bloom 으로 걸러지는 경우)
+  @Benchmark
+  public List<User> findByMissingPrefix() {
+    return repository.findByPrefix(
+        String.format("m%03d:", ThreadLocalRandom.current().nextInt(1000)));
+  }
+
+  private static String group(int n) {
+    return String.format("%04d:", n);
+  }
+}
@@ -0,0 +1,180 @@
+package org.example.rocksdb.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import org.rocksdb.BlockBasedTableConfig;
+import org.rocksdb.BloomFilter;
+import org.rocksdb.CompactRangeOptions;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.LRUCache;
+import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Slice;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+
+/**
+ * 존재하지 않는 prefix 검색(cold miss) 지연 시간 비교.
+ * before: 전체 키 bloom + seek 후 startsWith 비교, after: capped prefix extractor + prefix bloom +
+ * prefixSameAsStart/iterateUpperBound.
+ *
+ * <pre>
+ * ./gradlew prefixSeekBenchmark -Pkeys=1000000 -Pprefixes=2000
+ * </pre>
+ */
+public class PrefixSeekBenchmark {
+
+  private static final int PREFIX_LENGTH = 4;
+
+  public static void main(String[] args) throws Exception {
+    int keyCount = Integer.getInteger("keys", 500_000);
+    int prefixCount = Integer.getInteger("prefixes", 2_000);
+
+    RocksDB.loadLibrary();
+    Path dir = Files.createTempDirectory("prefix-seek-benchmark");
+    try {
+      Result before = run(dir.resolve("before"), false, keyCount, prefixCount);
+      Result after = run(dir.resolve("after"), true, keyCount, prefixCount);
+      System.out.printf("keys=%d, prefixes=%d (hit prefixes: even, miss prefixes: odd)%n",
+          keyCount, prefixCount);
+      System.out.println("before: " + before);
+      System.out.println("after : " + after);
+    } finally {
+      deleteRecursively(dir);
+    }
+  }
+
+  private static Result run(Path path, boolean prefixBloom, int keyCount, int prefixCount)
+      throws RocksDBException {
+    load(path, prefixBloom, keyCount, prefixCount);
+
+    // 다시 열어서 block cache 가 비어있는 상태에서 측정
+    try (Statistics statistics = new Statistics();
+        Options options = options(prefixBloom).setStatistics(statistics);
+        RocksDB db = RocksDB.open(options, path.toString())) {
+      long[] latencies = new long[prefixCount / 2];
+      int found = 0;
+      for (int i = 0; i < latencies.length; i++) {
+        byte[] prefix = prefix(i * 2 + 1);
+        long start = System.nanoTime();
+        found += prefixBloom ? seekWithPrefixBloom(db, prefix) : seekWithoutPrefixBloom(db, prefix);
+        latencies[i] = System.nanoTime() - start;
+      }
+      Arrays.sort(latencies);
+      return new Result(found, average(latencies), latencies[latencies.length / 2],
+          latencies[(int) (latencies.length * 0.99)],
+          statistics.getTickerCount(TickerType.BLOCK_CACHE_DATA_MISS));
+    }
+  }
+
+  private static int seekWithoutPrefixBloom(RocksDB db, byte[] prefix) {
+    int found = 0;
+    try (RocksIterator iterator = db.newIterator()) {
+      iterator.seek(prefix);
+      while (iterator.isValid() && startsWith(iterator.key(), prefix)) {
+        found++;
+        iterator.next();
+      }
+    }
+    return found;
+  }
+
+  private static int seekWithPrefixBloom(RocksDB db, byte[] prefix) {
+    int found = 0;
+    byte[] upper = prefix.clone();
+    upper[upper.length - 1]++;
+    try (Slice upperBound = new Slice(upper);
+        ReadOptions readOptions = new ReadOptions()
+            .setPrefixSameAsStart(true)
+            .setIterateUpperBound(upperBound);
+        RocksIterator iterator = db.newIterator(readOptions)) {
+      iterator.seek(prefix);
+      while (iterator.isValid()) {
+        found++;
+        iterator.next();
+      }
+    }
+    return found;
+  }
+
+  private static void load(Path path, boolean prefixBloom, int keyCount, int prefixCount)
+      throws RocksDBException {
+    byte[] value = new byte[100];
+    try (Options options = options(prefixBloom).setCreateIfMissing(true);
+        RocksDB db = RocksDB.open(options, path.toString());
+        WriteOptions writeOptions = new WriteOptions().setDisableWAL(true)) {
+      int hitPrefixes = prefixCount / 2;
+      int batchSize = 10_000;
+      for (int start = 0; start < keyCount; start += batchSize) {
+        try (WriteBatch batch = new WriteBatch()) {
+          for (int i = start; i < Math.min(keyCount, start + batchSize); i++) {
+            byte[] prefix = prefix((i % hitPrefixes) * 2);
+            batch.put(concat(prefix, String.format(":%010d", i).getBytes()), value);
+          }
+          db.write(writeOptions, batch);
+        }
+      }
+      try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true);
+          CompactRangeOptions compactOptions = new CompactRangeOptions()) {
+        db.flush(flushOptions);
+        db.compactRange(null, null, null, compactOptions);
+      }
+    }
+  }
+
+  private static Options options(boolean prefixBloom) {
+    BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+        .setBlockCache(new LRUCache(8 * 1024 * 1024))
+        .setFilterPolicy(new BloomFilter(10));
+    Options options = new Options().setTableFormatConfig(tableConfig);
+    if (prefixBloom) {
+      options.useCappedPrefixExtractor(PREFIX_LENGTH);
+      options.setMemtablePrefixBloomSizeRatio(0.1);
+    }
+    return options;
+  }
+
+  private static byte[] prefix(int n) {
+    return String.format("%0" + PREFIX_LENGTH + "d", n).getBytes();
+  }
+
+  private static byte[] concat(byte[] a, byte[] b) {
+    byte[] result = Arrays.copyOf(a, a.length + b.length);
+    System.arraycopy(b, 0, result, a.length, b.length);
+    return result;
+  }
+
+  private static boolean startsWith(byte[] array, byte[] prefix) {
+    return array.length >= prefix.length
+        && Arrays.equals(array, 0, prefix.length, prefix, 0, prefix.length);
+  }
+
+  private static long average(long[] values) {
+    return (long) Arrays.stream(values).average().orElse(0);
+  }
+
+  private static void deleteRecursively(Path dir) throws IOException {
+    try (Stream<Path> paths = Files.walk(dir)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    }
+  }
+
+  private record Result(int found, long avgNanos, long p50Nanos, long p99Nanos,
+                        long dataBlockMisses) {
+
+    @Override
+    public String toString() {
+      return String.format("found=%d, avg=%.1fus, p50=%.1fus, p99=%.1fus, data block misses=%d",
+          found, avgNanos / 1000.0, p50Nanos / 1000.0, p99Nanos / 1000.0, dataBlockMisses);
+    }
+  }
+}
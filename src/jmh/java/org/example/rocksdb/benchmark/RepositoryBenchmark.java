@@ -0,0 +1,96 @@
+package org.example.rocksdb.benchmark;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.example.rocksdb.model.User;
+import org.example.rocksdb.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 단건 save/find 와 count() 지연 시간.
+ * datasetSize 개의 사용자를 미리 적재한 뒤 임의의 키로 덮어쓰기/조회한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+  private static final int LOAD_BATCH_SIZE = 1000;
+
+  @Param({"100000"})
+  private int datasetSize;
+
+  // 이름 필드 길이 (값 크기)
+  @Param({"100", "1000"})
+  private int valueSize;
+
+  // 객체 캐시를 켜면 find 는 캐시 적중 비용을 측정한다
+  @Param({"false"})
+  private boolean cache;
+
+  private BenchmarkDatabase database;
+  private UserRepository repository;
+  private String name;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    database = BenchmarkDatabase.open(Map.of(
+        "rocksdb.column-families.users.cache.enabled", cache));
+    repository = database.bean(UserRepository.class);
+    name = BenchmarkDatabase.padding(valueSize);
+
+    Map<String, User> batch = new LinkedHashMap<>();
+    for (int i = 0; i < datasetSize; i++) {
+      String key = BenchmarkDatabase.key("user", i);
+      batch.put(key, User.builder().id(key).name(name).age(i % 100).build());
+      if (batch.size() == LOAD_BATCH_SIZE) {
+        repository.saveAll(batch);
+        batch.clear();
+      }
+    }
+    repository.saveAll(batch);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    database.close();
+  }
+
+  @Benchmark
+  public void put() {
+    String key = randomKey();
+    repository.save(key, User.builder().id(key).name(name).age(30).build());
+  }
+
+  @Benchmark
+  public User get() {
+    return repository.find(randomKey());
+  }
+
+  @Benchmark
+  public long count() {
+    return repository.count();
+  }
+
+  private String randomKey() {
+    return BenchmarkDatabase.key("user", ThreadLocalRandom.current().nextInt(datasetSize));
+  }
+}
@@ -0,0 +1,82 @@
+package org.example.rocksdb.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.example.rocksdb.model.Product;
+import org.example.rocksdb.repository.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * batchSize 개씩 saveAll 하는 처리량. 키 공간(datasetSize)을 순환하므로 DB 크기는 일정하게 유지된다.
+ * 결과는 batch 당 시간이므로 항목당 비용은 batchSize 로 나눠서 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveAllBenchmark {
+
+  @Param({"100000"})
+  private int datasetSize;
+
+  @Param({"10", "100", "1000"})
+  private int batchSize;
+
+  @Param({"100"})
+  private int valueSize;
+
+  private BenchmarkDatabase database;
+  private ProductRepository repository;
+  private List<Map<String, Product>> batches;
+  private int next;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    database = BenchmarkDatabase.open(Map.of());
+    repository = database.bean(ProductRepository.class);
+
+    // 측정 구간에서 객체 생성 비용이 섞이지 않도록 batch 를 미리 만들어 둔다
+    String name = BenchmarkDatabase.padding(valueSize);
+    int batchCount = Math.max(1, datasetSize / batchSize);
+    batches = new ArrayList<>(batchCount);
+    for (int b = 0; b < batchCount; b++) {
+      Map<String, Product> batch = new LinkedHashMap<>();
+      for (int i = 0; i < batchSize; i++) {
+        int n = b * batchSize + i;
+        String key = BenchmarkDatabase.key("product", n);
+        batch.put(key, Product.builder().id(key).name(name).price(n % 1000).stock(n % 50)
+            .build());
+      }
+      batches.add(batch);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    database.close();
+  }
+
+  @Benchmark
+  public void saveAll() {
+    repository.saveAll(batches.get(next));
+    next = (next + 1) % batches.size();
+  }
+}
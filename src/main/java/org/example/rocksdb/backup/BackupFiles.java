@@ -0,0 +1,83 @@
+package org.example.rocksdb.backup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * checkpoint 디렉토리 목록/복원/삭제에 쓰는 파일 유틸리티.
+ */
+@Slf4j
+final class BackupFiles {
+
+  static final String CHECKPOINT_PREFIX = "checkpoint-";
+
+  private BackupFiles() {
+  }
+
+  // 이름에 생성 시각이 들어 있으므로 이름순 = 생성순
+  static List<Path> checkpoints(Path root) throws IOException {
+    if (!Files.isDirectory(root)) {
+      return List.of();
+    }
+    try (Stream<Path> paths = Files.list(root)) {
+      return paths
+          .filter(path -> path.getFileName().toString().startsWith(CHECKPOINT_PREFIX))
+          .filter(Files::isDirectory)
+          .sorted()
+          .toList();
+    }
+  }
+
+  /**
+   * 불변인 SST/blob 파일은 hard link 로, 열 때 바뀔 수 있는 나머지 (MANIFEST, CURRENT, OPTIONS,
+   * WAL) 는 복사해서 source 를 target 에 재구성한다. 반환값은 hard link 한 파일 수.
+   */
+  static int linkOrCopy(Path source, Path target) throws IOException {
+    Files.createDirectories(target);
+    int linked = 0;
+    try (Stream<Path> files = Files.list(source)) {
+      for (Path file : files.toList()) {
+        Path destination = target.resolve(file.getFileName());
+        if (isImmutable(file) && link(file, destination)) {
+          linked++;
+        } else {
+          Files.copy(file, destination, StandardCopyOption.COPY_ATTRIBUTES);
+        }
+      }
+    }
+    return linked;
+  }
+
+  private static boolean isImmutable(Path file) {
+    String name = file.getFileName().toString();
+    return name.endsWith(".sst") || name.endsWith(".blob");
+  }
+
+  // 다른 파일 시스템이거나 hard link 를 지원하지 않으면 false (복사로 대체)
+  private static boolean link(Path file, Path destination) {
+    try {
+      Files.createLink(destination, file);
+      return true;
+    } catch (IOException | UnsupportedOperationException e) {
+      log.debug("Hard link failed, copying instead: {}", file, e);
+      return false;
+    }
+  }
+
+  static void deleteRecursively(Path directory) throws IOException {
+    if (!Files.exists(directory)) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+}
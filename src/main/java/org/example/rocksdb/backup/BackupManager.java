@@ -0,0 +1,190 @@
+package org.example.rocksdb.backup;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.BackupProperties;
+import org.example.rocksdb.exception.ReadOnlyReplicaException;
+import org.example.rocksdb.exception.RocksDbException;
+import org.rocksdb.BackupEngine;
+import org.rocksdb.BackupEngineOptions;
+import org.rocksdb.BackupInfo;
+import org.rocksdb.Checkpoint;
+import org.rocksdb.Env;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * 실행 중인 DB 의 일관된 복사본을 만든다.
+ * <ul>
+ *   <li>checkpoint: 같은 파일 시스템에 SST 를 hard link 해 만든 열 수 있는 DB 디렉토리.
+ *       memtable flush 한 번과 작은 메타 파일 복사만 들며 데이터는 복사하지 않는다</li>
+ *   <li>backup: BackupEngine 증분 백업. 이전 백업에 있는 SST 는 다시 복사하지 않는다</li>
+ * </ul>
+ * 둘 다 만든 뒤 보존 개수를 넘는 오래된 것부터 지운다.
+ * secondary 인스턴스는 백업 디렉토리를 primary 와 함께 쓰므로 BackupEngine 을 열지 않는다.
+ */
+@Slf4j
+@Component
+@DependsOn("rocksDB") // 백업 중에 DB 가 먼저 닫히지 않도록
+public class BackupManager {
+
+  private static final DateTimeFormatter CHECKPOINT_NAME =
+      DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+  private final RocksDB rocksDB;
+  private final BackupProperties properties;
+  private final Path checkpointRoot;
+  // secondary 인스턴스면 null
+  private final BackupEngineOptions backupEngineOptions;
+  private final BackupEngine backupEngine;
+  private final String primaryUrl;
+  private Instant lastCheckpointTime = Instant.EPOCH;
+
+  public BackupManager(RocksDB rocksDB, RocksDbProperties properties) {
+    this.rocksDB = rocksDB;
+    this.properties = properties.getBackup();
+    this.checkpointRoot = properties.checkpointDirectory();
+    this.primaryUrl = properties.getReplication().getPrimaryUrl();
+    if (properties.getReplication().isSecondary()) {
+      this.backupEngineOptions = null;
+      this.backupEngine = null;
+      return;
+    }
+    try {
+      this.backupEngineOptions = backupEngineOptions(properties);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    try {
+      this.backupEngine = BackupEngine.open(Env.getDefault(), backupEngineOptions);
+    } catch (RocksDBException e) {
+      backupEngineOptions.close();
+      throw new RocksDbException("Failed to open backup engine: "
+          + properties.backupDirectory(), e);
+    }
+  }
+
+  // 기동 시 복원에서도 같은 옵션을 사용한다
+  // (백업 디렉토리가 있어야 BackupEngineOptions 를 만들 수 있다)
+  static BackupEngineOptions backupEngineOptions(RocksDbProperties properties)
+      throws IOException {
+    BackupProperties backup = properties.getBackup();
+    Path backupDirectory = Files.createDirectories(properties.backupDirectory());
+    BackupEngineOptions options =
+        new BackupEngineOptions(backupDirectory.toAbsolutePath().toString())
+            .setShareTableFiles(true)
+            .setMaxBackgroundOperations(backup.getMaxBackgroundOperations());
+    if (backup.getRateLimit().toBytes() > 0) {
+      options.setBackupRateLimit(backup.getRateLimit().toBytes());
+    }
+    return options;
+  }
+
+  public synchronized CheckpointSummary createCheckpoint() {
+    // 같은 ms 에 연달아 만들어도 이름이 겹치지 않고 이름순 = 생성순이 되도록
+    Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    lastCheckpointTime = now.isAfter(lastCheckpointTime) ? now : lastCheckpointTime.plusMillis(1);
+    Path directory = checkpointRoot.resolve(
+        BackupFiles.CHECKPOINT_PREFIX + CHECKPOINT_NAME.format(lastCheckpointTime));
+    try (Checkpoint checkpoint = Checkpoint.create(rocksDB)) {
+      Files.createDirectories(checkpointRoot);
+      checkpoint.createCheckpoint(directory.toAbsolutePath().toString());
+      log.info("Created checkpoint: {}", directory);
+      purgeOldCheckpoints();
+      return checkpointSummary(directory);
+    } catch (IOException e) {
+      log.error("Error creating checkpoint: {}", directory, e);
+      throw new UncheckedIOException(e);
+    } catch (RocksDBException e) {
+      log.error("Error creating checkpoint: {}", directory, e);
+      throw new RocksDbException("Failed to create checkpoint: " + directory, e);
+    }
+  }
+
+  public synchronized List<CheckpointSummary> getCheckpoints() {
+    try {
+      List<CheckpointSummary> checkpoints = new ArrayList<>();
+      for (Path directory : BackupFiles.checkpoints(checkpointRoot)) {
+        checkpoints.add(checkpointSummary(directory));
+      }
+      return checkpoints;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public synchronized BackupSummary createBackup() {
+    BackupEngine backupEngine = backupEngine();
+    try {
+      // 항상 flush 한다. flush 없이 WAL 을 함께 복사하면 CF 마다 flush 시점이 달라 복원한 DB 가
+      // 열리지 않거나 ("SST file is ahead of WALs") 백업 직전의 쓰기가 빠질 수 있다
+      backupEngine.createNewBackup(rocksDB, true);
+      backupEngine.purgeOldBackups(properties.getBackupsToKeep());
+      List<BackupInfo> backups = backupEngine.getBackupInfo();
+      BackupSummary created = backupSummary(backups.get(backups.size() - 1));
+      log.info("Created backup: {}", created);
+      return created;
+    } catch (RocksDBException e) {
+      log.error("Error creating backup", e);
+      throw new RocksDbException("Failed to create backup", e);
+    }
+  }
+
+  public synchronized List<BackupSummary> getBackups() {
+    return backupEngine().getBackupInfo().stream().map(BackupManager::backupSummary).toList();
+  }
+
+  private BackupEngine backupEngine() {
+    if (backupEngine == null) {
+      throw new ReadOnlyReplicaException(primaryUrl);
+    }
+    return backupEngine;
+  }
+
+  private void purgeOldCheckpoints() throws IOException {
+    List<Path> checkpoints = BackupFiles.checkpoints(checkpointRoot);
+    int excess = checkpoints.size() - properties.getCheckpointsToKeep();
+    for (int i = 0; i < excess; i++) {
+      BackupFiles.deleteRecursively(checkpoints.get(i));
+      log.info("Deleted old checkpoint: {}", checkpoints.get(i));
+    }
+  }
+
+  private static CheckpointSummary checkpointSummary(Path directory) throws IOException {
+    long size = 0;
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.toList()) {
+        size += Files.size(file);
+      }
+    }
+    return new CheckpointSummary(directory.getFileName().toString(), directory.toString(),
+        Files.getLastModifiedTime(directory).toInstant(), size);
+  }
+
+  private static BackupSummary backupSummary(BackupInfo info) {
+    return new BackupSummary(info.backupId(), Instant.ofEpochSecond(info.timestamp()),
+        info.size(), info.numberFiles());
+  }
+
+  @PreDestroy
+  synchronized void close() {
+    if (backupEngine != null) {
+      backupEngine.close();
+      backupEngineOptions.close();
+    }
+  }
+}
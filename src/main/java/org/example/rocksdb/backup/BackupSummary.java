@@ -0,0 +1,10 @@
+package org.example.rocksdb.backup;
+
+import java.time.Instant;
+
+/**
+ * BackupEngine 백업 정보. size 는 다른 백업과 공유하는 SST 를 포함한 크기다.
+ */
+public record BackupSummary(int id, Instant createdAt, long size, int files) {
+
+}
@@ -0,0 +1,10 @@
+package org.example.rocksdb.backup;
+
+import java.time.Instant;
+
+/**
+ * Checkpoint 디렉토리 정보. size 는 hard link 된 파일을 포함한 디렉토리 크기다.
+ */
+public record CheckpointSummary(String name, String path, Instant createdAt, long size) {
+
+}
@@ -0,0 +1,78 @@
+package org.example.rocksdb.backup;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.RestoreSource;
+import org.rocksdb.BackupEngine;
+import org.rocksdb.BackupEngineOptions;
+import org.rocksdb.Env;
+import org.rocksdb.RestoreOptions;
+import org.rocksdb.RocksDBException;
+
+/**
+ * rocksdb.backup.restore-on-startup 설정 시 DB 를 열기 전에 최신 백업/checkpoint 로 DB 디렉토리를
+ * 바꾼다. 현재 DB 디렉토리는 지우지 않고 "&lt;path&gt;-before-restore" 로 옮겨 둔다 (이전 것은 삭제).
+ * 복원할 백업이 없으면 경고만 남기고 현재 DB 를 그대로 연다.
+ */
+@Slf4j
+public final class StartupRestore {
+
+  private StartupRestore() {
+  }
+
+  public static void restoreIfConfigured(RocksDbProperties properties)
+      throws IOException, RocksDBException {
+    RestoreSource source = properties.getBackup().getRestoreOnStartup();
+    Path dbDir = Path.of(properties.getPath()).toAbsolutePath().normalize();
+    switch (source) {
+      case NONE -> {
+      }
+      case LATEST_CHECKPOINT -> restoreLatestCheckpoint(properties.checkpointDirectory(), dbDir);
+      case LATEST_BACKUP -> restoreLatestBackup(properties, dbDir);
+      default -> throw new IllegalStateException("Unsupported restore source: " + source);
+    }
+  }
+
+  static void restoreLatestCheckpoint(Path checkpointRoot, Path dbDir) throws IOException {
+    List<Path> checkpoints = BackupFiles.checkpoints(checkpointRoot);
+    if (checkpoints.isEmpty()) {
+      log.warn("No checkpoint to restore in {}, opening current DB", checkpointRoot);
+      return;
+    }
+    Path latest = checkpoints.get(checkpoints.size() - 1);
+    moveAside(dbDir);
+    int linked = BackupFiles.linkOrCopy(latest, dbDir);
+    log.info("Restored DB from checkpoint {} ({} files hard linked)", latest, linked);
+  }
+
+  private static void restoreLatestBackup(RocksDbProperties properties, Path dbDir)
+      throws IOException, RocksDBException {
+    try (BackupEngineOptions options = BackupManager.backupEngineOptions(properties);
+        BackupEngine backupEngine = BackupEngine.open(Env.getDefault(), options);
+        RestoreOptions restoreOptions = new RestoreOptions(false)) {
+      if (backupEngine.getBackupInfo().isEmpty()) {
+        log.warn("No backup to restore in {}, opening current DB", options.backupDir());
+        return;
+      }
+      moveAside(dbDir);
+      Files.createDirectories(dbDir);
+      backupEngine.restoreDbFromLatestBackup(dbDir.toString(), dbDir.toString(), restoreOptions);
+      log.info("Restored DB from latest backup in {}", options.backupDir());
+    }
+  }
+
+  // rename 이라 데이터 크기와 무관하게 즉시 끝난다
+  private static void moveAside(Path dbDir) throws IOException {
+    if (!Files.exists(dbDir)) {
+      return;
+    }
+    Path aside = dbDir.resolveSibling(dbDir.getFileName() + "-before-restore");
+    BackupFiles.deleteRecursively(aside);
+    Files.move(dbDir, aside);
+    log.info("Moved current DB to {}", aside);
+  }
+}
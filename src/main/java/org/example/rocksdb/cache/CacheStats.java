@@ -0,0 +1,7 @@
+package org.example.rocksdb.cache;
+
+public record CacheStats(long hits, long misses, double hitRatio, long evictions,
+                         long loads, double averageLoadMicros, long size, long weight,
+                         long maxWeight) {
+
+}
@@ -0,0 +1,237 @@
+package org.example.rocksdb.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 디코딩된 객체를 보관하는 Segmented LRU 캐시. 값은 그대로 공유되므로 변경 가능한 객체라면
+ * 넣고 꺼낼 때 복사하는 것은 호출자 몫이다.
+ * 새 항목은 probation 구간에 들어가고 두 번째 조회에서 protected 구간으로 승격되므로,
+ * 한 번만 읽히는 키가 자주 읽히는 키를 밀어내지 못한다. 락 경합을 줄이기 위해 shard 로 나눈다.
+ */
+public class SegmentedLruCache<K, V> {
+
+  private static final double PROTECTED_RATIO = 0.8;
+
+  private final Shard<K, V>[] shards;
+  private final long maxWeight;
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final LongAdder loads = new LongAdder();
+  private final LongAdder loadNanos = new LongAdder();
+
+  @SuppressWarnings("unchecked")
+  public SegmentedLruCache(long maxWeight, int shardCount) {
+    int size = Integer.highestOneBit(Math.max(1, shardCount - 1)) << 1;
+    this.maxWeight = maxWeight;
+    this.shards = (Shard<K, V>[]) new Shard<?, ?>[size];
+    long shardWeight = Math.max(1, maxWeight / size);
+    for (int i = 0; i < size; i++) {
+      shards[i] = new Shard<>(shardWeight);
+    }
+  }
+
+  public V get(K key) {
+    V value = shardOf(key).get(key);
+    if (value == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return value;
+  }
+
+  /**
+   * 로드 시작 전에 받아두는 토큰. 로드 도중 invalidate 가 일어나면 putIfValid 가 무시되어
+   * 오래된 값이 캐시에 들어가지 않는다.
+   */
+  public long loadToken(K key) {
+    return shardOf(key).generation();
+  }
+
+  public void putIfValid(K key, V value, long weight, long token, long loadStartNanos) {
+    loads.increment();
+    loadNanos.add(System.nanoTime() - loadStartNanos);
+    evictions.add(shardOf(key).putIfValid(key, value, weight, token));
+  }
+
+  public void invalidate(K key) {
+    shardOf(key).invalidate(key);
+  }
+
+  public void invalidateAll() {
+    for (Shard<K, V> shard : shards) {
+      shard.clear();
+    }
+  }
+
+  public CacheStats stats() {
+    long hitCount = hits.sum();
+    long missCount = misses.sum();
+    long loadCount = loads.sum();
+    long size = 0;
+    long weight = 0;
+    for (Shard<K, V> shard : shards) {
+      size += shard.size();
+      weight += shard.weight();
+    }
+    long requests = hitCount + missCount;
+    return new CacheStats(hitCount, missCount, requests == 0 ? 0 : (double) hitCount / requests,
+        evictions.sum(), loadCount,
+        loadCount == 0 ? 0 : loadNanos.sum() / 1000.0 / loadCount, size, weight, maxWeight);
+  }
+
+  private Shard<K, V> shardOf(K key) {
+    int h = key.hashCode();
+    h ^= (h >>> 16);
+    return shards[h & (shards.length - 1)];
+  }
+
+  private static final class Shard<K, V> {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>();
+    private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>();
+    private final long maxWeight;
+    private final long maxProtectedWeight;
+    private long probationWeight;
+    private long protectedWeight;
+    private long generation;
+
+    private Shard(long maxWeight) {
+      this.maxWeight = maxWeight;
+      this.maxProtectedWeight = (long) (maxWeight * PROTECTED_RATIO);
+    }
+
+    V get(K key) {
+      lock.lock();
+      try {
+        Entry<V> entry = protectedSegment.remove(key);
+        if (entry != null) {
+          // MRU 위치로 이동
+          protectedSegment.put(key, entry);
+          return entry.value();
+        }
+        entry = probation.remove(key);
+        if (entry == null) {
+          return null;
+        }
+        probationWeight -= entry.weight();
+        protectedSegment.put(key, entry);
+        protectedWeight += entry.weight();
+        demoteOverflow();
+        return entry.value();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    long generation() {
+      lock.lock();
+      try {
+        return generation;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    long putIfValid(K key, V value, long weight, long token) {
+      lock.lock();
+      try {
+        if (token != generation || weight > maxWeight) {
+          return 0;
+        }
+        remove(key);
+        probation.put(key, new Entry<>(value, weight));
+        probationWeight += weight;
+        return evictOverflow();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void invalidate(K key) {
+      lock.lock();
+      try {
+        generation++;
+        remove(key);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    void clear() {
+      lock.lock();
+      try {
+        generation++;
+        probation.clear();
+        protectedSegment.clear();
+        probationWeight = 0;
+        protectedWeight = 0;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    long size() {
+      lock.lock();
+      try {
+        return probation.size() + protectedSegment.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    long weight() {
+      lock.lock();
+      try {
+        return probationWeight + protectedWeight;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void remove(K key) {
+      Entry<V> entry = probation.remove(key);
+      if (entry != null) {
+        probationWeight -= entry.weight();
+      }
+      entry = protectedSegment.remove(key);
+      if (entry != null) {
+        protectedWeight -= entry.weight();
+      }
+    }
+
+    // protected 구간이 넘치면 가장 오래된 항목을 probation 의 MRU 로 내린다
+    private void demoteOverflow() {
+      Iterator<Map.Entry<K, Entry<V>>> iterator = protectedSegment.entrySet().iterator();
+      while (protectedWeight > maxProtectedWeight && iterator.hasNext()) {
+        Map.Entry<K, Entry<V>> eldest = iterator.next();
+        iterator.remove();
+        protectedWeight -= eldest.getValue().weight();
+        probation.put(eldest.getKey(), eldest.getValue());
+        probationWeight += eldest.getValue().weight();
+      }
+    }
+
+    private long evictOverflow() {
+      long evicted = 0;
+      Iterator<Map.Entry<K, Entry<V>>> iterator = probation.entrySet().iterator();
+      while (probationWeight + protectedWeight > maxWeight && iterator.hasNext()) {
+        probationWeight -= iterator.next().getValue().weight();
+        iterator.remove();
+        evicted++;
+      }
+      return evicted;
+    }
+  }
+
+  private record Entry<V>(V value, long weight) {
+
+  }
+}
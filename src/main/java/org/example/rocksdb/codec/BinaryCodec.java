@@ -0,0 +1,71 @@
+package org.example.rocksdb.codec;
+
+import java.nio.ByteBuffer;
+import org.example.rocksdb.exception.RocksDbException;
+
+/**
+ * 필드 이름 없이 값만 순서대로 기록하는 바이너리 포맷.
+ * [MAGIC][schema version][fields...] 로 구성되며, 필드가 바뀌면 schema version 을 올리고
+ * readFields 에서 이전 버전도 읽을 수 있도록 유지한다.
+ */
+public abstract class BinaryCodec<V> implements Codec<V> {
+
+  // JSON('{' = 0x7B) 이나 공백으로 시작할 수 없는 값
+  static final byte MAGIC = (byte) 0xB1;
+
+  private final int schemaVersion;
+
+  protected BinaryCodec(int schemaVersion) {
+    this.schemaVersion = schemaVersion;
+  }
+
+  protected abstract void writeFields(BinaryWriter writer, V value);
+
+  protected abstract V readFields(BinaryReader reader, int schemaVersion);
+
+  @Override
+  public byte[] encode(V value) {
+    BinaryWriter writer = BinaryWriter.get();
+    writer.writeByte(MAGIC);
+    writer.writeByte((byte) schemaVersion);
+    writeFields(writer, value);
+    return writer.toByteArray();
+  }
+
+  @Override
+  public V decode(byte[] bytes) {
+    return decode(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public boolean accepts(byte[] bytes) {
+    return accepts(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public boolean isLegacy(byte[] bytes) {
+    return isLegacy(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public V decode(ByteBuffer bytes) {
+    if (!accepts(bytes)) {
+      throw new RocksDbException("Not a binary encoded value");
+    }
+    int version = bytes.get(bytes.position() + 1) & 0xFF;
+    if (version > schemaVersion) {
+      throw new RocksDbException("Unsupported schema version: " + version);
+    }
+    return readFields(new BinaryReader(bytes, bytes.position() + 2), version);
+  }
+
+  @Override
+  public boolean accepts(ByteBuffer bytes) {
+    return bytes.remaining() >= 2 && bytes.get(bytes.position()) == MAGIC;
+  }
+
+  @Override
+  public boolean isLegacy(ByteBuffer bytes) {
+    return !accepts(bytes) || (bytes.get(bytes.position() + 1) & 0xFF) < schemaVersion;
+  }
+}
@@ -0,0 +1,80 @@
+package org.example.rocksdb.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.example.rocksdb.exception.RocksDbException;
+
+public final class BinaryReader {
+
+  // position 은 buffer 의 절대 위치 (buffer 자체의 position 은 바꾸지 않는다)
+  private final ByteBuffer bytes;
+  private int position;
+
+  BinaryReader(byte[] bytes, int offset) {
+    this(ByteBuffer.wrap(bytes), offset);
+  }
+
+  BinaryReader(ByteBuffer bytes, int offset) {
+    this.bytes = bytes;
+    this.position = offset;
+  }
+
+  public int readInt() {
+    long raw = readVarLong();
+    return (int) ((raw >>> 1) ^ -(raw & 1));
+  }
+
+  public long readLong() {
+    long raw = readVarLong();
+    return (raw >>> 1) ^ -(raw & 1);
+  }
+
+  public double readDouble() {
+    require(Long.BYTES);
+    long bits = 0;
+    for (int i = 0; i < Long.BYTES; i++) {
+      bits |= (bytes.get(position++) & 0xFFL) << (8 * i);
+    }
+    return Double.longBitsToDouble(bits);
+  }
+
+  public String readString() {
+    long lengthPlusOne = readVarLong();
+    if (lengthPlusOne == 0) {
+      return null;
+    }
+    int length = (int) (lengthPlusOne - 1);
+    require(length);
+    String value;
+    if (bytes.hasArray()) {
+      value = new String(bytes.array(), bytes.arrayOffset() + position, length,
+          StandardCharsets.UTF_8);
+    } else {
+      // direct buffer: String 생성에 필요한 만큼만 복사
+      byte[] copy = new byte[length];
+      bytes.get(position, copy);
+      value = new String(copy, StandardCharsets.UTF_8);
+    }
+    position += length;
+    return value;
+  }
+
+  private long readVarLong() {
+    long result = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      require(1);
+      byte b = bytes.get(position++);
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new RocksDbException("Malformed varint");
+  }
+
+  private void require(int length) {
+    if (position + length > bytes.limit()) {
+      throw new RocksDbException("Truncated binary value");
+    }
+  }
+}
@@ -0,0 +1,98 @@
+package org.example.rocksdb.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * 스레드별로 재사용되는 인코딩 버퍼. 인코딩마다 결과 byte[] 하나만 새로 할당한다.
+ */
+public final class BinaryWriter {
+
+  private static final int INITIAL_CAPACITY = 256;
+  private static final ThreadLocal<BinaryWriter> WRITERS =
+      ThreadLocal.withInitial(BinaryWriter::new);
+
+  private byte[] buffer = new byte[INITIAL_CAPACITY];
+  private int position;
+
+  private BinaryWriter() {
+  }
+
+  static BinaryWriter get() {
+    BinaryWriter writer = WRITERS.get();
+    writer.position = 0;
+    return writer;
+  }
+
+  public void writeByte(byte value) {
+    ensureCapacity(1);
+    buffer[position++] = value;
+  }
+
+  public void writeInt(int value) {
+    // zigzag varint
+    writeVarLong(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+  }
+
+  public void writeLong(long value) {
+    writeVarLong((value << 1) ^ (value >> 63));
+  }
+
+  public void writeDouble(double value) {
+    long bits = Double.doubleToRawLongBits(value);
+    ensureCapacity(Long.BYTES);
+    for (int i = 0; i < Long.BYTES; i++) {
+      buffer[position++] = (byte) (bits >>> (8 * i));
+    }
+  }
+
+  // 길이 + 1 을 기록하고 0 은 null 로 사용
+  public void writeString(String value) {
+    if (value == null) {
+      writeVarLong(0);
+      return;
+    }
+    if (isAscii(value)) {
+      int length = value.length();
+      writeVarLong(length + 1L);
+      ensureCapacity(length);
+      for (int i = 0; i < length; i++) {
+        buffer[position++] = (byte) value.charAt(i);
+      }
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    writeVarLong(bytes.length + 1L);
+    ensureCapacity(bytes.length);
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  byte[] toByteArray() {
+    return Arrays.copyOf(buffer, position);
+  }
+
+  private void writeVarLong(long value) {
+    ensureCapacity(10);
+    while ((value & ~0x7FL) != 0) {
+      buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+  }
+
+  private void ensureCapacity(int additional) {
+    if (position + additional > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+    }
+  }
+
+  private static boolean isAscii(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      if (value.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
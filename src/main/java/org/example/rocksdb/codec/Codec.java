@@ -0,0 +1,40 @@
+package org.example.rocksdb.codec;
+
+import java.nio.ByteBuffer;
+
+public interface Codec<V> {
+
+  byte[] encode(V value);
+
+  V decode(byte[] bytes);
+
+  // bytes 가 이 codec 의 저장 포맷인지 (포맷 간 마이그레이션 판별용)
+  boolean accepts(byte[] bytes);
+
+  // 다른 포맷으로 저장된 값이라 현재 포맷으로 다시 써야 하는지
+  default boolean isLegacy(byte[] bytes) {
+    return !accepts(bytes);
+  }
+
+  /**
+   * bytes 의 position 부터 limit 까지를 값으로 읽는다 (direct buffer 포함, position 은 그대로).
+   * 기본 구현은 byte[] 로 복사해 위임한다.
+   */
+  default V decode(ByteBuffer bytes) {
+    return decode(copy(bytes));
+  }
+
+  default boolean accepts(ByteBuffer bytes) {
+    return accepts(copy(bytes));
+  }
+
+  default boolean isLegacy(ByteBuffer bytes) {
+    return !accepts(bytes);
+  }
+
+  private static byte[] copy(ByteBuffer bytes) {
+    byte[] copy = new byte[bytes.remaining()];
+    bytes.get(bytes.position(), copy);
+    return copy;
+  }
+}
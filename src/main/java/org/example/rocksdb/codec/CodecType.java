@@ -0,0 +1,6 @@
+package org.example.rocksdb.codec;
+
+public enum CodecType {
+  JSON,
+  BINARY
+}
@@ -0,0 +1,17 @@
+package org.example.rocksdb.codec;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class Codecs {
+
+  // 선택한 포맷으로 쓰고, 다른 포맷으로 저장된 기존 값은 읽으면서 마이그레이션 대상으로 표시
+  public static <V> Codec<V> create(CodecType type, BinaryCodec<V> binaryCodec,
+      Class<V> valueType) {
+    JsonCodec<V> jsonCodec = new JsonCodec<>(valueType);
+    return type == CodecType.JSON
+        ? new MigratingCodec<>(jsonCodec, binaryCodec)
+        : new MigratingCodec<>(binaryCodec, jsonCodec);
+  }
+}
@@ -0,0 +1,44 @@
+package org.example.rocksdb.codec;
+
+import java.nio.ByteBuffer;
+import org.example.rocksdb.util.JsonSerializationUtils;
+
+public class JsonCodec<V> implements Codec<V> {
+
+  private final Class<V> valueType;
+
+  public JsonCodec(Class<V> valueType) {
+    this.valueType = valueType;
+  }
+
+  @Override
+  public byte[] encode(V value) {
+    return JsonSerializationUtils.serialize(value);
+  }
+
+  @Override
+  public V decode(byte[] bytes) {
+    return JsonSerializationUtils.deserialize(bytes, valueType);
+  }
+
+  @Override
+  public boolean accepts(byte[] bytes) {
+    return accepts(ByteBuffer.wrap(bytes));
+  }
+
+  @Override
+  public V decode(ByteBuffer bytes) {
+    return JsonSerializationUtils.deserialize(bytes, valueType);
+  }
+
+  @Override
+  public boolean accepts(ByteBuffer bytes) {
+    for (int i = bytes.position(); i < bytes.limit(); i++) {
+      byte b = bytes.get(i);
+      if (!Character.isWhitespace(b)) {
+        return b == '{';
+      }
+    }
+    return false;
+  }
+}
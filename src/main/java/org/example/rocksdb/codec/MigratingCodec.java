@@ -0,0 +1,52 @@
+package org.example.rocksdb.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 현재 포맷(primary)으로 쓰고, 이전 포맷(legacy)으로 저장된 값도 읽을 수 있는 codec.
+ */
+public class MigratingCodec<V> implements Codec<V> {
+
+  private final Codec<V> primary;
+  private final Codec<V> legacy;
+
+  public MigratingCodec(Codec<V> primary, Codec<V> legacy) {
+    this.primary = primary;
+    this.legacy = legacy;
+  }
+
+  @Override
+  public byte[] encode(V value) {
+    return primary.encode(value);
+  }
+
+  @Override
+  public V decode(byte[] bytes) {
+    return primary.accepts(bytes) ? primary.decode(bytes) : legacy.decode(bytes);
+  }
+
+  @Override
+  public boolean accepts(byte[] bytes) {
+    return primary.accepts(bytes) || legacy.accepts(bytes);
+  }
+
+  @Override
+  public boolean isLegacy(byte[] bytes) {
+    return primary.isLegacy(bytes);
+  }
+
+  @Override
+  public V decode(ByteBuffer bytes) {
+    return primary.accepts(bytes) ? primary.decode(bytes) : legacy.decode(bytes);
+  }
+
+  @Override
+  public boolean accepts(ByteBuffer bytes) {
+    return primary.accepts(bytes) || legacy.accepts(bytes);
+  }
+
+  @Override
+  public boolean isLegacy(ByteBuffer bytes) {
+    return primary.isLegacy(bytes);
+  }
+}
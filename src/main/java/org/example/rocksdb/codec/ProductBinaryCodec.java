@@ -0,0 +1,31 @@
+package org.example.rocksdb.codec;
+
+import org.example.rocksdb.model.Product;
+
+public class ProductBinaryCodec extends BinaryCodec<Product> {
+
+  // v1: id, name, price, stock
+  private static final int SCHEMA_VERSION = 1;
+
+  public ProductBinaryCodec() {
+    super(SCHEMA_VERSION);
+  }
+
+  @Override
+  protected void writeFields(BinaryWriter writer, Product product) {
+    writer.writeString(product.getId());
+    writer.writeString(product.getName());
+    writer.writeDouble(product.getPrice());
+    writer.writeInt(product.getStock());
+  }
+
+  @Override
+  protected Product readFields(BinaryReader reader, int schemaVersion) {
+    return Product.builder()
+        .id(reader.readString())
+        .name(reader.readString())
+        .price(reader.readDouble())
+        .stock(reader.readInt())
+        .build();
+  }
+}
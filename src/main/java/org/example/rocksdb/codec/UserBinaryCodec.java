@@ -0,0 +1,29 @@
+package org.example.rocksdb.codec;
+
+import org.example.rocksdb.model.User;
+
+public class UserBinaryCodec extends BinaryCodec<User> {
+
+  // v1: id, name, age
+  private static final int SCHEMA_VERSION = 1;
+
+  public UserBinaryCodec() {
+    super(SCHEMA_VERSION);
+  }
+
+  @Override
+  protected void writeFields(BinaryWriter writer, User user) {
+    writer.writeString(user.getId());
+    writer.writeString(user.getName());
+    writer.writeInt(user.getAge());
+  }
+
+  @Override
+  protected User readFields(BinaryReader reader, int schemaVersion) {
+    return User.builder()
+        .id(reader.readString())
+        .name(reader.readString())
+        .age(reader.readInt())
+        .build();
+  }
+}
@@ -1,11 +1,20 @@
 package org.example.rocksdb.conf;
 
+import java.util.Arrays;
+import java.util.Optional;
 import lombok.Getter;
 
 @Getter
 public enum ColumnFamilyConfig {
   USER("users"),
   PRODUCT("products"),
+  // 보조 인덱스 (필드 값 + 기본 키)
+  USER_AGE_INDEX("users_by_age"),
+  PRODUCT_PRICE_INDEX("products_by_price"),
+  PRODUCT_STOCK_INDEX("products_by_stock"),
+  // 부분 갱신 연산 (StringAppendOperator merge)
+  USER_PATCHES("users_patches"),
+  PRODUCT_PATCHES("products_patches"),
   DEFAULT("default");
 
   private final String name;
@@ -14,6 +23,16 @@ public enum ColumnFamilyConfig {
     this.name = name;
   }
 
+  public static Optional<ColumnFamilyConfig> fromName(String name) {
+    return Arrays.stream(values())
+        .filter(columnFamily -> columnFamily.name.equals(name))
+        .findFirst();
+  }
+
+  public static boolean isPatchLog(String name) {
+    return USER_PATCHES.name.equals(name) || PRODUCT_PATCHES.name.equals(name);
+  }
+
   public byte[] getBytes() {
     return name.getBytes();
   }
@@ -0,0 +1,148 @@
+package org.example.rocksdb.conf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.exception.RocksDbException;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ColumnFamilyOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+
+/**
+ * 열려 있는 모든 Column Family 의 handle 목록.
+ * 기동 시 DB 에 있던 CF 를 모두 열고(listColumnFamilies), 실행 중 CF 생성/삭제를 지원한다.
+ * {@link ColumnFamilyConfig} 에 선언된 CF 는 애플리케이션이 사용하는 고정 CF 라 삭제할 수 없다.
+ */
+@Slf4j
+public class ColumnFamilyRegistry {
+
+  private static final Pattern NAME_PATTERN = Pattern.compile("[a-z0-9][a-z0-9_-]{0,63}");
+
+  private final RocksDB rocksDB;
+  private final Function<String, ColumnFamilyOptions> optionsFactory;
+  private final Map<String, ColumnFamilyHandle> handles = new ConcurrentHashMap<>();
+  // CF 를 열 때 사용한 옵션 (SstFileWriter 등 같은 테이블 포맷이 필요한 곳에서 사용)
+  private final Map<String, ColumnFamilyOptions> options = new ConcurrentHashMap<>();
+  // 삭제된 CF 의 handle 은 사용 중일 수 있으므로 DB 종료 시에 닫는다
+  private final List<ColumnFamilyHandle> droppedHandles = new ArrayList<>();
+  private final List<ColumnFamilyOptions> droppedOptions = new ArrayList<>();
+  private final List<Consumer<String>> createListeners = new CopyOnWriteArrayList<>();
+
+  ColumnFamilyRegistry(RocksDB rocksDB, List<ColumnFamilyDescriptor> openedDescriptors,
+      List<ColumnFamilyHandle> openedHandles,
+      Function<String, ColumnFamilyOptions> optionsFactory) throws RocksDBException {
+    this.rocksDB = rocksDB;
+    this.optionsFactory = optionsFactory;
+    for (ColumnFamilyDescriptor descriptor : openedDescriptors) {
+      options.put(new String(descriptor.getName()), descriptor.getOptions());
+    }
+    for (ColumnFamilyHandle handle : openedHandles) {
+      handles.put(new String(handle.getName()), handle);
+    }
+  }
+
+  public Optional<ColumnFamilyHandle> find(String name) {
+    return Optional.ofNullable(handles.get(name));
+  }
+
+  public ColumnFamilyHandle get(String name) {
+    return find(name).orElseThrow(() ->
+        new IllegalArgumentException("Unknown column family: " + name));
+  }
+
+  /**
+   * CF 를 열 때 사용한 옵션. 실행 중 setOptions 로 바꾼 값은 반영되지 않는다.
+   */
+  public ColumnFamilyOptions options(String name) {
+    ColumnFamilyOptions columnFamilyOptions = options.get(name);
+    if (columnFamilyOptions == null) {
+      throw new IllegalArgumentException("Unknown column family: " + name);
+    }
+    return columnFamilyOptions;
+  }
+
+  public List<String> names() {
+    List<String> names = new ArrayList<>(handles.keySet());
+    names.sort(null);
+    return names;
+  }
+
+  /**
+   * 실행 중 CF 가 만들어질 때마다 그 이름으로 호출된다. (메트릭 등록 등)
+   */
+  public void onCreate(Consumer<String> listener) {
+    createListeners.add(listener);
+  }
+
+  public static boolean isBuiltIn(String name) {
+    return Arrays.stream(ColumnFamilyConfig.values())
+        .anyMatch(columnFamily -> columnFamily.getName().equals(name));
+  }
+
+  /**
+   * rocksdb.column-families.&lt;name&gt; 프로파일(없으면 기본값)로 새 CF 를 만든다.
+   */
+  public synchronized ColumnFamilyHandle create(String name) {
+    if (!NAME_PATTERN.matcher(name).matches()) {
+      throw new IllegalArgumentException("Invalid column family name: " + name);
+    }
+    if (handles.containsKey(name)) {
+      throw new IllegalArgumentException("Column family already exists: " + name);
+    }
+    ColumnFamilyOptions columnFamilyOptions = optionsFactory.apply(name);
+    try {
+      ColumnFamilyHandle handle = rocksDB.createColumnFamily(
+          new ColumnFamilyDescriptor(name.getBytes(), columnFamilyOptions));
+      handles.put(name, handle);
+      options.put(name, columnFamilyOptions);
+      log.info("Created column family: {}", name);
+      createListeners.forEach(listener -> listener.accept(name));
+      return handle;
+    } catch (RocksDBException e) {
+      columnFamilyOptions.close();
+      log.error("Error creating column family: {}", name, e);
+      throw new RocksDbException("Failed to create column family: " + name, e);
+    }
+  }
+
+  /**
+   * CF 와 그 안의 데이터를 삭제한다. 이 CF 로 진행 중인 읽기/쓰기는 실패한다.
+   */
+  public synchronized void drop(String name) {
+    if (isBuiltIn(name)) {
+      throw new IllegalArgumentException("Built-in column family cannot be dropped: " + name);
+    }
+    ColumnFamilyHandle handle = get(name);
+    try {
+      rocksDB.dropColumnFamily(handle);
+      handles.remove(name);
+      droppedHandles.add(handle);
+      droppedOptions.add(options.remove(name));
+      log.info("Dropped column family: {}", name);
+    } catch (RocksDBException e) {
+      log.error("Error dropping column family: {}", name, e);
+      throw new RocksDbException("Failed to drop column family: " + name, e);
+    }
+  }
+
+  synchronized void close() {
+    handles.values().forEach(ColumnFamilyHandle::close);
+    handles.clear();
+    droppedHandles.forEach(ColumnFamilyHandle::close);
+    droppedHandles.clear();
+    options.values().forEach(ColumnFamilyOptions::close);
+    options.clear();
+    droppedOptions.forEach(ColumnFamilyOptions::close);
+    droppedOptions.clear();
+  }
+}
@@ -6,85 +6,121 @@ import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.backup.StartupRestore;
+import org.example.rocksdb.conf.RocksDbProperties.ColumnFamilyProperties;
+import org.example.rocksdb.conf.RocksDbProperties.PrefixExtractorProperties;
+import org.example.rocksdb.conf.RocksDbProperties.ReplicationProperties;
+import org.example.rocksdb.conf.RocksDbProperties.TuningProperties;
 import org.rocksdb.BlockBasedTableConfig;
 import org.rocksdb.BloomFilter;
+import org.rocksdb.Cache;
 import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
-import org.rocksdb.CompressionType;
 import org.rocksdb.DBOptions;
 import org.rocksdb.LRUCache;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.Options;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
+import org.rocksdb.StatsLevel;
+import org.rocksdb.StringAppendOperator;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Slf4j
 @Configuration
+@RequiredArgsConstructor
+@EnableConfigurationProperties(RocksDbProperties.class)
 public class RocksDbInitializer {
 
-  private final static String NAME = "rocks-db";
+  private final static String COUNTER_MERGE_OPERATOR = "uint64add";
+  // FieldPatches 의 연산 구분자
+  private final static char PATCH_DELIMITER = '\n';
+
+  private final RocksDbProperties properties;
 
   private RocksDB db;
+  private Statistics statistics;
+  private LRUCache sharedBlockCache;
+  private StringAppendOperator patchMergeOperator;
+  // 실행 중 CF 생성 시에도 추가된다
+  private final List<LRUCache> dedicatedBlockCaches =
+      Collections.synchronizedList(new ArrayList<>());
+  private ColumnFamilyRegistry columnFamilyRegistry;
   private Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap;
-  private List<ColumnFamilyHandle> columnFamilyHandles;
 
   @PostConstruct
   void initialize() {
-    File dbDir = new File("./dist/db/rocks-db", NAME);
+    File dbDir = new File(properties.getPath());
+    ReplicationProperties replication = properties.getReplication();
     DBOptions dbOptions = null;
-    ColumnFamilyOptions cfOptions = null;
 
     try {
       RocksDB.loadLibrary();
 
+      // 설정 시 DB 를 열기 전에 최신 백업/checkpoint 로 복원 (DB 디렉토리의 주인인 primary 만)
+      if (!replication.isSecondary()) {
+        StartupRestore.restoreIfConfigured(properties);
+      }
+
       // DBOptions 설정
       dbOptions = new DBOptions();
       dbOptions.setCreateIfMissing(true);
       dbOptions.setCreateMissingColumnFamilies(true);
 
-      // ColumnFamilyOptions 설정 (성능 튜닝)
-      cfOptions = new ColumnFamilyOptions();
-      cfOptions.setCompressionType(CompressionType.LZ4_COMPRESSION);
-      cfOptions.setWriteBufferSize(64 * 1024 * 1024); // 64MB
+      // ticker/histogram 수집 (RocksDbMetrics 가 Micrometer 로 노출)
+      statistics = new Statistics();
+      statistics.setStatsLevel(StatsLevel.EXCEPT_DETAILED_TIMERS);
+      dbOptions.setStatistics(statistics);
 
-      // Block Cache 설정 (읽기 성능 향상)
-      BlockBasedTableConfig tableConfig = new BlockBasedTableConfig();
-      tableConfig.setBlockCache(new LRUCache(256 * 1024 * 1024)); // 256MB
-      tableConfig.setFilterPolicy(new BloomFilter(10)); // Bloom Filter
-      cfOptions.setTableFormatConfig(tableConfig);
-
-      // Column Family 설정
-      List<ColumnFamilyDescriptor> columnFamilyDescriptors = new ArrayList<>();
-      columnFamilyDescriptors.add(new ColumnFamilyDescriptor(
-          RocksDB.DEFAULT_COLUMN_FAMILY, new ColumnFamilyOptions(cfOptions)));
-      columnFamilyDescriptors.add(new ColumnFamilyDescriptor(
-          ColumnFamilyConfig.USER.getBytes(), new ColumnFamilyOptions(cfOptions)));
-      columnFamilyDescriptors.add(new ColumnFamilyDescriptor(
-          ColumnFamilyConfig.PRODUCT.getBytes(), new ColumnFamilyOptions(cfOptions)));
+      // Block Cache 설정 (읽기 성능 향상): cache-share 가 없는 CF 들이 함께 쓰는 공유 cache
+      sharedBlockCache = new LRUCache(sharedBlockCacheSize());
+      patchMergeOperator = new StringAppendOperator(PATCH_DELIMITER);
 
       // 디렉토리 생성
       Files.createDirectories(dbDir.getParentFile().toPath());
       Files.createDirectories(dbDir.getAbsoluteFile().toPath());
 
-      // RocksDB 열기
-      columnFamilyHandles = new ArrayList<>();
-      db = RocksDB.open(dbOptions, dbDir.getAbsolutePath(),
-          columnFamilyDescriptors, columnFamilyHandles);
+      // Column Family 설정: 고정 CF + 실행 중 만들어졌던 CF, 각각 CF 별 tuning 프로파일 적용
+      List<ColumnFamilyDescriptor> columnFamilyDescriptors = new ArrayList<>();
+      for (String name : columnFamilyNames(dbDir)) {
+        columnFamilyDescriptors.add(
+            new ColumnFamilyDescriptor(name.getBytes(), columnFamilyOptions(name)));
+      }
+
+      // RocksDB 열기 (트랜잭션 사용 시 OptimisticTransactionDB, 일반 쓰기도 그대로 동작)
+      List<ColumnFamilyHandle> columnFamilyHandles = new ArrayList<>();
+      if (replication.isSecondary()) {
+        db = openAsSecondary(dbOptions, dbDir, columnFamilyDescriptors, columnFamilyHandles);
+      } else if (properties.getTransactions().isEnabled()) {
+        db = OptimisticTransactionDB.open(dbOptions, dbDir.getAbsolutePath(),
+            columnFamilyDescriptors, columnFamilyHandles);
+      } else {
+        db = RocksDB.open(dbOptions, dbDir.getAbsolutePath(),
+            columnFamilyDescriptors, columnFamilyHandles);
+      }
+      columnFamilyRegistry =
+          new ColumnFamilyRegistry(db, columnFamilyDescriptors, columnFamilyHandles,
+              this::columnFamilyOptions);
 
-      // Column Family Handle Map 생성
-      columnFamilyHandleMap = new HashMap<>();
-      columnFamilyHandleMap.put(ColumnFamilyConfig.DEFAULT, columnFamilyHandles.get(0));
-      columnFamilyHandleMap.put(ColumnFamilyConfig.USER, columnFamilyHandles.get(1));
-      columnFamilyHandleMap.put(ColumnFamilyConfig.PRODUCT, columnFamilyHandles.get(2));
+      // 고정 CF Handle Map 생성
+      columnFamilyHandleMap = new EnumMap<>(ColumnFamilyConfig.class);
+      for (ColumnFamilyConfig columnFamily : ColumnFamilyConfig.values()) {
+        columnFamilyHandleMap.put(columnFamily, columnFamilyRegistry.get(columnFamily.getName()));
+      }
 
-      log.info("RocksDB initialized with column families: {}",
-          Arrays.toString(ColumnFamilyConfig.values()));
+      log.info("RocksDB initialized with column families: {}", columnFamilyRegistry.names());
     } catch (IOException | RocksDBException e) {
       log.error("Failed to initialize RocksDB", e);
       throw new RuntimeException("RocksDB initialization failed", e);
@@ -92,10 +128,128 @@ public class RocksDbInitializer {
       if (dbOptions != null) {
         dbOptions.close();
       }
-      if (cfOptions != null) {
-        cfOptions.close();
+    }
+  }
+
+  /**
+   * 다른 프로세스 (primary) 가 연 DB 를 읽기 전용으로 연다. primary 가 이미 만든 DB 여야 하고,
+   * 이후 primary 가 만든 CF 는 재시작 전까지 보이지 않는다. 쓰기는 RocksDB 가 NotSupported 로 거절한다.
+   */
+  private RocksDB openAsSecondary(DBOptions dbOptions, File dbDir,
+      List<ColumnFamilyDescriptor> columnFamilyDescriptors,
+      List<ColumnFamilyHandle> columnFamilyHandles) throws IOException, RocksDBException {
+    if (!new File(dbDir, "CURRENT").exists()) {
+      throw new IllegalStateException("No primary database to follow at " + dbDir);
+    }
+    File secondaryDir = properties.secondaryDirectory().toFile();
+    Files.createDirectories(secondaryDir.getAbsoluteFile().toPath());
+    // secondary 는 table 파일을 모두 열어 두어야 한다 (primary 의 compaction 으로 지워져도 읽을 수 있게)
+    dbOptions.setCreateIfMissing(false)
+        .setCreateMissingColumnFamilies(false)
+        .setMaxOpenFiles(-1);
+    log.info("Opening {} as secondary (secondary path: {})", dbDir, secondaryDir);
+    return RocksDB.openAsSecondary(dbOptions, dbDir.getAbsolutePath(),
+        secondaryDir.getAbsolutePath(), columnFamilyDescriptors, columnFamilyHandles);
+  }
+
+  // 이미 DB 가 있으면 그 안의 CF 목록까지 포함 (default CF 가 항상 첫 번째)
+  private List<String> columnFamilyNames(File dbDir) throws RocksDBException {
+    Set<String> names = new LinkedHashSet<>();
+    names.add(ColumnFamilyConfig.DEFAULT.getName());
+    for (ColumnFamilyConfig columnFamily : ColumnFamilyConfig.values()) {
+      names.add(columnFamily.getName());
+    }
+    if (new File(dbDir, "CURRENT").exists()) {
+      try (Options options = new Options()) {
+        for (byte[] name : RocksDB.listColumnFamilies(options, dbDir.getAbsolutePath())) {
+          names.add(new String(name));
+        }
       }
     }
+    return new ArrayList<>(names);
+  }
+
+  // 전체 block cache 에서 전용 cache 를 가진 CF 몫을 뺀 나머지
+  private long sharedBlockCacheSize() {
+    long total = properties.getBlockCacheSize().toBytes();
+    double dedicated = 0;
+    for (ColumnFamilyProperties columnFamily : properties.getColumnFamilies().values()) {
+      dedicated += columnFamily.getTuning().getBlockCacheShare();
+    }
+    if (dedicated >= 1.0) {
+      throw new IllegalStateException(
+          "Sum of block-cache-share must be less than 1: " + dedicated);
+    }
+    return (long) (total * (1.0 - dedicated));
+  }
+
+  private ColumnFamilyOptions columnFamilyOptions(String name) {
+    ColumnFamilyProperties columnFamilyProperties = properties.columnFamily(name);
+    TuningProperties tuning = columnFamilyProperties.getTuning();
+
+    // 쓰기/compaction 설정
+    ColumnFamilyOptions options = new ColumnFamilyOptions()
+        .setCompactionStyle(tuning.getCompactionStyle())
+        .setWriteBufferSize(tuning.getWriteBufferSize().toBytes())
+        .setMaxWriteBufferNumber(tuning.getMaxWriteBufferNumber())
+        .setMinWriteBufferNumberToMerge(tuning.getMinWriteBufferNumberToMerge())
+        .setLevel0FileNumCompactionTrigger(tuning.getLevel0FileNumCompactionTrigger())
+        .setTargetFileSizeBase(tuning.getTargetFileSizeBase().toBytes())
+        .setMaxBytesForLevelBase(tuning.getMaxBytesForLevelBase().toBytes())
+        .setMaxBytesForLevelMultiplier(tuning.getMaxBytesForLevelMultiplier())
+        .setLevelCompactionDynamicLevelBytes(tuning.isLevelCompactionDynamicLevelBytes())
+        .setCompressionType(tuning.getCompression())
+        .setBottommostCompressionType(tuning.getBottommostCompression());
+    if (!tuning.getCompressionPerLevel().isEmpty()) {
+      options.setCompressionPerLevel(tuning.getCompressionPerLevel());
+    }
+
+    // Block Cache / Bloom Filter 설정 (읽기 성능)
+    BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+        .setBlockSize(tuning.getBlockSize().toBytes())
+        .setBlockCache(blockCache(tuning));
+    if (tuning.getBloomBitsPerKey() > 0) {
+      tableConfig.setFilterPolicy(new BloomFilter(tuning.getBloomBitsPerKey()));
+    }
+    options.setTableFormatConfig(tableConfig);
+
+    // default CF 는 Column Family 별 key 카운터 저장용 (uint64add merge)
+    if (ColumnFamilyConfig.DEFAULT.getName().equals(name)) {
+      options.setMergeOperatorName(COUNTER_MERGE_OPERATOR).setMaxSuccessiveMerges(64);
+    }
+
+    // 부분 갱신 CF 는 같은 키의 연산을 줄바꿈으로 이어 붙인다
+    if (ColumnFamilyConfig.isPatchLog(name)) {
+      options.setMergeOperator(patchMergeOperator);
+    }
+
+    PrefixExtractorProperties prefixExtractor = columnFamilyProperties.getPrefixExtractor();
+    if (!prefixExtractor.isEnabled()) {
+      return options;
+    }
+
+    // Prefix Extractor 설정 (SST prefix bloom + memtable prefix bloom)
+    switch (prefixExtractor.getType()) {
+      case FIXED -> options.useFixedLengthPrefixExtractor(prefixExtractor.getLength());
+      case CAPPED -> options.useCappedPrefixExtractor(prefixExtractor.getLength());
+      default -> throw new IllegalStateException(
+          "Unsupported prefix extractor: " + prefixExtractor.getType());
+    }
+    options.setMemtablePrefixBloomSizeRatio(prefixExtractor.getMemtableBloomSizeRatio());
+    log.info("Column family {} uses {} prefix extractor (length: {})", name,
+        prefixExtractor.getType(), prefixExtractor.getLength());
+    return options;
+  }
+
+  // block-cache-share 가 있으면 전체 block cache 중 그 비율만큼의 전용 cache 를 만든다
+  private Cache blockCache(TuningProperties tuning) {
+    if (tuning.getBlockCacheShare() <= 0) {
+      return sharedBlockCache;
+    }
+    LRUCache cache = new LRUCache(
+        (long) (properties.getBlockCacheSize().toBytes() * tuning.getBlockCacheShare()));
+    dedicatedBlockCaches.add(cache);
+    return cache;
   }
 
   @Bean
@@ -108,14 +262,34 @@ public class RocksDbInitializer {
     return this.columnFamilyHandleMap;
   }
 
+  @Bean
+  public ColumnFamilyRegistry columnFamilyRegistry() {
+    return this.columnFamilyRegistry;
+  }
+
+  @Bean
+  public Statistics rocksDbStatistics() {
+    return this.statistics;
+  }
+
   @PreDestroy
   void destroy() {
-    if (columnFamilyHandles != null) {
-      columnFamilyHandles.forEach(ColumnFamilyHandle::close);
+    if (columnFamilyRegistry != null) {
+      columnFamilyRegistry.close();
     }
     if (db != null) {
       db.close();
     }
+    if (statistics != null) {
+      statistics.close();
+    }
+    if (sharedBlockCache != null) {
+      sharedBlockCache.close();
+    }
+    if (patchMergeOperator != null) {
+      patchMergeOperator.close();
+    }
+    dedicatedBlockCaches.forEach(LRUCache::close);
     log.info("RocksDB closed");
   }
 
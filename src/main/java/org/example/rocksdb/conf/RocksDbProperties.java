@@ -0,0 +1,359 @@
+package org.example.rocksdb.conf;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.example.rocksdb.codec.CodecType;
+import org.rocksdb.CompactionStyle;
+import org.rocksdb.CompressionType;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "rocksdb")
+public class RocksDbProperties {
+
+  // DB 디렉토리
+  private String path = "./dist/db/rocks-db/rocks-db";
+
+  // 전체 block cache 크기. CF 별 block-cache-share 만큼은 전용 cache 로 떼어낸다
+  private DataSize blockCacheSize = DataSize.ofMegabytes(256);
+
+  // key: Column Family 이름 (users, products ...)
+  private Map<String, ColumnFamilyProperties> columnFamilies = new HashMap<>();
+
+  // 기동 시 이전 포맷(JSON 등)으로 저장된 값을 백그라운드에서 현재 codec 포맷으로 변환
+  private boolean migrateCodecOnStartup;
+
+  private GroupCommitProperties groupCommit = new GroupCommitProperties();
+
+  private AsyncProperties async = new AsyncProperties();
+
+  private BulkLoadProperties bulkLoad = new BulkLoadProperties();
+
+  private BackupProperties backup = new BackupProperties();
+
+  // 만료된 항목을 삭제하는 주기. 0 이면 실행하지 않는다 (만료된 항목은 조회에서만 제외)
+  private Duration expirySweepInterval = Duration.ofSeconds(30);
+
+  private PatchProperties patches = new PatchProperties();
+
+  private TransactionProperties transactions = new TransactionProperties();
+
+  private ParallelScanProperties parallelScan = new ParallelScanProperties();
+
+  private DirectBufferProperties directBuffers = new DirectBufferProperties();
+
+  private ProfilerProperties profiler = new ProfilerProperties();
+
+  private ReplicationProperties replication = new ReplicationProperties();
+
+  public ColumnFamilyProperties columnFamily(String name) {
+    return columnFamilies.getOrDefault(name, new ColumnFamilyProperties());
+  }
+
+  public Path checkpointDirectory() {
+    return Path.of(backup.getCheckpointDir() != null
+        ? backup.getCheckpointDir() : path + "-checkpoints");
+  }
+
+  public Path backupDirectory() {
+    return Path.of(backup.getBackupDir() != null ? backup.getBackupDir() : path + "-backups");
+  }
+
+  public Path secondaryDirectory() {
+    return Path.of(replication.getSecondaryPath() != null
+        ? replication.getSecondaryPath() : path + "-secondary");
+  }
+
+  @Getter
+  @Setter
+  public static class ColumnFamilyProperties {
+
+    private CodecType codec = CodecType.BINARY;
+
+    private PrefixExtractorProperties prefixExtractor = new PrefixExtractorProperties();
+
+    private CacheProperties cache = new CacheProperties();
+
+    private TuningProperties tuning = new TuningProperties();
+
+    // TTL 을 지정하지 않은 쓰기에 적용할 기본 TTL. 비어 있으면 만료 없음
+    private Duration ttl;
+  }
+
+  /**
+   * Column Family 별 RocksDB 옵션. 기동 시 적용되며, 이 중 mutable 옵션은
+   * 관리 API (setOptions) 로 재시작 없이 바꿀 수 있다.
+   */
+  @Getter
+  @Setter
+  public static class TuningProperties {
+
+    private CompactionStyle compactionStyle = CompactionStyle.LEVEL;
+
+    // memtable 크기와 개수 (쓰기 위주 CF 는 크게)
+    private DataSize writeBufferSize = DataSize.ofMegabytes(64);
+
+    private int maxWriteBufferNumber = 2;
+
+    private int minWriteBufferNumberToMerge = 1;
+
+    // level 크기
+    private int level0FileNumCompactionTrigger = 4;
+
+    private DataSize targetFileSizeBase = DataSize.ofMegabytes(64);
+
+    private DataSize maxBytesForLevelBase = DataSize.ofMegabytes(256);
+
+    private double maxBytesForLevelMultiplier = 10;
+
+    private boolean levelCompactionDynamicLevelBytes = true;
+
+    // 압축: compression-per-level 이 비어 있으면 모든 level 에 compression 사용
+    private CompressionType compression = CompressionType.LZ4_COMPRESSION;
+
+    private List<CompressionType> compressionPerLevel = new ArrayList<>();
+
+    // DISABLE_COMPRESSION_OPTION 이면 마지막 level 도 compression 사용
+    private CompressionType bottommostCompression = CompressionType.DISABLE_COMPRESSION_OPTION;
+
+    // block-based table (읽기 위주 CF 는 bloom bit 를 늘리고 전용 cache 를 할당)
+    private DataSize blockSize = DataSize.ofKilobytes(4);
+
+    // 0 이면 bloom filter 사용 안 함
+    private double bloomBitsPerKey = 10;
+
+    // 0 이면 공유 block cache 사용, 0 보다 크면 block-cache-size 의 이 비율만큼 전용 cache
+    private double blockCacheShare;
+  }
+
+  @Getter
+  @Setter
+  public static class CacheProperties {
+
+    // 디코딩된 객체 캐시 (find 시 JNI get + 역직렬화 생략)
+    private boolean enabled;
+
+    private long maxEntries = 10_000;
+
+    // 0 보다 크면 항목 수 대신 추정 바이트 크기로 제한
+    private long maxBytes;
+
+    private int shards = 16;
+  }
+
+  @Getter
+  @Setter
+  public static class GroupCommitProperties {
+
+    // 동시에 들어온 단건 쓰기를 모아 하나의 WriteBatch 로 기록
+    private boolean enabled;
+
+    // 이 개수만큼 모이면 바로 기록
+    private int maxBatchSize = 256;
+
+    // 첫 요청이 대기열에 들어온 뒤 최대 대기 시간
+    private Duration maxDelay = Duration.ofMillis(1);
+
+    // WAL fsync 후 완료 처리
+    private boolean sync = true;
+  }
+
+  @Getter
+  @Setter
+  public static class AsyncProperties {
+
+    // 단건 조회/쓰기 (find, save, delete, exists, multiGet) 동시 실행 수
+    private int pointConcurrency = 256;
+
+    // 전체/prefix 스캔과 대량 쓰기 (findAll, findByPrefix, saveAll, deleteAll) 동시 실행 수
+    private int scanConcurrency = 4;
+
+    // 실행 대기 작업이 이만큼 쌓이면 새 작업을 거부 (RejectedExecutionException)
+    private int maxQueued = 10_000;
+  }
+
+  @Getter
+  @Setter
+  public static class BulkLoadProperties {
+
+    // 정렬된 run(SST) 파일을 만드는 작업 디렉토리. 비어 있으면 "<path>-bulk-load"
+    // (ingest 시 파일을 hard link 로 옮기므로 DB 와 같은 파일 시스템이어야 한다)
+    private String workDir;
+
+    // 메모리에서 정렬한 뒤 run 파일로 내보내는 크기
+    private DataSize runSize = DataSize.ofMegabytes(64);
+
+    // ingest 할 SST 파일 하나의 최대 크기
+    private DataSize targetFileSize = DataSize.ofMegabytes(256);
+  }
+
+  @Getter
+  @Setter
+  public static class BackupProperties {
+
+    // Checkpoint (hard link 스냅샷) 디렉토리. 비어 있으면 "<path>-checkpoints"
+    // (DB 와 같은 파일 시스템이 아니면 hard link 대신 복사된다)
+    private String checkpointDir;
+
+    // 새 checkpoint 를 만든 뒤 최근 것부터 이 개수만 남긴다
+    private int checkpointsToKeep = 3;
+
+    // BackupEngine 증분 백업 디렉토리. 비어 있으면 "<path>-backups"
+    private String backupDir;
+
+    // 새 백업을 만든 뒤 최근 것부터 이 개수만 남긴다 (공유 SST 는 참조가 없어질 때 삭제)
+    private int backupsToKeep = 7;
+
+    // 백업 복사 속도 제한 (초당). 0 이면 제한 없음
+    private DataSize rateLimit = DataSize.ofBytes(0);
+
+    // 백업/복원 시 파일 복사 병렬도
+    private int maxBackgroundOperations = 2;
+
+    // 기동 시 DB 를 열기 전에 복원. 현재 DB 디렉토리는 "<path>-before-restore" 로 옮겨진다
+    private RestoreSource restoreOnStartup = RestoreSource.NONE;
+  }
+
+  @Getter
+  @Setter
+  public static class PatchProperties {
+
+    // 부분 갱신 연산을 본문에 반영(fold)하는 주기. 0 이면 인덱스 조회 전과 키별 한도 초과 시에만
+    private Duration foldInterval = Duration.ofSeconds(10);
+
+    // 한 키에 연산이 이만큼 쌓이면 쓰기 중에 바로 fold 한다 (조회 시 적용할 연산 수 제한)
+    private int maxPendingPerKey = 64;
+  }
+
+  @Getter
+  @Setter
+  public static class TransactionProperties {
+
+    // OptimisticTransactionDB 로 연다. 꺼져 있으면 RocksDbService.inTransaction 을 쓸 수 없다
+    private boolean enabled;
+
+    // 커밋 충돌 시 처음부터 다시 실행하는 최대 횟수
+    private int maxRetries = 5;
+
+    // 재시도 전 대기 시간 기준값. 재시도마다 두 배, 0 ~ 그 값 사이에서 무작위로 기다린다
+    private Duration retryBackoff = Duration.ofMillis(2);
+  }
+
+  @Getter
+  @Setter
+  public static class ParallelScanProperties {
+
+    // 전체 스캔을 나눠 실행할 최대 구간 수 (= 스레드 수). 0 이면 CPU 코어 수, 1 이면 나누지 않는다
+    private int parallelism;
+
+    // 구간 하나의 최소 SST 크기. 이보다 작은 CF 는 나누지 않는다
+    private DataSize minRangeSize = DataSize.ofMegabytes(32);
+  }
+
+  @Getter
+  @Setter
+  public static class DirectBufferProperties {
+
+    // 단건 조회를 스레드별 direct ByteBuffer 로 한다. 꺼져 있으면 byte[] API 를 쓴다
+    private boolean enabled = true;
+
+    // 값 버퍼의 처음 크기. 값이 크면 두 배씩 늘려 다시 읽는다
+    private DataSize initialValueSize = DataSize.ofKilobytes(4);
+
+    // 값 버퍼의 최대 크기. 이보다 큰 값은 byte[] API 로 읽는다
+    private DataSize maxValueSize = DataSize.ofMegabytes(1);
+  }
+
+  @Getter
+  @Setter
+  public static class ProfilerProperties {
+
+    // 접근 패턴 집계에 쓸 호출 비율 (0 이면 끔, 1 이면 모든 호출)
+    private double sampleRate = 0.01;
+
+    // CF 와 읽기/쓰기별로 보여줄 hot key / hot prefix 수
+    private int topKeys = 20;
+
+    // count-min sketch 크기. 폭이 넓을수록 충돌에 의한 과대 추정이 줄어든다
+    private int sketchDepth = 4;
+    private int sketchWidth = 2048;
+
+    // 키의 처음부터 이 구분자까지를 prefix 로 집계한다 (빈 문자열이면 prefix 집계 안 함)
+    private String prefixDelimiter = ":";
+  }
+
+  /**
+   * 같은 DB 디렉토리를 다른 프로세스 (primary) 가 쓰는 동안, 이 프로세스를 읽기 전용 secondary 로
+   * 열어 읽기를 나눠 받는다. secondary 는 primary 의 MANIFEST/WAL 을 주기적으로 따라 읽는다.
+   */
+  @Getter
+  @Setter
+  public static class ReplicationProperties {
+
+    private ReplicationRole role = ReplicationRole.PRIMARY;
+
+    // primary: 복제 지연 측정용 heartbeat 를 쓰는 주기. 0 이면 쓰지 않는다
+    private Duration heartbeatInterval = Duration.ofSeconds(1);
+
+    // secondary: tryCatchUpWithPrimary 주기
+    private Duration catchUpInterval = Duration.ofSeconds(1);
+
+    // secondary: 자신의 info log 와 MANIFEST 사본을 두는 디렉토리. 비어 있으면 "<path>-secondary"
+    // (secondary 프로세스마다 달라야 한다)
+    private String secondaryPath;
+
+    // secondary: 쓰기 요청을 307 로 넘길 primary 주소 (예: http://localhost:8099). 비어 있으면 503
+    private String primaryUrl;
+
+    public boolean isSecondary() {
+      return role == ReplicationRole.SECONDARY;
+    }
+  }
+
+  public enum ReplicationRole {
+    PRIMARY,
+    // openAsSecondary 로 열어 읽기만 한다
+    SECONDARY
+  }
+
+  public enum RestoreSource {
+    NONE,
+    // BackupEngine 의 최신 백업에서 복사
+    LATEST_BACKUP,
+    // 최신 checkpoint 에서 SST 는 hard link, 나머지는 복사
+    LATEST_CHECKPOINT
+  }
+
+  @Getter
+  @Setter
+  public static class PrefixExtractorProperties {
+
+    private PrefixExtractorType type = PrefixExtractorType.NONE;
+
+    // 키 앞 length 바이트를 prefix 로 사용
+    private int length;
+
+    // memtable prefix bloom 크기 (write buffer 대비 비율, 0 이면 사용 안 함)
+    private double memtableBloomSizeRatio = 0.1;
+
+    public boolean isEnabled() {
+      return type != PrefixExtractorType.NONE && length > 0;
+    }
+  }
+
+  public enum PrefixExtractorType {
+    NONE,
+    // 길이가 length 보다 짧은 키는 prefix bloom 대상에서 제외
+    FIXED,
+    // 길이가 length 보다 짧은 키는 키 전체를 prefix 로 사용
+    CAPPED
+  }
+}
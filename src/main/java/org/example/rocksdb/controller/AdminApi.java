@@ -0,0 +1,180 @@
+package org.example.rocksdb.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.backup.BackupSummary;
+import org.example.rocksdb.backup.CheckpointSummary;
+import org.example.rocksdb.cache.CacheStats;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.profile.AccessProfile;
+import org.example.rocksdb.repository.BulkLoadResult;
+import org.example.rocksdb.repository.ColumnFamilyInfo;
+import org.example.rocksdb.repository.GroupCommitStats;
+import org.example.rocksdb.repository.ReplicationStatus;
+import org.example.rocksdb.service.RocksDbService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/rocksdb/admin")
+@RequiredArgsConstructor
+public class AdminApi {
+
+  private static final String NDJSON = "application/x-ndjson";
+
+  private final RocksDbService dbService;
+
+  @PostMapping("/codec-migration")
+  public ResponseEntity<Map<String, Long>> migrateLegacyValues() {
+    log.info("Migrating legacy values to the current codec");
+    Map<String, Long> migrated = dbService.migrateLegacyValues();
+    return ResponseEntity.ok(migrated);
+  }
+
+  @PostMapping("/index-build")
+  public ResponseEntity<Map<String, Long>> buildIndexes() {
+    log.info("Building secondary indexes");
+    Map<String, Long> indexed = dbService.buildIndexes();
+    return ResponseEntity.ok(indexed);
+  }
+
+  // 본문: export 와 같은 NDJSON ({"key": "...", "value": {...}} 한 줄씩), users/products 만 지원
+  @PostMapping(value = "/bulk-load/{name}", consumes = NDJSON)
+  public ResponseEntity<BulkLoadResult> bulkLoad(@PathVariable("name") String name,
+      InputStream body) throws IOException {
+    log.info("Bulk loading column family: {}", name);
+    Optional<ColumnFamilyConfig> columnFamily = ColumnFamilyConfig.fromName(name);
+    if (columnFamily.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(dbService.bulkLoad(columnFamily.get(), body));
+  }
+
+  // SST 를 hard link 한 열 수 있는 DB 디렉토리 생성 (보존 개수 초과분 삭제)
+  @PostMapping("/checkpoints")
+  public ResponseEntity<CheckpointSummary> createCheckpoint() {
+    log.info("Creating checkpoint");
+    return ResponseEntity.status(HttpStatus.CREATED).body(dbService.createCheckpoint());
+  }
+
+  @GetMapping("/checkpoints")
+  public ResponseEntity<List<CheckpointSummary>> getCheckpoints() {
+    return ResponseEntity.ok(dbService.getCheckpoints());
+  }
+
+  // BackupEngine 증분 백업 생성 (보존 개수 초과분 삭제)
+  @PostMapping("/backups")
+  public ResponseEntity<BackupSummary> createBackup() {
+    log.info("Creating backup");
+    return ResponseEntity.status(HttpStatus.CREATED).body(dbService.createBackup());
+  }
+
+  @GetMapping("/backups")
+  public ResponseEntity<List<BackupSummary>> getBackups() {
+    return ResponseEntity.ok(dbService.getBackups());
+  }
+
+  @GetMapping("/group-commit")
+  public ResponseEntity<GroupCommitStats> getGroupCommitStats() {
+    return ResponseEntity.ok(dbService.getGroupCommitStats());
+  }
+
+  @GetMapping("/cache")
+  public ResponseEntity<Map<String, CacheStats>> getCacheStats() {
+    return ResponseEntity.ok(dbService.getCacheStats());
+  }
+
+  @GetMapping("/access-profile")
+  public ResponseEntity<Map<String, AccessProfile>> getAccessProfiles() {
+    return ResponseEntity.ok(dbService.getAccessProfiles());
+  }
+
+  @DeleteMapping("/access-profile")
+  public ResponseEntity<Void> resetAccessProfiles() {
+    dbService.resetAccessProfiles();
+    return ResponseEntity.noContent().build();
+  }
+
+  // primary / secondary 역할, sequence number, secondary 의 마지막 catch-up 과 지연
+  @GetMapping("/replication")
+  public ResponseEntity<ReplicationStatus> getReplicationStatus() {
+    return ResponseEntity.ok(dbService.getReplicationStatus());
+  }
+
+  // secondary 에서만 (primary 면 409)
+  @PostMapping("/replication/catch-up")
+  public ResponseEntity<ReplicationStatus> catchUpWithPrimary() {
+    return ResponseEntity.ok(dbService.catchUpWithPrimary());
+  }
+
+  @GetMapping("/column-families")
+  public ResponseEntity<List<ColumnFamilyInfo>> getColumnFamilies() {
+    return ResponseEntity.ok(dbService.getColumnFamilies());
+  }
+
+  @PostMapping("/column-families/{name}")
+  public ResponseEntity<Void> createColumnFamily(@PathVariable("name") String name) {
+    log.info("Creating column family: {}", name);
+    if (dbService.columnFamilyExists(name)) {
+      return ResponseEntity.status(HttpStatus.CONFLICT).build();
+    }
+    dbService.createColumnFamily(name);
+    return ResponseEntity.status(HttpStatus.CREATED).build();
+  }
+
+  @DeleteMapping("/column-families/{name}")
+  public ResponseEntity<Void> dropColumnFamily(@PathVariable("name") String name) {
+    log.info("Dropping column family: {}", name);
+    if (!dbService.columnFamilyExists(name)) {
+      return ResponseEntity.notFound().build();
+    }
+    dbService.dropColumnFamily(name);
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/column-families/{name}/options")
+  public ResponseEntity<Map<String, String>> getColumnFamilyOptions(
+      @PathVariable("name") String name) {
+    if (!dbService.columnFamilyExists(name)) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(dbService.getColumnFamilyOptions(name));
+  }
+
+  // 예: {"write_buffer_size": "134217728", "level0_file_num_compaction_trigger": "8"}
+  @PatchMapping("/column-families/{name}/options")
+  public ResponseEntity<Map<String, String>> updateColumnFamilyOptions(
+      @PathVariable("name") String name, @RequestBody Map<String, String> options) {
+    log.info("Updating options of column family {}: {}", name, options);
+    if (!dbService.columnFamilyExists(name)) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(dbService.updateColumnFamilyOptions(name, options));
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+    return ResponseEntity.badRequest().body(e.getMessage());
+  }
+
+  // 같은 CF 의 대량 적재가 이미 진행 중이거나, primary 에 catch-up 을 요청한 경우
+  @ExceptionHandler(IllegalStateException.class)
+  public ResponseEntity<String> handleIllegalState(IllegalStateException e) {
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+  }
+}
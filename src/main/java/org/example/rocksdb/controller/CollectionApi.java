@@ -0,0 +1,86 @@
+package org.example.rocksdb.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.service.RocksDbService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 실행 중 만들어진 Column Family 에 JSON 문서를 저장/조회한다.
+ * CF 는 /api/rocksdb/admin/column-families/{name} 으로 먼저 만들어야 한다.
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/rocksdb/collections/{cf}")
+@RequiredArgsConstructor
+public class CollectionApi {
+
+  private final RocksDbService dbService;
+
+  @PostMapping("/{key}")
+  public ResponseEntity<JsonNode> saveDocument(@PathVariable("cf") String cf,
+      @PathVariable("key") String key, @RequestBody JsonNode request) {
+    log.info("Saving document in {} with key: {}", cf, key);
+    if (!dbService.columnFamilyExists(cf)) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(dbService.saveDocument(cf, key, request));
+  }
+
+  @GetMapping("/{key}")
+  public ResponseEntity<JsonNode> getDocument(@PathVariable("cf") String cf,
+      @PathVariable("key") String key) {
+    log.info("Getting document in {} with key: {}", cf, key);
+    if (!dbService.columnFamilyExists(cf)) {
+      return ResponseEntity.notFound().build();
+    }
+    JsonNode document = dbService.getDocument(cf, key);
+    return document == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(document);
+  }
+
+  @DeleteMapping("/{key}")
+  public ResponseEntity<Void> deleteDocument(@PathVariable("cf") String cf,
+      @PathVariable("key") String key) {
+    log.info("Deleting document in {} with key: {}", cf, key);
+    if (!dbService.columnFamilyExists(cf)) {
+      return ResponseEntity.notFound().build();
+    }
+    dbService.deleteDocument(cf, key);
+    return ResponseEntity.noContent().build();
+  }
+
+  @GetMapping("/search")
+  public ResponseEntity<List<JsonNode>> searchDocumentsByPrefix(@PathVariable("cf") String cf,
+      @RequestParam String prefix) {
+    log.info("Searching documents in {} with prefix: {}", cf, prefix);
+    if (!dbService.columnFamilyExists(cf)) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(dbService.getDocumentsByPrefix(cf, prefix));
+  }
+
+  @GetMapping("/count")
+  public ResponseEntity<Long> countDocuments(@PathVariable("cf") String cf) {
+    log.info("Counting documents in {}", cf);
+    if (!dbService.columnFamilyExists(cf)) {
+      return ResponseEntity.notFound().build();
+    }
+    return ResponseEntity.ok(dbService.countDocuments(cf));
+  }
+
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+    return ResponseEntity.badRequest().body(e.getMessage());
+  }
+}
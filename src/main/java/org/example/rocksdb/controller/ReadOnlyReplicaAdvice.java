@@ -0,0 +1,34 @@
+package org.example.rocksdb.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.rocksdb.exception.ReadOnlyReplicaException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * 읽기 전용 secondary 에 들어온 쓰기 요청. rocksdb.replication.primary-url 이 있으면 같은 메서드와
+ * 본문으로 다시 보내도록 307 로 primary 에 넘기고, 없으면 503 으로 거절한다.
+ * (웹 UI 는 예외 메시지를 화면에 보여준다)
+ */
+@RestControllerAdvice(assignableTypes = {RocksApi.class, CollectionApi.class, AdminApi.class})
+public class ReadOnlyReplicaAdvice {
+
+  @ExceptionHandler(ReadOnlyReplicaException.class)
+  public ResponseEntity<String> handleReadOnlyReplica(ReadOnlyReplicaException e,
+      HttpServletRequest request) {
+    if (e.getPrimaryUrl() == null) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+    String location = UriComponentsBuilder.fromHttpUrl(e.getPrimaryUrl())
+        .path(request.getRequestURI())
+        .query(request.getQueryString())
+        .build(true)
+        .toUriString();
+    return ResponseEntity.status(HttpStatus.TEMPORARY_REDIRECT)
+        .header("Location", location)
+        .body(e.getMessage());
+  }
+}
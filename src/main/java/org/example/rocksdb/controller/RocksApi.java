@@ -1,16 +1,27 @@
 package org.example.rocksdb.controller;
 
 
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.rocksdb.model.Product;
 import org.example.rocksdb.model.User;
+import org.example.rocksdb.repository.Page;
+import org.example.rocksdb.repository.ScanDirection;
 import org.example.rocksdb.service.RocksDbService;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
@@ -25,17 +36,38 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 public class RocksApi {
 
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final String NDJSON = "application/x-ndjson";
+
   private final RocksDbService dbService;
 
   // User endpoints
   @PostMapping("/users/{key}")
   public ResponseEntity<User> saveUser(@PathVariable("key") String key,
-      @RequestBody User request) {
+      @RequestBody User request,
+      @RequestParam(value = "ttl", required = false) Duration ttl) {
     log.info("Saving user with key: {}", key);
-    User saved = dbService.saveUser(key, request);
+    User saved = dbService.saveUser(key, request, ttl);
     return ResponseEntity.ok(saved);
   }
 
+  // 주어진 필드만 변경. 읽기 없는 blind write 라 키 존재 여부와 무관하게 204
+  @PatchMapping("/users/{key}")
+  public ResponseEntity<Void> patchUser(@PathVariable("key") String key,
+      @RequestBody Map<String, Object> fields) {
+    log.info("Patching user with key: {} (fields: {})", key, fields.keySet());
+    dbService.patchUser(key, fields);
+    return ResponseEntity.noContent().build();
+  }
+
+  @PatchMapping("/users/{key}/increment")
+  public ResponseEntity<Void> incrementUserField(@PathVariable("key") String key,
+      @RequestParam String field, @RequestParam BigDecimal delta) {
+    log.info("Incrementing user field {} by {} with key: {}", field, delta, key);
+    dbService.incrementUserField(key, field, delta);
+    return ResponseEntity.noContent().build();
+  }
+
   @GetMapping("/users/{key}")
   public ResponseEntity<User> getUser(@PathVariable("key") String key) {
     log.info("Getting user with key: {}", key);
@@ -51,31 +83,100 @@ public class RocksApi {
   }
 
   @GetMapping("/users")
-  public ResponseEntity<List<User>> getAllUsers() {
+  public CompletableFuture<ResponseEntity<List<User>>> getAllUsers() {
     log.info("Getting all users");
-    List<User> users = dbService.getAllUsers();
-    return ResponseEntity.ok(users);
+    return dbService.getAllUsersAsync().thenApply(ResponseEntity::ok);
+  }
+
+  // 전체(또는 prefix) 내보내기: snapshot 기준, 한 줄에 항목 하나씩 바로 응답에 쓴다
+  @GetMapping(value = "/users/export", produces = NDJSON)
+  public void exportUsers(@RequestParam(defaultValue = "") String prefix,
+      HttpServletResponse response) throws IOException {
+    log.info("Exporting users (prefix: '{}')", prefix);
+    response.setContentType(NDJSON);
+    dbService.exportUsers(prefix, response.getOutputStream());
+  }
+
+  @GetMapping(value = "/users", params = "limit")
+  public ResponseEntity<Page<User>> getUserPage(@RequestParam int limit,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "FORWARD") ScanDirection direction) {
+    log.info("Getting users page (limit: {}, direction: {})", limit, direction);
+    Page<User> page = dbService.getUserPage(cursor, Math.min(limit, MAX_PAGE_SIZE),
+        direction);
+    return ResponseEntity.ok(page);
   }
 
   @GetMapping("/users/search")
-  public ResponseEntity<List<User>> searchUsersByPrefix(@RequestParam String prefix) {
+  public CompletableFuture<ResponseEntity<List<User>>> searchUsersByPrefix(
+      @RequestParam String prefix) {
     log.info("Searching users by prefix: {}", prefix);
-    List<User> users = dbService.getUsersByPrefix(prefix);
+    return dbService.getUsersByPrefixAsync(prefix).thenApply(ResponseEntity::ok);
+  }
+
+  @GetMapping(value = "/users/search", params = "limit")
+  public ResponseEntity<Page<User>> searchUserPageByPrefix(@RequestParam String prefix,
+      @RequestParam int limit,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "FORWARD") ScanDirection direction) {
+    log.info("Searching users page by prefix: {} (limit: {}, direction: {})",
+        prefix, limit, direction);
+    Page<User> page = dbService.getUserPageByPrefix(prefix, cursor,
+        Math.min(limit, MAX_PAGE_SIZE), direction);
+    return ResponseEntity.ok(page);
+  }
+
+  @GetMapping(value = "/users/by-age", params = "age")
+  public ResponseEntity<List<User>> getUsersByAge(@RequestParam int age,
+      @RequestParam(defaultValue = "100") int limit) {
+    log.info("Getting users by age: {} (limit: {})", age, limit);
+    List<User> users = dbService.getUsersByAge(age, age, Math.min(limit, MAX_PAGE_SIZE));
+    return ResponseEntity.ok(users);
+  }
+
+  @GetMapping("/users/by-age")
+  public ResponseEntity<List<User>> getUsersByAgeRange(
+      @RequestParam(defaultValue = "" + Integer.MIN_VALUE) int min,
+      @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int max,
+      @RequestParam(defaultValue = "100") int limit) {
+    log.info("Getting users by age range: [{}, {}] (limit: {})", min, max, limit);
+    List<User> users = dbService.getUsersByAge(min, max, Math.min(limit, MAX_PAGE_SIZE));
     return ResponseEntity.ok(users);
   }
 
   @PostMapping("/users/batch")
-  public ResponseEntity<Void> saveAllUsers(@RequestBody Map<String, User> users) {
+  public CompletableFuture<ResponseEntity<Void>> saveAllUsers(
+      @RequestBody Map<String, User> users) {
     log.info("Batch saving {} users", users.size());
-    dbService.saveAllUsers(users);
-    return ResponseEntity.ok().build();
+    return dbService.saveAllUsersAsync(users).thenApply(ignored -> ResponseEntity.ok().build());
+  }
+
+  @PostMapping("/users/batch-get")
+  public ResponseEntity<Map<String, User>> getUsers(@RequestBody List<String> keys) {
+    log.info("Batch getting {} users", keys.size());
+    Map<String, User> users = dbService.getUsers(keys);
+    return ResponseEntity.ok(users);
   }
 
   @DeleteMapping("/users/batch")
-  public ResponseEntity<Void> deleteAllUsers(@RequestBody List<String> keys) {
+  public CompletableFuture<ResponseEntity<Void>> deleteAllUsers(@RequestBody List<String> keys) {
     log.info("Batch deleting {} users", keys.size());
-    dbService.deleteAllUsers(keys);
-    return ResponseEntity.noContent().build();
+    return dbService.deleteAllUsersAsync(keys)
+        .thenApply(ignored -> ResponseEntity.noContent().build());
+  }
+
+  @DeleteMapping(value = "/users", params = "prefix")
+  public CompletableFuture<ResponseEntity<Long>> deleteUsersByPrefix(@RequestParam String prefix,
+      @RequestParam(defaultValue = "false") boolean compact) {
+    log.info("Deleting users by prefix: {} (compact: {})", prefix, compact);
+    return dbService.deleteUsersByPrefix(prefix, compact).thenApply(ResponseEntity::ok);
+  }
+
+  @DeleteMapping(value = "/users", params = {"start", "end"})
+  public CompletableFuture<ResponseEntity<Long>> deleteUsersInRange(@RequestParam String start,
+      @RequestParam String end, @RequestParam(defaultValue = "false") boolean compact) {
+    log.info("Deleting users in range: [{}, {}) (compact: {})", start, end, compact);
+    return dbService.deleteUsersInRange(start, end, compact).thenApply(ResponseEntity::ok);
   }
 
   @GetMapping("/users/{key}/exists")
@@ -86,21 +187,40 @@ public class RocksApi {
   }
 
   @GetMapping("/users/count")
-  public ResponseEntity<Long> countUsers() {
-    log.info("Counting users");
-    long count = dbService.countUsers();
+  public ResponseEntity<Long> countUsers(
+      @RequestParam(defaultValue = "false") boolean estimated) {
+    log.info("Counting users (estimated: {})", estimated);
+    long count = estimated ? dbService.estimateUserCount() : dbService.countUsers();
     return ResponseEntity.ok(count);
   }
 
   // Product endpoints
   @PostMapping("/products/{key}")
   public ResponseEntity<Product> saveProduct(@PathVariable("key") String key,
-      @RequestBody Product request) {
+      @RequestBody Product request,
+      @RequestParam(value = "ttl", required = false) Duration ttl) {
     log.info("Saving product with key: {}", key);
-    Product saved = dbService.saveProduct(key, request);
+    Product saved = dbService.saveProduct(key, request, ttl);
     return ResponseEntity.ok(saved);
   }
 
+  // 주어진 필드만 변경. 읽기 없는 blind write 라 키 존재 여부와 무관하게 204
+  @PatchMapping("/products/{key}")
+  public ResponseEntity<Void> patchProduct(@PathVariable("key") String key,
+      @RequestBody Map<String, Object> fields) {
+    log.info("Patching product with key: {} (fields: {})", key, fields.keySet());
+    dbService.patchProduct(key, fields);
+    return ResponseEntity.noContent().build();
+  }
+
+  @PatchMapping("/products/{key}/increment")
+  public ResponseEntity<Void> incrementProductField(@PathVariable("key") String key,
+      @RequestParam String field, @RequestParam BigDecimal delta) {
+    log.info("Incrementing product field {} by {} with key: {}", field, delta, key);
+    dbService.incrementProductField(key, field, delta);
+    return ResponseEntity.noContent().build();
+  }
+
   @GetMapping("/products/{key}")
   public ResponseEntity<Product> getProduct(@PathVariable("key") String key) {
     log.info("Getting product with key: {}", key);
@@ -116,31 +236,123 @@ public class RocksApi {
   }
 
   @GetMapping("/products")
-  public ResponseEntity<List<Product>> getAllProducts() {
+  public CompletableFuture<ResponseEntity<List<Product>>> getAllProducts() {
     log.info("Getting all products");
-    List<Product> products = dbService.getAllProducts();
-    return ResponseEntity.ok(products);
+    return dbService.getAllProductsAsync().thenApply(ResponseEntity::ok);
+  }
+
+  // 전체(또는 prefix) 내보내기: snapshot 기준, 한 줄에 항목 하나씩 바로 응답에 쓴다
+  @GetMapping(value = "/products/export", produces = NDJSON)
+  public void exportProducts(@RequestParam(defaultValue = "") String prefix,
+      HttpServletResponse response) throws IOException {
+    log.info("Exporting products (prefix: '{}')", prefix);
+    response.setContentType(NDJSON);
+    dbService.exportProducts(prefix, response.getOutputStream());
+  }
+
+  @GetMapping(value = "/products", params = "limit")
+  public ResponseEntity<Page<Product>> getProductPage(@RequestParam int limit,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "FORWARD") ScanDirection direction) {
+    log.info("Getting products page (limit: {}, direction: {})", limit, direction);
+    Page<Product> page = dbService.getProductPage(cursor, Math.min(limit, MAX_PAGE_SIZE),
+        direction);
+    return ResponseEntity.ok(page);
   }
 
   @GetMapping("/products/search")
-  public ResponseEntity<List<Product>> searchProductsByPrefix(@RequestParam String prefix) {
+  public CompletableFuture<ResponseEntity<List<Product>>> searchProductsByPrefix(
+      @RequestParam String prefix) {
     log.info("Searching products by prefix: {}", prefix);
-    List<Product> products = dbService.getProductsByPrefix(prefix);
+    return dbService.getProductsByPrefixAsync(prefix).thenApply(ResponseEntity::ok);
+  }
+
+  @GetMapping(value = "/products/search", params = "limit")
+  public ResponseEntity<Page<Product>> searchProductPageByPrefix(@RequestParam String prefix,
+      @RequestParam int limit,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "FORWARD") ScanDirection direction) {
+    log.info("Searching products page by prefix: {} (limit: {}, direction: {})",
+        prefix, limit, direction);
+    Page<Product> page = dbService.getProductPageByPrefix(prefix, cursor,
+        Math.min(limit, MAX_PAGE_SIZE), direction);
+    return ResponseEntity.ok(page);
+  }
+
+  @GetMapping(value = "/products/by-price", params = "price")
+  public ResponseEntity<List<Product>> getProductsByPrice(@RequestParam double price,
+      @RequestParam(defaultValue = "100") int limit) {
+    log.info("Getting products by price: {} (limit: {})", price, limit);
+    List<Product> products = dbService.getProductsByPrice(price, price,
+        Math.min(limit, MAX_PAGE_SIZE));
+    return ResponseEntity.ok(products);
+  }
+
+  @GetMapping("/products/by-price")
+  public ResponseEntity<List<Product>> getProductsByPriceRange(
+      @RequestParam(defaultValue = "-Infinity") double min,
+      @RequestParam(defaultValue = "Infinity") double max,
+      @RequestParam(defaultValue = "100") int limit) {
+    log.info("Getting products by price range: [{}, {}] (limit: {})", min, max, limit);
+    List<Product> products = dbService.getProductsByPrice(min, max,
+        Math.min(limit, MAX_PAGE_SIZE));
+    return ResponseEntity.ok(products);
+  }
+
+  @GetMapping(value = "/products/by-stock", params = "stock")
+  public ResponseEntity<List<Product>> getProductsByStock(@RequestParam int stock,
+      @RequestParam(defaultValue = "100") int limit) {
+    log.info("Getting products by stock: {} (limit: {})", stock, limit);
+    List<Product> products = dbService.getProductsByStock(stock, stock,
+        Math.min(limit, MAX_PAGE_SIZE));
+    return ResponseEntity.ok(products);
+  }
+
+  @GetMapping("/products/by-stock")
+  public ResponseEntity<List<Product>> getProductsByStockRange(
+      @RequestParam(defaultValue = "" + Integer.MIN_VALUE) int min,
+      @RequestParam(defaultValue = "" + Integer.MAX_VALUE) int max,
+      @RequestParam(defaultValue = "100") int limit) {
+    log.info("Getting products by stock range: [{}, {}] (limit: {})", min, max, limit);
+    List<Product> products = dbService.getProductsByStock(min, max,
+        Math.min(limit, MAX_PAGE_SIZE));
     return ResponseEntity.ok(products);
   }
 
   @PostMapping("/products/batch")
-  public ResponseEntity<Void> saveAllProducts(@RequestBody Map<String, Product> products) {
+  public CompletableFuture<ResponseEntity<Void>> saveAllProducts(
+      @RequestBody Map<String, Product> products) {
     log.info("Batch saving {} products", products.size());
-    dbService.saveAllProducts(products);
-    return ResponseEntity.ok().build();
+    return dbService.saveAllProductsAsync(products)
+        .thenApply(ignored -> ResponseEntity.ok().build());
+  }
+
+  @PostMapping("/products/batch-get")
+  public ResponseEntity<Map<String, Product>> getProducts(@RequestBody List<String> keys) {
+    log.info("Batch getting {} products", keys.size());
+    Map<String, Product> products = dbService.getProducts(keys);
+    return ResponseEntity.ok(products);
   }
 
   @DeleteMapping("/products/batch")
-  public ResponseEntity<Void> deleteAllProducts(@RequestBody List<String> keys) {
+  public CompletableFuture<ResponseEntity<Void>> deleteAllProducts(@RequestBody List<String> keys) {
     log.info("Batch deleting {} products", keys.size());
-    dbService.deleteAllProducts(keys);
-    return ResponseEntity.noContent().build();
+    return dbService.deleteAllProductsAsync(keys)
+        .thenApply(ignored -> ResponseEntity.noContent().build());
+  }
+
+  @DeleteMapping(value = "/products", params = "prefix")
+  public CompletableFuture<ResponseEntity<Long>> deleteProductsByPrefix(@RequestParam String prefix,
+      @RequestParam(defaultValue = "false") boolean compact) {
+    log.info("Deleting products by prefix: {} (compact: {})", prefix, compact);
+    return dbService.deleteProductsByPrefix(prefix, compact).thenApply(ResponseEntity::ok);
+  }
+
+  @DeleteMapping(value = "/products", params = {"start", "end"})
+  public CompletableFuture<ResponseEntity<Long>> deleteProductsInRange(@RequestParam String start,
+      @RequestParam String end, @RequestParam(defaultValue = "false") boolean compact) {
+    log.info("Deleting products in range: [{}, {}) (compact: {})", start, end, compact);
+    return dbService.deleteProductsInRange(start, end, compact).thenApply(ResponseEntity::ok);
   }
 
   @GetMapping("/products/{key}/exists")
@@ -151,9 +363,22 @@ public class RocksApi {
   }
 
   @GetMapping("/products/count")
-  public ResponseEntity<Long> countProducts() {
-    log.info("Counting products");
-    long count = dbService.countProducts();
+  public ResponseEntity<Long> countProducts(
+      @RequestParam(defaultValue = "false") boolean estimated) {
+    log.info("Counting products (estimated: {})", estimated);
+    long count = estimated ? dbService.estimateProductCount() : dbService.countProducts();
     return ResponseEntity.ok(count);
   }
+
+  // 알 수 없는 필드, 타입이 맞지 않는 값 등
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException e) {
+    return ResponseEntity.badRequest().body(e.getMessage());
+  }
+
+  // 스캔 executor 대기열이 가득 찬 경우
+  @ExceptionHandler(RejectedExecutionException.class)
+  public ResponseEntity<String> handleRejected(RejectedExecutionException e) {
+    return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+  }
 }
@@ -29,10 +29,26 @@ public class WebController {
 
     model.addAttribute("userCount", userCount);
     model.addAttribute("productCount", productCount);
+    model.addAttribute("replication", rocksDbService.getReplicationStatus());
 
     return "index";
   }
 
+  // CF 별 접근 패턴 (hot key, 읽기/쓰기 비율, 값 크기 분포)
+  @GetMapping("/profile")
+  public String profile(Model model) {
+    model.addAttribute("profiles", rocksDbService.getAccessProfiles());
+    return "profile";
+  }
+
+  @PostMapping("/profile/reset")
+  public String resetProfile(RedirectAttributes redirectAttributes) {
+    rocksDbService.resetAccessProfiles();
+    redirectAttributes.addFlashAttribute("message", "집계를 초기화했습니다.");
+    redirectAttributes.addFlashAttribute("messageType", "success");
+    return "redirect:/profile";
+  }
+
   // User 관리 화면
   @GetMapping("/users")
   public String userList(Model model, @RequestParam(required = false) String prefix) {
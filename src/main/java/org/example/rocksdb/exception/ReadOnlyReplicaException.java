@@ -0,0 +1,19 @@
+package org.example.rocksdb.exception;
+
+import lombok.Getter;
+
+/**
+ * 읽기 전용 secondary 인스턴스에 들어온 쓰기 (또는 primary 에서만 하는 작업).
+ */
+@Getter
+public class ReadOnlyReplicaException extends RocksDbException {
+
+  // 요청을 넘길 primary 주소 (rocksdb.replication.primary-url). 없으면 null
+  private final String primaryUrl;
+
+  public ReadOnlyReplicaException(String primaryUrl) {
+    super("This instance is a read-only secondary; send writes to the primary"
+        + (primaryUrl == null ? "" : " (" + primaryUrl + ")"));
+    this.primaryUrl = primaryUrl;
+  }
+}
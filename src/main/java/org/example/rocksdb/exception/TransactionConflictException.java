@@ -0,0 +1,11 @@
+package org.example.rocksdb.exception;
+
+/**
+ * 재시도 횟수 안에 충돌 없이 커밋하지 못한 트랜잭션.
+ */
+public class TransactionConflictException extends RocksDbException {
+
+  public TransactionConflictException(int attempts, Throwable cause) {
+    super("Transaction conflicted " + attempts + " times", cause);
+  }
+}
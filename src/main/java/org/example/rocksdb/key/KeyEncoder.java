@@ -0,0 +1,33 @@
+package org.example.rocksdb.key;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 타입이 있는 키를 RocksDB 키 바이트로 바꾼다. 인코딩된 바이트의 unsigned 사전순이 키의 순서와
+ * 같으므로 범위/prefix 스캔이 키 순서대로 동작한다. 구현은 {@link KeyEncoders}.
+ */
+public interface KeyEncoder<K> {
+
+  void encode(K key, KeyWriter writer);
+
+  // bytes 의 position 부터 읽고 읽은 만큼 position 을 옮긴다
+  K decode(ByteBuffer bytes);
+
+  /**
+   * 튜플의 마지막이 아닌 요소로 쓸 인코딩. 뒤에 다른 요소가 붙어도 경계와 순서가 유지되어야 한다.
+   * 고정 길이 인코딩은 그대로 쓴다.
+   */
+  default KeyEncoder<K> delimited() {
+    return this;
+  }
+
+  default byte[] encode(K key) {
+    KeyWriter writer = KeyWriter.get();
+    encode(key, writer);
+    return writer.toByteArray();
+  }
+
+  default K decode(byte[] bytes) {
+    return decode(ByteBuffer.wrap(bytes));
+  }
+}
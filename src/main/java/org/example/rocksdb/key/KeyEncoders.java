@@ -0,0 +1,210 @@
+package org.example.rocksdb.key;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 순서를 보존하는 {@link KeyEncoder} 모음.
+ * <ul>
+ *   <li>정수: 부호 비트를 뒤집은 big-endian 고정 길이</li>
+ *   <li>double: 양수는 부호 비트만, 음수는 전체 비트를 뒤집는다 (-0.0 은 0.0 과 같은 키)</li>
+ *   <li>UUID: 상위/하위 64비트를 각각 long 으로 ({@link UUID#compareTo} 와 같은 순서)</li>
+ *   <li>문자열: UTF-8 (코드 포인트 순서). 튜플 중간에서는 0x00 을 0x00 0x01 로 바꾸고 0x00 0x00 으로
+ *       끝낸다 (짧은 문자열이 먼저 정렬된다)</li>
+ * </ul>
+ */
+public final class KeyEncoders {
+
+  private static final KeyEncoder<String> STRINGS = new StringEncoder(false);
+  private static final KeyEncoder<String> DELIMITED_STRINGS = new StringEncoder(true);
+
+  private static final KeyEncoder<Integer> INTS = new KeyEncoder<>() {
+    @Override
+    public void encode(Integer key, KeyWriter writer) {
+      writer.writeInt(key ^ Integer.MIN_VALUE);
+    }
+
+    @Override
+    public Integer decode(ByteBuffer bytes) {
+      return bytes.getInt() ^ Integer.MIN_VALUE;
+    }
+  };
+
+  private static final KeyEncoder<Long> LONGS = new KeyEncoder<>() {
+    @Override
+    public void encode(Long key, KeyWriter writer) {
+      writer.writeLong(key ^ Long.MIN_VALUE);
+    }
+
+    @Override
+    public Long decode(ByteBuffer bytes) {
+      return bytes.getLong() ^ Long.MIN_VALUE;
+    }
+  };
+
+  private static final KeyEncoder<Double> DOUBLES = new KeyEncoder<>() {
+    @Override
+    public void encode(Double key, KeyWriter writer) {
+      long bits = Double.doubleToLongBits(key == 0.0 ? 0.0 : key);
+      writer.writeLong(bits < 0 ? ~bits : bits ^ Long.MIN_VALUE);
+    }
+
+    @Override
+    public Double decode(ByteBuffer bytes) {
+      long bits = bytes.getLong();
+      return Double.longBitsToDouble(bits < 0 ? bits ^ Long.MIN_VALUE : ~bits);
+    }
+  };
+
+  private static final KeyEncoder<UUID> UUIDS = new KeyEncoder<>() {
+    @Override
+    public void encode(UUID key, KeyWriter writer) {
+      writer.writeLong(key.getMostSignificantBits() ^ Long.MIN_VALUE);
+      writer.writeLong(key.getLeastSignificantBits() ^ Long.MIN_VALUE);
+    }
+
+    @Override
+    public UUID decode(ByteBuffer bytes) {
+      return new UUID(bytes.getLong() ^ Long.MIN_VALUE, bytes.getLong() ^ Long.MIN_VALUE);
+    }
+  };
+
+  private KeyEncoders() {
+  }
+
+  public static KeyEncoder<String> strings() {
+    return STRINGS;
+  }
+
+  public static KeyEncoder<Integer> ints() {
+    return INTS;
+  }
+
+  public static KeyEncoder<Long> longs() {
+    return LONGS;
+  }
+
+  public static KeyEncoder<Double> doubles() {
+    return DOUBLES;
+  }
+
+  public static KeyEncoder<UUID> uuids() {
+    return UUIDS;
+  }
+
+  /**
+   * 요소별 인코더를 차례로 이어 붙인다. 앞쪽 요소만 가진 튜플은 그 요소들로 시작하는 모든 키의
+   * prefix 로 인코딩된다.
+   */
+  public static KeyEncoder<Tuple> tuple(KeyEncoder<?>... elements) {
+    if (elements.length == 0) {
+      throw new IllegalArgumentException("Tuple needs at least one element");
+    }
+    return new TupleEncoder(elements);
+  }
+
+  private static final class StringEncoder implements KeyEncoder<String> {
+
+    private final boolean delimited;
+
+    private StringEncoder(boolean delimited) {
+      this.delimited = delimited;
+    }
+
+    // String.getBytes 처럼 짝이 없는 surrogate 는 '?' 로 쓴다
+    @Override
+    public void encode(String key, KeyWriter writer) {
+      int length = key.length();
+      for (int i = 0; i < length; i++) {
+        char c = key.charAt(i);
+        if (c < 0x80) {
+          writer.writeByte(c);
+          if (c == 0 && delimited) {
+            writer.writeByte(1);
+          }
+        } else if (c < 0x800) {
+          writer.writeByte(0xC0 | (c >> 6));
+          writer.writeByte(0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < length
+            && Character.isLowSurrogate(key.charAt(i + 1))) {
+          int codePoint = Character.toCodePoint(c, key.charAt(++i));
+          writer.writeByte(0xF0 | (codePoint >> 18));
+          writer.writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+          writer.writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+          writer.writeByte(0x80 | (codePoint & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+          writer.writeByte('?');
+        } else {
+          writer.writeByte(0xE0 | (c >> 12));
+          writer.writeByte(0x80 | ((c >> 6) & 0x3F));
+          writer.writeByte(0x80 | (c & 0x3F));
+        }
+      }
+      if (delimited) {
+        writer.writeByte(0);
+        writer.writeByte(0);
+      }
+    }
+
+    @Override
+    public String decode(ByteBuffer bytes) {
+      byte[] unescaped = new byte[bytes.remaining()];
+      if (!delimited) {
+        bytes.get(unescaped);
+        return new String(unescaped, StandardCharsets.UTF_8);
+      }
+      int length = 0;
+      // 0x00 0x01 은 0x00, 0x00 0x00 은 끝
+      for (byte b = bytes.get(); b != 0 || bytes.get() != 0; b = bytes.get()) {
+        unescaped[length++] = b;
+      }
+      return new String(unescaped, 0, length, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public KeyEncoder<String> delimited() {
+      return DELIMITED_STRINGS;
+    }
+  }
+
+  private static final class TupleEncoder implements KeyEncoder<Tuple> {
+
+    private final List<KeyEncoder<Object>> elements = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private TupleEncoder(KeyEncoder<?>[] elements) {
+      for (int i = 0; i < elements.length; i++) {
+        KeyEncoder<?> element = i < elements.length - 1 ? elements[i].delimited() : elements[i];
+        this.elements.add((KeyEncoder<Object>) element);
+      }
+    }
+
+    @Override
+    public void encode(Tuple key, KeyWriter writer) {
+      if (key.size() > elements.size()) {
+        throw new IllegalArgumentException(
+            "Tuple has " + key.size() + " elements, expected at most " + elements.size());
+      }
+      for (int i = 0; i < key.size(); i++) {
+        try {
+          elements.get(i).encode(key.elements().get(i), writer);
+        } catch (ClassCastException e) {
+          throw new IllegalArgumentException("Unexpected type for tuple element " + i + ": "
+              + key.elements().get(i).getClass().getSimpleName(), e);
+        }
+      }
+    }
+
+    @Override
+    public Tuple decode(ByteBuffer bytes) {
+      List<Object> values = new ArrayList<>(elements.size());
+      for (KeyEncoder<Object> element : elements) {
+        values.add(element.decode(bytes));
+      }
+      return new Tuple(values);
+    }
+  }
+}
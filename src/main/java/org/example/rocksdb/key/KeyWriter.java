@@ -0,0 +1,65 @@
+package org.example.rocksdb.key;
+
+import java.util.Arrays;
+
+/**
+ * 스레드별로 재사용되는 키 인코딩 버퍼. {@link KeyEncoder} 가 여기에 이어 쓰며, 중간 결과를 위한
+ * byte[] 는 만들지 않는다.
+ */
+public final class KeyWriter {
+
+  private static final int INITIAL_CAPACITY = 64;
+  private static final ThreadLocal<KeyWriter> WRITERS = ThreadLocal.withInitial(KeyWriter::new);
+
+  private byte[] buffer = new byte[INITIAL_CAPACITY];
+  private int position;
+
+  private KeyWriter() {
+  }
+
+  // 비워진 현재 스레드의 버퍼. 다음 get() 전까지만 유효하다
+  public static KeyWriter get() {
+    KeyWriter writer = WRITERS.get();
+    writer.position = 0;
+    return writer;
+  }
+
+  public void writeByte(int value) {
+    ensureCapacity(1);
+    buffer[position++] = (byte) value;
+  }
+
+  // big-endian: unsigned 바이트 비교 순서가 부호 없는 값의 순서와 같다
+  public void writeInt(int value) {
+    ensureCapacity(Integer.BYTES);
+    for (int shift = 24; shift >= 0; shift -= 8) {
+      buffer[position++] = (byte) (value >>> shift);
+    }
+  }
+
+  public void writeLong(long value) {
+    ensureCapacity(Long.BYTES);
+    for (int shift = 56; shift >= 0; shift -= 8) {
+      buffer[position++] = (byte) (value >>> shift);
+    }
+  }
+
+  public int length() {
+    return position;
+  }
+
+  // 내부 배열 (앞의 length() 바이트만 유효)
+  public byte[] array() {
+    return buffer;
+  }
+
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buffer, position);
+  }
+
+  private void ensureCapacity(int additional) {
+    if (position + additional > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + additional));
+    }
+  }
+}
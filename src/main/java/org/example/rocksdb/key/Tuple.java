@@ -0,0 +1,26 @@
+package org.example.rocksdb.key;
+
+import java.util.List;
+
+/**
+ * 여러 요소로 된 키 (예: tenant + timestamp). {@link KeyEncoders#tuple} 로 인코딩하며, 앞쪽 요소만
+ * 가진 튜플은 prefix 로 쓸 수 있다.
+ */
+public record Tuple(List<Object> elements) {
+
+  public Tuple {
+    elements = List.copyOf(elements);
+  }
+
+  public static Tuple of(Object... elements) {
+    return new Tuple(List.of(elements));
+  }
+
+  public int size() {
+    return elements.size();
+  }
+
+  public <T> T get(int index, Class<T> type) {
+    return type.cast(elements.get(index));
+  }
+}
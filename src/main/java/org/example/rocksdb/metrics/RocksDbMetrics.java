@@ -0,0 +1,166 @@
+package org.example.rocksdb.metrics;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.ToDoubleFunction;
+import lombok.RequiredArgsConstructor;
+import org.example.rocksdb.conf.ColumnFamilyRegistry;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.HistogramData;
+import org.rocksdb.HistogramType;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Statistics;
+import org.rocksdb.TickerType;
+import org.springframework.stereotype.Component;
+
+/**
+ * RocksDB 내부 통계를 Micrometer 로 노출한다. 값은 scrape 시점에 읽는다.
+ * <ul>
+ *   <li>Statistics ticker (누적값) → FunctionCounter: rocksdb.block.cache.hit ...</li>
+ *   <li>Statistics histogram → Gauge: rocksdb.db.get{stat=p50|p95|p99|avg|max} ...</li>
+ *   <li>Column Family 별 DB property → Gauge: rocksdb.live.sst.files.size{cf=users} ...
+ *       (실행 중 만들어진 CF 포함)</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class RocksDbMetrics implements MeterBinder {
+
+  private static final List<TickerType> TICKERS = List.of(
+      TickerType.BLOCK_CACHE_HIT,
+      TickerType.BLOCK_CACHE_MISS,
+      TickerType.BLOCK_CACHE_DATA_HIT,
+      TickerType.BLOCK_CACHE_DATA_MISS,
+      TickerType.BLOCK_CACHE_INDEX_HIT,
+      TickerType.BLOCK_CACHE_INDEX_MISS,
+      TickerType.BLOCK_CACHE_FILTER_HIT,
+      TickerType.BLOCK_CACHE_FILTER_MISS,
+      TickerType.BLOOM_FILTER_USEFUL,
+      TickerType.BLOOM_FILTER_FULL_POSITIVE,
+      TickerType.BLOOM_FILTER_FULL_TRUE_POSITIVE,
+      TickerType.BLOOM_FILTER_PREFIX_CHECKED,
+      TickerType.BLOOM_FILTER_PREFIX_USEFUL,
+      TickerType.MEMTABLE_HIT,
+      TickerType.MEMTABLE_MISS,
+      TickerType.STALL_MICROS,
+      TickerType.COMPACT_READ_BYTES,
+      TickerType.COMPACT_WRITE_BYTES,
+      TickerType.FLUSH_WRITE_BYTES,
+      TickerType.BYTES_WRITTEN,
+      TickerType.BYTES_READ,
+      TickerType.NUMBER_KEYS_WRITTEN,
+      TickerType.NUMBER_KEYS_READ,
+      TickerType.WAL_FILE_BYTES,
+      TickerType.WAL_FILE_SYNCED,
+      TickerType.WRITE_DONE_BY_SELF,
+      TickerType.WRITE_DONE_BY_OTHER);
+
+  private static final List<HistogramType> HISTOGRAMS = List.of(
+      HistogramType.DB_GET,
+      HistogramType.DB_WRITE,
+      HistogramType.DB_MULTIGET,
+      HistogramType.DB_SEEK,
+      HistogramType.COMPACTION_TIME,
+      HistogramType.FLUSH_TIME,
+      HistogramType.WRITE_STALL,
+      HistogramType.SST_READ_MICROS);
+
+  private static final List<String> COLUMN_FAMILY_PROPERTIES = List.of(
+      "rocksdb.cur-size-all-mem-tables",
+      "rocksdb.num-immutable-mem-table",
+      "rocksdb.estimate-pending-compaction-bytes",
+      "rocksdb.live-sst-files-size",
+      "rocksdb.total-sst-files-size",
+      "rocksdb.estimate-num-keys",
+      "rocksdb.estimate-table-readers-mem",
+      "rocksdb.num-files-at-level0");
+
+  private static final List<String> DB_PROPERTIES = List.of(
+      "rocksdb.num-running-compactions",
+      "rocksdb.num-running-flushes",
+      "rocksdb.actual-delayed-write-rate",
+      "rocksdb.is-write-stopped",
+      "rocksdb.block-cache-usage");
+
+  private final RocksDB rocksDB;
+  private final Statistics statistics;
+  private final ColumnFamilyRegistry columnFamilyRegistry;
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    for (TickerType ticker : TICKERS) {
+      FunctionCounter.builder(meterName(ticker.name()), statistics,
+              stats -> stats.isOwningHandle() ? stats.getTickerCount(ticker) : 0)
+          .register(registry);
+    }
+
+    for (HistogramType histogram : HISTOGRAMS) {
+      String name = meterName(histogram.name());
+      histogramGauge(registry, name, "p50", histogram, HistogramData::getMedian);
+      histogramGauge(registry, name, "p95", histogram, HistogramData::getPercentile95);
+      histogramGauge(registry, name, "p99", histogram, HistogramData::getPercentile99);
+      histogramGauge(registry, name, "avg", histogram, HistogramData::getAverage);
+      histogramGauge(registry, name, "max", histogram, HistogramData::getMax);
+    }
+
+    columnFamilyRegistry.names().forEach(name -> bindColumnFamily(registry, name));
+    columnFamilyRegistry.onCreate(name -> bindColumnFamily(registry, name));
+    for (String property : DB_PROPERTIES) {
+      Gauge.builder(meterName(property), rocksDB, db -> longProperty(db, property))
+          .register(registry);
+    }
+  }
+
+  // 삭제된 CF 의 gauge 는 NaN
+  private void bindColumnFamily(MeterRegistry registry, String name) {
+    for (String property : COLUMN_FAMILY_PROPERTIES) {
+      Gauge.builder(meterName(property), rocksDB, db -> columnFamilyRegistry.find(name)
+              .map(handle -> longProperty(db, handle, property))
+              .orElse(Double.NaN))
+          .tag("cf", name)
+          .register(registry);
+    }
+  }
+
+  private void histogramGauge(MeterRegistry registry, String name, String stat,
+      HistogramType histogram, ToDoubleFunction<HistogramData> value) {
+    Gauge.builder(name, statistics, stats -> stats.isOwningHandle()
+            ? value.applyAsDouble(stats.getHistogramData(histogram)) : Double.NaN)
+        .tag("stat", stat)
+        .register(registry);
+  }
+
+  // 종료 중(핸들이 닫힌 뒤)에 scrape 되면 NaN
+  private static double longProperty(RocksDB db, ColumnFamilyHandle handle, String property) {
+    if (!db.isOwningHandle() || !handle.isOwningHandle()) {
+      return Double.NaN;
+    }
+    try {
+      return db.getLongProperty(handle, property);
+    } catch (RocksDBException e) {
+      return Double.NaN;
+    }
+  }
+
+  private static double longProperty(RocksDB db, String property) {
+    if (!db.isOwningHandle()) {
+      return Double.NaN;
+    }
+    try {
+      return db.getLongProperty(property);
+    } catch (RocksDBException e) {
+      return Double.NaN;
+    }
+  }
+
+  // rocksdb.live-sst-files-size → rocksdb.live.sst.files.size, BLOCK_CACHE_HIT → rocksdb.block.cache.hit
+  private static String meterName(String name) {
+    String normalized = name.toLowerCase(Locale.ROOT).replace('-', '.').replace('_', '.');
+    return normalized.startsWith("rocksdb.") ? normalized : "rocksdb." + normalized;
+  }
+}
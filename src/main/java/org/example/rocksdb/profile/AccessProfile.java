@@ -0,0 +1,24 @@
+package org.example.rocksdb.profile;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@link AccessProfiler} 의 집계 결과. sampled* 는 표본 수, estimated* 는 표본 수 / sampleRate.
+ */
+public record AccessProfile(Instant since, double sampleRate, long sampledReads,
+                            long sampledWrites, double readRatio, List<HotKey> hotReadKeys,
+                            List<HotKey> hotWriteKeys, List<HotKey> hotReadPrefixes,
+                            List<HotKey> hotWritePrefixes, List<SizeBucket> readValueSizes,
+                            List<SizeBucket> writeValueSizes) {
+
+  // sampledCount 는 count-min sketch 추정값이라 실제보다 클 수 있다
+  public record HotKey(String key, long sampledCount, long estimatedCount) {
+
+  }
+
+  // 크기가 (이전 버킷의 upTo, upTo] 바이트인 값의 표본 수와 전체 표본 중 비율
+  public record SizeBucket(long upTo, long sampledCount, double share) {
+
+  }
+}
@@ -0,0 +1,175 @@
+package org.example.rocksdb.profile;
+
+import java.nio.charset.Charset;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import org.example.rocksdb.conf.RocksDbProperties.ProfilerProperties;
+import org.example.rocksdb.profile.AccessProfile.HotKey;
+import org.example.rocksdb.profile.AccessProfile.SizeBucket;
+
+/**
+ * Column Family 하나의 접근 패턴을 표본 추출로 집계한다.
+ * <ul>
+ *   <li>읽기/쓰기별 hot key 와 hot prefix (키의 첫 구분자까지) 상위 k 개: {@link HeavyHitters}</li>
+ *   <li>읽기/쓰기 비율, 읽은/쓴 값 크기 분포 (2 의 거듭제곱 버킷)</li>
+ * </ul>
+ * 표본이 아닌 호출은 난수 하나만 뽑고 끝나므로, 전체 처리량에서의 비용은 sampleRate 에 비례한다.
+ */
+public class AccessProfiler {
+
+  private static final int SIZE_BUCKETS = Integer.SIZE + 1;
+  // 상위 k 개를 안정적으로 고르기 위해 후보는 더 많이 둔다
+  private static final int CANDIDATES_PER_TOP_KEY = 4;
+
+  private final double sampleRate;
+  private final int topKeys;
+  private final String prefixDelimiter;
+  private final HeavyHitters readKeys;
+  private final HeavyHitters writeKeys;
+  private final HeavyHitters readPrefixes;
+  private final HeavyHitters writePrefixes;
+  private final LongAdder reads = new LongAdder();
+  private final LongAdder writes = new LongAdder();
+  private final LongAdder[] readSizes = sizeBuckets();
+  private final LongAdder[] writeSizes = sizeBuckets();
+  private volatile Instant since = Instant.now();
+
+  public AccessProfiler(ProfilerProperties properties) {
+    this.sampleRate = properties.getSampleRate();
+    this.topKeys = properties.getTopKeys();
+    this.prefixDelimiter = properties.getPrefixDelimiter();
+    int depth = properties.getSketchDepth();
+    int width = properties.getSketchWidth();
+    int candidates = topKeys * CANDIDATES_PER_TOP_KEY;
+    this.readKeys = new HeavyHitters(depth, width, candidates);
+    this.writeKeys = new HeavyHitters(depth, width, candidates);
+    this.readPrefixes = new HeavyHitters(depth, width, candidates);
+    this.writePrefixes = new HeavyHitters(depth, width, candidates);
+  }
+
+  public void recordRead(String key) {
+    if (sampled()) {
+      reads.increment();
+      record(readKeys, readPrefixes, key);
+    }
+  }
+
+  public void recordWrite(String key) {
+    if (sampled()) {
+      writes.increment();
+      record(writeKeys, writePrefixes, key);
+    }
+  }
+
+  // 키 바이트로 받은 호출은 표본일 때만 String 으로 바꾼다
+  public void recordRead(byte[] key, Charset charset) {
+    if (sampled()) {
+      reads.increment();
+      record(readKeys, readPrefixes, new String(key, charset));
+    }
+  }
+
+  public void recordWrite(byte[] key, Charset charset) {
+    if (sampled()) {
+      writes.increment();
+      record(writeKeys, writePrefixes, new String(key, charset));
+    }
+  }
+
+  // 저장소에서 읽은 값의 크기 (캐시 적중은 제외)
+  public void recordReadSize(int size) {
+    if (sampled()) {
+      readSizes[bucket(size)].increment();
+    }
+  }
+
+  public void recordWriteSize(int size) {
+    if (sampled()) {
+      writeSizes[bucket(size)].increment();
+    }
+  }
+
+  public AccessProfile snapshot() {
+    long sampledReads = reads.sum();
+    long sampledWrites = writes.sum();
+    long total = sampledReads + sampledWrites;
+    synchronized (this) {
+      return new AccessProfile(since, sampleRate, sampledReads, sampledWrites,
+          total == 0 ? 0 : (double) sampledReads / total,
+          hotKeys(readKeys), hotKeys(writeKeys), hotKeys(readPrefixes), hotKeys(writePrefixes),
+          sizes(readSizes), sizes(writeSizes));
+    }
+  }
+
+  public synchronized void reset() {
+    readKeys.clear();
+    writeKeys.clear();
+    readPrefixes.clear();
+    writePrefixes.clear();
+    reads.reset();
+    writes.reset();
+    for (int i = 0; i < SIZE_BUCKETS; i++) {
+      readSizes[i].reset();
+      writeSizes[i].reset();
+    }
+    since = Instant.now();
+  }
+
+  private boolean sampled() {
+    return sampleRate >= 1
+        || sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+  }
+
+  private synchronized void record(HeavyHitters keys, HeavyHitters prefixes, String key) {
+    keys.add(key);
+    int end = prefixDelimiter.isEmpty() ? -1 : key.indexOf(prefixDelimiter);
+    if (end >= 0) {
+      prefixes.add(key.substring(0, end + prefixDelimiter.length()));
+    }
+  }
+
+  private List<HotKey> hotKeys(HeavyHitters heavyHitters) {
+    List<HotKey> hotKeys = new ArrayList<>();
+    for (Map.Entry<String, Long> entry : heavyHitters.top(topKeys)) {
+      hotKeys.add(new HotKey(entry.getKey(), entry.getValue(), estimated(entry.getValue())));
+    }
+    return hotKeys;
+  }
+
+  private long estimated(long sampled) {
+    return sampleRate > 0 ? Math.round(sampled / Math.min(sampleRate, 1)) : 0;
+  }
+
+  private static List<SizeBucket> sizes(LongAdder[] buckets) {
+    long[] counts = new long[SIZE_BUCKETS];
+    long total = 0;
+    for (int i = 0; i < SIZE_BUCKETS; i++) {
+      counts[i] = buckets[i].sum();
+      total += counts[i];
+    }
+    List<SizeBucket> sizes = new ArrayList<>();
+    for (int i = 0; i < SIZE_BUCKETS; i++) {
+      if (counts[i] > 0) {
+        sizes.add(new SizeBucket(1L << i, counts[i], (double) counts[i] / total));
+      }
+    }
+    return sizes;
+  }
+
+  // size 이상인 가장 작은 2 의 거듭제곱의 지수
+  private static int bucket(int size) {
+    return size <= 1 ? 0 : Integer.SIZE - Integer.numberOfLeadingZeros(size - 1);
+  }
+
+  private static LongAdder[] sizeBuckets() {
+    LongAdder[] buckets = new LongAdder[SIZE_BUCKETS];
+    for (int i = 0; i < SIZE_BUCKETS; i++) {
+      buckets[i] = new LongAdder();
+    }
+    return buckets;
+  }
+}
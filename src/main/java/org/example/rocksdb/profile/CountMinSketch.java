@@ -0,0 +1,67 @@
+package org.example.rocksdb.profile;
+
+import java.util.Arrays;
+
+/**
+ * 키별 횟수를 고정 크기 (depth x width) 카운터로 근사하는 count-min sketch.
+ * 추정값은 실제 횟수 이상이며, 초과분은 다른 키와의 해시 충돌에서만 생긴다.
+ * 스레드 안전하지 않으므로 호출하는 쪽에서 동기화한다.
+ */
+public final class CountMinSketch {
+
+  private final long[][] counters;
+  private final int mask;
+
+  // width 는 2 의 거듭제곱으로 올린다
+  public CountMinSketch(int depth, int width) {
+    if (depth < 1 || width < 1) {
+      throw new IllegalArgumentException("depth and width must be positive");
+    }
+    int size = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+    this.counters = new long[depth][size];
+    this.mask = size - 1;
+  }
+
+  // 더한 뒤의 추정값을 반환한다
+  public long add(String key, long count) {
+    int hash = key.hashCode();
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < counters.length; row++) {
+      int index = index(hash, row);
+      counters[row][index] += count;
+      estimate = Math.min(estimate, counters[row][index]);
+    }
+    return estimate;
+  }
+
+  public long estimate(String key) {
+    int hash = key.hashCode();
+    long estimate = Long.MAX_VALUE;
+    for (int row = 0; row < counters.length; row++) {
+      estimate = Math.min(estimate, counters[row][index(hash, row)]);
+    }
+    return estimate;
+  }
+
+  public void clear() {
+    for (long[] row : counters) {
+      Arrays.fill(row, 0);
+    }
+  }
+
+  // 행마다 다른 seed 로 따로 섞는다. (h1 + row * h2) 식의 double hashing 은 width 가 작으면
+  // 서로 다른 버킷 조합이 width^2 개뿐이라 한 행에서 겹친 키가 모든 행에서 겹치기 쉽다
+  private int index(int hash, int row) {
+    return mix(hash + row * 0x9e3779b9) & mask;
+  }
+
+  // String.hashCode 의 하위 비트 편향을 섞는다 (murmur3 finalizer)
+  private static int mix(int h) {
+    h ^= h >>> 16;
+    h *= 0x85ebca6b;
+    h ^= h >>> 13;
+    h *= 0xc2b2ae35;
+    h ^= h >>> 16;
+    return h;
+  }
+}
@@ -0,0 +1,56 @@
+package org.example.rocksdb.profile;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * count-min sketch 와 후보 목록으로 자주 나오는 키 상위 k 개를 추적한다.
+ * 후보 목록은 capacity 개까지만 두고, 가득 차면 추정값이 가장 작은 후보보다 큰 키만 그 자리를
+ * 차지한다. 스레드 안전하지 않다.
+ */
+final class HeavyHitters {
+
+  private final CountMinSketch sketch;
+  private final int capacity;
+  private final Map<String, Long> candidates = new HashMap<>();
+
+  HeavyHitters(int depth, int width, int capacity) {
+    this.sketch = new CountMinSketch(depth, width);
+    this.capacity = capacity;
+  }
+
+  void add(String key) {
+    long estimate = sketch.add(key, 1);
+    if (candidates.containsKey(key) || candidates.size() < capacity) {
+      candidates.put(key, estimate);
+      return;
+    }
+    Map.Entry<String, Long> smallest = null;
+    for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+      if (smallest == null || candidate.getValue() < smallest.getValue()) {
+        smallest = candidate;
+      }
+    }
+    if (estimate > smallest.getValue()) {
+      candidates.remove(smallest.getKey());
+      candidates.put(key, estimate);
+    }
+  }
+
+  // 추정 횟수가 큰 순서로 k 개 (키, 추정 횟수)
+  List<Map.Entry<String, Long>> top(int k) {
+    List<Map.Entry<String, Long>> top = new ArrayList<>();
+    candidates.keySet().forEach(key -> top.add(Map.entry(key, sketch.estimate(key))));
+    top.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+        .thenComparing(Map.Entry.comparingByKey()));
+    return top.subList(0, Math.min(k, top.size()));
+  }
+
+  void clear() {
+    sketch.clear();
+    candidates.clear();
+  }
+}
@@ -0,0 +1,38 @@
+package org.example.rocksdb.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link KeyValueRepository} 의 비동기 버전. {@link RepositoryExecutors#async} 로 만든다.
+ * 단건 연산과 스캔/대량 연산은 서로 다른 executor 에서 실행되므로 긴 스캔이 단건 조회를 막지 않는다.
+ */
+public interface AsyncKeyValueRepository<K, V> {
+
+  CompletableFuture<Void> save(K key, V value);
+
+  CompletableFuture<V> find(K key);
+
+  CompletableFuture<Void> delete(K key);
+
+  CompletableFuture<List<V>> findAll();
+
+  CompletableFuture<Map<K, V>> findAll(Collection<K> keys);
+
+  CompletableFuture<List<V>> findByPrefix(K prefix);
+
+  CompletableFuture<Page<V>> findPage(String cursor, int limit, ScanDirection direction);
+
+  CompletableFuture<Page<V>> findPageByPrefix(K prefix, String cursor, int limit,
+      ScanDirection direction);
+
+  CompletableFuture<Void> saveAll(Map<K, V> entries);
+
+  CompletableFuture<Void> deleteAll(List<K> keys);
+
+  CompletableFuture<Boolean> exists(K key);
+
+  CompletableFuture<Long> count();
+}
@@ -0,0 +1,83 @@
+package org.example.rocksdb.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+final class AsyncRepository<K, V> implements AsyncKeyValueRepository<K, V> {
+
+  private final KeyValueRepository<K, V> repository;
+  private final Executor point;
+  private final Executor scan;
+
+  AsyncRepository(KeyValueRepository<K, V> repository, Executor point, Executor scan) {
+    this.repository = repository;
+    this.point = point;
+    this.scan = scan;
+  }
+
+  @Override
+  public CompletableFuture<Void> save(K key, V value) {
+    return CompletableFuture.runAsync(() -> repository.save(key, value), point);
+  }
+
+  @Override
+  public CompletableFuture<V> find(K key) {
+    return CompletableFuture.supplyAsync(() -> repository.find(key), point);
+  }
+
+  @Override
+  public CompletableFuture<Void> delete(K key) {
+    return CompletableFuture.runAsync(() -> repository.delete(key), point);
+  }
+
+  @Override
+  public CompletableFuture<List<V>> findAll() {
+    return CompletableFuture.supplyAsync(repository::findAll, scan);
+  }
+
+  @Override
+  public CompletableFuture<Map<K, V>> findAll(Collection<K> keys) {
+    return CompletableFuture.supplyAsync(() -> repository.findAll(keys), point);
+  }
+
+  @Override
+  public CompletableFuture<List<V>> findByPrefix(K prefix) {
+    return CompletableFuture.supplyAsync(() -> repository.findByPrefix(prefix), scan);
+  }
+
+  @Override
+  public CompletableFuture<Page<V>> findPage(String cursor, int limit, ScanDirection direction) {
+    return CompletableFuture.supplyAsync(
+        () -> repository.findPage(cursor, limit, direction), scan);
+  }
+
+  @Override
+  public CompletableFuture<Page<V>> findPageByPrefix(K prefix, String cursor, int limit,
+      ScanDirection direction) {
+    return CompletableFuture.supplyAsync(
+        () -> repository.findPageByPrefix(prefix, cursor, limit, direction), scan);
+  }
+
+  @Override
+  public CompletableFuture<Void> saveAll(Map<K, V> entries) {
+    return CompletableFuture.runAsync(() -> repository.saveAll(entries), scan);
+  }
+
+  @Override
+  public CompletableFuture<Void> deleteAll(List<K> keys) {
+    return CompletableFuture.runAsync(() -> repository.deleteAll(keys), scan);
+  }
+
+  @Override
+  public CompletableFuture<Boolean> exists(K key) {
+    return CompletableFuture.supplyAsync(() -> repository.exists(key), point);
+  }
+
+  @Override
+  public CompletableFuture<Long> count() {
+    return CompletableFuture.supplyAsync(repository::count, point);
+  }
+}
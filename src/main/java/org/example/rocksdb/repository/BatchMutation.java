@@ -0,0 +1,13 @@
+package org.example.rocksdb.repository;
+
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+
+/**
+ * 하나의 WriteBatch 에 기록될 쓰기 묶음. group commit 시 여러 호출자의 mutation 이 같은 batch 에 합쳐진다.
+ */
+@FunctionalInterface
+public interface BatchMutation {
+
+  void applyTo(WriteBatch batch) throws RocksDBException;
+}
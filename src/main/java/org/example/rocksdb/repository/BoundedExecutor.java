@@ -0,0 +1,83 @@
+package org.example.rocksdb.repository;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 작업마다 virtual thread 를 만들되 동시에 실행되는 작업은 concurrency 개로 제한한다.
+ * JNI 호출 중인 virtual thread 는 carrier thread 를 점유하므로, 동시 실행 수를 묶어 두어야
+ * 다른 작업이 쓸 carrier 가 남는다. 대기 작업이 maxQueued 를 넘으면 거부한다.
+ */
+final class BoundedExecutor implements Executor, AutoCloseable {
+
+  private final String name;
+  private final int concurrency;
+  private final int capacity;
+  private final ExecutorService executor;
+  private final Semaphore permits;
+  private final AtomicInteger pending = new AtomicInteger();
+  private final LongAdder rejected = new LongAdder();
+
+  BoundedExecutor(String name, int concurrency, int maxQueued) {
+    if (concurrency < 1 || maxQueued < 0) {
+      throw new IllegalArgumentException(
+          "Invalid executor bounds: " + name + " " + concurrency + "/" + maxQueued);
+    }
+    this.name = name;
+    this.concurrency = concurrency;
+    this.capacity = concurrency + maxQueued;
+    this.executor = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("rocksdb-" + name + "-", 0).factory());
+    this.permits = new Semaphore(concurrency, true);
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    if (pending.incrementAndGet() > capacity) {
+      pending.decrementAndGet();
+      rejected.increment();
+      throw new RejectedExecutionException("Too many pending " + name + " operations");
+    }
+    try {
+      executor.execute(() -> {
+        permits.acquireUninterruptibly();
+        try {
+          task.run();
+        } finally {
+          permits.release();
+          pending.decrementAndGet();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      pending.decrementAndGet();
+      throw e;
+    }
+  }
+
+  String name() {
+    return name;
+  }
+
+  int active() {
+    return concurrency - permits.availablePermits();
+  }
+
+  int queued() {
+    return Math.max(0, pending.get() - active());
+  }
+
+  long rejected() {
+    return rejected.sum();
+  }
+
+  // 이미 받은 작업이 끝날 때까지 기다린다
+  @Override
+  public void close() {
+    executor.close();
+  }
+}
@@ -0,0 +1,125 @@
+package org.example.rocksdb.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.ColumnFamilyRegistry;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.BulkLoadProperties;
+import org.example.rocksdb.exception.RocksDbException;
+import org.rocksdb.DBOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.springframework.stereotype.Component;
+
+/**
+ * 대량 적재: 입력을 키 순서로 정렬해 대상 CF 의 옵션으로 SST 파일을 만들고 ingestExternalFile 로 넣는다.
+ * memtable, WAL 을 거치지 않고, 겹치지 않는 SST 는 가능한 가장 아래 level 에 바로 놓이므로
+ * saveAll 로 넣을 때의 flush/compaction 재작성과 write stall 이 없다.
+ * 일반 쓰기와 동시에 실행할 수 있으며, 모든 키 잠금은 ingest 와 그 사이 바뀐 키의 보정 동안만 잡는다.
+ */
+@Slf4j
+@Component
+public class BulkImporter {
+
+  private final RocksDB rocksDB;
+  private final ColumnFamilyRegistry columnFamilyRegistry;
+  private final BulkLoadProperties properties;
+  private final Path workDir;
+  private final Set<String> loading = ConcurrentHashMap.newKeySet();
+
+  public BulkImporter(RocksDB rocksDB, ColumnFamilyRegistry columnFamilyRegistry,
+      RocksDbProperties properties) {
+    this.rocksDB = rocksDB;
+    this.columnFamilyRegistry = columnFamilyRegistry;
+    this.properties = properties.getBulkLoad();
+    this.workDir = Path.of(this.properties.getWorkDir() != null
+        ? this.properties.getWorkDir() : properties.getPath() + "-bulk-load");
+  }
+
+  /**
+   * entries 를 끝까지 읽어 repository 의 CF 에 적재한다. 같은 키는 나중 값이 남는다.
+   */
+  public <V> BulkLoadResult load(RocksDbRepository<V> repository,
+      Iterator<Map.Entry<String, V>> entries) {
+    String name = repository.columnFamilyName;
+    if (!loading.add(name)) {
+      throw new IllegalStateException("Bulk load is already running: " + name);
+    }
+    long start = System.nanoTime();
+    Path directory = null;
+    try {
+      Files.createDirectories(workDir);
+      directory = Files.createTempDirectory(workDir, name + "-");
+      try (DBOptions dbOptions = new DBOptions();
+          Options options = new Options(dbOptions, columnFamilyRegistry.options(name));
+          SortedRuns runs = new SortedRuns(directory, options,
+              properties.getRunSize().toBytes(), properties.getTargetFileSize().toBytes());
+          BulkLoadFixups<V> fixups =
+              repository.bulkLoadFixups(directory.resolve("stale-index-entries"))) {
+        while (entries.hasNext()) {
+          Map.Entry<String, V> entry = entries.next();
+          runs.add(repository.keyBytes(entry.getKey()),
+              repository.encodeForBulkLoad(entry.getValue()));
+        }
+        List<String> files = runs.finish(fixups::stage);
+        fixups.prepare();
+        if (!files.isEmpty()) {
+          fixups.ingest(files, options, () -> {
+            ingest(repository, files);
+            repository.invalidateAll();
+          });
+          fixups.complete();
+        }
+        BulkLoadResult result = new BulkLoadResult(name, fixups.entries(), fixups.added(),
+            files.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Bulk loaded {}", result);
+        return result;
+      }
+    } catch (IOException e) {
+      log.error("Error preparing bulk load of column family: {}", name, e);
+      throw new UncheckedIOException(e);
+    } catch (RocksDBException e) {
+      log.error("Error bulk loading column family: {}", name, e);
+      throw new RocksDbException("Failed to bulk load: " + name, e);
+    } finally {
+      loading.remove(name);
+      deleteRecursively(directory);
+    }
+  }
+
+  // 파일을 복사하지 않고 hard link 로 옮긴다. memtable 과 겹치면 flush 후 ingest
+  private void ingest(RocksDbRepository<?> repository, List<String> files)
+      throws RocksDBException {
+    try (IngestExternalFileOptions ingestOptions = new IngestExternalFileOptions()
+        .setMoveFiles(true)
+        .setSnapshotConsistency(true)
+        .setAllowGlobalSeqNo(true)
+        .setAllowBlockingFlush(true)) {
+      rocksDB.ingestExternalFile(repository.columnFamilyHandle, files, ingestOptions);
+    }
+  }
+
+  private static void deleteRecursively(Path directory) {
+    if (directory == null) {
+      return;
+    }
+    try (Stream<Path> paths = Files.walk(directory)) {
+      paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+    } catch (IOException e) {
+      log.warn("Failed to delete bulk load directory: {}", directory, e);
+    }
+  }
+}
@@ -0,0 +1,335 @@
+package org.example.rocksdb.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.example.rocksdb.codec.Codec;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Snapshot;
+import org.rocksdb.SstFileReader;
+import org.rocksdb.SstFileReaderIterator;
+import org.rocksdb.WriteBatch;
+
+/**
+ * ingest 는 WriteBatch 를 거치지 않으므로 live key 카운터, 보조 인덱스, 만료 목록을 따로 맞추고,
+ * 덮어쓰는 키에 남은 부분 갱신을 지운다.
+ * <ul>
+ *   <li>ingest 전 (stage, prepare): 잠금 없이 snapshot 의 값과 비교해 새 키 수를 세고 새 인덱스/만료
+ *       엔트리를 먼저 넣는다</li>
+ *   <li>ingest (ingest): 모든 키 잠금을 잡고, snapshot 이후 일반 쓰기로 바뀐 적재 대상 키만 다시 확인해
+ *       ingest 와 카운터/인덱스 보정을 한다</li>
+ *   <li>ingest 후 (complete): 파일에 모아 둔 이전 인덱스 엔트리를 지운다</li>
+ * </ul>
+ * 중간에 실패해도 남는 것은 본문과 맞지 않는 인덱스/만료 엔트리뿐이며, 인덱스 조회와 만료 삭제가
+ * 본문 값을 다시 확인하므로 결과에는 나타나지 않는다. (이전 만료 엔트리도 만료 삭제 시 정리된다)
+ */
+final class BulkLoadFixups<V> implements AutoCloseable {
+
+  private static final int CHUNK_SIZE = 1000;
+
+  private final RocksDB rocksDB;
+  private final ColumnFamilyHandle columnFamilyHandle;
+  private final GroupCommitWriter writer;
+  private final KeyLocks keyLocks;
+  private final LiveKeyCounter counter;
+  private final List<SecondaryIndex<V, ?>> indexes;
+  private final ExpiryQueue expiryQueue;
+  // 부분 갱신을 지원하지 않는 repository 면 null
+  private final FieldPatches<V> patches;
+  private final Codec<V> codec;
+  private final Path staleEntriesFile;
+  private final DataOutputStream staleEntries;
+  private final List<byte[]> keys = new ArrayList<>(CHUNK_SIZE);
+  private final List<byte[]> values = new ArrayList<>(CHUNK_SIZE);
+  // snapshot 보다 먼저 추적을 시작해 snapshot 에 보이지 않는 일반 쓰기를 모두 기록한다
+  private final KeyLocks.WrittenKeys written;
+  private final Snapshot snapshot;
+  private final ReadOptions snapshotRead;
+  private long entries;
+  private long added;
+
+  BulkLoadFixups(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle,
+      GroupCommitWriter writer, KeyLocks keyLocks, LiveKeyCounter counter,
+      List<SecondaryIndex<V, ?>> indexes, ExpiryQueue expiryQueue, FieldPatches<V> patches,
+      Codec<V> codec, Path staleEntriesFile) {
+    this.rocksDB = rocksDB;
+    this.columnFamilyHandle = columnFamilyHandle;
+    this.writer = writer;
+    this.keyLocks = keyLocks;
+    this.counter = counter;
+    this.indexes = indexes;
+    this.expiryQueue = expiryQueue;
+    this.patches = patches;
+    this.codec = codec;
+    this.staleEntriesFile = staleEntriesFile;
+    try {
+      this.staleEntries = new DataOutputStream(
+          new BufferedOutputStream(Files.newOutputStream(staleEntriesFile)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.written = keyLocks.track(new byte[0], null);
+    this.snapshot = rocksDB.getSnapshot();
+    this.snapshotRead = new ReadOptions().setSnapshot(snapshot);
+  }
+
+  void stage(byte[] key, byte[] value) throws RocksDBException {
+    keys.add(key);
+    values.add(value);
+    if (keys.size() == CHUNK_SIZE) {
+      stageChunk();
+    }
+  }
+
+  long entries() {
+    return entries;
+  }
+
+  long added() {
+    return added;
+  }
+
+  /**
+   * 마지막 항목까지 stage 한 뒤, ingest 전에 호출한다.
+   */
+  void prepare() throws RocksDBException {
+    stageChunk();
+  }
+
+  /**
+   * prepare 뒤에 호출한다. 모든 키 잠금을 잡은 동안 ingestion 을 실행하고, stage 이후 일반 쓰기로 바뀐
+   * 키 중 적재 파일에 있는 키만 다시 확인해 카운터와 인덱스, 부분 갱신을 맞춘다.
+   */
+  void ingest(List<String> files, Options options, Ingestion ingestion) throws RocksDBException {
+    try (KeyLocks.Held ignored = keyLocks.acquireAll()) {
+      // ingest 가 파일을 옮기므로 먼저 읽는다
+      Map<byte[], byte[]> imported = importedValues(written.keys(), files, options);
+      List<byte[]> changedKeys = new ArrayList<>(imported.keySet());
+      List<byte[]> current = read(null, changedKeys);
+      List<byte[]> staged = read(snapshotRead, changedKeys);
+      ingestion.run();
+      keyLocks.writtenWithoutLocks();
+      for (int i = 0; i < changedKeys.size(); i++) {
+        added += (current.get(i) == null ? 1 : 0) - (staged.get(i) == null ? 1 : 0);
+      }
+      long delta = added;
+      writer.write(batch -> {
+        counter.add(batch, delta);
+        for (int i = 0; i < changedKeys.size(); i++) {
+          byte[] key = changedKeys.get(i);
+          V previous = current.get(i) == null ? null : codec.decode(current.get(i));
+          V value = codec.decode(imported.get(key));
+          for (SecondaryIndex<V, ?> index : indexes) {
+            index.update(batch, key, previous, value);
+          }
+          if (patches != null) {
+            patches.discard(batch, key);
+          }
+        }
+      });
+      if (patches != null) {
+        changedKeys.forEach(patches::cleared);
+      }
+    }
+  }
+
+  /**
+   * ingest 가 끝난 뒤 호출한다.
+   */
+  void complete() throws RocksDBException {
+    try {
+      staleEntries.close();
+      try (DataInputStream in = new DataInputStream(
+          new BufferedInputStream(Files.newInputStream(staleEntriesFile)))) {
+        List<StaleEntry> chunk = new ArrayList<>(CHUNK_SIZE);
+        StaleEntry entry;
+        while ((entry = readStaleEntry(in)) != null) {
+          chunk.add(entry);
+          if (chunk.size() == CHUNK_SIZE) {
+            deleteStaleEntries(chunk);
+          }
+        }
+        deleteStaleEntries(chunk);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  // readOptions 가 null 이면 현재 값
+  private List<byte[]> read(ReadOptions readOptions, List<byte[]> keys) throws RocksDBException {
+    if (keys.isEmpty()) {
+      return List.of();
+    }
+    List<ColumnFamilyHandle> handles = Collections.nCopies(keys.size(), columnFamilyHandle);
+    return readOptions == null
+        ? rocksDB.multiGetAsList(handles, keys)
+        : rocksDB.multiGetAsList(readOptions, handles, keys);
+  }
+
+  // 기록된 키는 적고 파일은 키 순서로 정렬되어 있으므로 키마다 seek 한다
+  private static Map<byte[], byte[]> importedValues(List<byte[]> keys, List<String> files,
+      Options options) throws RocksDBException {
+    Map<byte[], byte[]> imported = new TreeMap<>(Arrays::compareUnsigned);
+    if (keys.isEmpty()) {
+      return imported;
+    }
+    for (String file : files) {
+      try (SstFileReader reader = new SstFileReader(options)) {
+        reader.open(file);
+        try (ReadOptions readOptions = new ReadOptions();
+            SstFileReaderIterator iterator = reader.newIterator(readOptions)) {
+          for (byte[] key : keys) {
+            iterator.seek(key);
+            if (iterator.isValid() && Arrays.equals(iterator.key(), key)) {
+              imported.put(key, iterator.value());
+            }
+          }
+        }
+      }
+    }
+    return imported;
+  }
+
+  private void stageChunk() throws RocksDBException {
+    if (keys.isEmpty()) {
+      return;
+    }
+    List<byte[]> current = rocksDB.multiGetAsList(snapshotRead,
+        Collections.nCopies(keys.size(), columnFamilyHandle), keys);
+    for (byte[] bytes : current) {
+      if (bytes == null) {
+        added++;
+      }
+    }
+    entries += keys.size();
+    boolean expiring = values.stream().anyMatch(TtlCodec::hasExpiry);
+    if (!indexes.isEmpty() || expiring || patches != null) {
+      writer.write(batch -> {
+        stageIndexEntries(batch, current);
+        for (int i = 0; i < keys.size(); i++) {
+          expiryQueue.add(batch, keys.get(i), values.get(i));
+          if (patches != null) {
+            patches.discard(batch, keys.get(i));
+          }
+        }
+      });
+      if (patches != null) {
+        keys.forEach(patches::cleared);
+      }
+    }
+    keys.clear();
+    values.clear();
+  }
+
+  private void stageIndexEntries(WriteBatch batch, List<byte[]> current)
+      throws RocksDBException {
+    if (indexes.isEmpty()) {
+      return;
+    }
+    for (int i = 0; i < keys.size(); i++) {
+      V value = codec.decode(values.get(i));
+      V previous = current.get(i) == null ? null : codec.decode(current.get(i));
+      for (int index = 0; index < indexes.size(); index++) {
+        SecondaryIndex<V, ?> secondaryIndex = indexes.get(index);
+        byte[] entryKey = secondaryIndex.entryKey(value, keys.get(i));
+        byte[] previousKey = previous == null ? null
+            : secondaryIndex.entryKey(previous, keys.get(i));
+        if (Arrays.equals(entryKey, previousKey)) {
+          continue;
+        }
+        secondaryIndex.putEntry(batch, entryKey);
+        if (previousKey != null) {
+          writeStaleEntry(index, keys.get(i), previousKey);
+        }
+      }
+    }
+  }
+
+  private void writeStaleEntry(int index, byte[] primaryKey, byte[] entryKey) {
+    try {
+      staleEntries.writeInt(index);
+      staleEntries.writeInt(primaryKey.length);
+      staleEntries.write(primaryKey);
+      staleEntries.writeInt(entryKey.length);
+      staleEntries.write(entryKey);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static StaleEntry readStaleEntry(DataInputStream in) throws IOException {
+    int index;
+    try {
+      index = in.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    byte[] primaryKey = new byte[in.readInt()];
+    in.readFully(primaryKey);
+    byte[] entryKey = new byte[in.readInt()];
+    in.readFully(entryKey);
+    return new StaleEntry(index, primaryKey, entryKey);
+  }
+
+  // ingest 뒤 다시 저장되어 같은 엔트리를 다시 쓴 키는 남긴다 (묶음의 키 잠금만 잡는다)
+  private void deleteStaleEntries(List<StaleEntry> chunk) throws RocksDBException {
+    if (chunk.isEmpty()) {
+      return;
+    }
+    List<byte[]> primaryKeys = chunk.stream().map(StaleEntry::primaryKey).toList();
+    try (KeyLocks.Held ignored = keyLocks.acquire(primaryKeys)) {
+      List<byte[]> current = rocksDB.multiGetAsList(
+          Collections.nCopies(primaryKeys.size(), columnFamilyHandle), primaryKeys);
+      writer.write(batch -> {
+        for (int i = 0; i < chunk.size(); i++) {
+          StaleEntry entry = chunk.get(i);
+          SecondaryIndex<V, ?> index = indexes.get(entry.index());
+          if (current.get(i) == null || !Arrays.equals(entry.entryKey(),
+              index.entryKey(codec.decode(current.get(i)), entry.primaryKey()))) {
+            index.deleteEntry(batch, entry.entryKey());
+          }
+        }
+      });
+    }
+    chunk.clear();
+  }
+
+  @Override
+  public void close() {
+    snapshotRead.close();
+    rocksDB.releaseSnapshot(snapshot);
+    written.close();
+    try {
+      staleEntries.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @FunctionalInterface
+  interface Ingestion {
+
+    void run() throws RocksDBException;
+  }
+
+  private record StaleEntry(int index, byte[] primaryKey, byte[] entryKey) {
+
+  }
+}
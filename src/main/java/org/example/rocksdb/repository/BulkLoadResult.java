@@ -0,0 +1,7 @@
+package org.example.rocksdb.repository;
+
+// entries: 적재한 키 수 (입력 중복 제거 후), added: 그중 새로 생긴 키 수
+public record BulkLoadResult(String columnFamily, long entries, long added, int files,
+                             long elapsedMillis) {
+
+}
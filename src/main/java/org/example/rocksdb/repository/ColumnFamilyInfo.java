@@ -0,0 +1,5 @@
+package org.example.rocksdb.repository;
+
+public record ColumnFamilyInfo(String name, boolean builtIn, long estimatedKeys) {
+
+}
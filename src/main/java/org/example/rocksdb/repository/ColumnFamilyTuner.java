@@ -0,0 +1,78 @@
+package org.example.rocksdb.repository;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.ColumnFamilyRegistry;
+import org.example.rocksdb.exception.RocksDbException;
+import org.rocksdb.MutableColumnFamilyOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * 실행 중인 DB 의 Column Family 옵션 조회/변경.
+ * RocksDB 가 동적으로 바꿀 수 있는 옵션(write_buffer_size, level0_file_num_compaction_trigger,
+ * compression ...)만 허용되며, 변경은 재시작 시 설정 파일(tuning 프로파일) 값으로 돌아간다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ColumnFamilyTuner {
+
+  private final RocksDB rocksDB;
+  private final ColumnFamilyRegistry columnFamilyRegistry;
+
+  public Map<String, String> currentOptions(String name) {
+    try {
+      return toMap(rocksDB.getOptions(columnFamilyRegistry.get(name)).build().toString());
+    } catch (RocksDBException e) {
+      log.error("Error reading options of column family: {}", name, e);
+      throw new RocksDbException("Failed to read options: " + name, e);
+    }
+  }
+
+  /**
+   * mutable 옵션만 적용한다. 알 수 없거나 재시작이 필요한 옵션이 섞여 있으면 아무것도 바꾸지 않는다.
+   */
+  public Map<String, String> updateOptions(String name, Map<String, String> changes) {
+    if (changes.isEmpty()) {
+      throw new IllegalArgumentException("No options to update");
+    }
+    StringJoiner joiner = new StringJoiner(";");
+    changes.forEach((key, value) -> {
+      if (key.contains("=") || key.contains(";") || value.contains(";")) {
+        throw new IllegalArgumentException("Invalid option: " + key + "=" + value);
+      }
+      joiner.add(key + "=" + value);
+    });
+    MutableColumnFamilyOptions options =
+        MutableColumnFamilyOptions.parse(joiner.toString(), false).build();
+    try {
+      rocksDB.setOptions(columnFamilyRegistry.get(name), options);
+      log.info("Updated options of column family {}: {}", name, changes);
+      return currentOptions(name);
+    } catch (RocksDBException e) {
+      log.error("Error updating options of column family: {}", name, e);
+      if (e.getStatus() != null && e.getStatus().getCode() == Status.Code.InvalidArgument) {
+        throw new IllegalArgumentException(e.getMessage(), e);
+      }
+      throw new RocksDbException("Failed to update options: " + name, e);
+    }
+  }
+
+  // "key1=value1;key2=value2" 형식
+  private static Map<String, String> toMap(String options) {
+    Map<String, String> result = new LinkedHashMap<>();
+    for (String option : options.split(";")) {
+      int separator = option.indexOf('=');
+      if (separator > 0) {
+        result.put(option.substring(0, separator), option.substring(separator + 1));
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,102 @@
+package org.example.rocksdb.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.rocksdb.ReadOptions;
+
+/**
+ * 단건 조회용 direct ByteBuffer (키, 값) 묶음. RocksDB 의 ByteBuffer get 은 Java 힙 배열을 거치지
+ * 않고 native 메모리를 바로 읽고 쓰므로, 키 byte[] 와 결과 byte[] 를 만들지 않는다.
+ * <ul>
+ *   <li>platform 스레드는 스레드별 인스턴스를 계속 쓴다</li>
+ *   <li>virtual 스레드는 공유 pool 에서 빌리고 돌려준다 (스레드마다 direct 메모리를 잡아 두지 않도록).
+ *       pool 크기는 동시 조회 수의 최대치를 넘지 않는다</li>
+ * </ul>
+ * 빌린 스레드 안에서만 쓰고 {@link #release()} 전에 버퍼를 밖으로 넘기지 않는다.
+ */
+final class DirectBuffers {
+
+  // 기본값 ReadOptions. 읽기 전용으로 공유한다
+  static final ReadOptions READ_OPTIONS = new ReadOptions();
+
+  private static final int INITIAL_KEY_CAPACITY = 256;
+  private static final ThreadLocal<DirectBuffers> PER_THREAD = new ThreadLocal<>();
+  private static final Queue<DirectBuffers> POOL = new ConcurrentLinkedQueue<>();
+
+  private final boolean pooled;
+  private ByteBuffer key = ByteBuffer.allocateDirect(INITIAL_KEY_CAPACITY);
+  private ByteBuffer value;
+  private CharsetEncoder encoder;
+
+  private DirectBuffers(boolean pooled, int initialValueCapacity) {
+    this.pooled = pooled;
+    this.value = ByteBuffer.allocateDirect(initialValueCapacity);
+  }
+
+  static DirectBuffers acquire(int initialValueCapacity) {
+    if (Thread.currentThread().isVirtual()) {
+      DirectBuffers buffers = POOL.poll();
+      return buffers != null ? buffers : new DirectBuffers(true, initialValueCapacity);
+    }
+    DirectBuffers buffers = PER_THREAD.get();
+    if (buffers == null) {
+      buffers = new DirectBuffers(false, initialValueCapacity);
+      PER_THREAD.set(buffers);
+    }
+    return buffers;
+  }
+
+  void release() {
+    if (pooled) {
+      POOL.offer(this);
+    }
+  }
+
+  /**
+   * key 를 charset 으로 키 버퍼에 바로 인코딩한다. String.getBytes 처럼 인코딩할 수 없는 문자는
+   * 대체 문자로 바꾼다.
+   */
+  ByteBuffer key(String key, Charset charset) {
+    if (encoder == null || !encoder.charset().equals(charset)) {
+      encoder = charset.newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+    while (true) {
+      encoder.reset();
+      this.key.clear();
+      CoderResult result = encoder.encode(CharBuffer.wrap(key), this.key, true);
+      if (!result.isOverflow()) {
+        result = encoder.flush(this.key);
+      }
+      if (!result.isOverflow()) {
+        return this.key.flip();
+      }
+      this.key = ByteBuffer.allocateDirect(this.key.capacity() * 2);
+    }
+  }
+
+  // 이미 인코딩된 키를 키 버퍼에 복사한다
+  ByteBuffer key(byte[] key) {
+    if (this.key.capacity() < key.length) {
+      this.key = ByteBuffer.allocateDirect(Integer.highestOneBit(key.length - 1) << 1);
+    }
+    return this.key.clear().put(key).flip();
+  }
+
+  ByteBuffer value() {
+    return value.clear();
+  }
+
+  // size 바이트 이상을 담을 수 있도록 값 버퍼를 바꾼다 (2 의 거듭제곱)
+  ByteBuffer growValue(int size) {
+    value = ByteBuffer.allocateDirect(Integer.highestOneBit(size - 1) << 1);
+    return value;
+  }
+}
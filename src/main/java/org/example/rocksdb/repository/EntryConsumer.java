@@ -0,0 +1,13 @@
+package org.example.rocksdb.repository;
+
+import java.io.IOException;
+
+/**
+ * {@link RocksDbRepository#forEach} 로 순회하는 항목을 받는다. 응답 스트림에 바로 쓸 수 있도록
+ * IOException 을 던질 수 있다.
+ */
+@FunctionalInterface
+public interface EntryConsumer<V> {
+
+  void accept(String key, V value) throws IOException;
+}
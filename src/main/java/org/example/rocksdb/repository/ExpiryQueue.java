@@ -0,0 +1,108 @@
+package org.example.rocksdb.repository;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.example.rocksdb.exception.RocksDbException;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatchInterface;
+
+/**
+ * TTL 이 있는 항목을 만료 시각 순으로 나열한 목록.
+ * metadata(default) CF 에 "__expiry__:&lt;cf&gt;:" + 만료 시각(8 bytes big-endian) + 기본 키 를 키로,
+ * 빈 값으로 저장한다. 항목과 같은 WriteBatch 에서 갱신되며, 앞에서부터 스캔하면 만료된 항목만 읽는다.
+ * 대량 적재처럼 이전 엔트리를 지우지 못한 경우가 있으므로 엔트리는 "만료됐을 수 있음" 의 의미이고,
+ * 삭제 전에 항상 본문 값의 만료 시각을 다시 확인한다.
+ */
+final class ExpiryQueue {
+
+  private static final String KEY_PREFIX = "__expiry__:";
+  private static final byte[] EMPTY = new byte[0];
+
+  private final RocksDB rocksDB;
+  private final ColumnFamilyHandle metadataColumnFamily;
+  private final byte[] prefix;
+
+  ExpiryQueue(RocksDB rocksDB, ColumnFamilyHandle metadataColumnFamily, String columnFamilyName) {
+    this.rocksDB = rocksDB;
+    this.metadataColumnFamily = metadataColumnFamily;
+    this.prefix = prefix(columnFamilyName);
+  }
+
+  // 값이 바뀔 때 만료 시각이 달라진 경우에만 엔트리를 옮긴다 (삭제는 current = null)
+  void update(WriteBatchInterface batch, byte[] key, byte[] previous, byte[] current)
+      throws RocksDBException {
+    long previousExpiry = previous == null ? TtlCodec.NO_EXPIRY : TtlCodec.expiresAt(previous);
+    long currentExpiry = current == null ? TtlCodec.NO_EXPIRY : TtlCodec.expiresAt(current);
+    if (previousExpiry == currentExpiry) {
+      return;
+    }
+    if (previousExpiry != TtlCodec.NO_EXPIRY) {
+      batch.delete(metadataColumnFamily, entryKey(previousExpiry, key));
+    }
+    add(batch, key, current);
+  }
+
+  void add(WriteBatchInterface batch, byte[] key, byte[] value) throws RocksDBException {
+    long expiresAt = value == null ? TtlCodec.NO_EXPIRY : TtlCodec.expiresAt(value);
+    if (expiresAt != TtlCodec.NO_EXPIRY) {
+      batch.put(metadataColumnFamily, entryKey(expiresAt, key), EMPTY);
+    }
+  }
+
+  void remove(WriteBatchInterface batch, byte[] entryKey) throws RocksDBException {
+    batch.delete(metadataColumnFamily, entryKey);
+  }
+
+  /**
+   * 만료 시각이 now 이하인 엔트리 키를 만료 순으로 최대 limit 개 반환한다.
+   */
+  List<byte[]> due(long now, int limit) {
+    List<byte[]> entries = new ArrayList<>();
+    try (ScanOptions scanOptions = ScanOptions.forRange(prefix,
+        entryKey(now + 1, new byte[0]));
+        RocksIterator iterator = rocksDB.newIterator(metadataColumnFamily,
+            scanOptions.readOptions())) {
+      for (iterator.seek(prefix); iterator.isValid() && entries.size() < limit;
+          iterator.next()) {
+        entries.add(iterator.key());
+      }
+    }
+    return entries;
+  }
+
+  byte[] primaryKey(byte[] entryKey) {
+    return Arrays.copyOfRange(entryKey, prefix.length + Long.BYTES, entryKey.length);
+  }
+
+  /**
+   * CF 를 삭제할 때 그 CF 의 엔트리를 모두 지운다.
+   */
+  static void removeAll(RocksDB rocksDB, ColumnFamilyHandle metadataColumnFamily,
+      String columnFamilyName) {
+    byte[] prefix = prefix(columnFamilyName);
+    try {
+      TransactionRunner.rangeDeletable(rocksDB)
+          .deleteRange(metadataColumnFamily, prefix, ScanOptions.upperBound(prefix));
+    } catch (RocksDBException e) {
+      throw new RocksDbException("Failed to remove expiry entries: " + columnFamilyName, e);
+    }
+  }
+
+  // 만료 시각은 big-endian 이라 바이트 순서 = 시간 순서 (epoch ms 는 음수가 아님)
+  private byte[] entryKey(long expiresAt, byte[] key) {
+    return ByteBuffer.allocate(prefix.length + Long.BYTES + key.length)
+        .put(prefix)
+        .putLong(expiresAt)
+        .put(key)
+        .array();
+  }
+
+  private static byte[] prefix(String columnFamilyName) {
+    return (KEY_PREFIX + columnFamilyName + ":").getBytes();
+  }
+}
@@ -0,0 +1,83 @@
+package org.example.rocksdb.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * rocksdb.expiry-sweep-interval 마다 모든 repository 의 만료된 항목을 백그라운드 thread 하나에서
+ * 삭제한다. 조회는 만료 시각을 직접 확인하므로 삭제 시점과 무관하게 만료된 항목이 보이지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn("rocksDB") // DB 가 닫히기 전에 진행 중인 삭제가 끝나도록
+public class ExpirySweeper {
+
+  private final UserRepository userRepository;
+  private final ProductRepository productRepository;
+  private final GenericRepositories genericRepositories;
+  private final RocksDbProperties properties;
+  private ScheduledExecutorService scheduler;
+
+  @PostConstruct
+  void start() {
+    Duration interval = properties.getExpirySweepInterval();
+    if (properties.getReplication().isSecondary()) {
+      log.info("Expiry sweeper is disabled on a secondary instance (the primary purges)");
+      return;
+    }
+    if (interval == null || interval.isZero()) {
+      log.info("Expiry sweeper is disabled");
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("expiry-sweeper").daemon().factory());
+    scheduler.scheduleWithFixedDelay(this::sweepQuietly, interval.toMillis(),
+        interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 모든 repository 의 만료된 항목을 지금 삭제한다. 반환값은 삭제한 항목 수.
+   */
+  public long sweep() {
+    List<RocksDbRepository<?>> repositories = new ArrayList<>();
+    repositories.add(userRepository);
+    repositories.add(productRepository);
+    repositories.addAll(genericRepositories.repositories());
+    long purged = 0;
+    for (RocksDbRepository<?> repository : repositories) {
+      purged += repository.purgeExpired();
+    }
+    return purged;
+  }
+
+  private void sweepQuietly() {
+    try {
+      long purged = sweep();
+      if (purged > 0) {
+        log.info("Purged {} expired entries", purged);
+      }
+    } catch (RuntimeException e) {
+      log.error("Expiry sweep failed", e);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    if (scheduler != null) {
+      scheduler.shutdown();
+      scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+}
@@ -0,0 +1,248 @@
+package org.example.rocksdb.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.example.rocksdb.exception.RocksDbException;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatchInterface;
+
+/**
+ * 본문을 읽지 않는 부분 갱신 (blind write). 갱신 연산을 JSON 한 줄로 만들어 patch CF 에 merge 하고,
+ * CF 의 StringAppendOperator 가 같은 키의 연산을 줄바꿈으로 이어 붙인다.
+ * <ul>
+ *   <li>조회: 본문을 읽은 뒤 남은 연산을 순서대로 적용한다</li>
+ *   <li>fold: 연산을 본문에 반영하고 (인덱스 갱신 포함) patch 를 지운다</li>
+ * </ul>
+ * 연산이 있는 키는 메모리에 (키 → 연산 수) 로 기록해 두어, 다른 키의 조회는 patch CF 를 읽지 않는다.
+ * (secondary 인스턴스는 primary 가 쓴 연산을 알 수 없으므로 기록하지 않고 매번 patch CF 를 읽는다)
+ * 부분 갱신은 UTF-8 키를 쓰는 고정 CF 에서만 켜진다.
+ */
+final class FieldPatches<V> {
+
+  // RocksDbInitializer 가 patch CF 에 설정한 StringAppendOperator 구분자
+  static final char DELIMITER = '\n';
+
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final String SET = "set";
+  private static final String INCREMENT = "inc";
+
+  private final RocksDB rocksDB;
+  private final ColumnFamilyHandle columnFamilyHandle;
+  private final Class<V> valueType;
+  // 필드 이름 → 타입 (쓰기 시 검증용)
+  private final Map<String, Class<?>> fields = new HashMap<>();
+  private final Map<String, Integer> pending = new ConcurrentHashMap<>();
+  private final boolean tracksPending;
+
+  FieldPatches(RocksDB rocksDB, ColumnFamilyHandle columnFamilyHandle, Class<V> valueType,
+      boolean tracksPending) {
+    this.rocksDB = rocksDB;
+    this.columnFamilyHandle = columnFamilyHandle;
+    this.valueType = valueType;
+    this.tracksPending = tracksPending;
+    for (BeanPropertyDefinition property : MAPPER.getSerializationConfig()
+        .introspect(MAPPER.constructType(valueType)).findProperties()) {
+      fields.put(property.getName(), property.getRawPrimaryType());
+    }
+  }
+
+  // 재시작 시 아직 fold 되지 않은 patch 를 다시 기록한다
+  void loadPending() {
+    if (!tracksPending) {
+      return;
+    }
+    try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle)) {
+      for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+        pending.put(key(iterator.key()), operationCount(iterator.value()));
+      }
+    }
+  }
+
+  /**
+   * 필드들을 주어진 값으로 바꾸는 연산. 알 수 없는 필드나 타입이 맞지 않는 값은
+   * IllegalArgumentException.
+   */
+  byte[] set(Map<String, ?> values) {
+    if (values.isEmpty()) {
+      throw new IllegalArgumentException("No fields to set");
+    }
+    ObjectNode set = JsonNodeFactory.instance.objectNode();
+    values.forEach((field, value) -> {
+      JsonNode node = MAPPER.valueToTree(value);
+      // 타입이 맞지 않으면 IllegalArgumentException
+      MAPPER.convertValue(node, fieldType(field));
+      set.set(field, node);
+    });
+    return operation(SET, set);
+  }
+
+  /**
+   * 숫자 필드에 delta 를 더하는 연산. 정수 필드에는 정수 delta 만 허용한다.
+   */
+  byte[] increment(String field, Number delta) {
+    Class<?> type = fieldType(field);
+    ObjectNode increment = JsonNodeFactory.instance.objectNode();
+    if (isIntegral(type)) {
+      BigDecimal decimal = new BigDecimal(delta.toString());
+      if (decimal.stripTrailingZeros().scale() > 0) {
+        throw new IllegalArgumentException("Field " + field + " needs an integer delta: " + delta);
+      }
+      try {
+        increment.put(field, decimal.longValueExact());
+      } catch (ArithmeticException e) {
+        throw new IllegalArgumentException("Delta out of range: " + delta, e);
+      }
+    } else if (isDecimal(type)) {
+      increment.put(field, delta.doubleValue());
+    } else {
+      throw new IllegalArgumentException("Field " + field + " is not numeric");
+    }
+    return operation(INCREMENT, increment);
+  }
+
+  void merge(WriteBatchInterface batch, byte[] key, byte[] operation) throws RocksDBException {
+    batch.merge(columnFamilyHandle, key, operation);
+  }
+
+  // merge 가 기록된 뒤 호출. 이 키에 쌓인 연산 수를 반환한다
+  int recorded(String key) {
+    return pending.merge(key, 1, Integer::sum);
+  }
+
+  boolean isPending(String key) {
+    return !tracksPending || pending.containsKey(key);
+  }
+
+  Set<String> pendingKeys() {
+    return Set.copyOf(pending.keySet());
+  }
+
+  ColumnFamilyHandle columnFamilyHandle() {
+    return columnFamilyHandle;
+  }
+
+  byte[] operations(byte[] key) throws RocksDBException {
+    return rocksDB.get(columnFamilyHandle, key);
+  }
+
+  // 본문을 덮어쓰거나 지우는 쓰기와 같은 batch 에서 남은 연산을 지운다
+  void discard(WriteBatchInterface batch, byte[] key) throws RocksDBException {
+    if (pending.containsKey(key(key))) {
+      delete(batch, key);
+    }
+  }
+
+  void delete(WriteBatchInterface batch, byte[] key) throws RocksDBException {
+    batch.delete(columnFamilyHandle, key);
+  }
+
+  // 본문 구간 삭제와 같은 batch 에서 [start, end) 의 연산을 지운다
+  void deleteRange(WriteBatchInterface batch, byte[] start, byte[] end)
+      throws RocksDBException {
+    batch.deleteRange(columnFamilyHandle, start, end);
+  }
+
+  // discard/fold 가 기록된 뒤 호출
+  void cleared(String key) {
+    pending.remove(key);
+  }
+
+  void cleared(byte[] key) {
+    pending.remove(key(key));
+  }
+
+  // deleteRange 가 기록된 뒤 호출
+  void clearedRange(byte[] start, byte[] end) {
+    pending.keySet().removeIf(key -> {
+      byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+      return Arrays.compareUnsigned(bytes, start) >= 0 && Arrays.compareUnsigned(bytes, end) < 0;
+    });
+  }
+
+  /**
+   * 연산을 기록된 순서대로 적용한 새 값을 만든다. value 는 바꾸지 않는다.
+   */
+  V apply(V value, byte[] operations) {
+    ObjectNode node = MAPPER.valueToTree(value);
+    try {
+      int start = 0;
+      for (int i = 0; i <= operations.length; i++) {
+        if (i == operations.length || operations[i] == DELIMITER) {
+          applyOperation(node, MAPPER.readTree(operations, start, i - start));
+          start = i + 1;
+        }
+      }
+      return MAPPER.treeToValue(node, valueType);
+    } catch (IOException e) {
+      throw new RocksDbException("Failed to apply field patches", e);
+    }
+  }
+
+  private void applyOperation(ObjectNode node, JsonNode operation) {
+    operation.path(SET).fields().forEachRemaining(field ->
+        node.set(field.getKey(), field.getValue()));
+    operation.path(INCREMENT).fields().forEachRemaining(field -> {
+      JsonNode current = node.path(field.getKey());
+      if (field.getValue().isIntegralNumber()) {
+        node.put(field.getKey(), current.asLong() + field.getValue().asLong());
+      } else {
+        node.put(field.getKey(), current.asDouble() + field.getValue().asDouble());
+      }
+    });
+  }
+
+  private Class<?> fieldType(String field) {
+    Class<?> type = fields.get(field);
+    if (type == null) {
+      throw new IllegalArgumentException("Unknown field: " + field);
+    }
+    return type;
+  }
+
+  private static byte[] operation(String type, ObjectNode arguments) {
+    ObjectNode operation = JsonNodeFactory.instance.objectNode();
+    operation.set(type, arguments);
+    // 문자열 안의 줄바꿈은 escape 되므로 구분자와 겹치지 않는다
+    return operation.toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static String key(byte[] key) {
+    return new String(key, StandardCharsets.UTF_8);
+  }
+
+  private static int operationCount(byte[] operations) {
+    int count = 1;
+    for (byte b : operations) {
+      if (b == DELIMITER) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  private static boolean isIntegral(Class<?> type) {
+    return type == int.class || type == long.class || type == short.class
+        || type == byte.class || type == Integer.class || type == Long.class
+        || type == Short.class || type == Byte.class || type == BigInteger.class;
+  }
+
+  private static boolean isDecimal(Class<?> type) {
+    return type == double.class || type == float.class || type == Double.class
+        || type == Float.class || type == BigDecimal.class;
+  }
+}
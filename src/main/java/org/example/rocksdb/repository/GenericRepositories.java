@@ -0,0 +1,122 @@
+package org.example.rocksdb.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.conf.ColumnFamilyRegistry;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.exception.RocksDbException;
+import org.example.rocksdb.key.KeyEncoder;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.springframework.stereotype.Component;
+
+/**
+ * 실행 중 생성/삭제되는 Column Family 와 그 CF 의 {@link GenericRepository}.
+ * 값은 JSON 으로 저장되고, repository 는 CF 이름별로 하나만 만든다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class GenericRepositories {
+
+  private static final String ESTIMATE_NUM_KEYS = "rocksdb.estimate-num-keys";
+
+  private final RocksDB rocksDB;
+  private final ColumnFamilyRegistry columnFamilyRegistry;
+  private final Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap;
+  private final RocksDbProperties properties;
+  private final GroupCommitWriter writer;
+  private final ParallelScanPool parallelScanPool;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, GenericRepository<?>> repositories = new ConcurrentHashMap<>();
+
+  /**
+   * 고정 CF 는 전용 repository 를 쓰므로 여기서는 실행 중 만들어진 CF 만 다룬다.
+   */
+  public <V> GenericRepository<V> repository(String name, Class<V> valueType) {
+    return repository(name, valueType, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * 키를 keyEncoder 로 인코딩하는 repository. 범위/prefix 스캔이 K 의 순서를 따른다.
+   * 같은 CF 를 {@link #repository(String, Class)} (String 키) 와 함께 쓸 수는 없다.
+   */
+  public <K, V> TypedKeyRepository<K, V> typedRepository(String name, KeyEncoder<K> keyEncoder,
+      Class<V> valueType) {
+    // 키 바이트는 그대로 넘기고, 캐시와 로그에 쓰는 String 키만 ISO-8859-1 로 바이트와 1:1 대응시킨다
+    return new TypedKeyRepository<>(
+        repository(name, valueType, StandardCharsets.ISO_8859_1), keyEncoder);
+  }
+
+  @SuppressWarnings("unchecked")
+  private <V> GenericRepository<V> repository(String name, Class<V> valueType,
+      Charset keyCharset) {
+    if (ColumnFamilyRegistry.isBuiltIn(name)) {
+      throw new IllegalArgumentException("Built-in column family has its own repository: " + name);
+    }
+    // drop 과 같은 key 로 잠기므로 삭제된 CF 의 repository 가 다시 등록되지 않는다
+    GenericRepository<?> repository = repositories.computeIfAbsent(name, key ->
+        new GenericRepository<>(rocksDB, name, columnFamilyRegistry.get(name),
+            columnFamilyHandleMap.get(ColumnFamilyConfig.DEFAULT), properties, writer,
+            parallelScanPool, valueType, keyCharset, meterRegistry));
+    if (repository.getValueType() != valueType) {
+      throw new IllegalArgumentException("Column family " + name + " is used with "
+          + repository.getValueType().getSimpleName());
+    }
+    if (!repository.getKeyCharset().equals(keyCharset)) {
+      throw new IllegalArgumentException("Column family " + name + " is used with "
+          + (keyCharset.equals(StandardCharsets.UTF_8) ? "typed" : "String") + " keys");
+    }
+    return (GenericRepository<V>) repository;
+  }
+
+  // 지금까지 만들어진 repository (만료 삭제 대상)
+  Collection<GenericRepository<?>> repositories() {
+    return repositories.values();
+  }
+
+  public boolean exists(String name) {
+    return columnFamilyRegistry.find(name).isPresent();
+  }
+
+  public List<ColumnFamilyInfo> columnFamilies() {
+    List<ColumnFamilyInfo> columnFamilies = new ArrayList<>();
+    for (String name : columnFamilyRegistry.names()) {
+      columnFamilyRegistry.find(name).ifPresent(handle -> columnFamilies.add(new ColumnFamilyInfo(
+          name, ColumnFamilyRegistry.isBuiltIn(name), estimatedKeys(name, handle))));
+    }
+    return columnFamilies;
+  }
+
+  public void create(String name) {
+    columnFamilyRegistry.create(name);
+  }
+
+  public void drop(String name) {
+    repositories.compute(name, (key, repository) -> {
+      columnFamilyRegistry.drop(name);
+      LiveKeyCounter.remove(rocksDB, columnFamilyHandleMap.get(ColumnFamilyConfig.DEFAULT), name);
+      ExpiryQueue.removeAll(rocksDB, columnFamilyHandleMap.get(ColumnFamilyConfig.DEFAULT), name);
+      return null;
+    });
+  }
+
+  private long estimatedKeys(String name, ColumnFamilyHandle handle) {
+    try {
+      return rocksDB.getLongProperty(handle, ESTIMATE_NUM_KEYS);
+    } catch (RocksDBException e) {
+      log.error("Error reading {} of column family: {}", ESTIMATE_NUM_KEYS, name, e);
+      throw new RocksDbException("Failed to estimate count: " + name, e);
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package org.example.rocksdb.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.Charset;
+import org.example.rocksdb.codec.JsonCodec;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+
+/**
+ * 실행 중 만들어진 Column Family 용 repository. {@link GenericRepositories} 가 만든다.
+ */
+public class GenericRepository<V> extends RocksDbRepository<V> {
+
+  private final Class<V> valueType;
+  private final Charset keyCharset;
+
+  GenericRepository(RocksDB rocksDB, String columnFamilyName,
+      ColumnFamilyHandle columnFamilyHandle, ColumnFamilyHandle metadataColumnFamilyHandle,
+      RocksDbProperties properties, GroupCommitWriter writer, ParallelScanPool parallelScanPool,
+      Class<V> valueType, Charset keyCharset, MeterRegistry meterRegistry) {
+    super(rocksDB, columnFamilyName, columnFamilyHandle, metadataColumnFamilyHandle, properties,
+        writer, parallelScanPool, new JsonCodec<>(valueType), keyCharset, meterRegistry);
+    this.valueType = valueType;
+    this.keyCharset = keyCharset;
+  }
+
+  public String getColumnFamilyName() {
+    return columnFamilyName;
+  }
+
+  Class<V> getValueType() {
+    return valueType;
+  }
+
+  Charset getKeyCharset() {
+    return keyCharset;
+  }
+}
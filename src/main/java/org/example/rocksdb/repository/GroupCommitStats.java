@@ -0,0 +1,7 @@
+package org.example.rocksdb.repository;
+
+public record GroupCommitStats(boolean enabled, long batches, long operations,
+                               double averageBatchSize, long maxBatchSize,
+                               double averageQueueWaitMicros, long maxQueueWaitMicros) {
+
+}
@@ -0,0 +1,196 @@
+package org.example.rocksdb.repository;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.GroupCommitProperties;
+import org.example.rocksdb.exception.RocksDbException;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteOptions;
+import org.springframework.stereotype.Component;
+
+/**
+ * Repository 의 모든 쓰기가 지나가는 곳.
+ * group commit 이 켜져 있으면 동시에 들어온 mutation 을 maxBatchSize 개 또는 maxDelay 까지 모아
+ * 하나의 WriteBatch 로 기록하고, 기록(sync 시 WAL fsync)이 끝난 뒤에 각 호출자를 깨운다.
+ */
+@Slf4j
+@Component
+public class GroupCommitWriter {
+
+  private final RocksDB rocksDB;
+  private final GroupCommitProperties properties;
+  private final BlockingQueue<PendingWrite> queue = new LinkedBlockingQueue<>();
+  private final Thread flusher;
+  private volatile boolean running;
+
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder operations = new LongAdder();
+  private final AtomicLong maxBatchSize = new AtomicLong();
+  private final LongAdder queueWaitNanos = new LongAdder();
+  private final AtomicLong maxQueueWaitNanos = new AtomicLong();
+
+  public GroupCommitWriter(RocksDB rocksDB, RocksDbProperties properties) {
+    this.rocksDB = rocksDB;
+    this.properties = properties.getGroupCommit();
+    if (this.properties.isEnabled()) {
+      this.running = true;
+      this.flusher = Thread.ofPlatform().name("rocksdb-group-commit").daemon().start(this::run);
+      log.info("Group commit enabled (maxBatchSize: {}, maxDelay: {}, sync: {})",
+          this.properties.getMaxBatchSize(), this.properties.getMaxDelay(),
+          this.properties.isSync());
+    } else {
+      this.flusher = null;
+    }
+  }
+
+  public boolean isEnabled() {
+    return flusher != null;
+  }
+
+  public void write(BatchMutation mutation) throws RocksDBException {
+    if (!isEnabled()) {
+      try (WriteBatch batch = new WriteBatch();
+          WriteOptions writeOptions = new WriteOptions()) {
+        mutation.applyTo(batch);
+        rocksDB.write(writeOptions, batch);
+      }
+      return;
+    }
+    try {
+      submit(mutation).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RocksDBException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+
+  public CompletableFuture<Void> submit(BatchMutation mutation) {
+    if (!running) {
+      return CompletableFuture.failedFuture(
+          new RocksDbException("Group commit writer is not running"));
+    }
+    PendingWrite pending = new PendingWrite(mutation, System.nanoTime(), new CompletableFuture<>());
+    queue.add(pending);
+    // 확인과 add 사이에 shutdown 이 큐를 비웠으면 아무도 꺼내지 않으므로 직접 실패 처리한다.
+    // remove 가 false 면 flusher 나 shutdown 이 이미 꺼내 완료시킨다
+    if (!running && queue.remove(pending)) {
+      pending.future().completeExceptionally(
+          new RocksDbException("Group commit writer is shut down"));
+    }
+    return pending.future();
+  }
+
+  public GroupCommitStats stats() {
+    long batchCount = batches.sum();
+    long operationCount = operations.sum();
+    return new GroupCommitStats(isEnabled(), batchCount, operationCount,
+        batchCount == 0 ? 0 : (double) operationCount / batchCount,
+        maxBatchSize.get(),
+        operationCount == 0 ? 0 : queueWaitNanos.sum() / 1000.0 / operationCount,
+        TimeUnit.NANOSECONDS.toMicros(maxQueueWaitNanos.get()));
+  }
+
+  private void run() {
+    long maxDelayNanos = properties.getMaxDelay().toNanos();
+    int batchLimit = Math.max(1, properties.getMaxBatchSize());
+    while (running || !queue.isEmpty()) {
+      try {
+        PendingWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        List<PendingWrite> group = new ArrayList<>(batchLimit);
+        group.add(first);
+        long deadline = first.enqueuedAt() + maxDelayNanos;
+        while (group.size() < batchLimit) {
+          long remaining = deadline - System.nanoTime();
+          PendingWrite next = remaining > 0
+              ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+              : queue.poll();
+          if (next == null) {
+            break;
+          }
+          group.add(next);
+        }
+        flush(group);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+  }
+
+  private void flush(List<PendingWrite> group) {
+    long flushStart = System.nanoTime();
+    List<PendingWrite> applied = new ArrayList<>(group.size());
+    try (WriteBatch batch = new WriteBatch();
+        WriteOptions writeOptions = new WriteOptions().setSync(properties.isSync())) {
+      for (PendingWrite pending : group) {
+        // 한 호출자의 mutation 이 실패해도 나머지는 기록되도록 savepoint 로 되돌린다
+        batch.setSavePoint();
+        try {
+          pending.mutation().applyTo(batch);
+          applied.add(pending);
+        } catch (RocksDBException | RuntimeException e) {
+          batch.rollbackToSavePoint();
+          pending.future().completeExceptionally(e);
+        }
+      }
+      rocksDB.write(writeOptions, batch);
+      // 완료를 기다린 호출자가 stats 에서 이 batch 를 볼 수 있도록 먼저 기록
+      record(applied, flushStart);
+      applied.forEach(pending -> pending.future().complete(null));
+    } catch (RocksDBException | RuntimeException e) {
+      log.error("Error writing group commit batch of {} operations", applied.size(), e);
+      applied.forEach(pending -> pending.future().completeExceptionally(e));
+    }
+  }
+
+  private void record(List<PendingWrite> applied, long flushStart) {
+    batches.increment();
+    operations.add(applied.size());
+    maxBatchSize.accumulateAndGet(applied.size(), Math::max);
+    for (PendingWrite pending : applied) {
+      long wait = flushStart - pending.enqueuedAt();
+      queueWaitNanos.add(wait);
+      maxQueueWaitNanos.accumulateAndGet(wait, Math::max);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    if (!isEnabled()) {
+      return;
+    }
+    running = false;
+    flusher.join();
+    PendingWrite pending;
+    while ((pending = queue.poll()) != null) {
+      pending.future().completeExceptionally(
+          new RocksDbException("Group commit writer is shut down"));
+    }
+    log.info("Group commit writer stopped: {}", stats());
+  }
+
+  private record PendingWrite(BatchMutation mutation, long enqueuedAt,
+                              CompletableFuture<Void> future) {
+
+  }
+}
@@ -0,0 +1,131 @@
+package org.example.rocksdb.repository;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 키 단위 쓰기 직렬화를 위한 Striped Lock.
+ * 같은 키에 대한 "존재 확인 → 쓰기" 구간을 원자적으로 만들어 카운터가 어긋나지 않도록 한다.
+ */
+final class KeyLocks {
+
+  private final ReentrantLock[] stripes;
+  private final Set<WrittenKeys> trackers = ConcurrentHashMap.newKeySet();
+
+  KeyLocks(int stripeCount) {
+    int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+    this.stripes = new ReentrantLock[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new ReentrantLock();
+    }
+  }
+
+  Held acquire(byte[] key) {
+    return acquireStripes(new int[]{stripeOf(key)}, List.of(key));
+  }
+
+  Held acquire(Collection<byte[]> keys) {
+    // 데드락 방지를 위해 항상 stripe 인덱스 오름차순으로 잠근다
+    TreeSet<Integer> indexes = new TreeSet<>();
+    for (byte[] key : keys) {
+      indexes.add(stripeOf(key));
+    }
+    return acquireStripes(indexes.stream().mapToInt(Integer::intValue).toArray(), keys);
+  }
+
+  // 모든 stripe: 구간 전체를 한 번에 바꾸는 동안 모든 키 단위 쓰기를 막는다
+  Held acquireAll() {
+    int[] indexes = new int[stripes.length];
+    Arrays.setAll(indexes, i -> i);
+    return acquireStripes(indexes, List.of());
+  }
+
+  /**
+   * [start, end) 구간의 키를 잠갔다가 푼 쓰기를 close 할 때까지 모은다 (end 가 null 이면 상한 없음).
+   * 잠금을 풀 때 기록하므로 추적을 시작한 뒤 만든 snapshot 에 보이지 않는 쓰기는 모두 포함된다.
+   */
+  WrittenKeys track(byte[] start, byte[] end) {
+    WrittenKeys tracker = new WrittenKeys(start, end);
+    trackers.add(tracker);
+    return tracker;
+  }
+
+  // 잠금 없이 키를 바꾸는 쓰기 (ingest) 뒤에 호출. 추적 중인 목록으로는 바뀐 키를 알 수 없게 된다
+  void writtenWithoutLocks() {
+    trackers.forEach(tracker -> tracker.complete = false);
+  }
+
+  private Held acquireStripes(int[] indexes, Collection<byte[]> keys) {
+    for (int index : indexes) {
+      stripes[index].lock();
+    }
+    return new Held(indexes, keys);
+  }
+
+  private int stripeOf(byte[] key) {
+    int h = Arrays.hashCode(key);
+    h ^= (h >>> 16);
+    return h & (stripes.length - 1);
+  }
+
+  final class Held implements AutoCloseable {
+
+    private final int[] indexes;
+    private final Collection<byte[]> keys;
+
+    private Held(int[] indexes, Collection<byte[]> keys) {
+      this.indexes = indexes;
+      this.keys = keys;
+    }
+
+    @Override
+    public void close() {
+      // 잠금을 풀기 전에 기록해야 acquireAll 한 쪽이 기록을 빠짐없이 본다
+      for (WrittenKeys tracker : trackers) {
+        keys.forEach(tracker::record);
+      }
+      for (int i = indexes.length - 1; i >= 0; i--) {
+        stripes[indexes[i]].unlock();
+      }
+    }
+  }
+
+  final class WrittenKeys implements AutoCloseable {
+
+    private final byte[] start;
+    private final byte[] end;
+    private final Set<ByteBuffer> keys = ConcurrentHashMap.newKeySet();
+    private volatile boolean complete = true;
+
+    private WrittenKeys(byte[] start, byte[] end) {
+      this.start = start;
+      this.end = end;
+    }
+
+    private void record(byte[] key) {
+      if (Arrays.compareUnsigned(key, start) >= 0
+          && (end == null || Arrays.compareUnsigned(key, end) < 0)) {
+        keys.add(ByteBuffer.wrap(key));
+      }
+    }
+
+    List<byte[]> keys() {
+      return keys.stream().map(ByteBuffer::array).toList();
+    }
+
+    boolean isComplete() {
+      return complete;
+    }
+
+    @Override
+    public void close() {
+      trackers.remove(this);
+    }
+  }
+}
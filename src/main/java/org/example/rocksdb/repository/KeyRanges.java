@@ -0,0 +1,78 @@
+package org.example.rocksdb.repository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.rocksdb.LiveFileMetaData;
+import org.rocksdb.RocksDB;
+
+/**
+ * 전체 키 공간을 SST 파일 경계로 나눠, 구간마다 SST 크기가 비슷하도록 만든다.
+ * memtable 에만 있는 키도 어느 한 구간에는 속하므로 구간을 모두 합치면 항상 전체 키 공간이다.
+ */
+final class KeyRanges {
+
+  // [start, end). end 가 null 이면 상한 없음
+  record KeyRange(byte[] start, byte[] end) {
+  }
+
+  record SstFile(byte[] smallestKey, long size) {
+  }
+
+  static final List<KeyRange> ALL = List.of(new KeyRange(new byte[0], null));
+
+  private KeyRanges() {
+  }
+
+  static List<KeyRange> split(RocksDB rocksDB, String columnFamilyName, int parallelism,
+      long minRangeSize) {
+    if (parallelism <= 1) {
+      return ALL;
+    }
+    byte[] name = columnFamilyName.getBytes();
+    List<SstFile> files = new ArrayList<>();
+    for (LiveFileMetaData file : rocksDB.getLiveFilesMetaData()) {
+      if (Arrays.equals(file.columnFamilyName(), name)) {
+        files.add(new SstFile(file.smallestKey(), file.size()));
+      }
+    }
+    return balanced(files, parallelism, minRangeSize);
+  }
+
+  /**
+   * 파일을 최소 키 순으로 정렬해 누적 크기가 total / n 의 배수를 넘는 파일의 최소 키를 경계로 쓴다.
+   * (L0 처럼 겹치는 파일이 있으면 구간 크기는 근사치)
+   */
+  static List<KeyRange> balanced(List<SstFile> files, int parallelism, long minRangeSize) {
+    long total = files.stream().mapToLong(SstFile::size).sum();
+    int ranges = (int) Math.min(parallelism, total / Math.max(1, minRangeSize));
+    if (ranges <= 1) {
+      return ALL;
+    }
+    List<SstFile> sorted = new ArrayList<>(files);
+    sorted.sort(Comparator.comparing(SstFile::smallestKey, Arrays::compareUnsigned));
+    List<byte[]> boundaries = new ArrayList<>();
+    byte[] previous = new byte[0];
+    long cumulative = 0;
+    for (SstFile file : sorted) {
+      long target = total * (boundaries.size() + 1) / ranges;
+      if (cumulative >= target && Arrays.compareUnsigned(file.smallestKey(), previous) > 0) {
+        boundaries.add(file.smallestKey());
+        previous = file.smallestKey();
+        if (boundaries.size() == ranges - 1) {
+          break;
+        }
+      }
+      cumulative += file.size();
+    }
+    List<KeyRange> result = new ArrayList<>(boundaries.size() + 1);
+    byte[] start = new byte[0];
+    for (byte[] boundary : boundaries) {
+      result.add(new KeyRange(start, boundary));
+      start = boundary;
+    }
+    result.add(new KeyRange(start, null));
+    return result;
+  }
+}
@@ -1,25 +1,59 @@
 package org.example.rocksdb.repository;
 
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
 
 public interface KeyValueRepository<K, V> {
 
   void save(K key, V value);
 
+  void save(K key, V value, Duration ttl);
+
   V find(K key);
 
   void delete(K key);
 
   List<V> findAll();
 
+  List<V> findAll(Predicate<? super V> filter);
+
+  Map<K, V> findAll(Collection<K> keys);
+
   List<V> findByPrefix(K prefix);
 
+  List<V> findRange(K start, K end);
+
+  Page<V> findPage(String cursor, int limit, ScanDirection direction);
+
+  Page<V> findPageByPrefix(K prefix, String cursor, int limit, ScanDirection direction);
+
   void saveAll(Map<K, V> entries);
 
+  void saveAll(Map<K, V> entries, Duration ttl);
+
   void deleteAll(List<K> keys);
 
+  /**
+   * range tombstone 을 쓰고 바로 반환한다. 구간의 키를 세는 스캔과 카운터 보정은 백그라운드에서 하며,
+   * future 는 그게 끝나면 삭제한 항목 수로 완료된다.
+   */
+  CompletableFuture<Long> deleteByPrefix(K prefix, boolean compact);
+
+  CompletableFuture<Long> deleteRange(K start, K end, boolean compact);
+
   boolean exists(K key);
 
+  /**
+   * live key 카운터 값. 만료됐지만 아직 만료 삭제 (expiry sweep) 로 지워지지 않은 항목도 포함한다.
+   * 만료된 항목을 뺀 정확한 수가 필요하면 {@link #count(Predicate)} 를 쓴다 (스캔).
+   */
   long count();
+
+  long count(Predicate<? super V> filter);
+
+  long estimatedCount();
 }
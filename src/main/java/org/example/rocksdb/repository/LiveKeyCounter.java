@@ -0,0 +1,98 @@
+package org.example.rocksdb.repository;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.exception.RocksDbException;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.WriteBatchInterface;
+import org.rocksdb.WriteOptions;
+
+/**
+ * Column Family 별 live key 카운터.
+ * default CF 에 "uint64add" merge operator 로 저장되며, 데이터 쓰기와 같은 WriteBatch 안에서 갱신된다.
+ */
+@Slf4j
+final class LiveKeyCounter {
+
+  private static final String KEY_PREFIX = "__count__:";
+
+  private final RocksDB rocksDB;
+  private final ColumnFamilyHandle counterColumnFamily;
+  private final ColumnFamilyHandle targetColumnFamily;
+  private final byte[] counterKey;
+
+  LiveKeyCounter(RocksDB rocksDB, ColumnFamilyHandle counterColumnFamily,
+      ColumnFamilyHandle targetColumnFamily, String columnFamilyName) {
+    this.rocksDB = rocksDB;
+    this.counterColumnFamily = counterColumnFamily;
+    this.targetColumnFamily = targetColumnFamily;
+    this.counterKey = (KEY_PREFIX + columnFamilyName).getBytes();
+  }
+
+  void add(WriteBatchInterface batch, long delta) throws RocksDBException {
+    if (delta != 0) {
+      batch.merge(counterColumnFamily, counterKey, encode(delta));
+    }
+  }
+
+  long get() {
+    try {
+      byte[] bytes = rocksDB.get(counterColumnFamily, counterKey);
+      return bytes == null ? 0L : decode(bytes);
+    } catch (RocksDBException e) {
+      throw new RocksDbException("Failed to read counter: " + new String(counterKey), e);
+    }
+  }
+
+  /**
+   * 카운터가 도입되기 전에 만들어진 DB 라면 한 번만 전체 스캔해서 초기값을 기록한다.
+   */
+  void initializeIfAbsent() {
+    try {
+      if (rocksDB.get(counterColumnFamily, counterKey) != null) {
+        return;
+      }
+      long count = 0;
+      try (ScanOptions scanOptions = ScanOptions.totalOrder();
+          RocksIterator iterator = rocksDB.newIterator(targetColumnFamily,
+              scanOptions.readOptions())) {
+        iterator.seekToFirst();
+        while (iterator.isValid()) {
+          count++;
+          iterator.next();
+        }
+      }
+      try (WriteOptions writeOptions = new WriteOptions()) {
+        rocksDB.put(counterColumnFamily, writeOptions, counterKey, encode(count));
+      }
+      log.info("Initialized counter {} with {} keys", new String(counterKey), count);
+    } catch (RocksDBException e) {
+      throw new RocksDbException("Failed to initialize counter: " + new String(counterKey), e);
+    }
+  }
+
+  /**
+   * CF 를 삭제할 때 그 CF 의 카운터도 지운다.
+   */
+  static void remove(RocksDB rocksDB, ColumnFamilyHandle counterColumnFamily,
+      String columnFamilyName) {
+    try {
+      rocksDB.delete(counterColumnFamily, (KEY_PREFIX + columnFamilyName).getBytes());
+    } catch (RocksDBException e) {
+      throw new RocksDbException("Failed to remove counter: " + KEY_PREFIX + columnFamilyName, e);
+    }
+  }
+
+  // uint64add 는 little-endian fixed64 를 더하므로 음수 delta 도 2의 보수로 그대로 동작한다
+  private static byte[] encode(long value) {
+    return ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN).putLong(value).array();
+  }
+
+  private static long decode(byte[] bytes) {
+    return ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).getLong();
+  }
+}
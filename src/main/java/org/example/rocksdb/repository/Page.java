@@ -0,0 +1,13 @@
+package org.example.rocksdb.repository;
+
+import java.util.List;
+
+/**
+ * 커서 기반 페이지 결과. nextCursor 가 null 이면 마지막 페이지다.
+ */
+public record Page<V>(List<V> items, String nextCursor) {
+
+  public boolean hasNext() {
+    return nextCursor != null;
+  }
+}
@@ -0,0 +1,97 @@
+package org.example.rocksdb.repository;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.ParallelScanProperties;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * 구간별 전체 스캔을 실행하는 공용 ForkJoinPool. 모든 repository 가 함께 쓰므로 동시에 여러 스캔이
+ * 들어와도 스레드 수는 parallelism 을 넘지 않는다.
+ */
+@Slf4j
+@Component
+@DependsOn("rocksDB") // DB 가 닫히기 전에 실행 중인 스캔이 끝나도록
+public class ParallelScanPool {
+
+  private final int parallelism;
+  private final long minRangeSize;
+  private final ForkJoinPool pool;
+
+  public ParallelScanPool(RocksDbProperties properties) {
+    ParallelScanProperties parallelScan = properties.getParallelScan();
+    this.parallelism = parallelScan.getParallelism() > 0
+        ? parallelScan.getParallelism() : Runtime.getRuntime().availableProcessors();
+    this.minRangeSize = parallelScan.getMinRangeSize().toBytes();
+    this.pool = new ForkJoinPool(parallelism, pool -> {
+      ForkJoinWorkerThread thread =
+          ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("parallel-scan-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+    log.info("Parallel scan pool (parallelism: {}, minRangeSize: {})",
+        parallelism, parallelScan.getMinRangeSize());
+  }
+
+  int parallelism() {
+    return parallelism;
+  }
+
+  long minRangeSize() {
+    return minRangeSize;
+  }
+
+  /**
+   * 구간마다 scan 을 실행하고 결과를 구간 순서대로 반환한다. 구간이 하나면 호출한 스레드에서 실행한다.
+   */
+  <R> List<R> scan(List<KeyRanges.KeyRange> ranges, Function<KeyRanges.KeyRange, R> scan) {
+    if (ranges.size() == 1) {
+      return List.of(scan.apply(ranges.get(0)));
+    }
+    List<ForkJoinTask<R>> tasks = new ArrayList<>(ranges.size());
+    for (KeyRanges.KeyRange range : ranges) {
+      tasks.add(pool.submit(() -> scan.apply(range)));
+    }
+    // 한 구간이 실패해도 나머지가 끝날 때까지 기다린다 (호출한 쪽이 snapshot 을 해제하기 전에)
+    List<R> results = new ArrayList<>(tasks.size());
+    RuntimeException failure = null;
+    for (ForkJoinTask<R> task : tasks) {
+      try {
+        results.add(task.join());
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+    return results;
+  }
+
+  /**
+   * 호출한 스레드가 기다리지 않아도 되는 스캔 (예: 구간 삭제 뒤 카운터 보정) 을 pool 에서 실행한다.
+   */
+  <R> CompletableFuture<R> submit(Supplier<R> task) {
+    return CompletableFuture.supplyAsync(task, pool);
+  }
+
+  // 실행 중인 스캔이 끝날 때까지 기다린다
+  @PreDestroy
+  void shutdown() {
+    pool.close();
+  }
+}
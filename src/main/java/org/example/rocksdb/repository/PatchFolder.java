@@ -0,0 +1,65 @@
+package org.example.rocksdb.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * rocksdb.patches.fold-interval 마다 남은 부분 갱신을 본문에 반영한다.
+ * 조회는 fold 전에도 patch 를 적용하므로, fold 는 조회 비용과 보조 인덱스 지연을 줄이는 용도다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@DependsOn("rocksDB") // DB 가 닫히기 전에 진행 중인 fold 가 끝나도록
+public class PatchFolder {
+
+  private final UserRepository userRepository;
+  private final ProductRepository productRepository;
+  private final RocksDbProperties properties;
+  private ScheduledExecutorService scheduler;
+
+  @PostConstruct
+  void start() {
+    Duration interval = properties.getPatches().getFoldInterval();
+    if (properties.getReplication().isSecondary()) {
+      log.info("Background patch folding is disabled on a secondary instance (the primary folds)");
+      return;
+    }
+    if (interval == null || interval.isZero()) {
+      log.info("Background patch folding is disabled");
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("patch-folder").daemon().factory());
+    scheduler.scheduleWithFixedDelay(this::foldQuietly, interval.toMillis(),
+        interval.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  private void foldQuietly() {
+    try {
+      long folded = userRepository.foldPatches() + productRepository.foldPatches();
+      if (folded > 0) {
+        log.debug("Folded field patches into {} entries", folded);
+      }
+    } catch (RuntimeException e) {
+      log.error("Patch fold failed", e);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    if (scheduler != null) {
+      scheduler.shutdown();
+      scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+}
@@ -1,7 +1,12 @@
 package org.example.rocksdb.repository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
 import java.util.Map;
+import org.example.rocksdb.codec.Codecs;
+import org.example.rocksdb.codec.ProductBinaryCodec;
 import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.conf.RocksDbProperties;
 import org.example.rocksdb.model.Product;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDB;
@@ -10,8 +15,48 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class ProductRepository extends RocksDbRepository<Product> {
 
+  private final SecondaryIndex<Product, Double> priceIndex;
+  private final SecondaryIndex<Product, Integer> stockIndex;
+
   public ProductRepository(RocksDB rocksDB,
-      Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap) {
-    super(rocksDB, columnFamilyHandleMap, ColumnFamilyConfig.PRODUCT, Product.class);
+      Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap,
+      RocksDbProperties properties, GroupCommitWriter writer, ParallelScanPool parallelScanPool,
+      MeterRegistry meterRegistry) {
+    super(rocksDB, columnFamilyHandleMap, properties, writer, parallelScanPool,
+        ColumnFamilyConfig.PRODUCT,
+        Codecs.create(properties.columnFamily(ColumnFamilyConfig.PRODUCT.getName()).getCodec(),
+            new ProductBinaryCodec(), Product.class), meterRegistry);
+    this.priceIndex = addIndex(SecondaryIndex.ofDouble(ColumnFamilyConfig.PRODUCT_PRICE_INDEX,
+        columnFamilyHandleMap.get(ColumnFamilyConfig.PRODUCT_PRICE_INDEX), Product::getPrice));
+    this.stockIndex = addIndex(SecondaryIndex.ofInt(ColumnFamilyConfig.PRODUCT_STOCK_INDEX,
+        columnFamilyHandleMap.get(ColumnFamilyConfig.PRODUCT_STOCK_INDEX), Product::getStock));
+    enablePatches(columnFamilyHandleMap.get(ColumnFamilyConfig.PRODUCT_PATCHES), Product.class);
+  }
+
+  // 재고 증감 (음수면 감소). 읽기 없이 merge 로 기록된다
+  public void incrementStock(String key, int delta) {
+    increment(key, "stock", delta);
+  }
+
+  public List<Product> findByPrice(double price, int limit) {
+    return findByIndex(priceIndex, price, price, limit);
+  }
+
+  public List<Product> findByPriceBetween(double minPrice, double maxPrice, int limit) {
+    return findByIndex(priceIndex, minPrice, maxPrice, limit);
+  }
+
+  public List<Product> findByStock(int stock, int limit) {
+    return findByIndex(stockIndex, stock, stock, limit);
+  }
+
+  public List<Product> findByStockBetween(int minStock, int maxStock, int limit) {
+    return findByIndex(stockIndex, minStock, maxStock, limit);
+  }
+
+  // 캐시 적중마다 호출되므로 encode/decode 대신 필드를 복사한다
+  @Override
+  protected Product copyOf(Product value) {
+    return new Product(value.getId(), value.getName(), value.getPrice(), value.getStock());
   }
 }
@@ -0,0 +1,205 @@
+package org.example.rocksdb.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.ReplicationProperties;
+import org.example.rocksdb.exception.RocksDbException;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteOptions;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * 같은 DB 디렉토리를 쓰는 primary / secondary 프로세스 사이의 복제.
+ * <ul>
+ *   <li>primary: rocksdb.replication.heartbeat-interval 마다 현재 시각을 default CF 에 쓴다</li>
+ *   <li>secondary: catch-up-interval 마다 tryCatchUpWithPrimary 로 primary 의 MANIFEST/WAL 을
+ *       따라 읽고, 보이게 된 heartbeat 로 지연 (지금 - primary 가 heartbeat 를 쓴 시각) 을 잰다</li>
+ * </ul>
+ * primary 가 쉬고 있어도 heartbeat 는 계속 쓰이므로, 지연은 heartbeat 주기 + catch-up 주기 안쪽이면
+ * 정상이다. 지연은 rocksdb.replication.lag 로도 노출된다 (두 프로세스가 같은 호스트라 시계가 같다).
+ */
+@Slf4j
+@Component
+@DependsOn("rocksDB") // DB 가 닫히기 전에 진행 중인 catch-up 이 끝나도록
+public class ReplicationManager {
+
+  static final String LAG_METRIC = "rocksdb.replication.lag";
+  static final String CATCH_UP_METRIC = "rocksdb.replication.catch_up";
+  private static final byte[] HEARTBEAT_KEY = "__heartbeat__".getBytes();
+
+  private final RocksDB rocksDB;
+  private final ColumnFamilyHandle metadataColumnFamilyHandle;
+  private final UserRepository userRepository;
+  private final ProductRepository productRepository;
+  private final GenericRepositories genericRepositories;
+  private final ReplicationProperties properties;
+  private final MeterRegistry meterRegistry;
+  private ScheduledExecutorService scheduler;
+  private Timer catchUpTimer;
+  private Counter catchUpFailures;
+  private volatile Instant lastCatchUp;
+  // primary 는 마지막으로 쓴, secondary 는 마지막으로 본 heartbeat
+  private volatile Instant heartbeat;
+  private volatile String lastError;
+
+  public ReplicationManager(RocksDB rocksDB,
+      Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap,
+      UserRepository userRepository, ProductRepository productRepository,
+      GenericRepositories genericRepositories, RocksDbProperties properties,
+      MeterRegistry meterRegistry) {
+    this.rocksDB = rocksDB;
+    this.metadataColumnFamilyHandle = columnFamilyHandleMap.get(ColumnFamilyConfig.DEFAULT);
+    this.userRepository = userRepository;
+    this.productRepository = productRepository;
+    this.genericRepositories = genericRepositories;
+    this.properties = properties.getReplication();
+    this.meterRegistry = meterRegistry;
+  }
+
+  @PostConstruct
+  void start() {
+    if (properties.isSecondary()) {
+      startCatchUp();
+    } else {
+      startHeartbeat();
+    }
+  }
+
+  private void startHeartbeat() {
+    Duration interval = properties.getHeartbeatInterval();
+    if (interval == null || interval.isZero()) {
+      log.info("Replication heartbeat is disabled");
+      return;
+    }
+    scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("replication-heartbeat").daemon().factory());
+    scheduler.scheduleWithFixedDelay(this::writeHeartbeatQuietly, 0, interval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  private void startCatchUp() {
+    catchUpTimer = Timer.builder(CATCH_UP_METRIC)
+        .description("tryCatchUpWithPrimary duration")
+        .register(meterRegistry);
+    catchUpFailures = Counter.builder(CATCH_UP_METRIC + ".failures")
+        .description("Failed tryCatchUpWithPrimary calls")
+        .register(meterRegistry);
+    TimeGauge.builder(LAG_METRIC, this, TimeUnit.MILLISECONDS, ReplicationManager::lagOrNaN)
+        .description("Time since the primary wrote the latest heartbeat visible here")
+        .register(meterRegistry);
+    // 여는 시점에 이미 따라잡은 상태
+    readHeartbeat();
+    lastCatchUp = Instant.now();
+    Duration interval = properties.getCatchUpInterval();
+    scheduler = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("secondary-catch-up").daemon().factory());
+    scheduler.scheduleWithFixedDelay(this::catchUpQuietly, interval.toMillis(),
+        interval.toMillis(), TimeUnit.MILLISECONDS);
+    log.info("Following the primary every {}", interval);
+  }
+
+  /**
+   * primary 를 지금 따라잡는다 (secondary 전용). 이후 조회는 지금까지 primary 가 WAL 에 쓴 내용을 본다.
+   */
+  public synchronized void catchUp() {
+    if (!properties.isSecondary()) {
+      throw new IllegalStateException("Only a secondary instance catches up with the primary");
+    }
+    long start = System.nanoTime();
+    try {
+      rocksDB.tryCatchUpWithPrimary();
+      readHeartbeat();
+      for (RocksDbRepository<?> repository : repositories()) {
+        repository.caughtUp();
+      }
+      lastCatchUp = Instant.now();
+      lastError = null;
+    } catch (RocksDBException e) {
+      catchUpFailures.increment();
+      lastError = e.getMessage();
+      throw new RocksDbException("Failed to catch up with the primary", e);
+    } finally {
+      catchUpTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  public ReplicationStatus status() {
+    Instant heartbeat = this.heartbeat;
+    Long lag = properties.isSecondary() && heartbeat != null
+        ? Math.max(0, Duration.between(heartbeat, Instant.now()).toMillis()) : null;
+    return new ReplicationStatus(properties.getRole(), rocksDB.getLatestSequenceNumber(),
+        lastCatchUp, heartbeat, lag,
+        catchUpFailures == null ? 0 : (long) catchUpFailures.count(), lastError);
+  }
+
+  private double lagOrNaN() {
+    Long lag = status().lagMillis();
+    return lag == null ? Double.NaN : lag;
+  }
+
+  private List<RocksDbRepository<?>> repositories() {
+    List<RocksDbRepository<?>> repositories = new ArrayList<>();
+    repositories.add(userRepository);
+    repositories.add(productRepository);
+    repositories.addAll(genericRepositories.repositories());
+    return repositories;
+  }
+
+  private void catchUpQuietly() {
+    try {
+      catchUp();
+    } catch (RuntimeException e) {
+      log.warn("Catch-up with the primary failed", e);
+    }
+  }
+
+  private void writeHeartbeatQuietly() {
+    Instant now = Instant.now();
+    // WAL 을 거쳐야 secondary 가 catch-up 에서 memtable 로 다시 읽는다
+    try (WriteOptions writeOptions = new WriteOptions()) {
+      rocksDB.put(metadataColumnFamilyHandle, writeOptions, HEARTBEAT_KEY,
+          ByteBuffer.allocate(Long.BYTES).putLong(now.toEpochMilli()).array());
+      heartbeat = now;
+    } catch (RocksDBException | RuntimeException e) {
+      log.warn("Failed to write replication heartbeat", e);
+    }
+  }
+
+  private void readHeartbeat() {
+    try {
+      byte[] bytes = rocksDB.get(metadataColumnFamilyHandle, HEARTBEAT_KEY);
+      if (bytes != null && bytes.length == Long.BYTES) {
+        heartbeat = Instant.ofEpochMilli(ByteBuffer.wrap(bytes).getLong());
+      }
+    } catch (RocksDBException e) {
+      throw new RocksDbException("Failed to read replication heartbeat", e);
+    }
+  }
+
+  @PreDestroy
+  void shutdown() throws InterruptedException {
+    if (scheduler != null) {
+      scheduler.shutdown();
+      scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+  }
+}
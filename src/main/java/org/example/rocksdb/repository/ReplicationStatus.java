@@ -0,0 +1,14 @@
+package org.example.rocksdb.repository;
+
+import java.time.Instant;
+import org.example.rocksdb.conf.RocksDbProperties.ReplicationRole;
+
+/**
+ * 복제 상태. lastCatchUp, primaryHeartbeat, lagMillis 는 아직 모르거나 해당 없으면 null.
+ * primary 는 자신이 마지막으로 쓴 heartbeat 만 채운다.
+ */
+public record ReplicationStatus(ReplicationRole role, long sequenceNumber, Instant lastCatchUp,
+                                Instant primaryHeartbeat, Long lagMillis, long catchUpFailures,
+                                String lastError) {
+
+}
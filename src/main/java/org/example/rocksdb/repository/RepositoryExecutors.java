@@ -0,0 +1,58 @@
+package org.example.rocksdb.repository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.AsyncProperties;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.stereotype.Component;
+
+/**
+ * 비동기 repository 연산을 실행하는 두 개의 executor.
+ * <ul>
+ *   <li>point: find, save, delete, exists, multiGet, count</li>
+ *   <li>scan: findAll, findByPrefix, findPage, saveAll, deleteAll</li>
+ * </ul>
+ * 메트릭: rocksdb.async.active / rocksdb.async.queued / rocksdb.async.rejected {lane=point|scan}
+ */
+@Slf4j
+@Component
+@DependsOn("rocksDB") // DB 가 닫히기 전에 실행 중인 작업이 끝나도록
+public class RepositoryExecutors {
+
+  private final BoundedExecutor point;
+  private final BoundedExecutor scan;
+
+  public RepositoryExecutors(RocksDbProperties properties, MeterRegistry meterRegistry) {
+    AsyncProperties async = properties.getAsync();
+    this.point = new BoundedExecutor("point", async.getPointConcurrency(), async.getMaxQueued());
+    this.scan = new BoundedExecutor("scan", async.getScanConcurrency(), async.getMaxQueued());
+    for (BoundedExecutor executor : List.of(point, scan)) {
+      Gauge.builder("rocksdb.async.active", executor, BoundedExecutor::active)
+          .tag("lane", executor.name())
+          .register(meterRegistry);
+      Gauge.builder("rocksdb.async.queued", executor, BoundedExecutor::queued)
+          .tag("lane", executor.name())
+          .register(meterRegistry);
+      FunctionCounter.builder("rocksdb.async.rejected", executor, BoundedExecutor::rejected)
+          .tag("lane", executor.name())
+          .register(meterRegistry);
+    }
+    log.info("Async repository executors (point: {}, scan: {}, maxQueued: {})",
+        async.getPointConcurrency(), async.getScanConcurrency(), async.getMaxQueued());
+  }
+
+  public <K, V> AsyncKeyValueRepository<K, V> async(KeyValueRepository<K, V> repository) {
+    return new AsyncRepository<>(repository, point, scan);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    scan.close();
+    point.close();
+  }
+}
@@ -0,0 +1,68 @@
+package org.example.rocksdb.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository 연산별 지연 시간(Timer, 호출 수 포함)과 처리 항목 수.
+ * 태그: cf (Column Family 이름), operation (save, find ...)
+ */
+final class RepositoryMetrics {
+
+  static final String OPERATION_METRIC = "rocksdb.repository.operation";
+  static final String ITEMS_METRIC = "rocksdb.repository.items";
+  static final String EXPIRED_METRIC = "rocksdb.ttl.expired";
+
+  enum Operation {
+    SAVE, SAVE_ALL, FIND, MULTI_GET, SCAN, FIND_BY_PREFIX, FIND_RANGE, EXPORT, DELETE, DELETE_ALL,
+    DELETE_RANGE, COUNT, PURGE_EXPIRED, PATCH, FOLD_PATCHES;
+
+    String tag() {
+      return name().toLowerCase(Locale.ROOT);
+    }
+  }
+
+  private final Map<Operation, Timer> timers = new EnumMap<>(Operation.class);
+  private final Map<Operation, DistributionSummary> items = new EnumMap<>(Operation.class);
+  private final Counter expired;
+
+  RepositoryMetrics(MeterRegistry registry, String columnFamilyName) {
+    for (Operation operation : Operation.values()) {
+      timers.put(operation, Timer.builder(OPERATION_METRIC)
+          .description("Latency of repository operations")
+          .tag("cf", columnFamilyName)
+          .tag("operation", operation.tag())
+          .publishPercentileHistogram()
+          .register(registry));
+      items.put(operation, DistributionSummary.builder(ITEMS_METRIC)
+          .description("Number of entries written or returned per repository operation")
+          .tag("cf", columnFamilyName)
+          .tag("operation", operation.tag())
+          .register(registry));
+    }
+    this.expired = Counter.builder(EXPIRED_METRIC)
+        .description("Number of expired entries removed by the expiry sweeper")
+        .tag("cf", columnFamilyName)
+        .register(registry);
+  }
+
+  void record(Operation operation, long startNanos) {
+    timers.get(operation).record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  void record(Operation operation, long startNanos, int itemCount) {
+    record(operation, startNanos);
+    items.get(operation).record(itemCount);
+  }
+
+  void recordExpired(long startNanos, long purged) {
+    record(Operation.PURGE_EXPIRED, startNanos);
+    expired.increment(purged);
+  }
+}
@@ -1,92 +1,541 @@
 package org.example.rocksdb.repository;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.cache.CacheStats;
+import org.example.rocksdb.cache.SegmentedLruCache;
+import org.example.rocksdb.codec.Codec;
 import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.CacheProperties;
+import org.example.rocksdb.conf.RocksDbProperties.DirectBufferProperties;
+import org.example.rocksdb.conf.RocksDbProperties.PrefixExtractorProperties;
 import org.example.rocksdb.exception.RocksDbException;
-import org.example.rocksdb.util.JsonSerializationUtils;
+import org.example.rocksdb.profile.AccessProfile;
+import org.example.rocksdb.profile.AccessProfiler;
+import org.example.rocksdb.repository.KeyRanges.KeyRange;
+import org.example.rocksdb.repository.RepositoryMetrics.Operation;
 import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.CompactRangeOptions;
+import org.rocksdb.CompactRangeOptions.BottommostLevelCompaction;
+import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
 import org.rocksdb.WriteBatch;
+import org.rocksdb.WriteBatchInterface;
 import org.rocksdb.WriteOptions;
 
 @Slf4j
 public abstract class RocksDbRepository<V> implements KeyValueRepository<String, V> {
 
+  private static final String ESTIMATE_NUM_KEYS = "rocksdb.estimate-num-keys";
+  private static final int LOCK_STRIPES = 64;
+  private static final int SWEEP_BATCH_SIZE = 1000;
+  private static final int CACHE_ENTRY_OVERHEAD = 64;
+  private static final long EXPORT_READAHEAD_SIZE = 2 * 1024 * 1024;
+
   protected final RocksDB rocksDB;
+  protected final String columnFamilyName;
   protected final ColumnFamilyHandle columnFamilyHandle;
-  protected final Class<V> valueType;
+  // String 키 ↔ RocksDB 키 바이트. 고정 CF 는 UTF-8, 타입 키 repository 는 ISO-8859-1 (바이트 그대로)
+  private final Charset keyCharset;
+  final TtlCodec<V> codec;
+  private final GroupCommitWriter writer;
+  private final ParallelScanPool parallelScanPool;
+  private final int prefixExtractorLength;
+  private final ColumnFamilyHandle metadataColumnFamilyHandle;
+  private final LiveKeyCounter counter;
+  private final ExpiryQueue expiryQueue;
+  // rocksdb.column-families.<name>.ttl: TTL 을 지정하지 않은 쓰기에 적용 (null 이면 만료 없음)
+  private final Duration defaultTtl;
+  private final List<SecondaryIndex<V, ?>> indexes = new ArrayList<>();
+  private final KeyLocks keyLocks = new KeyLocks(LOCK_STRIPES);
+  // 디코딩된 객체를 캐시한다. 값 객체는 변경 가능하므로 캐시 안팎으로 copyOf 로 만든 복사본을 넘긴다
+  private final SegmentedLruCache<String, V> cache;
+  private final boolean cacheWeighsBytes;
+  private final RepositoryMetrics metrics;
+  private final AccessProfiler profiler;
+  private final int maxPendingPatches;
+  // rocksdb.direct-buffers: find 를 direct ByteBuffer 로
+  private final boolean directReads;
+  private final int initialDirectValueSize;
+  private final int maxDirectValueSize;
+  // rocksdb.replication.role=secondary: 쓰지 않고, snapshot 과 객체 캐시를 쓰지 않는다
+  private final boolean secondary;
+  // 부분 갱신을 지원하는 repository 만 (enablePatches)
+  private FieldPatches<V> patches;
 
   protected RocksDbRepository(RocksDB rocksDB,
       Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap,
-      ColumnFamilyConfig columnFamily, Class<V> valueType) {
+      RocksDbProperties properties, GroupCommitWriter writer, ParallelScanPool parallelScanPool,
+      ColumnFamilyConfig columnFamily, Codec<V> codec, MeterRegistry meterRegistry) {
+    this(rocksDB, columnFamily.getName(), columnFamilyHandleMap.get(columnFamily),
+        columnFamilyHandleMap.get(ColumnFamilyConfig.DEFAULT), properties, writer,
+        parallelScanPool, codec, StandardCharsets.UTF_8, meterRegistry);
+  }
+
+  /**
+   * 실행 중 만들어진 CF 처럼 {@link ColumnFamilyConfig} 에 없는 CF 용.
+   * keyCharset 은 String 키를 바이트로 바꿀 때 쓴다 (ISO-8859-1 이면 char 하나가 바이트 하나).
+   */
+  protected RocksDbRepository(RocksDB rocksDB, String columnFamilyName,
+      ColumnFamilyHandle columnFamilyHandle, ColumnFamilyHandle metadataColumnFamilyHandle,
+      RocksDbProperties properties, GroupCommitWriter writer, ParallelScanPool parallelScanPool,
+      Codec<V> codec, Charset keyCharset, MeterRegistry meterRegistry) {
     this.rocksDB = rocksDB;
-    this.columnFamilyHandle = columnFamilyHandleMap.get(columnFamily);
-    this.valueType = valueType;
+    this.columnFamilyName = columnFamilyName;
+    this.columnFamilyHandle = columnFamilyHandle;
+    this.keyCharset = keyCharset;
+    this.codec = new TtlCodec<>(codec);
+    this.writer = writer;
+    this.parallelScanPool = parallelScanPool;
+    PrefixExtractorProperties prefixExtractor =
+        properties.columnFamily(columnFamilyName).getPrefixExtractor();
+    this.prefixExtractorLength = prefixExtractor.isEnabled() ? prefixExtractor.getLength() : 0;
+    this.metadataColumnFamilyHandle = metadataColumnFamilyHandle;
+    this.secondary = properties.getReplication().isSecondary();
+    this.counter = new LiveKeyCounter(rocksDB, metadataColumnFamilyHandle, columnFamilyHandle,
+        columnFamilyName);
+    if (!secondary) {
+      this.counter.initializeIfAbsent();
+    }
+    this.expiryQueue = new ExpiryQueue(rocksDB, metadataColumnFamilyHandle, columnFamilyName);
+    this.defaultTtl = properties.columnFamily(columnFamilyName).getTtl();
+
+    CacheProperties cacheProperties = properties.columnFamily(columnFamilyName).getCache();
+    this.cacheWeighsBytes = cacheProperties.getMaxBytes() > 0;
+    // secondary 는 어떤 키가 바뀌었는지 모르므로 (catch-up 으로 보이게 된 primary 의 쓰기) 캐시를 쓰지 않는다
+    this.cache = cacheProperties.isEnabled() && !secondary
+        ? new SegmentedLruCache<>(cacheWeighsBytes
+            ? cacheProperties.getMaxBytes() : cacheProperties.getMaxEntries(),
+            cacheProperties.getShards())
+        : null;
+    this.metrics = new RepositoryMetrics(meterRegistry, columnFamilyName);
+    this.profiler = new AccessProfiler(properties.getProfiler());
+    this.maxPendingPatches = properties.getPatches().getMaxPendingPerKey();
+    DirectBufferProperties directBuffers = properties.getDirectBuffers();
+    this.directReads = directBuffers.isEnabled();
+    this.initialDirectValueSize = (int) directBuffers.getInitialValueSize().toBytes();
+    this.maxDirectValueSize = (int) directBuffers.getMaxValueSize().toBytes();
+  }
+
+  /**
+   * 하위 클래스 생성자에서 보조 인덱스를 등록한다. 이후 모든 쓰기에서 함께 갱신된다.
+   */
+  protected final <F> SecondaryIndex<V, F> addIndex(SecondaryIndex<V, F> index) {
+    index.initialize(rocksDB, metadataColumnFamilyHandle, !secondary && counter.get() == 0);
+    indexes.add(index);
+    return index;
+  }
+
+  /**
+   * 하위 클래스 생성자에서 부분 갱신 (increment, setField, patch) 을 켠다.
+   * patchColumnFamilyHandle 은 StringAppendOperator 가 설정된 CF 여야 한다.
+   */
+  protected final void enablePatches(ColumnFamilyHandle patchColumnFamilyHandle,
+      Class<V> valueType) {
+    patches = new FieldPatches<>(rocksDB, patchColumnFamilyHandle, valueType, !secondary);
+    patches.loadPending();
   }
 
   @Override
   public void save(String key, V value) {
-    try {
-      byte[] serializedValue = JsonSerializationUtils.serialize(value);
-      rocksDB.put(columnFamilyHandle, key.getBytes(), serializedValue);
-      log.debug("Saved key: {}", key);
+    save(key, value, defaultTtl);
+  }
+
+  /**
+   * ttl 이 지나면 조회에서 바로 제외되고, 이후 {@link #purgeExpired()} 가 삭제한다.
+   * ttl 이 null 이나 0 이면 만료되지 않는다.
+   */
+  @Override
+  public void save(String key, V value, Duration ttl) {
+    save(keyBytes(key), key, value, ttl);
+  }
+
+  // TypedKeyRepository 용: 인코딩된 키 바이트를 그대로 쓴다
+  void save(byte[] key, V value) {
+    save(key, null, value, defaultTtl);
+  }
+
+  void save(byte[] key, V value, Duration ttl) {
+    save(key, null, value, ttl);
+  }
+
+  // key 는 호출자가 가진 String 키 (바이트로 들어온 호출이면 null)
+  private void save(byte[] keyBytes, String key, V value, Duration ttl) {
+    long start = System.nanoTime();
+    recordWrite(keyBytes, key);
+    try (KeyLocks.Held ignored = keyLocks.acquire(keyBytes)) {
+      byte[] encoded = codec.encode(value, TtlCodec.expiresAt(ttl, System.currentTimeMillis()));
+      profiler.recordWriteSize(encoded.length);
+      byte[] current = currentBytes(keyBytes);
+      V previous = indexedValue(current);
+      long added = current == null ? 1 : 0;
+      writer.write(batch -> {
+        batch.put(columnFamilyHandle, keyBytes, encoded);
+        counter.add(batch, added);
+        updateIndexes(batch, keyBytes, previous, value);
+        expiryQueue.update(batch, keyBytes, current, encoded);
+        discardPatches(batch, keyBytes);
+      });
+      invalidate(keyBytes, key);
+      log.atDebug().addArgument(() -> keyName(keyBytes, key)).log("Saved key: {}");
     } catch (RocksDBException e) {
-      log.error("Error saving entry in RocksDB for key: {}", key, e);
-      throw new RocksDbException("Failed to save key: " + key, e);
+      log.error("Error saving entry in RocksDB for key: {}", keyName(keyBytes, key), e);
+      throw new RocksDbException("Failed to save key: " + keyName(keyBytes, key), e);
+    } finally {
+      metrics.record(Operation.SAVE, start);
     }
   }
 
   @Override
   public V find(String key) {
+    return find(keyBytes(key), key);
+  }
+
+  // TypedKeyRepository 용
+  V find(byte[] key) {
+    return find(key, null);
+  }
+
+  private V find(byte[] keyBytes, String key) {
+    long start = System.nanoTime();
+    recordRead(keyBytes, key);
+    // 캐시와 부분 갱신 기록은 String 키로 찾는다
+    String cacheKey = cacheKey(keyBytes, key);
     try {
-      byte[] bytes = rocksDB.get(columnFamilyHandle, key.getBytes());
-      if (bytes == null) {
-        log.debug("Key not found: {}", key);
+      V cached = cachedValue(cacheKey);
+      if (cached != null) {
+        return patched(keyBytes, cacheKey, cached);
+      }
+      long loadStart = System.nanoTime();
+      long cacheToken = cache == null ? 0 : cache.loadToken(cacheKey);
+      V value = directReads
+          ? loadDirect(keyBytes, cacheKey, cacheToken, loadStart)
+          : load(keyBytes, cacheKey, cacheToken, loadStart);
+      if (value == null) {
+        log.atDebug().addArgument(() -> keyName(keyBytes, key)).log("Key not found: {}");
         return null;
       }
-      return JsonSerializationUtils.deserialize(bytes, valueType);
+      return patched(keyBytes, cacheKey, value);
     } catch (RocksDBException e) {
-      log.error("Error retrieving entry in RocksDB for key: {}", key, e);
-      throw new RocksDbException("Failed to find key: " + key, e);
+      log.error("Error retrieving entry in RocksDB for key: {}", keyName(keyBytes, key), e);
+      throw new RocksDbException("Failed to find key: " + keyName(keyBytes, key), e);
+    } finally {
+      metrics.record(Operation.FIND, start);
+    }
+  }
+
+  // 캐시에는 patch 적용 전 본문을 넣는다
+  private V load(byte[] keyBytes, String cacheKey, long cacheToken, long loadStart)
+      throws RocksDBException {
+    byte[] bytes = rocksDB.get(columnFamilyHandle, keyBytes);
+    if (bytes == null || TtlCodec.isExpired(bytes, System.currentTimeMillis())) {
+      return null;
+    }
+    profiler.recordReadSize(bytes.length);
+    V value = codec.decode(bytes);
+    if (codec.isLegacy(bytes)) {
+      rewriteLegacy(keyBytes, bytes, value);
+    }
+    cacheLoaded(cacheKey, bytes.length, TtlCodec.hasExpiry(bytes), value, cacheToken, loadStart);
+    return value;
+  }
+
+  /**
+   * {@link #load} 와 같지만 값 읽기와 decode 를 모두 direct buffer 에서 한다. 값이 버퍼보다
+   * 크면 버퍼를 키워 다시 읽고, maxDirectValueSize 보다 크면 byte[] 로 읽는다.
+   */
+  private V loadDirect(byte[] keyBytes, String cacheKey, long cacheToken, long loadStart)
+      throws RocksDBException {
+    DirectBuffers buffers = DirectBuffers.acquire(initialDirectValueSize);
+    try {
+      ByteBuffer keyBuffer = buffers.key(keyBytes);
+      ByteBuffer value = buffers.value();
+      int size;
+      while ((size = rocksDB.get(columnFamilyHandle, DirectBuffers.READ_OPTIONS,
+          keyBuffer.rewind(), value)) > value.capacity()) {
+        if (size > maxDirectValueSize) {
+          return load(keyBytes, cacheKey, cacheToken, loadStart);
+        }
+        value = buffers.growValue(size);
+      }
+      if (size == RocksDB.NOT_FOUND || TtlCodec.isExpired(value, System.currentTimeMillis())) {
+        return null;
+      }
+      profiler.recordReadSize(size);
+      V decoded = codec.decode(value);
+      if (codec.isLegacy(value)) {
+        byte[] bytes = new byte[size];
+        value.get(value.position(), bytes);
+        rewriteLegacy(keyBytes, bytes, decoded);
+      }
+      cacheLoaded(cacheKey, size, TtlCodec.hasExpiry(value), decoded, cacheToken, loadStart);
+      return decoded;
+    } finally {
+      buffers.release();
     }
   }
 
   @Override
   public void delete(String key) {
-    try {
-      rocksDB.delete(columnFamilyHandle, key.getBytes());
-      log.debug("Deleted key: {}", key);
+    delete(keyBytes(key), key);
+  }
+
+  // TypedKeyRepository 용
+  void delete(byte[] key) {
+    delete(key, null);
+  }
+
+  private void delete(byte[] keyBytes, String key) {
+    long start = System.nanoTime();
+    recordWrite(keyBytes, key);
+    try (KeyLocks.Held ignored = keyLocks.acquire(keyBytes)) {
+      byte[] current = currentBytes(keyBytes);
+      if (current == null) {
+        log.atDebug().addArgument(() -> keyName(keyBytes, key)).log("Key not found for delete: {}");
+        return;
+      }
+      V previous = indexedValue(current);
+      writer.write(batch -> {
+        batch.delete(columnFamilyHandle, keyBytes);
+        counter.add(batch, -1);
+        updateIndexes(batch, keyBytes, previous, null);
+        expiryQueue.update(batch, keyBytes, current, null);
+        discardPatches(batch, keyBytes);
+      });
+      invalidate(keyBytes, key);
+      log.atDebug().addArgument(() -> keyName(keyBytes, key)).log("Deleted key: {}");
     } catch (RocksDBException e) {
-      log.error("Error deleting entry in RocksDB for key: {}", key, e);
-      throw new RocksDbException("Failed to delete key: " + key, e);
+      log.error("Error deleting entry in RocksDB for key: {}", keyName(keyBytes, key), e);
+      throw new RocksDbException("Failed to delete key: " + keyName(keyBytes, key), e);
+    } finally {
+      metrics.record(Operation.DELETE, start);
     }
   }
 
   @Override
   public List<V> findAll() {
+    return findAll(value -> true);
+  }
+
+  /**
+   * filter 를 만족하는 항목을 키 순서대로 조회한다. CF 를 SST 경계로 나눈 구간들을 한 snapshot 에서
+   * 병렬로 순회하고 구간 순서대로 합친다 (rocksdb.parallel-scan).
+   */
+  @Override
+  public List<V> findAll(Predicate<? super V> filter) {
+    return findAll(filter, keyRanges());
+  }
+
+  List<V> findAll(Predicate<? super V> filter, List<KeyRange> ranges) {
+    long start = System.nanoTime();
     List<V> results = new ArrayList<>();
-    try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle)) {
-      iterator.seekToFirst();
-      while (iterator.isValid()) {
-        byte[] value = iterator.value();
-        results.add(JsonSerializationUtils.deserialize(value, valueType));
-        iterator.next();
+    try {
+      for (List<V> range : scanRanges(ranges, ArrayList<V>::new, (values, value) -> {
+        if (filter.test(value)) {
+          values.add(value);
+        }
+      })) {
+        results.addAll(range);
+      }
+      log.debug("Found {} entries in {} ranges", results.size(), ranges.size());
+      return results;
+    } finally {
+      metrics.record(Operation.SCAN, start, results.size());
+    }
+  }
+
+  /**
+   * filter 를 만족하는 항목 수. {@link #findAll(Predicate)} 처럼 병렬로 순회하되 목록은 만들지 않는다.
+   * (전체 항목 수는 {@link #count()} 가 카운터로 바로 반환한다)
+   */
+  @Override
+  public long count(Predicate<? super V> filter) {
+    return count(filter, keyRanges());
+  }
+
+  long count(Predicate<? super V> filter, List<KeyRange> ranges) {
+    long start = System.nanoTime();
+    long count = 0;
+    try {
+      for (long[] range : scanRanges(ranges, () -> new long[1], (counts, value) -> {
+        if (filter.test(value)) {
+          counts[0]++;
+        }
+      })) {
+        count += range[0];
+      }
+      return count;
+    } finally {
+      metrics.record(Operation.SCAN, start, (int) Math.min(count, Integer.MAX_VALUE));
+    }
+  }
+
+  // 구간마다 iterator 하나로 만료되지 않은 항목을 구간별 결과(accumulator)에 모은다
+  private <A> List<A> scanRanges(List<KeyRange> ranges, Supplier<A> accumulator,
+      BiConsumer<A, V> consumer) {
+    long now = System.currentTimeMillis();
+    Snapshot snapshot = readSnapshot();
+    try {
+      return parallelScanPool.scan(ranges, range -> {
+        A result = accumulator.get();
+        try (ScanOptions scanOptions = ScanOptions.forRange(range.start(), range.end())) {
+          scanOptions.readOptions().setSnapshot(snapshot);
+          try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+              scanOptions.readOptions())) {
+            for (iterator.seek(range.start()); iterator.isValid(); iterator.next()) {
+              byte[] value = iterator.value();
+              if (!TtlCodec.isExpired(value, now)) {
+                consumer.accept(result, patched(iterator.key(), codec.decode(value)));
+              }
+            }
+          }
+        }
+        return result;
+      });
+    } finally {
+      releaseSnapshot(snapshot);
+    }
+  }
+
+  /**
+   * secondary 는 snapshot 을 지원하지 않으므로 null (iterator 는 만들어진 시점의 상태를 계속 본다).
+   * 병렬 스캔은 구간별 iterator 를 만드는 사이에 catch-up 이 끼면 구간마다 시점이 다를 수 있다.
+   */
+  private Snapshot readSnapshot() {
+    return secondary ? null : rocksDB.getSnapshot();
+  }
+
+  private void releaseSnapshot(Snapshot snapshot) {
+    if (snapshot != null) {
+      rocksDB.releaseSnapshot(snapshot);
+    }
+  }
+
+  private List<KeyRange> keyRanges() {
+    return KeyRanges.split(rocksDB, columnFamilyName, parallelScanPool.parallelism(),
+        parallelScanPool.minRangeSize());
+  }
+
+  // multiGet 한 번으로 조회해 JNI 호출을 줄이고 RocksDB 가 block 읽기를 병렬화할 수 있게 한다
+  @Override
+  public Map<String, V> findAll(Collection<String> keys) {
+    List<String> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+    List<V> values = findAll(distinctKeys.stream().map(this::keyBytes).toList(), distinctKeys);
+    Map<String, V> results = new LinkedHashMap<>();
+    for (int i = 0; i < values.size(); i++) {
+      if (values.get(i) != null) {
+        results.put(distinctKeys.get(i), values.get(i));
       }
-      log.debug("Found {} entries", results.size());
     }
     return results;
   }
 
+  /**
+   * TypedKeyRepository 용: 중복 없는 키 바이트 목록을 조회해 같은 위치에 값을 (없으면 null) 담는다.
+   */
+  List<V> findAll(List<byte[]> keys) {
+    return findAll(keys, null);
+  }
+
+  // keys 는 keyBytes 와 같은 순서의 String 키 (바이트로 들어온 호출이면 null)
+  private List<V> findAll(List<byte[]> keyBytes, List<String> keys) {
+    long start = System.nanoTime();
+    int size = keyBytes.size();
+    // 캐시에 있는 키는 multiGet 대상에서 제외 (요청 순서는 유지)
+    List<V> results = new ArrayList<>(Collections.nCopies(size, null));
+    List<String> cacheKeys = new ArrayList<>(size);
+    List<Integer> missing = new ArrayList<>();
+    try {
+      for (int i = 0; i < size; i++) {
+        String key = keys == null ? null : keys.get(i);
+        recordRead(keyBytes.get(i), key);
+        String cacheKey = cacheKey(keyBytes.get(i), key);
+        cacheKeys.add(cacheKey);
+        V cached = cachedValue(cacheKey);
+        results.set(i, cached);
+        if (cached == null) {
+          missing.add(i);
+        }
+      }
+      if (missing.isEmpty()) {
+        return withPatches(keyBytes, cacheKeys, results);
+      }
+
+      long loadStart = System.nanoTime();
+      long[] cacheTokens = new long[missing.size()];
+      for (int i = 0; cache != null && i < cacheTokens.length; i++) {
+        cacheTokens[i] = cache.loadToken(cacheKeys.get(missing.get(i)));
+      }
+      List<byte[]> missingKeys = missing.stream().map(keyBytes::get).toList();
+      List<byte[]> values = rocksDB.multiGetAsList(
+          Collections.nCopies(missingKeys.size(), columnFamilyHandle), missingKeys);
+      long now = System.currentTimeMillis();
+      int found = size - missing.size();
+      for (int i = 0; i < values.size(); i++) {
+        byte[] bytes = values.get(i);
+        if (bytes == null || TtlCodec.isExpired(bytes, now)) {
+          continue;
+        }
+        profiler.recordReadSize(bytes.length);
+        V value = codec.decode(bytes);
+        if (codec.isLegacy(bytes)) {
+          rewriteLegacy(missingKeys.get(i), bytes, value);
+        }
+        int index = missing.get(i);
+        cacheLoaded(cacheKeys.get(index), bytes.length, TtlCodec.hasExpiry(bytes), value,
+            cacheTokens[i], loadStart);
+        results.set(index, value);
+        found++;
+      }
+      log.debug("Found {} of {} keys with multiGet", found, size);
+      return withPatches(keyBytes, cacheKeys, results);
+    } catch (RocksDBException e) {
+      log.error("Error retrieving {} entries in RocksDB", missing.size(), e);
+      throw new RocksDbException("Failed to find batch entries", e);
+    } finally {
+      metrics.record(Operation.MULTI_GET, start, size);
+    }
+  }
+
   @Override
   public List<V> findByPrefix(String prefix) {
+    return findByPrefix(keyBytes(prefix));
+  }
+
+  // TypedKeyRepository 용
+  List<V> findByPrefix(byte[] prefixBytes) {
+    long start = System.nanoTime();
     List<V> results = new ArrayList<>();
-    byte[] prefixBytes = prefix.getBytes();
-    try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle)) {
+    long now = System.currentTimeMillis();
+    try (ScanOptions scanOptions =
+        ScanOptions.forPrefix(prefixBytes, prefixExtractorLength, true);
+        RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+            scanOptions.readOptions())) {
       iterator.seek(prefixBytes);
       while (iterator.isValid()) {
         byte[] key = iterator.key();
@@ -94,71 +543,1126 @@ public abstract class RocksDbRepository<V> implements KeyValueRepository<String,
           break;
         }
         byte[] value = iterator.value();
-        results.add(JsonSerializationUtils.deserialize(value, valueType));
+        if (!TtlCodec.isExpired(value, now)) {
+          results.add(patched(key, codec.decode(value)));
+        }
         iterator.next();
       }
-      log.debug("Found {} entries with prefix: {}", results.size(), prefix);
+      log.atDebug().addArgument(results.size()).addArgument(() -> keyString(prefixBytes))
+          .log("Found {} entries with prefix: {}");
+    } finally {
+      metrics.record(Operation.FIND_BY_PREFIX, start, results.size());
+    }
+    return results;
+  }
+
+  /**
+   * [start, end) 구간의 항목을 키 순서대로 반환한다.
+   */
+  @Override
+  public List<V> findRange(String start, String end) {
+    return findRange(keyBytes(start), keyBytes(end));
+  }
+
+  // TypedKeyRepository 용
+  List<V> findRange(byte[] startBytes, byte[] endBytes) {
+    long startNanos = System.nanoTime();
+    List<V> results = new ArrayList<>();
+    if (Arrays.compareUnsigned(startBytes, endBytes) >= 0) {
+      return results;
+    }
+    long now = System.currentTimeMillis();
+    try (ScanOptions scanOptions = ScanOptions.forRange(startBytes, endBytes);
+        RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+            scanOptions.readOptions())) {
+      for (iterator.seek(startBytes); iterator.isValid(); iterator.next()) {
+        byte[] value = iterator.value();
+        if (!TtlCodec.isExpired(value, now)) {
+          results.add(patched(iterator.key(), codec.decode(value)));
+        }
+      }
+      log.debug("Found {} entries in range", results.size());
+    } finally {
+      metrics.record(Operation.FIND_RANGE, startNanos, results.size());
     }
     return results;
   }
 
+  /**
+   * 호출 시점의 snapshot 에서 prefix 로 시작하는 항목을 키 순서대로 하나씩 consumer 에 넘긴다.
+   * 목록을 만들지 않고 block cache 도 채우지 않으므로 CF 크기와 상관없이 메모리 사용이 일정하다.
+   * consumer 가 느리면(예: 소켓 쓰기 대기) 순회도 그만큼 느려진다. 반환값은 넘긴 항목 수.
+   */
+  public long forEach(String prefix, EntryConsumer<V> consumer) throws IOException {
+    long start = System.nanoTime();
+    long count = 0;
+    byte[] prefixBytes = keyBytes(prefix);
+    long now = System.currentTimeMillis();
+    Snapshot snapshot = readSnapshot();
+    try (ScanOptions scanOptions =
+        ScanOptions.forPrefix(prefixBytes, prefixExtractorLength, true)) {
+      scanOptions.readOptions()
+          .setSnapshot(snapshot)
+          .setFillCache(false)
+          .setReadaheadSize(EXPORT_READAHEAD_SIZE);
+      try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+          scanOptions.readOptions())) {
+        iterator.seek(prefixBytes);
+        while (iterator.isValid()) {
+          byte[] key = iterator.key();
+          if (!startsWith(key, prefixBytes)) {
+            break;
+          }
+          byte[] value = iterator.value();
+          if (!TtlCodec.isExpired(value, now)) {
+            consumer.accept(keyString(key), patched(key, codec.decode(value)));
+            count++;
+          }
+          iterator.next();
+        }
+      }
+      log.debug("Exported {} entries with prefix: {}", count, prefix);
+      return count;
+    } finally {
+      releaseSnapshot(snapshot);
+      metrics.record(Operation.EXPORT, start, (int) Math.min(count, Integer.MAX_VALUE));
+    }
+  }
+
+  @Override
+  public Page<V> findPage(String cursor, int limit, ScanDirection direction) {
+    return scanPage(new byte[0], cursor, limit, direction);
+  }
+
+  @Override
+  public Page<V> findPageByPrefix(String prefix, String cursor, int limit,
+      ScanDirection direction) {
+    return scanPage(keyBytes(prefix), cursor, limit, direction);
+  }
+
+  // TypedKeyRepository 용
+  Page<V> findPageByPrefix(byte[] prefix, String cursor, int limit, ScanDirection direction) {
+    return scanPage(prefix, cursor, limit, direction);
+  }
+
+  // 커서(마지막으로 반환한 키)에서 바로 seek 하므로 페이지 깊이와 무관하게 O(limit)
+  private Page<V> scanPage(byte[] prefix, String cursor, int limit, ScanDirection direction) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be positive: " + limit);
+    }
+    boolean forward = direction != ScanDirection.REVERSE;
+    byte[] lastKey = cursor == null || cursor.isEmpty() ? null : decodeCursor(cursor);
+    List<V> items = new ArrayList<>(limit);
+    long now = System.currentTimeMillis();
+    try (ScanOptions scanOptions = ScanOptions.forPrefix(prefix, prefixExtractorLength, forward);
+        RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+            scanOptions.readOptions())) {
+      if (lastKey != null) {
+        positionAfter(iterator, lastKey, forward);
+      } else if (forward) {
+        iterator.seekToFirst();
+      } else {
+        iterator.seekToLast();
+      }
+
+      byte[] lastReturned = null;
+      while (items.size() < limit && iterator.isValid()) {
+        byte[] key = iterator.key();
+        if (!startsWith(key, prefix)) {
+          break;
+        }
+        byte[] value = iterator.value();
+        if (!TtlCodec.isExpired(value, now)) {
+          items.add(patched(key, codec.decode(value)));
+          lastReturned = key;
+        }
+        step(iterator, forward);
+      }
+      boolean hasNext = items.size() == limit && iterator.isValid()
+          && startsWith(iterator.key(), prefix);
+      log.debug("Found {} entries in page (direction: {}, hasNext: {})",
+          items.size(), direction, hasNext);
+      return new Page<>(items, hasNext ? encodeCursor(lastReturned) : null);
+    }
+  }
+
+  private void positionAfter(RocksIterator iterator, byte[] lastKey, boolean forward) {
+    if (forward) {
+      iterator.seek(lastKey);
+    } else {
+      iterator.seekForPrev(lastKey);
+    }
+    if (iterator.isValid() && Arrays.equals(iterator.key(), lastKey)) {
+      step(iterator, forward);
+    }
+  }
+
+  private static void step(RocksIterator iterator, boolean forward) {
+    if (forward) {
+      iterator.next();
+    } else {
+      iterator.prev();
+    }
+  }
+
+  private static String encodeCursor(byte[] key) {
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(key);
+  }
+
+  private static byte[] decodeCursor(String cursor) {
+    try {
+      return Base64.getUrlDecoder().decode(cursor);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+    }
+  }
+
   @Override
   public void saveAll(Map<String, V> entries) {
-    try (WriteBatch batch = new WriteBatch();
-        WriteOptions writeOptions = new WriteOptions()) {
-      for (Map.Entry<String, V> entry : entries.entrySet()) {
-        byte[] key = entry.getKey().getBytes();
-        byte[] value = JsonSerializationUtils.serialize(entry.getValue());
-        batch.put(columnFamilyHandle, key, value);
+    saveAll(entries, defaultTtl);
+  }
+
+  // 모든 항목에 같은 ttl 을 적용한다
+  @Override
+  public void saveAll(Map<String, V> entries, Duration ttl) {
+    List<String> keys = new ArrayList<>(entries.keySet());
+    saveAll(keys.stream().map(this::keyBytes).toList(), keys, new ArrayList<>(entries.values()),
+        ttl);
+  }
+
+  // TypedKeyRepository 용: keys 와 values 는 같은 순서이고 키는 중복되지 않는다
+  void saveAll(List<byte[]> keys, List<V> values) {
+    saveAll(keys, null, values, defaultTtl);
+  }
+
+  void saveAll(List<byte[]> keys, List<V> values, Duration ttl) {
+    saveAll(keys, null, values, ttl);
+  }
+
+  // names 는 keys 와 같은 순서의 String 키 (바이트로 들어온 호출이면 null)
+  private void saveAll(List<byte[]> keys, List<String> names, List<V> values, Duration ttl) {
+    long start = System.nanoTime();
+    long expiresAt = TtlCodec.expiresAt(ttl, System.currentTimeMillis());
+    List<byte[]> encodedValues = new ArrayList<>(keys.size());
+    for (int i = 0; i < keys.size(); i++) {
+      byte[] encoded = codec.encode(values.get(i), expiresAt);
+      encodedValues.add(encoded);
+      recordWrite(keys.get(i), names == null ? null : names.get(i));
+      profiler.recordWriteSize(encoded.length);
+    }
+    try (KeyLocks.Held ignored = keyLocks.acquire(keys)) {
+      long added = 0;
+      List<byte[]> currentValues = new ArrayList<>(keys.size());
+      List<V> previousValues = new ArrayList<>(keys.size());
+      for (byte[] key : keys) {
+        byte[] current = currentBytes(key);
+        if (current == null) {
+          added++;
+        }
+        currentValues.add(current);
+        previousValues.add(indexedValue(current));
+      }
+      long addedKeys = added;
+      writer.write(batch -> {
+        for (int i = 0; i < keys.size(); i++) {
+          batch.put(columnFamilyHandle, keys.get(i), encodedValues.get(i));
+          updateIndexes(batch, keys.get(i), previousValues.get(i), values.get(i));
+          expiryQueue.update(batch, keys.get(i), currentValues.get(i), encodedValues.get(i));
+          discardPatches(batch, keys.get(i));
+        }
+        counter.add(batch, addedKeys);
+      });
+      for (int i = 0; i < keys.size(); i++) {
+        invalidate(keys.get(i), names == null ? null : names.get(i));
       }
-      rocksDB.write(writeOptions, batch);
-      log.debug("Saved {} entries in batch", entries.size());
+      log.debug("Saved {} entries in batch", keys.size());
     } catch (RocksDBException e) {
       log.error("Error saving batch entries in RocksDB", e);
       throw new RocksDbException("Failed to save batch entries", e);
+    } finally {
+      metrics.record(Operation.SAVE_ALL, start, keys.size());
     }
   }
 
   @Override
   public void deleteAll(List<String> keys) {
-    try (WriteBatch batch = new WriteBatch();
-        WriteOptions writeOptions = new WriteOptions()) {
-      for (String key : keys) {
-        batch.delete(columnFamilyHandle, key.getBytes());
+    // 중복 키가 카운터를 두 번 감소시키지 않도록 제거
+    List<String> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+    deleteAll(distinctKeys.stream().map(this::keyBytes).toList(), distinctKeys);
+  }
+
+  // TypedKeyRepository 용: 키는 중복되지 않는다
+  void deleteAll(Collection<byte[]> keys) {
+    deleteAll(List.copyOf(keys), null);
+  }
+
+  // keys 는 keyBytes 와 같은 순서의 String 키 (바이트로 들어온 호출이면 null)
+  private void deleteAll(List<byte[]> keyBytes, List<String> keys) {
+    long start = System.nanoTime();
+    for (int i = 0; i < keyBytes.size(); i++) {
+      recordWrite(keyBytes.get(i), keys == null ? null : keys.get(i));
+    }
+    try (KeyLocks.Held ignored = keyLocks.acquire(keyBytes)) {
+      List<byte[]> existing = new ArrayList<>();
+      List<byte[]> currentValues = new ArrayList<>();
+      List<V> previousValues = new ArrayList<>();
+      for (byte[] key : keyBytes) {
+        byte[] current = currentBytes(key);
+        if (current != null) {
+          existing.add(key);
+          currentValues.add(current);
+          previousValues.add(indexedValue(current));
+        }
+      }
+      writer.write(batch -> {
+        for (int i = 0; i < existing.size(); i++) {
+          batch.delete(columnFamilyHandle, existing.get(i));
+          updateIndexes(batch, existing.get(i), previousValues.get(i), null);
+          expiryQueue.update(batch, existing.get(i), currentValues.get(i), null);
+        }
+        // 본문 없이 부분 갱신만 남은 키도 함께 정리
+        for (byte[] key : keyBytes) {
+          discardPatches(batch, key);
+        }
+        counter.add(batch, -existing.size());
+      });
+      for (int i = 0; i < keyBytes.size(); i++) {
+        invalidate(keyBytes.get(i), keys == null ? null : keys.get(i));
       }
-      rocksDB.write(writeOptions, batch);
-      log.debug("Deleted {} entries in batch", keys.size());
+      log.debug("Deleted {} entries in batch", keyBytes.size());
     } catch (RocksDBException e) {
       log.error("Error deleting batch entries in RocksDB", e);
       throw new RocksDbException("Failed to delete batch entries", e);
+    } finally {
+      metrics.record(Operation.DELETE_ALL, start, keyBytes.size());
     }
   }
 
+  /**
+   * prefix 로 시작하는 항목을 모두 지운다. 비용과 반환값은 {@link #deleteRange(String, String, boolean)}
+   * 참고.
+   */
   @Override
-  public boolean exists(String key) {
+  public CompletableFuture<Long> deleteByPrefix(String prefix, boolean compact) {
+    return deleteByPrefix(keyBytes(prefix), compact);
+  }
+
+  // TypedKeyRepository 용
+  CompletableFuture<Long> deleteByPrefix(byte[] prefix, boolean compact) {
+    if (prefix.length == 0) {
+      throw new IllegalArgumentException("prefix must not be empty");
+    }
+    return deleteKeyRange(prefix, ScanOptions.upperBound(prefix), compact);
+  }
+
+  /**
+   * [start, end) 구간의 항목을 range tombstone 하나로 지운다. 키마다 tombstone 을 남기지 않으므로
+   * 이후 스캔이 지운 키를 하나씩 건너뛰지 않는다.
+   * <ul>
+   *   <li>호출한 스레드의 비용은 구간 크기와 무관하다: 모든 키 잠금을 잡고 snapshot 이후 쓰인 구간의
+   *       키만 다시 확인한 뒤 tombstone 을 쓰고 반환한다</li>
+   *   <li>지운 키를 세는 O(n) 스캔은 tombstone 이전 snapshot 으로 {@link ParallelScanPool} 에서 하고,
+   *       끝나면 카운터를 보정한다. 그 전까지 (또는 그 사이 프로세스가 종료되면) {@link #count()} 는
+   *       지운 항목을 포함한다</li>
+   *   <li>보조 인덱스가 있으면 같은 스캔에서 snapshot 의 값으로 인덱스 엔트리를 지운다 (그 사이 다시
+   *       저장된 키는 새 값의 엔트리를 남긴다)</li>
+   *   <li>compact 면 스캔이 끝나고 snapshot 을 놓은 뒤 구간을 compaction 해 tombstone 과 지운
+   *       데이터를 정리한다</li>
+   *   <li>만료 목록 엔트리는 남겨 두며 만료 삭제 시 정리된다</li>
+   * </ul>
+   * 반환된 future 는 카운터 보정 (과 compaction) 이 끝나면 삭제한 항목 수 (만료됐지만 아직 삭제되지
+   * 않은 항목 포함) 로 완료된다.
+   */
+  @Override
+  public CompletableFuture<Long> deleteRange(String start, String end, boolean compact) {
+    return deleteRange(keyBytes(start), keyBytes(end), compact);
+  }
+
+  // TypedKeyRepository 용
+  CompletableFuture<Long> deleteRange(byte[] start, byte[] end, boolean compact) {
+    if (Arrays.compareUnsigned(start, end) >= 0) {
+      throw new IllegalArgumentException(
+          "start must be less than end: " + keyString(start) + ", " + keyString(end));
+    }
+    return deleteKeyRange(start, end, compact);
+  }
+
+  // end 가 null 이면 상한 없음 (prefix 가 모두 0xFF 인 경우)
+  private CompletableFuture<Long> deleteKeyRange(byte[] start, byte[] upper, boolean compact) {
+    long startNanos = System.nanoTime();
+    Snapshot snapshot = null;
+    // snapshot 보다 먼저 추적을 시작해야 snapshot 에 빠진 쓰기가 모두 기록된다
+    try (KeyLocks.WrittenKeys written = keyLocks.track(start, upper)) {
+      snapshot = rocksDB.getSnapshot();
+      long sinceSnapshot = 0;
+      byte[] end = upper;
+      try (ReadOptions snapshotRead = new ReadOptions().setSnapshot(snapshot);
+          KeyLocks.Held ignored = keyLocks.acquireAll();
+          WriteBatch batch = new WriteBatch()) {
+        if (written.isComplete()) {
+          sinceSnapshot = writtenSince(snapshotRead, written.keys(), batch);
+        } else {
+          // 그 사이 대량 적재가 ingest 했으면 잠금 안에서 새 snapshot 을 잡는다
+          rocksDB.releaseSnapshot(snapshot);
+          snapshot = rocksDB.getSnapshot();
+        }
+        // 지금 비어 있으면 snapshot 이후 지워진 키는 각자 카운터에 반영됐다
+        if (isEmptyRange(start, upper)) {
+          return CompletableFuture.completedFuture(0L);
+        }
+        if (end == null) {
+          end = lastKey(start);
+        }
+        writeRangeTombstone(batch, start, end);
+      }
+      Snapshot beforeTombstone = snapshot;
+      long delta = sinceSnapshot;
+      byte[] compactEnd = end;
+      CompletableFuture<Long> settled = parallelScanPool.submit(() ->
+          settleRange(beforeTombstone, start, upper, delta, compact ? compactEnd : null));
+      snapshot = null; // 백그라운드 작업이 놓는다
+      return settled;
+    } catch (RocksDBException e) {
+      log.error("Error deleting range in RocksDB", e);
+      throw new RocksDbException("Failed to delete range", e);
+    } finally {
+      if (snapshot != null) {
+        rocksDB.releaseSnapshot(snapshot);
+      }
+      metrics.record(Operation.DELETE_RANGE, startNanos);
+    }
+  }
+
+  // tombstone 이전 snapshot 으로 지운 키를 세어 카운터를 보정하고 인덱스 엔트리를 지운다.
+  // compactEnd 가 있으면 snapshot 을 놓은 뒤 그 구간을 compaction 한다
+  private long settleRange(Snapshot snapshot, byte[] start, byte[] upper, long delta,
+      byte[] compactEnd) {
     try {
-      byte[] bytes = rocksDB.get(columnFamilyHandle, key.getBytes());
-      return bytes != null;
+      long deleted = delta;
+      try (ScanOptions scanOptions = ScanOptions.forRange(start, upper)) {
+        scanOptions.readOptions().setSnapshot(snapshot).setFillCache(false);
+        deleted += indexes.isEmpty()
+            ? countKeys(scanOptions, start) : deleteIndexEntries(scanOptions, start);
+        long adjustment = -deleted;
+        writer.write(batch -> counter.add(batch, adjustment));
+      } finally {
+        rocksDB.releaseSnapshot(snapshot);
+      }
+      log.debug("Deleted {} entries in range", deleted);
+      if (compactEnd != null) {
+        compactRange(start, compactEnd);
+      }
+      return deleted;
     } catch (RocksDBException e) {
-      log.error("Error checking existence in RocksDB for key: {}", key, e);
-      throw new RocksDbException("Failed to check existence for key: " + key, e);
+      log.error("Error adjusting counter after range delete in RocksDB", e);
+      throw new RocksDbException("Failed to adjust counter after range delete", e);
     }
   }
 
-  @Override
-  public long count() {
+  private long countKeys(ScanOptions scanOptions, byte[] start) {
     long count = 0;
-    try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle)) {
-      iterator.seekToFirst();
-      while (iterator.isValid()) {
+    try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+        scanOptions.readOptions())) {
+      for (iterator.seek(start); iterator.isValid(); iterator.next()) {
         count++;
-        iterator.next();
       }
-      log.debug("Total count: {}", count);
     }
     return count;
   }
 
+  // 모든 키 잠금을 잡은 상태에서 호출. snapshot 이후 쓰인 키의 존재 여부 변화 (카운트 차이) 를 돌려주고,
+  // 그 키들의 현재 인덱스 엔트리 삭제를 batch 에 담는다 (snapshot 의 값과 다를 수 있으므로)
+  private long writtenSince(ReadOptions snapshotRead, List<byte[]> keys, WriteBatch batch)
+      throws RocksDBException {
+    long delta = 0;
+    for (byte[] key : keys) {
+      byte[] current = rocksDB.get(columnFamilyHandle, key);
+      boolean existed = rocksDB.get(columnFamilyHandle, snapshotRead, key) != null;
+      delta += (current == null ? 0 : 1) - (existed ? 1 : 0);
+      if (current != null) {
+        updateIndexes(batch, key, indexedValue(current), null);
+      }
+    }
+    return delta;
+  }
+
+  private boolean isEmptyRange(byte[] start, byte[] upper) {
+    try (ScanOptions scanOptions = ScanOptions.forRange(start, upper);
+        RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+            scanOptions.readOptions())) {
+      iterator.seek(start);
+      return !iterator.isValid();
+    }
+  }
+
+  // 상한이 없는 구간의 tombstone 끝 (마지막 키 바로 다음)
+  private byte[] lastKey(byte[] start) {
+    try (ScanOptions scanOptions = ScanOptions.forRange(start, null);
+        RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+            scanOptions.readOptions())) {
+      iterator.seekToLast();
+      return Arrays.copyOf(iterator.key(), iterator.key().length + 1);
+    }
+  }
+
+  // 본문과 부분 갱신의 range tombstone 을 한 batch 로
+  // (group commit batch 는 트랜잭션 DB 를 거치므로 DeleteRange 를 담을 수 없어 직접 쓴다)
+  private void writeRangeTombstone(WriteBatch batch, byte[] start, byte[] end)
+      throws RocksDBException {
+    try (WriteOptions writeOptions = new WriteOptions()) {
+      batch.deleteRange(columnFamilyHandle, start, end);
+      if (patches != null) {
+        patches.deleteRange(batch, start, end);
+      }
+      TransactionRunner.rangeDeletable(rocksDB).write(writeOptions, batch);
+    }
+    if (patches != null) {
+      patches.clearedRange(start, end);
+    }
+    invalidateAll();
+  }
+
+  // range tombstone 이전 snapshot 의 값으로 인덱스 엔트리를 지우고 지나간 키 수를 돌려준다. 본문은
+  // 이미 지워졌으므로 중간에 실패해도 남는 것은 인덱스 조회가 걸러내는 엔트리뿐이다. 묶음마다 그 키의
+  // 잠금만 잡는다
+  private long deleteIndexEntries(ScanOptions scanOptions, byte[] start)
+      throws RocksDBException {
+    long count = 0;
+    List<byte[]> keys = new ArrayList<>(SWEEP_BATCH_SIZE);
+    List<V> values = new ArrayList<>(SWEEP_BATCH_SIZE);
+    try (RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+        scanOptions.readOptions())) {
+      for (iterator.seek(start); iterator.isValid(); iterator.next()) {
+        count++;
+        keys.add(iterator.key());
+        values.add(codec.decode(iterator.value()));
+        if (keys.size() == SWEEP_BATCH_SIZE) {
+          deleteIndexEntries(keys, values);
+        }
+      }
+      deleteIndexEntries(keys, values);
+    }
+    return count;
+  }
+
+  private void deleteIndexEntries(List<byte[]> keys, List<V> values) throws RocksDBException {
+    if (keys.isEmpty()) {
+      return;
+    }
+    // tombstone 뒤에 다시 저장된 키는 현재 값의 엔트리를 남긴다
+    try (KeyLocks.Held ignored = keyLocks.acquire(keys)) {
+      List<byte[]> current = rocksDB.multiGetAsList(
+          Collections.nCopies(keys.size(), columnFamilyHandle), keys);
+      writer.write(batch -> {
+        for (int i = 0; i < keys.size(); i++) {
+          updateIndexes(batch, keys.get(i), values.get(i), indexedValue(current.get(i)));
+        }
+      });
+    }
+    keys.clear();
+    values.clear();
+  }
+
+  // bottommost level 까지 내려야 range tombstone 과 가려진 데이터가 함께 사라진다
+  private void compactRange(byte[] start, byte[] end) throws RocksDBException {
+    try (CompactRangeOptions options = new CompactRangeOptions()
+        .setBottommostLevelCompaction(BottommostLevelCompaction.kForceOptimized)) {
+      rocksDB.compactRange(columnFamilyHandle, start, end, options);
+    }
+    log.debug("Compacted range of {}", columnFamilyName);
+  }
+
+  @Override
+  public boolean exists(String key) {
+    return exists(keyBytes(key), key);
+  }
+
+  // TypedKeyRepository 용
+  boolean exists(byte[] key) {
+    return exists(key, null);
+  }
+
+  private boolean exists(byte[] keyBytes, String key) {
+    try {
+      byte[] current = currentBytes(keyBytes);
+      return current != null && !TtlCodec.isExpired(current, System.currentTimeMillis());
+    } catch (RocksDBException e) {
+      log.error("Error checking existence in RocksDB for key: {}", keyName(keyBytes, key), e);
+      throw new RocksDbException("Failed to check existence for key: " + keyName(keyBytes, key),
+          e);
+    }
+  }
+
+  @Override
+  public long count() {
+    long start = System.nanoTime();
+    long count = counter.get();
+    log.debug("Total count: {}", count);
+    metrics.record(Operation.COUNT, start);
+    return count;
+  }
+
+  @Override
+  public long estimatedCount() {
+    try {
+      return rocksDB.getLongProperty(columnFamilyHandle, ESTIMATE_NUM_KEYS);
+    } catch (RocksDBException e) {
+      log.error("Error reading {} from RocksDB", ESTIMATE_NUM_KEYS, e);
+      throw new RocksDbException("Failed to estimate count", e);
+    }
+  }
+
+  /**
+   * 필드 값이 [min, max] 인 항목을 필드 값 순서로 최대 limit 개 조회한다.
+   * 인덱스 CF 를 범위 스캔해 기본 키를 모은 뒤 multiGet 으로 본문을 읽는다.
+   */
+  protected final <F> List<V> findByIndex(SecondaryIndex<V, F> index, F min, F max,
+      int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be positive: " + limit);
+    }
+    if (!index.isReady()) {
+      throw new RocksDbException("Index is not built yet: " + index.name());
+    }
+    // 인덱스는 fold 할 때 갱신되므로 남은 부분 갱신을 먼저 반영한다
+    foldPatches();
+    byte[] lower = index.encodeField(min);
+    byte[] upper = ScanOptions.upperBound(index.encodeField(max));
+    List<String> keys = new ArrayList<>(limit);
+    try (ScanOptions scanOptions = ScanOptions.forRange(lower, upper);
+        RocksIterator iterator = rocksDB.newIterator(index.columnFamilyHandle(),
+            scanOptions.readOptions())) {
+      for (iterator.seek(lower); iterator.isValid() && keys.size() < limit; iterator.next()) {
+        keys.add(keyString(index.primaryKey(iterator.key())));
+      }
+    }
+    // 인덱스 스캔과 본문 조회 사이에 바뀐 값은 제외
+    List<V> results = findAll(keys).values().stream()
+        .filter(value -> index.matches(value, lower, upper))
+        .toList();
+    log.debug("Found {} entries with index {}", results.size(), index.name());
+    return results;
+  }
+
+  /**
+   * 아직 빌드되지 않은 인덱스를 기존 데이터로 채운다. 서비스 중에 실행해도 되며,
+   * 빌드 중 들어온 쓰기는 이미 인덱스를 갱신하므로 키 단위 lock 안에서 현재 값으로만 엔트리를 쓴다.
+   */
+  public long buildIndexes() {
+    List<SecondaryIndex<V, ?>> pending = indexes.stream()
+        .filter(index -> !index.isReady())
+        .toList();
+    if (pending.isEmpty()) {
+      return 0;
+    }
+    long indexed = 0;
+    List<byte[]> keys = new ArrayList<>(SWEEP_BATCH_SIZE);
+    try (ScanOptions scanOptions = ScanOptions.totalOrder();
+        RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+            scanOptions.readOptions())) {
+      for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+        keys.add(iterator.key());
+        if (keys.size() == SWEEP_BATCH_SIZE) {
+          indexed += buildIndexEntries(pending, keys);
+          keys.clear();
+        }
+      }
+      indexed += buildIndexEntries(pending, keys);
+      for (SecondaryIndex<V, ?> index : pending) {
+        index.markReady(rocksDB, metadataColumnFamilyHandle);
+      }
+      log.info("Built indexes {} with {} entries",
+          pending.stream().map(SecondaryIndex::name).toList(), indexed);
+      return indexed;
+    } catch (RocksDBException e) {
+      log.error("Error building indexes in RocksDB", e);
+      throw new RocksDbException("Failed to build indexes", e);
+    }
+  }
+
+  private long buildIndexEntries(List<SecondaryIndex<V, ?>> pending, List<byte[]> keys)
+      throws RocksDBException {
+    if (keys.isEmpty()) {
+      return 0;
+    }
+    try (KeyLocks.Held ignored = keyLocks.acquire(keys)) {
+      List<byte[]> values = rocksDB.multiGetAsList(
+          Collections.nCopies(keys.size(), columnFamilyHandle), keys);
+      Map<byte[], V> current = new LinkedHashMap<>();
+      for (int i = 0; i < keys.size(); i++) {
+        if (values.get(i) != null) {
+          current.put(keys.get(i), codec.decode(values.get(i)));
+        }
+      }
+      writer.write(batch -> {
+        for (Map.Entry<byte[], V> entry : current.entrySet()) {
+          for (SecondaryIndex<V, ?> index : pending) {
+            index.update(batch, entry.getKey(), null, entry.getValue());
+          }
+        }
+      });
+      return current.size();
+    }
+  }
+
+  /**
+   * 숫자 필드에 delta 를 더한다 (음수면 감소). 본문을 읽지 않는 blind write 라 같은 키의 동시 갱신이
+   * 서로를 덮어쓰지 않으며, 키가 없으면 조회 시 무시된다.
+   */
+  public void increment(String key, String field, Number delta) {
+    applyPatch(key, patches().increment(field, delta));
+  }
+
+  public void setField(String key, String field, Object value) {
+    patch(key, Collections.singletonMap(field, value));
+  }
+
+  /**
+   * 주어진 필드만 바꾼다. 다른 필드는 그 사이 다른 갱신이 있어도 유지된다.
+   */
+  public void patch(String key, Map<String, ?> fields) {
+    applyPatch(key, patches().set(fields));
+  }
+
+  private void applyPatch(String key, byte[] operation) {
+    long start = System.nanoTime();
+    byte[] keyBytes = keyBytes(key);
+    profiler.recordWrite(key);
+    // 본문은 읽지 않고 fold 와의 순서만 맞춘다
+    try (KeyLocks.Held ignored = keyLocks.acquire(keyBytes)) {
+      writer.write(batch -> patches.merge(batch, keyBytes, operation));
+      if (patches.recorded(key) >= maxPendingPatches) {
+        foldPatches(List.of(keyBytes));
+      }
+      log.debug("Patched key: {}", key);
+    } catch (RocksDBException e) {
+      log.error("Error patching entry in RocksDB for key: {}", key, e);
+      throw new RocksDbException("Failed to patch key: " + key, e);
+    } finally {
+      metrics.record(Operation.PATCH, start);
+    }
+  }
+
+  /**
+   * 남은 부분 갱신을 본문에 반영하고 (보조 인덱스 포함) patch 를 지운다. 반환값은 반영한 항목 수.
+   * 본문이 없거나 만료된 키의 patch 는 버린다.
+   */
+  public long foldPatches() {
+    if (patches == null) {
+      return 0;
+    }
+    long start = System.nanoTime();
+    long folded = 0;
+    try {
+      List<byte[]> keys = new ArrayList<>(SWEEP_BATCH_SIZE);
+      for (String key : patches.pendingKeys()) {
+        keys.add(keyBytes(key));
+        if (keys.size() == SWEEP_BATCH_SIZE) {
+          folded += foldPatches(keys);
+          keys.clear();
+        }
+      }
+      folded += foldPatches(keys);
+      return folded;
+    } catch (RocksDBException e) {
+      log.error("Error folding field patches in RocksDB", e);
+      throw new RocksDbException("Failed to fold field patches", e);
+    } finally {
+      metrics.record(Operation.FOLD_PATCHES, start, (int) folded);
+    }
+  }
+
+  private int foldPatches(List<byte[]> keys) throws RocksDBException {
+    if (keys.isEmpty()) {
+      return 0;
+    }
+    try (KeyLocks.Held ignored = keyLocks.acquire(keys)) {
+      long now = System.currentTimeMillis();
+      List<byte[]> foldedKeys = new ArrayList<>();
+      List<byte[]> encodedValues = new ArrayList<>();
+      List<V> previousValues = new ArrayList<>();
+      List<V> values = new ArrayList<>();
+      for (byte[] key : keys) {
+        byte[] operations = patches.operations(key);
+        byte[] current = rocksDB.get(columnFamilyHandle, key);
+        if (operations == null || current == null || TtlCodec.isExpired(current, now)) {
+          continue;
+        }
+        V value = patches.apply(codec.decode(current), operations);
+        foldedKeys.add(key);
+        encodedValues.add(codec.encode(value, TtlCodec.expiresAt(current)));
+        previousValues.add(indexedValue(current));
+        values.add(value);
+      }
+      writer.write(batch -> {
+        for (int i = 0; i < foldedKeys.size(); i++) {
+          batch.put(columnFamilyHandle, foldedKeys.get(i), encodedValues.get(i));
+          updateIndexes(batch, foldedKeys.get(i), previousValues.get(i), values.get(i));
+        }
+        for (byte[] key : keys) {
+          patches.delete(batch, key);
+        }
+      });
+      keys.forEach(key -> invalidate(keyString(key)));
+      return foldedKeys.size();
+    }
+  }
+
+  // UnitOfWork 용: 트랜잭션 snapshot 에서 읽고 읽은 키를 충돌 검사 대상으로 등록한다
+  V find(UnitOfWork unitOfWork, String key) throws RocksDBException {
+    byte[] keyBytes = keyBytes(key);
+    byte[] bytes = unitOfWork.getForUpdate(columnFamilyHandle, keyBytes);
+    if (bytes == null || TtlCodec.isExpired(bytes, System.currentTimeMillis())) {
+      return null;
+    }
+    V value = codec.decode(bytes);
+    if (patches == null) {
+      return value;
+    }
+    byte[] operations = unitOfWork.getForUpdate(patches.columnFamilyHandle(), keyBytes);
+    return operations == null ? value : patches.apply(value, operations);
+  }
+
+  // UnitOfWork 용: save 와 같은 갱신을 트랜잭션 batch 에 쓴다 (CF 기본 ttl 적용)
+  void save(UnitOfWork unitOfWork, String key, V value) throws RocksDBException {
+    byte[] keyBytes = keyBytes(key);
+    byte[] current = unitOfWork.getForUpdate(columnFamilyHandle, keyBytes);
+    byte[] encoded = codec.encode(value,
+        TtlCodec.expiresAt(defaultTtl, System.currentTimeMillis()));
+    WriteBatchInterface batch = unitOfWork.batch();
+    batch.put(columnFamilyHandle, keyBytes, encoded);
+    counter.add(batch, current == null ? 1 : 0);
+    updateIndexes(batch, keyBytes, indexedValue(current), value);
+    expiryQueue.update(batch, keyBytes, current, encoded);
+    deletePatches(unitOfWork, batch, keyBytes);
+  }
+
+  // UnitOfWork 용
+  void delete(UnitOfWork unitOfWork, String key) throws RocksDBException {
+    byte[] keyBytes = keyBytes(key);
+    byte[] current = unitOfWork.getForUpdate(columnFamilyHandle, keyBytes);
+    WriteBatchInterface batch = unitOfWork.batch();
+    if (current != null) {
+      batch.delete(columnFamilyHandle, keyBytes);
+      counter.add(batch, -1);
+      updateIndexes(batch, keyBytes, indexedValue(current), null);
+      expiryQueue.update(batch, keyBytes, current, null);
+    }
+    deletePatches(unitOfWork, batch, keyBytes);
+  }
+
+  // 부분 갱신도 충돌 검사 대상으로 읽어, 커밋 전에 들어온 갱신을 덮어쓰지 않도록 한다
+  private void deletePatches(UnitOfWork unitOfWork, WriteBatchInterface batch, byte[] key)
+      throws RocksDBException {
+    if (patches != null
+        && unitOfWork.getForUpdate(patches.columnFamilyHandle(), key) != null) {
+      patches.delete(batch, key);
+    }
+  }
+
+  // UnitOfWork 용: 커밋하는 동안 일반 쓰기와 겹치지 않도록
+  KeyLocks.Held lockKeys(Collection<String> keys) {
+    return keyLocks.acquire(keys.stream().map(this::keyBytes).toList());
+  }
+
+  // UnitOfWork 용: 커밋 후 (키 lock 안에서)
+  void committed(String key) {
+    invalidate(key);
+  }
+
+  // secondary: primary 를 따라잡은 뒤 (ReplicationManager), 기동 시 읽어 둔 인덱스 빌드 여부를 다시 읽는다
+  void caughtUp() throws RocksDBException {
+    for (SecondaryIndex<V, ?> index : indexes) {
+      index.refresh(rocksDB, metadataColumnFamilyHandle);
+    }
+  }
+
+  private FieldPatches<V> patches() {
+    if (patches == null) {
+      throw new UnsupportedOperationException(
+          "Field patches are not enabled for " + columnFamilyName);
+    }
+    return patches;
+  }
+
+  public AccessProfile accessProfile() {
+    return profiler.snapshot();
+  }
+
+  public void resetAccessProfile() {
+    profiler.reset();
+  }
+
+  public Optional<CacheStats> cacheStats() {
+    return Optional.ofNullable(cache).map(SegmentedLruCache::stats);
+  }
+
+  /**
+   * 이전 포맷으로 저장된 값을 현재 codec 포맷으로 다시 쓴다. 서비스 중에 실행해도 되며,
+   * 키 단위 lock 안에서 값이 그대로인 경우에만 덮어쓴다.
+   */
+  public long migrateLegacyValues() {
+    long migrated = 0;
+    List<byte[]> legacyKeys = new ArrayList<>(SWEEP_BATCH_SIZE);
+    try (ScanOptions scanOptions = ScanOptions.totalOrder();
+        RocksIterator iterator = rocksDB.newIterator(columnFamilyHandle,
+            scanOptions.readOptions())) {
+      for (iterator.seekToFirst(); iterator.isValid(); iterator.next()) {
+        if (codec.isLegacy(iterator.value())) {
+          legacyKeys.add(iterator.key());
+        }
+        if (legacyKeys.size() == SWEEP_BATCH_SIZE) {
+          migrated += rewriteLegacy(legacyKeys);
+          legacyKeys.clear();
+        }
+      }
+      migrated += rewriteLegacy(legacyKeys);
+      log.info("Migrated {} legacy values to the current codec", migrated);
+      return migrated;
+    } catch (RocksDBException e) {
+      log.error("Error migrating legacy values in RocksDB", e);
+      throw new RocksDbException("Failed to migrate legacy values", e);
+    }
+  }
+
+  /**
+   * 만료된 항목을 삭제한다. 만료 목록을 만료 시각 순으로 읽으므로 만료되지 않은 항목은 읽지 않으며,
+   * 일반 delete 와 같이 카운터/인덱스를 함께 갱신한다. 반환값은 삭제한 항목 수.
+   */
+  public long purgeExpired() {
+    long start = System.nanoTime();
+    long purged = 0;
+    try {
+      List<byte[]> due;
+      do {
+        due = expiryQueue.due(System.currentTimeMillis(), SWEEP_BATCH_SIZE);
+        purged += purgeExpired(due);
+      } while (due.size() == SWEEP_BATCH_SIZE);
+      if (purged > 0) {
+        log.debug("Purged {} expired entries", purged);
+      }
+      return purged;
+    } catch (RocksDBException e) {
+      log.error("Error purging expired entries in RocksDB", e);
+      throw new RocksDbException("Failed to purge expired entries", e);
+    } finally {
+      metrics.recordExpired(start, purged);
+    }
+  }
+
+  private int purgeExpired(List<byte[]> entryKeys) throws RocksDBException {
+    if (entryKeys.isEmpty()) {
+      return 0;
+    }
+    List<byte[]> keys = entryKeys.stream().map(expiryQueue::primaryKey).toList();
+    try (KeyLocks.Held ignored = keyLocks.acquire(keys)) {
+      long now = System.currentTimeMillis();
+      // 한 키에 만료 엔트리가 여럿 남아 있을 수 있다 (대량 적재로 덮어쓴 경우)
+      Map<byte[], V> expired = new TreeMap<>(Arrays::compareUnsigned);
+      for (byte[] key : keys) {
+        byte[] current = rocksDB.get(columnFamilyHandle, key);
+        // 그 사이 다시 저장됐거나 삭제된 항목은 엔트리만 지운다
+        if (current != null && TtlCodec.isExpired(current, now)) {
+          expired.put(key, indexedValue(current));
+        }
+      }
+      writer.write(batch -> {
+        for (byte[] entryKey : entryKeys) {
+          expiryQueue.remove(batch, entryKey);
+        }
+        for (Map.Entry<byte[], V> entry : expired.entrySet()) {
+          batch.delete(columnFamilyHandle, entry.getKey());
+          updateIndexes(batch, entry.getKey(), entry.getValue(), null);
+          discardPatches(batch, entry.getKey());
+        }
+        counter.add(batch, -expired.size());
+      });
+      expired.keySet().forEach(key -> invalidate(keyString(key)));
+      return expired.size();
+    }
+  }
+
+  private long rewriteLegacy(List<byte[]> keys) throws RocksDBException {
+    if (keys.isEmpty()) {
+      return 0;
+    }
+    try (KeyLocks.Held ignored = keyLocks.acquire(keys)) {
+      Map<byte[], byte[]> rewrites = new LinkedHashMap<>();
+      for (byte[] key : keys) {
+        byte[] current = rocksDB.get(columnFamilyHandle, key);
+        if (current != null && codec.isLegacy(current)) {
+          rewrites.put(key, codec.reencode(current));
+        }
+      }
+      writer.write(batch -> {
+        for (Map.Entry<byte[], byte[]> rewrite : rewrites.entrySet()) {
+          batch.put(columnFamilyHandle, rewrite.getKey(), rewrite.getValue());
+        }
+      });
+      return rewrites.size();
+    }
+  }
+
+  // 읽기 중 발견한 이전 포맷 값은 lazy 하게 현재 포맷으로 교체 (secondary 는 쓸 수 없으므로 primary 에
+  // 맡기고 decode 한 값만 돌려준다)
+  private void rewriteLegacy(byte[] key, byte[] legacyBytes, V value) throws RocksDBException {
+    if (secondary) {
+      return;
+    }
+    try (KeyLocks.Held ignored = keyLocks.acquire(key)) {
+      if (Arrays.equals(rocksDB.get(columnFamilyHandle, key), legacyBytes)) {
+        byte[] encoded = codec.encode(value, TtlCodec.expiresAt(legacyBytes));
+        writer.write(batch -> batch.put(columnFamilyHandle, key, encoded));
+      }
+    }
+  }
+
+  // 호출자가 받은 객체를 고쳐도 캐시나 다른 호출자의 값이 바뀌지 않도록 복사본을 넘긴다
+  private V cachedValue(String key) {
+    V value = cache == null ? null : cache.get(key);
+    return value == null ? null : copyOf(value);
+  }
+
+  // 만료 시각이 있는 값은 캐시하지 않는다 (캐시에서 만료를 확인하지 않으므로).
+  // value 는 호출자에게 넘어가므로 캐시에는 복사본을 넣는다
+  private void cacheLoaded(String key, int size, boolean expiring, V value, long cacheToken,
+      long loadStart) {
+    if (cache != null && !expiring) {
+      long weight = cacheWeighsBytes ? key.length() + size + CACHE_ENTRY_OVERHEAD : 1;
+      cache.putIfValid(key, copyOf(value), weight, cacheToken, loadStart);
+    }
+  }
+
+  /**
+   * 캐시에 둔 객체와 호출자에게 넘기는 객체를 분리하기 위한 복사본. 기본 구현은 encode/decode 왕복이므로
+   * 값 타입을 아는 repository 는 필드 복사로 재정의한다.
+   */
+  protected V copyOf(V value) {
+    return codec.decode(codec.encode(value));
+  }
+
+  // BulkImporter 용: ingest 한 데이터의 카운터/인덱스 보정
+  BulkLoadFixups<V> bulkLoadFixups(Path staleEntriesFile) {
+    return new BulkLoadFixups<>(rocksDB, columnFamilyHandle, writer, keyLocks, counter, indexes,
+        expiryQueue, patches, codec, staleEntriesFile);
+  }
+
+  byte[] keyBytes(String key) {
+    return key.getBytes(keyCharset);
+  }
+
+  String keyString(byte[] key) {
+    return new String(key, keyCharset);
+  }
+
+  // BulkImporter 용: CF 기본 ttl 을 적용한 저장 포맷
+  byte[] encodeForBulkLoad(V value) {
+    return codec.encode(value, TtlCodec.expiresAt(defaultTtl, System.currentTimeMillis()));
+  }
+
+  void invalidateAll() {
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  // 쓰기가 기록된 뒤 호출. 로드 중이던 값은 토큰이 바뀌어 캐시에 들어가지 않는다
+  // (같은 batch 에서 discardPatches 로 지운 부분 갱신 기록도 함께 정리)
+  private void invalidate(String key) {
+    if (cache != null) {
+      cache.invalidate(key);
+    }
+    if (patches != null) {
+      patches.cleared(key);
+    }
+  }
+
+  private void invalidate(byte[] keyBytes, String key) {
+    if (cache != null || patches != null) {
+      invalidate(keyName(keyBytes, key));
+    }
+  }
+
+  // 키 바이트로 들어온 호출은 캐시나 부분 갱신 기록을 쓸 때만 String 키를 만든다
+  private String cacheKey(byte[] keyBytes, String key) {
+    return key != null || cache == null && patches == null ? key : keyString(keyBytes);
+  }
+
+  // 로그와 예외 메시지용
+  private String keyName(byte[] keyBytes, String key) {
+    return key != null ? key : keyString(keyBytes);
+  }
+
+  private void recordRead(byte[] keyBytes, String key) {
+    if (key != null) {
+      profiler.recordRead(key);
+    } else {
+      profiler.recordRead(keyBytes, keyCharset);
+    }
+  }
+
+  private void recordWrite(byte[] keyBytes, String key) {
+    if (key != null) {
+      profiler.recordWrite(key);
+    } else {
+      profiler.recordWrite(keyBytes, keyCharset);
+    }
+  }
+
+  // bloom filter 로 확실히 없는 키는 get 없이 걸러낸다
+  private byte[] currentBytes(byte[] key) throws RocksDBException {
+    if (!rocksDB.keyMayExist(columnFamilyHandle, key, null)) {
+      return null;
+    }
+    return rocksDB.get(columnFamilyHandle, key);
+  }
+
+  // 남은 부분 갱신이 있으면 적용한 값 (본문을 읽은 뒤 patch 를 읽으므로 fold 와 겹쳐도 두 번
+  // 적용되지 않는다)
+  private V patched(byte[] key, V value) {
+    return patched(key, null, value);
+  }
+
+  // cacheKey 가 있으면 부분 갱신 기록 확인에 다시 쓴다
+  private V patched(byte[] key, String cacheKey, V value) {
+    if (patches == null || value == null
+        || !patches.isPending(cacheKey != null ? cacheKey : keyString(key))) {
+      return value;
+    }
+    try {
+      byte[] operations = patches.operations(key);
+      return operations == null ? value : patches.apply(value, operations);
+    } catch (RocksDBException e) {
+      log.error("Error reading field patches in RocksDB for key: {}", keyString(key), e);
+      throw new RocksDbException("Failed to read field patches", e);
+    }
+  }
+
+  private List<V> withPatches(List<byte[]> keyBytes, List<String> cacheKeys, List<V> results) {
+    for (int i = 0; patches != null && i < results.size(); i++) {
+      results.set(i, patched(keyBytes.get(i), cacheKeys.get(i), results.get(i)));
+    }
+    return results;
+  }
+
+  private void discardPatches(WriteBatchInterface batch, byte[] key) throws RocksDBException {
+    if (patches != null) {
+      patches.discard(batch, key);
+    }
+  }
+
+  // 인덱스 갱신에 필요할 때만 이전 값을 디코딩한다
+  private V indexedValue(byte[] bytes) {
+    return bytes == null || indexes.isEmpty() ? null : codec.decode(bytes);
+  }
+
+  private void updateIndexes(WriteBatchInterface batch, byte[] key, V previous, V current)
+      throws RocksDBException {
+    for (SecondaryIndex<V, ?> index : indexes) {
+      index.update(batch, key, previous, current);
+    }
+  }
+
   private boolean startsWith(byte[] array, byte[] prefix) {
     if (array.length < prefix.length) {
       return false;
@@ -0,0 +1,6 @@
+package org.example.rocksdb.repository;
+
+public enum ScanDirection {
+  FORWARD,
+  REVERSE
+}
@@ -0,0 +1,93 @@
+package org.example.rocksdb.repository;
+
+import java.util.Arrays;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.Slice;
+
+/**
+ * Iterator 용 ReadOptions 와 bound Slice 묶음. Iterator 보다 나중에 close 되어야 한다.
+ */
+final class ScanOptions implements AutoCloseable {
+
+  private final ReadOptions readOptions;
+  private final Slice lowerBound;
+  private final Slice upperBound;
+
+  private ScanOptions(ReadOptions readOptions, Slice lowerBound, Slice upperBound) {
+    this.readOptions = readOptions;
+    this.lowerBound = lowerBound;
+    this.upperBound = upperBound;
+  }
+
+  // prefix extractor 가 설정된 CF 에서도 전체 키 순서대로 순회
+  static ScanOptions totalOrder() {
+    return new ScanOptions(new ReadOptions().setTotalOrderSeek(true), null, null);
+  }
+
+  /**
+   * prefix 구간 [prefix, prefix+1) 으로 iterator 를 제한한다.
+   * 정방향이고 prefix 가 extractor 길이 이상이면 prefix bloom 을 사용할 수 있도록
+   * prefixSameAsStart 를 켠다. (역방향 seek 는 상한 키의 prefix 로 필터링되므로 제외)
+   */
+  static ScanOptions forPrefix(byte[] prefix, int prefixExtractorLength, boolean forward) {
+    ReadOptions readOptions = new ReadOptions();
+    if (forward && prefixExtractorLength > 0 && prefix.length >= prefixExtractorLength) {
+      readOptions.setPrefixSameAsStart(true);
+    } else {
+      readOptions.setTotalOrderSeek(true);
+    }
+
+    Slice lowerBound = null;
+    if (prefix.length > 0) {
+      lowerBound = new Slice(prefix);
+      readOptions.setIterateLowerBound(lowerBound);
+    }
+    Slice upperBound = null;
+    byte[] upper = upperBound(prefix);
+    if (upper != null) {
+      upperBound = new Slice(upper);
+      readOptions.setIterateUpperBound(upperBound);
+    }
+    return new ScanOptions(readOptions, lowerBound, upperBound);
+  }
+
+  // [lower, upper) 구간 스캔. upper 가 null 이면 상한 없음
+  static ScanOptions forRange(byte[] lower, byte[] upper) {
+    ReadOptions readOptions = new ReadOptions().setTotalOrderSeek(true);
+    Slice lowerBound = new Slice(lower);
+    readOptions.setIterateLowerBound(lowerBound);
+    Slice upperBound = null;
+    if (upper != null) {
+      upperBound = new Slice(upper);
+      readOptions.setIterateUpperBound(upperBound);
+    }
+    return new ScanOptions(readOptions, lowerBound, upperBound);
+  }
+
+  ReadOptions readOptions() {
+    return readOptions;
+  }
+
+  // prefix 로 시작하는 모든 키보다 큰 최소 키. 모두 0xFF 이면 상한이 없다
+  static byte[] upperBound(byte[] prefix) {
+    for (int i = prefix.length - 1; i >= 0; i--) {
+      if (prefix[i] != (byte) 0xFF) {
+        byte[] upper = Arrays.copyOf(prefix, i + 1);
+        upper[i]++;
+        return upper;
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public void close() {
+    readOptions.close();
+    if (lowerBound != null) {
+      lowerBound.close();
+    }
+    if (upperBound != null) {
+      upperBound.close();
+    }
+  }
+}
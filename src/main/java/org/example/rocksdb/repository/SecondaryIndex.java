@@ -0,0 +1,148 @@
+package org.example.rocksdb.repository;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.exception.RocksDbException;
+import org.example.rocksdb.key.KeyEncoders;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.WriteBatchInterface;
+import org.rocksdb.WriteOptions;
+
+/**
+ * 엔티티 필드 하나에 대한 보조 인덱스.
+ * 전용 CF 에 "정렬 보존 인코딩된 필드 값(고정 길이) + 기본 키" 를 키로, 빈 값으로 저장하므로
+ * 필드 값 범위 조회가 인덱스 CF 의 키 범위 스캔이 된다.
+ * 인덱스 엔트리는 기본 데이터와 같은 WriteBatch 안에서 갱신된다.
+ */
+@Slf4j
+final class SecondaryIndex<V, F> {
+
+  private static final String READY_KEY_PREFIX = "__index__:";
+  private static final byte[] EMPTY = new byte[0];
+
+  private final String name;
+  private final ColumnFamilyHandle columnFamilyHandle;
+  private final Function<V, F> field;
+  private final Function<F, byte[]> fieldEncoder;
+  private final int fieldLength;
+  private final byte[] readyKey;
+  private volatile boolean ready;
+
+  private SecondaryIndex(ColumnFamilyConfig columnFamily, ColumnFamilyHandle columnFamilyHandle,
+      Function<V, F> field, Function<F, byte[]> fieldEncoder, int fieldLength) {
+    this.name = columnFamily.getName();
+    this.columnFamilyHandle = columnFamilyHandle;
+    this.field = field;
+    this.fieldEncoder = fieldEncoder;
+    this.fieldLength = fieldLength;
+    this.readyKey = (READY_KEY_PREFIX + name).getBytes();
+  }
+
+  static <V> SecondaryIndex<V, Integer> ofInt(ColumnFamilyConfig columnFamily,
+      ColumnFamilyHandle columnFamilyHandle, Function<V, Integer> field) {
+    return new SecondaryIndex<>(columnFamily, columnFamilyHandle, field,
+        KeyEncoders.ints()::encode, Integer.BYTES);
+  }
+
+  static <V> SecondaryIndex<V, Double> ofDouble(ColumnFamilyConfig columnFamily,
+      ColumnFamilyHandle columnFamilyHandle, Function<V, Double> field) {
+    return new SecondaryIndex<>(columnFamily, columnFamilyHandle, field,
+        KeyEncoders.doubles()::encode, Long.BYTES);
+  }
+
+  String name() {
+    return name;
+  }
+
+  ColumnFamilyHandle columnFamilyHandle() {
+    return columnFamilyHandle;
+  }
+
+  boolean isReady() {
+    return ready;
+  }
+
+  /**
+   * 빌드 완료 표시를 읽는다. 기본 CF 가 비어 있으면 만들 엔트리가 없으므로 바로 완료로 기록한다.
+   */
+  void initialize(RocksDB rocksDB, ColumnFamilyHandle metadataColumnFamily,
+      boolean primaryEmpty) {
+    try {
+      ready = rocksDB.get(metadataColumnFamily, readyKey) != null;
+      if (!ready && primaryEmpty) {
+        markReady(rocksDB, metadataColumnFamily);
+      }
+      log.info("Index {} is {}", name, ready ? "ready" : "not built yet");
+    } catch (RocksDBException e) {
+      throw new RocksDbException("Failed to initialize index: " + name, e);
+    }
+  }
+
+  // secondary 인스턴스에서 primary 를 따라잡은 뒤, 그 사이 primary 가 빌드를 끝냈는지 다시 읽는다
+  void refresh(RocksDB rocksDB, ColumnFamilyHandle metadataColumnFamily)
+      throws RocksDBException {
+    if (!ready && rocksDB.get(metadataColumnFamily, readyKey) != null) {
+      ready = true;
+      log.info("Index {} was built by the primary", name);
+    }
+  }
+
+  void markReady(RocksDB rocksDB, ColumnFamilyHandle metadataColumnFamily)
+      throws RocksDBException {
+    try (WriteOptions writeOptions = new WriteOptions()) {
+      rocksDB.put(metadataColumnFamily, writeOptions, readyKey, EMPTY);
+    }
+    ready = true;
+  }
+
+  // 이전 값의 엔트리를 지우고 새 값의 엔트리를 넣는다. 필드 값이 같으면 아무것도 하지 않는다
+  void update(WriteBatchInterface batch, byte[] primaryKey, V previous, V current)
+      throws RocksDBException {
+    byte[] previousKey = previous == null ? null : entryKey(previous, primaryKey);
+    byte[] currentKey = current == null ? null : entryKey(current, primaryKey);
+    if (Arrays.equals(previousKey, currentKey)) {
+      return;
+    }
+    if (previousKey != null) {
+      batch.delete(columnFamilyHandle, previousKey);
+    }
+    if (currentKey != null) {
+      batch.put(columnFamilyHandle, currentKey, EMPTY);
+    }
+  }
+
+  // 대량 적재에서 새 엔트리 추가와 이전 엔트리 삭제를 따로 기록할 때 사용
+  void putEntry(WriteBatchInterface batch, byte[] entryKey) throws RocksDBException {
+    batch.put(columnFamilyHandle, entryKey, EMPTY);
+  }
+
+  void deleteEntry(WriteBatchInterface batch, byte[] entryKey) throws RocksDBException {
+    batch.delete(columnFamilyHandle, entryKey);
+  }
+
+  byte[] entryKey(V value, byte[] primaryKey) {
+    byte[] encoded = fieldEncoder.apply(field.apply(value));
+    byte[] key = Arrays.copyOf(encoded, encoded.length + primaryKey.length);
+    System.arraycopy(primaryKey, 0, key, encoded.length, primaryKey.length);
+    return key;
+  }
+
+  byte[] encodeField(F value) {
+    return fieldEncoder.apply(value);
+  }
+
+  byte[] primaryKey(byte[] entryKey) {
+    return Arrays.copyOfRange(entryKey, fieldLength, entryKey.length);
+  }
+
+  // 인덱스 스캔 후 본문을 읽는 사이 값이 바뀌었을 수 있으므로 조회 결과를 다시 확인할 때 사용
+  boolean matches(V value, byte[] lower, byte[] upper) {
+    byte[] encoded = fieldEncoder.apply(field.apply(value));
+    return Arrays.compareUnsigned(encoded, lower) >= 0
+        && (upper == null || Arrays.compareUnsigned(encoded, upper) < 0);
+  }
+}
@@ -0,0 +1,170 @@
+package org.example.rocksdb.repository;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import org.rocksdb.CompressionType;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.Options;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileReader;
+import org.rocksdb.SstFileReaderIterator;
+import org.rocksdb.SstFileWriter;
+
+/**
+ * 힙보다 큰 입력을 키 순서로 정렬해 ingest 할 SST 파일로 만든다 (external merge sort).
+ * <ol>
+ *   <li>add: runSize 만큼 메모리에서 정렬한 뒤 run SST 파일로 내보낸다</li>
+ *   <li>finish: run 들을 k-way merge 해 targetFileSize 단위의 겹치지 않는 SST 파일로 쓴다</li>
+ * </ol>
+ * 같은 키가 여러 번 나오면 마지막 값이 남는다. 바이트 순서는 RocksDB 기본 comparator 와 같다.
+ */
+final class SortedRuns implements AutoCloseable {
+
+  private static final Comparator<byte[]> BYTEWISE = Arrays::compareUnsigned;
+  private static final int ENTRY_OVERHEAD = 64;
+
+  @FunctionalInterface
+  interface EntryListener {
+
+    void accept(byte[] key, byte[] value) throws RocksDBException;
+  }
+
+  private final Path directory;
+  private final Options outputOptions;
+  private final Options runOptions;
+  private final EnvOptions envOptions = new EnvOptions();
+  private final long runSize;
+  private final long targetFileSize;
+  private final List<Path> runs = new ArrayList<>();
+  private TreeMap<byte[], byte[]> buffer = new TreeMap<>(BYTEWISE);
+  private long bufferedBytes;
+
+  /**
+   * @param outputOptions 대상 CF 의 옵션 (압축, block 크기, bloom filter 등 테이블 포맷)
+   */
+  SortedRuns(Path directory, Options outputOptions, long runSize, long targetFileSize) {
+    this.directory = directory;
+    this.outputOptions = outputOptions;
+    // run 파일은 한 번 쓰고 한 번 읽으므로 가볍게
+    this.runOptions = new Options().setCompressionType(CompressionType.LZ4_COMPRESSION);
+    this.runSize = runSize;
+    this.targetFileSize = targetFileSize;
+  }
+
+  void add(byte[] key, byte[] value) throws RocksDBException {
+    byte[] replaced = buffer.put(key, value);
+    bufferedBytes += replaced == null
+        ? key.length + value.length + ENTRY_OVERHEAD : value.length - replaced.length;
+    if (bufferedBytes >= runSize) {
+      spill();
+    }
+  }
+
+  /**
+   * 정렬된 최종 SST 파일 경로를 반환한다. listener 는 최종 항목마다 키 순서대로 호출된다.
+   */
+  List<String> finish(EntryListener listener) throws RocksDBException {
+    if (!buffer.isEmpty()) {
+      spill();
+    }
+    if (runs.isEmpty()) {
+      return List.of();
+    }
+    List<String> files = new ArrayList<>();
+    List<SstFileReader> readers = new ArrayList<>();
+    List<SstFileReaderIterator> iterators = new ArrayList<>();
+    try (ReadOptions readOptions = new ReadOptions().setFillCache(false)
+        .setTotalOrderSeek(true)) {
+      // 같은 키면 나중 run (나중 입력) 이 우선
+      PriorityQueue<RunCursor> queue = new PriorityQueue<>(
+          Comparator.comparing(RunCursor::key, BYTEWISE)
+              .thenComparing(RunCursor::run, Comparator.reverseOrder()));
+      for (int run = 0; run < runs.size(); run++) {
+        SstFileReader reader = new SstFileReader(runOptions);
+        readers.add(reader);
+        reader.open(runs.get(run).toString());
+        SstFileReaderIterator iterator = reader.newIterator(readOptions);
+        iterators.add(iterator);
+        iterator.seekToFirst();
+        if (iterator.isValid()) {
+          queue.add(new RunCursor(run, iterator.key(), iterator));
+        }
+      }
+
+      SstFileWriter writer = null;
+      byte[] previousKey = null;
+      try {
+        while (!queue.isEmpty()) {
+          RunCursor cursor = queue.poll();
+          byte[] key = cursor.key();
+          if (previousKey == null || !Arrays.equals(previousKey, key)) {
+            byte[] value = cursor.iterator().value();
+            if (writer == null || writer.fileSize() >= targetFileSize) {
+              finishFile(writer);
+              String file = directory.resolve(String.format("ingest-%05d.sst", files.size()))
+                  .toString();
+              writer = new SstFileWriter(envOptions, outputOptions);
+              writer.open(file);
+              files.add(file);
+            }
+            writer.put(key, value);
+            listener.accept(key, value);
+            previousKey = key;
+          }
+          cursor.iterator().next();
+          if (cursor.iterator().isValid()) {
+            queue.add(new RunCursor(cursor.run(), cursor.iterator().key(), cursor.iterator()));
+          }
+        }
+        finishFile(writer);
+        writer = null;
+      } finally {
+        if (writer != null) {
+          writer.close();
+        }
+      }
+    } finally {
+      iterators.forEach(SstFileReaderIterator::close);
+      readers.forEach(SstFileReader::close);
+    }
+    return files;
+  }
+
+  private void finishFile(SstFileWriter writer) throws RocksDBException {
+    if (writer != null) {
+      writer.finish();
+      writer.close();
+    }
+  }
+
+  private void spill() throws RocksDBException {
+    Path run = directory.resolve(String.format("run-%05d.sst", runs.size()));
+    try (SstFileWriter writer = new SstFileWriter(envOptions, runOptions)) {
+      writer.open(run.toString());
+      for (Map.Entry<byte[], byte[]> entry : buffer.entrySet()) {
+        writer.put(entry.getKey(), entry.getValue());
+      }
+      writer.finish();
+    }
+    runs.add(run);
+    buffer = new TreeMap<>(BYTEWISE);
+    bufferedBytes = 0;
+  }
+
+  @Override
+  public void close() {
+    runOptions.close();
+    envOptions.close();
+  }
+
+  private record RunCursor(int run, byte[] key, SstFileReaderIterator iterator) {
+
+  }
+}
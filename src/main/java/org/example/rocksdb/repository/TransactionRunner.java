@@ -0,0 +1,138 @@
+package org.example.rocksdb.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.TransactionProperties;
+import org.example.rocksdb.exception.RocksDbException;
+import org.example.rocksdb.exception.TransactionConflictException;
+import org.rocksdb.OptimisticTransactionDB;
+import org.rocksdb.OptimisticTransactionOptions;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Status;
+import org.rocksdb.Transaction;
+import org.rocksdb.WriteOptions;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@link UnitOfWork} 를 optimistic 트랜잭션으로 실행한다. 실행 중에는 lock 을 잡지 않고, 커밋 시 읽은
+ * 키가 그 사이 바뀌었으면 (Busy/TryAgain) 작업 전체를 새 snapshot 에서 다시 실행한다.
+ * 시도 결과는 rocksdb.transaction.attempts{result} 로 노출되어 충돌률을 볼 수 있다.
+ */
+@Slf4j
+@Component
+public class TransactionRunner {
+
+  static final String ATTEMPTS_METRIC = "rocksdb.transaction.attempts";
+
+  private final RocksDB rocksDB;
+  private final TransactionProperties properties;
+  private final Counter committed;
+  private final Counter conflicts;
+  private final Counter rolledBack;
+
+  public TransactionRunner(RocksDB rocksDB, RocksDbProperties properties,
+      MeterRegistry meterRegistry) {
+    this.rocksDB = rocksDB;
+    this.properties = properties.getTransactions();
+    this.committed = attempts(meterRegistry, "committed");
+    this.conflicts = attempts(meterRegistry, "conflict");
+    this.rolledBack = attempts(meterRegistry, "rolled_back");
+  }
+
+  private static Counter attempts(MeterRegistry meterRegistry, String result) {
+    return Counter.builder(ATTEMPTS_METRIC)
+        .description("Optimistic transaction attempts by result")
+        .tag("result", result)
+        .register(meterRegistry);
+  }
+
+  /**
+   * work 를 트랜잭션으로 실행하고 결과를 반환한다. 충돌 시 다시 실행되므로 work 는 UnitOfWork 밖의
+   * 상태를 바꾸지 않아야 한다. 재시도를 다 쓰면 {@link TransactionConflictException}.
+   */
+  public <T> T execute(Function<UnitOfWork, T> work) {
+    if (!(rocksDB instanceof OptimisticTransactionDB transactionDB)) {
+      throw new IllegalStateException(
+          "Transactions are disabled (rocksdb.transactions.enabled=false)");
+    }
+    int maxAttempts = properties.getMaxRetries() + 1;
+    for (int attempt = 1; ; attempt++) {
+      try {
+        T result = executeOnce(transactionDB, work);
+        committed.increment();
+        return result;
+      } catch (RocksDBException e) {
+        if (!isConflict(e)) {
+          rolledBack.increment();
+          throw new RocksDbException("Failed to commit transaction", e);
+        }
+        conflicts.increment();
+        if (attempt >= maxAttempts) {
+          log.warn("Transaction conflicted {} times, giving up", attempt);
+          throw new TransactionConflictException(attempt, e);
+        }
+        log.debug("Transaction conflicted (attempt {}), retrying", attempt);
+        backoff(attempt);
+      } catch (RuntimeException e) {
+        rolledBack.increment();
+        throw e;
+      }
+    }
+  }
+
+  private <T> T executeOnce(OptimisticTransactionDB transactionDB, Function<UnitOfWork, T> work)
+      throws RocksDBException {
+    try (WriteOptions writeOptions = new WriteOptions();
+        OptimisticTransactionOptions transactionOptions =
+            new OptimisticTransactionOptions().setSetSnapshot(true);
+        Transaction transaction =
+            transactionDB.beginTransaction(writeOptions, transactionOptions);
+        ReadOptions readOptions = new ReadOptions().setSnapshot(transaction.getSnapshot())) {
+      try {
+        UnitOfWork unitOfWork = new UnitOfWork(transaction, readOptions);
+        T result = work.apply(unitOfWork);
+        unitOfWork.commit();
+        return result;
+      } catch (RocksDBException | RuntimeException e) {
+        transaction.rollback();
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * OptimisticTransactionDB 는 DeleteRange 를 NotSupported 로 거절하므로 기반 DB 에 직접 쓴다.
+   * 같은 memtable 에 기록되어 진행 중인 트랜잭션의 충돌 검사에는 그대로 보인다.
+   */
+  static RocksDB rangeDeletable(RocksDB rocksDB) {
+    return rocksDB instanceof OptimisticTransactionDB transactionDB
+        ? transactionDB.getBaseDB() : rocksDB;
+  }
+
+  private static boolean isConflict(RocksDBException e) {
+    Status status = e.getStatus();
+    return status != null
+        && (status.getCode() == Status.Code.Busy || status.getCode() == Status.Code.TryAgain);
+  }
+
+  // 같은 키를 두고 다시 부딪히지 않도록 재시도마다 대기 범위를 두 배로 (full jitter)
+  private void backoff(int attempt) {
+    long maxNanos = properties.getRetryBackoff().toNanos() << Math.min(attempt - 1, 10);
+    if (maxNanos <= 0) {
+      return;
+    }
+    try {
+      Thread.sleep(Duration.ofNanos(ThreadLocalRandom.current().nextLong(maxNanos)));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RocksDbException("Interrupted while retrying transaction", e);
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package org.example.rocksdb.repository;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import org.example.rocksdb.codec.Codec;
+
+/**
+ * 만료 시각이 있는 값의 envelope: [MARKER][만료 시각 epoch ms (8 bytes)][codec 포맷 값].
+ * TTL 없이 저장한 값은 envelope 없이 codec 포맷 그대로이므로 기존 데이터와 호환된다.
+ * decode/accepts/isLegacy 는 envelope 를 벗긴 값으로 위임한다.
+ */
+final class TtlCodec<V> implements Codec<V> {
+
+  static final long NO_EXPIRY = Long.MAX_VALUE;
+
+  // binary codec (0xB1), JSON ('{', 공백) 과 겹치지 않는 값
+  private static final byte MARKER = (byte) 0xE7;
+  private static final int HEADER_LENGTH = 1 + Long.BYTES;
+
+  private final Codec<V> delegate;
+
+  TtlCodec(Codec<V> delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public byte[] encode(V value) {
+    return delegate.encode(value);
+  }
+
+  byte[] encode(V value, long expiresAt) {
+    byte[] encoded = delegate.encode(value);
+    if (expiresAt == NO_EXPIRY) {
+      return encoded;
+    }
+    return ByteBuffer.allocate(HEADER_LENGTH + encoded.length)
+        .put(MARKER)
+        .putLong(expiresAt)
+        .put(encoded)
+        .array();
+  }
+
+  // 이전 포맷 값을 현재 포맷으로 다시 쓸 때 만료 시각은 유지한다
+  byte[] reencode(byte[] bytes) {
+    return encode(decode(bytes), expiresAt(bytes));
+  }
+
+  @Override
+  public V decode(byte[] bytes) {
+    return delegate.decode(payload(bytes));
+  }
+
+  @Override
+  public boolean accepts(byte[] bytes) {
+    return delegate.accepts(payload(bytes));
+  }
+
+  @Override
+  public boolean isLegacy(byte[] bytes) {
+    return delegate.isLegacy(payload(bytes));
+  }
+
+  @Override
+  public V decode(ByteBuffer bytes) {
+    return delegate.decode(payload(bytes));
+  }
+
+  @Override
+  public boolean accepts(ByteBuffer bytes) {
+    return delegate.accepts(payload(bytes));
+  }
+
+  @Override
+  public boolean isLegacy(ByteBuffer bytes) {
+    return delegate.isLegacy(payload(bytes));
+  }
+
+  static boolean hasExpiry(byte[] bytes) {
+    return bytes.length >= HEADER_LENGTH && bytes[0] == MARKER;
+  }
+
+  static long expiresAt(byte[] bytes) {
+    return hasExpiry(bytes) ? ByteBuffer.wrap(bytes, 1, Long.BYTES).getLong() : NO_EXPIRY;
+  }
+
+  static boolean isExpired(byte[] bytes, long now) {
+    return expiresAt(bytes) <= now;
+  }
+
+  // ByteBuffer 는 position 부터 limit 까지가 값이다
+  static boolean hasExpiry(ByteBuffer bytes) {
+    return bytes.remaining() >= HEADER_LENGTH && bytes.get(bytes.position()) == MARKER;
+  }
+
+  static boolean isExpired(ByteBuffer bytes, long now) {
+    return hasExpiry(bytes) && bytes.getLong(bytes.position() + 1) <= now;
+  }
+
+  // null 이나 0 이면 만료 없음
+  static long expiresAt(Duration ttl, long now) {
+    if (ttl == null || ttl.isZero()) {
+      return NO_EXPIRY;
+    }
+    if (ttl.isNegative()) {
+      throw new IllegalArgumentException("ttl must not be negative: " + ttl);
+    }
+    return now + ttl.toMillis();
+  }
+
+  private static byte[] payload(byte[] bytes) {
+    return hasExpiry(bytes) ? Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length) : bytes;
+  }
+
+  // 복사 없이 envelope 뒤를 가리키는 view
+  private static ByteBuffer payload(ByteBuffer bytes) {
+    return hasExpiry(bytes)
+        ? bytes.slice(bytes.position() + HEADER_LENGTH, bytes.remaining() - HEADER_LENGTH)
+        : bytes;
+  }
+}
@@ -0,0 +1,160 @@
+package org.example.rocksdb.repository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import org.example.rocksdb.key.KeyEncoder;
+import org.example.rocksdb.key.KeyWriter;
+
+/**
+ * 타입이 있는 키 (K) 를 {@link KeyEncoder} 로 인코딩해 쓰는 repository.
+ * 인코딩은 스레드별 {@link KeyWriter} 에서 하고, 키 바이트를 {@link GenericRepository} 의 byte[] 키
+ * 메서드에 그대로 넘긴다 (String 으로 옮기지 않는다).
+ * {@link GenericRepositories#typedRepository} 가 만든다.
+ */
+public final class TypedKeyRepository<K, V> implements KeyValueRepository<K, V> {
+
+  private final GenericRepository<V> repository;
+  private final KeyEncoder<K> keyEncoder;
+
+  TypedKeyRepository(GenericRepository<V> repository, KeyEncoder<K> keyEncoder) {
+    this.repository = repository;
+    this.keyEncoder = keyEncoder;
+  }
+
+  public KeyEncoder<K> keyEncoder() {
+    return keyEncoder;
+  }
+
+  @Override
+  public void save(K key, V value) {
+    repository.save(encode(key), value);
+  }
+
+  @Override
+  public void save(K key, V value, Duration ttl) {
+    repository.save(encode(key), value, ttl);
+  }
+
+  @Override
+  public V find(K key) {
+    return repository.find(encode(key));
+  }
+
+  @Override
+  public void delete(K key) {
+    repository.delete(encode(key));
+  }
+
+  @Override
+  public List<V> findAll() {
+    return repository.findAll();
+  }
+
+  @Override
+  public List<V> findAll(Predicate<? super V> filter) {
+    return repository.findAll(filter);
+  }
+
+  @Override
+  public Map<K, V> findAll(Collection<K> keys) {
+    List<K> distinctKeys = new ArrayList<>(new LinkedHashSet<>(keys));
+    List<V> found = repository.findAll(encode(distinctKeys));
+    Map<K, V> results = new LinkedHashMap<>();
+    for (int i = 0; i < distinctKeys.size(); i++) {
+      if (found.get(i) != null) {
+        results.put(distinctKeys.get(i), found.get(i));
+      }
+    }
+    return results;
+  }
+
+  /**
+   * 튜플 키라면 앞쪽 요소만 가진 prefix 로 그 요소들이 같은 항목을 키 순서대로 찾는다.
+   */
+  @Override
+  public List<V> findByPrefix(K prefix) {
+    return repository.findByPrefix(encode(prefix));
+  }
+
+  @Override
+  public List<V> findRange(K start, K end) {
+    return repository.findRange(encode(start), encode(end));
+  }
+
+  @Override
+  public Page<V> findPage(String cursor, int limit, ScanDirection direction) {
+    return repository.findPage(cursor, limit, direction);
+  }
+
+  @Override
+  public Page<V> findPageByPrefix(K prefix, String cursor, int limit, ScanDirection direction) {
+    return repository.findPageByPrefix(encode(prefix), cursor, limit, direction);
+  }
+
+  @Override
+  public void saveAll(Map<K, V> entries) {
+    repository.saveAll(encode(entries.keySet()), new ArrayList<>(entries.values()));
+  }
+
+  @Override
+  public void saveAll(Map<K, V> entries, Duration ttl) {
+    repository.saveAll(encode(entries.keySet()), new ArrayList<>(entries.values()), ttl);
+  }
+
+  @Override
+  public void deleteAll(List<K> keys) {
+    repository.deleteAll(encode(new LinkedHashSet<>(keys)));
+  }
+
+  @Override
+  public CompletableFuture<Long> deleteByPrefix(K prefix, boolean compact) {
+    return repository.deleteByPrefix(encode(prefix), compact);
+  }
+
+  @Override
+  public CompletableFuture<Long> deleteRange(K start, K end, boolean compact) {
+    return repository.deleteRange(encode(start), encode(end), compact);
+  }
+
+  @Override
+  public boolean exists(K key) {
+    return repository.exists(encode(key));
+  }
+
+  @Override
+  public long count() {
+    return repository.count();
+  }
+
+  @Override
+  public long count(Predicate<? super V> filter) {
+    return repository.count(filter);
+  }
+
+  @Override
+  public long estimatedCount() {
+    return repository.estimatedCount();
+  }
+
+  // KeyWriter 버퍼는 다음 인코딩에서 다시 쓰이므로 복사본을 넘긴다
+  private byte[] encode(K key) {
+    KeyWriter writer = KeyWriter.get();
+    keyEncoder.encode(key, writer);
+    return writer.toByteArray();
+  }
+
+  private List<byte[]> encode(Collection<K> keys) {
+    List<byte[]> encoded = new ArrayList<>(keys.size());
+    for (K key : keys) {
+      encoded.add(encode(key));
+    }
+    return encoded;
+  }
+}
@@ -0,0 +1,101 @@
+package org.example.rocksdb.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.example.rocksdb.exception.RocksDbException;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.ReadOptions;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.Transaction;
+import org.rocksdb.WriteBatchInterface;
+
+/**
+ * 여러 repository (Column Family) 에 걸친 읽기/쓰기를 하나의 optimistic 트랜잭션으로 묶는다.
+ * <ul>
+ *   <li>읽기는 트랜잭션 시작 시점 snapshot 에서 getForUpdate 로 하며, 읽은 키는 커밋 시 충돌 검사 대상이다</li>
+ *   <li>쓰기는 카운터/인덱스/만료 목록 갱신까지 트랜잭션 batch 에 모아 커밋 시 한 번에 기록한다</li>
+ *   <li>같은 트랜잭션 안의 읽기는 앞서 쓴 값을 본다</li>
+ * </ul>
+ * {@link TransactionRunner} 가 만들며, 충돌 시 작업 전체가 새 UnitOfWork 로 다시 실행된다.
+ */
+public final class UnitOfWork {
+
+  private final Transaction transaction;
+  private final ReadOptions readOptions;
+  // 커밋 시 잠글 키와 커밋 후 캐시를 무효화할 키
+  private final Map<RocksDbRepository<?>, Set<String>> written = new LinkedHashMap<>();
+  private WriteBatchInterface batch;
+
+  UnitOfWork(Transaction transaction, ReadOptions readOptions) {
+    this.transaction = transaction;
+    this.readOptions = readOptions;
+  }
+
+  public <V> V find(RocksDbRepository<V> repository, String key) {
+    try {
+      return repository.find(this, key);
+    } catch (RocksDBException e) {
+      throw new RocksDbException("Failed to find key in transaction: " + key, e);
+    }
+  }
+
+  public <V> void save(RocksDbRepository<V> repository, String key, V value) {
+    try {
+      repository.save(this, key, value);
+      written.computeIfAbsent(repository, ignored -> new LinkedHashSet<>()).add(key);
+    } catch (RocksDBException e) {
+      throw new RocksDbException("Failed to save key in transaction: " + key, e);
+    }
+  }
+
+  public <V> void delete(RocksDbRepository<V> repository, String key) {
+    try {
+      repository.delete(this, key);
+      written.computeIfAbsent(repository, ignored -> new LinkedHashSet<>()).add(key);
+    } catch (RocksDBException e) {
+      throw new RocksDbException("Failed to delete key in transaction: " + key, e);
+    }
+  }
+
+  byte[] getForUpdate(ColumnFamilyHandle columnFamilyHandle, byte[] key)
+      throws RocksDBException {
+    return transaction.getForUpdate(readOptions, columnFamilyHandle, key, true);
+  }
+
+  // 트랜잭션 batch 에 직접 쓴 항목은 충돌 검사 대상이 아니다 (untracked). 기본 키는 쓰기 전에 항상
+  // getForUpdate 로 읽으므로 충분하고, 같은 카운터 키를 갱신하는 트랜잭션끼리는 충돌하지 않는다
+  WriteBatchInterface batch() {
+    if (batch == null) {
+      batch = transaction.getWriteBatch();
+    }
+    return batch;
+  }
+
+  /**
+   * 쓴 키의 repository 별 키 lock 을 잡은 채로 커밋한다. 일반 쓰기의 "현재 값 확인 → 쓰기" 구간과
+   * 겹치지 않게 해 카운터/인덱스가 어긋나지 않도록 한다. repository 는 CF 이름 순서로 잠근다.
+   */
+  void commit() throws RocksDBException {
+    List<Map.Entry<RocksDbRepository<?>, Set<String>>> repositories =
+        new ArrayList<>(written.entrySet());
+    repositories.sort(Comparator.comparing(entry -> entry.getKey().columnFamilyName));
+    List<KeyLocks.Held> held = new ArrayList<>();
+    try {
+      for (Map.Entry<RocksDbRepository<?>, Set<String>> entry : repositories) {
+        held.add(entry.getKey().lockKeys(entry.getValue()));
+      }
+      transaction.commit();
+      // lock 을 놓기 전에 (그 사이 들어온 부분 갱신 기록을 지우지 않도록)
+      written.forEach((repository, keys) -> keys.forEach(repository::committed));
+    } finally {
+      for (int i = held.size() - 1; i >= 0; i--) {
+        held.get(i).close();
+      }
+    }
+  }
+}
@@ -1,7 +1,12 @@
 package org.example.rocksdb.repository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.List;
 import java.util.Map;
+import org.example.rocksdb.codec.Codecs;
+import org.example.rocksdb.codec.UserBinaryCodec;
 import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.conf.RocksDbProperties;
 import org.example.rocksdb.model.User;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDB;
@@ -10,8 +15,32 @@ import org.springframework.stereotype.Repository;
 @Repository
 public class UserRepository extends RocksDbRepository<User> {
 
+  private final SecondaryIndex<User, Integer> ageIndex;
+
   public UserRepository(RocksDB rocksDB,
-      Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap) {
-    super(rocksDB, columnFamilyHandleMap, ColumnFamilyConfig.USER, User.class);
+      Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap,
+      RocksDbProperties properties, GroupCommitWriter writer, ParallelScanPool parallelScanPool,
+      MeterRegistry meterRegistry) {
+    super(rocksDB, columnFamilyHandleMap, properties, writer, parallelScanPool,
+        ColumnFamilyConfig.USER,
+        Codecs.create(properties.columnFamily(ColumnFamilyConfig.USER.getName()).getCodec(),
+            new UserBinaryCodec(), User.class), meterRegistry);
+    this.ageIndex = addIndex(SecondaryIndex.ofInt(ColumnFamilyConfig.USER_AGE_INDEX,
+        columnFamilyHandleMap.get(ColumnFamilyConfig.USER_AGE_INDEX), User::getAge));
+    enablePatches(columnFamilyHandleMap.get(ColumnFamilyConfig.USER_PATCHES), User.class);
+  }
+
+  public List<User> findByAge(int age, int limit) {
+    return findByIndex(ageIndex, age, age, limit);
+  }
+
+  public List<User> findByAgeBetween(int minAge, int maxAge, int limit) {
+    return findByIndex(ageIndex, minAge, maxAge, limit);
+  }
+
+  // 캐시 적중마다 호출되므로 encode/decode 대신 필드를 복사한다
+  @Override
+  protected User copyOf(User value) {
+    return new User(value.getId(), value.getName(), value.getAge());
   }
 }
@@ -1,13 +1,53 @@
 package org.example.rocksdb.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.rocksdb.backup.BackupManager;
+import org.example.rocksdb.backup.BackupSummary;
+import org.example.rocksdb.backup.CheckpointSummary;
+import org.example.rocksdb.cache.CacheStats;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.exception.ReadOnlyReplicaException;
 import org.example.rocksdb.model.Product;
 import org.example.rocksdb.model.User;
+import org.example.rocksdb.profile.AccessProfile;
+import org.example.rocksdb.repository.BulkImporter;
+import org.example.rocksdb.repository.BulkLoadResult;
+import org.example.rocksdb.repository.ColumnFamilyInfo;
+import org.example.rocksdb.repository.ColumnFamilyTuner;
+import org.example.rocksdb.repository.GenericRepositories;
+import org.example.rocksdb.repository.GenericRepository;
+import org.example.rocksdb.repository.GroupCommitStats;
+import org.example.rocksdb.repository.GroupCommitWriter;
+import org.example.rocksdb.repository.Page;
 import org.example.rocksdb.repository.ProductRepository;
+import org.example.rocksdb.repository.ReplicationManager;
+import org.example.rocksdb.repository.ReplicationStatus;
+import org.example.rocksdb.repository.RepositoryExecutors;
+import org.example.rocksdb.repository.RocksDbRepository;
+import org.example.rocksdb.repository.ScanDirection;
+import org.example.rocksdb.repository.TransactionRunner;
 import org.example.rocksdb.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -17,6 +57,26 @@ public class RocksDbService {
 
   private final UserRepository userRepository;
   private final ProductRepository productRepository;
+  private final GroupCommitWriter groupCommitWriter;
+  private final ColumnFamilyTuner columnFamilyTuner;
+  private final GenericRepositories genericRepositories;
+  private final RepositoryExecutors repositoryExecutors;
+  private final RocksDbProperties properties;
+  private final ObjectMapper objectMapper;
+  private final BulkImporter bulkImporter;
+  private final BackupManager backupManager;
+  private final TransactionRunner transactionRunner;
+  private final ReplicationManager replicationManager;
+
+  /**
+   * 사용자/상품 여러 건의 읽기-쓰기를 하나의 트랜잭션으로 실행한다 (rocksdb.transactions.enabled).
+   * 충돌하면 work 를 처음부터 다시 실행하므로 work 는 트랜잭션 밖의 상태를 바꾸지 않아야 한다.
+   */
+  public <T> T inTransaction(final Function<RocksDbTransaction, T> work) {
+    requireWritable();
+    return transactionRunner.execute(unitOfWork ->
+        work.apply(new RocksDbTransaction(unitOfWork, userRepository, productRepository)));
+  }
 
   // User operations
   public User getUser(final String key) {
@@ -24,11 +84,34 @@ public class RocksDbService {
   }
 
   public User saveUser(final String key, final User user) {
+    requireWritable();
     userRepository.save(key, user);
     return user;
   }
 
+  // ttl 이 null 이면 CF 기본 TTL 을 따른다
+  public User saveUser(final String key, final User user, final Duration ttl) {
+    requireWritable();
+    if (ttl == null) {
+      return saveUser(key, user);
+    }
+    userRepository.save(key, user, ttl);
+    return user;
+  }
+
+  // 부분 갱신: 본문을 읽지 않고 merge 로 기록 (키가 없으면 조회 시 무시)
+  public void patchUser(final String key, final Map<String, Object> fields) {
+    requireWritable();
+    userRepository.patch(key, fields);
+  }
+
+  public void incrementUserField(final String key, final String field, final Number delta) {
+    requireWritable();
+    userRepository.increment(key, field, delta);
+  }
+
   public void deleteUser(final String key) {
+    requireWritable();
     userRepository.delete(key);
   }
 
@@ -36,18 +119,50 @@ public class RocksDbService {
     return userRepository.findAll();
   }
 
+  public Map<String, User> getUsers(final Collection<String> keys) {
+    return userRepository.findAll(keys);
+  }
+
   public List<User> getUsersByPrefix(final String prefix) {
     return userRepository.findByPrefix(prefix);
   }
 
+  public Page<User> getUserPage(final String cursor, final int limit,
+      final ScanDirection direction) {
+    return userRepository.findPage(cursor, limit, direction);
+  }
+
+  public Page<User> getUserPageByPrefix(final String prefix, final String cursor,
+      final int limit, final ScanDirection direction) {
+    return userRepository.findPageByPrefix(prefix, cursor, limit, direction);
+  }
+
+  public List<User> getUsersByAge(final int minAge, final int maxAge, final int limit) {
+    return userRepository.findByAgeBetween(minAge, maxAge, limit);
+  }
+
   public void saveAllUsers(final Map<String, User> users) {
+    requireWritable();
     userRepository.saveAll(users);
   }
 
   public void deleteAllUsers(final List<String> keys) {
+    requireWritable();
     userRepository.deleteAll(keys);
   }
 
+  // range tombstone 으로 구간 삭제. 카운터 보정이 끝나면 삭제한 항목 수로 완료된다
+  public CompletableFuture<Long> deleteUsersByPrefix(final String prefix, final boolean compact) {
+    requireWritable();
+    return userRepository.deleteByPrefix(prefix, compact);
+  }
+
+  public CompletableFuture<Long> deleteUsersInRange(final String start, final String end,
+      final boolean compact) {
+    requireWritable();
+    return userRepository.deleteRange(start, end, compact);
+  }
+
   public boolean userExists(final String key) {
     return userRepository.exists(key);
   }
@@ -56,17 +171,44 @@ public class RocksDbService {
     return userRepository.count();
   }
 
+  public long estimateUserCount() {
+    return userRepository.estimatedCount();
+  }
+
   // Product operations
   public Product getProduct(final String key) {
     return productRepository.find(key);
   }
 
   public Product saveProduct(final String key, final Product product) {
+    requireWritable();
     productRepository.save(key, product);
     return product;
   }
 
+  // ttl 이 null 이면 CF 기본 TTL 을 따른다
+  public Product saveProduct(final String key, final Product product, final Duration ttl) {
+    requireWritable();
+    if (ttl == null) {
+      return saveProduct(key, product);
+    }
+    productRepository.save(key, product, ttl);
+    return product;
+  }
+
+  // 부분 갱신: 본문을 읽지 않고 merge 로 기록 (키가 없으면 조회 시 무시)
+  public void patchProduct(final String key, final Map<String, Object> fields) {
+    requireWritable();
+    productRepository.patch(key, fields);
+  }
+
+  public void incrementProductField(final String key, final String field, final Number delta) {
+    requireWritable();
+    productRepository.increment(key, field, delta);
+  }
+
   public void deleteProduct(final String key) {
+    requireWritable();
     productRepository.delete(key);
   }
 
@@ -74,18 +216,57 @@ public class RocksDbService {
     return productRepository.findAll();
   }
 
+  public Map<String, Product> getProducts(final Collection<String> keys) {
+    return productRepository.findAll(keys);
+  }
+
   public List<Product> getProductsByPrefix(final String prefix) {
     return productRepository.findByPrefix(prefix);
   }
 
+  public Page<Product> getProductPage(final String cursor, final int limit,
+      final ScanDirection direction) {
+    return productRepository.findPage(cursor, limit, direction);
+  }
+
+  public Page<Product> getProductPageByPrefix(final String prefix, final String cursor,
+      final int limit, final ScanDirection direction) {
+    return productRepository.findPageByPrefix(prefix, cursor, limit, direction);
+  }
+
+  public List<Product> getProductsByPrice(final double minPrice, final double maxPrice,
+      final int limit) {
+    return productRepository.findByPriceBetween(minPrice, maxPrice, limit);
+  }
+
+  public List<Product> getProductsByStock(final int minStock, final int maxStock,
+      final int limit) {
+    return productRepository.findByStockBetween(minStock, maxStock, limit);
+  }
+
   public void saveAllProducts(final Map<String, Product> products) {
+    requireWritable();
     productRepository.saveAll(products);
   }
 
   public void deleteAllProducts(final List<String> keys) {
+    requireWritable();
     productRepository.deleteAll(keys);
   }
 
+  // range tombstone 으로 구간 삭제. 카운터 보정이 끝나면 삭제한 항목 수로 완료된다
+  public CompletableFuture<Long> deleteProductsByPrefix(final String prefix,
+      final boolean compact) {
+    requireWritable();
+    return productRepository.deleteByPrefix(prefix, compact);
+  }
+
+  public CompletableFuture<Long> deleteProductsInRange(final String start, final String end,
+      final boolean compact) {
+    requireWritable();
+    return productRepository.deleteRange(start, end, compact);
+  }
+
   public boolean productExists(final String key) {
     return productRepository.exists(key);
   }
@@ -93,4 +274,304 @@ public class RocksDbService {
   public long countProducts() {
     return productRepository.count();
   }
+
+  public long estimateProductCount() {
+    return productRepository.estimatedCount();
+  }
+
+  // Streaming export: 한 줄에 {"key": ..., "value": ...} 하나 (NDJSON)
+  public long exportUsers(final String prefix, final OutputStream out) throws IOException {
+    return export(userRepository, prefix, out);
+  }
+
+  public long exportProducts(final String prefix, final OutputStream out) throws IOException {
+    return export(productRepository, prefix, out);
+  }
+
+  private <V> long export(final RocksDbRepository<V> repository, final String prefix,
+      final OutputStream out) throws IOException {
+    try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.setRootValueSeparator(null);
+      long count = repository.forEach(prefix, (key, value) -> {
+        generator.writeStartObject();
+        generator.writeStringField("key", key);
+        generator.writeObjectField("value", value);
+        generator.writeEndObject();
+        generator.writeRaw('\n');
+      });
+      log.info("Exported {} entries (prefix: '{}')", count, prefix);
+      return count;
+    }
+  }
+
+  // Bulk load: export 와 같은 NDJSON 형식을 SST 파일로 만들어 ingest
+  public BulkLoadResult bulkLoad(final ColumnFamilyConfig columnFamily, final InputStream in)
+      throws IOException {
+    requireWritable();
+    return switch (columnFamily) {
+      case USER -> bulkLoad(userRepository, User.class, in);
+      case PRODUCT -> bulkLoad(productRepository, Product.class, in);
+      default -> throw new IllegalArgumentException(
+          "Bulk load is not supported for column family: " + columnFamily.getName());
+    };
+  }
+
+  private <V> BulkLoadResult bulkLoad(final RocksDbRepository<V> repository,
+      final Class<V> valueType, final InputStream in) throws IOException {
+    try (MappingIterator<JsonNode> lines = objectMapper.readerFor(JsonNode.class).readValues(in)) {
+      Iterator<Map.Entry<String, V>> entries = new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          try {
+            return lines.hasNextValue();
+          } catch (JsonProcessingException e) {
+            throw invalidBulkLoadInput(e);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }
+
+        @Override
+        public Map.Entry<String, V> next() {
+          JsonNode line;
+          try {
+            line = lines.nextValue();
+          } catch (JsonProcessingException e) {
+            throw invalidBulkLoadInput(e);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          JsonNode key = line.get("key");
+          JsonNode value = line.get("value");
+          if (key == null || !key.isTextual() || value == null || !value.isObject()) {
+            throw new IllegalArgumentException("Invalid bulk load line "
+                + lines.getCurrentLocation().getLineNr()
+                + ": expected {\"key\": \"...\", \"value\": {...}}");
+          }
+          try {
+            return Map.entry(key.asText(), objectMapper.treeToValue(value, valueType));
+          } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid value for key " + key.asText(), e);
+          }
+        }
+      };
+      return bulkImporter.load(repository, entries);
+    } catch (JsonProcessingException e) {
+      throw invalidBulkLoadInput(e);
+    }
+  }
+
+  private static IllegalArgumentException invalidBulkLoadInput(JsonProcessingException e) {
+    return new IllegalArgumentException("Invalid bulk load input: " + e.getOriginalMessage(), e);
+  }
+
+  // Async operations: 스캔/대량 연산은 scan executor 에서 실행 (단건 요청과 분리)
+  public CompletableFuture<List<User>> getAllUsersAsync() {
+    return repositoryExecutors.async(userRepository).findAll();
+  }
+
+  public CompletableFuture<List<User>> getUsersByPrefixAsync(final String prefix) {
+    return repositoryExecutors.async(userRepository).findByPrefix(prefix);
+  }
+
+  public CompletableFuture<Void> saveAllUsersAsync(final Map<String, User> users) {
+    requireWritable();
+    return repositoryExecutors.async(userRepository).saveAll(users);
+  }
+
+  public CompletableFuture<Void> deleteAllUsersAsync(final List<String> keys) {
+    requireWritable();
+    return repositoryExecutors.async(userRepository).deleteAll(keys);
+  }
+
+  public CompletableFuture<List<Product>> getAllProductsAsync() {
+    return repositoryExecutors.async(productRepository).findAll();
+  }
+
+  public CompletableFuture<List<Product>> getProductsByPrefixAsync(final String prefix) {
+    return repositoryExecutors.async(productRepository).findByPrefix(prefix);
+  }
+
+  public CompletableFuture<Void> saveAllProductsAsync(final Map<String, Product> products) {
+    requireWritable();
+    return repositoryExecutors.async(productRepository).saveAll(products);
+  }
+
+  public CompletableFuture<Void> deleteAllProductsAsync(final List<String> keys) {
+    requireWritable();
+    return repositoryExecutors.async(productRepository).deleteAll(keys);
+  }
+
+  // Checkpoint / Backup
+  public CheckpointSummary createCheckpoint() {
+    requireWritable();
+    return backupManager.createCheckpoint();
+  }
+
+  public List<CheckpointSummary> getCheckpoints() {
+    return backupManager.getCheckpoints();
+  }
+
+  public BackupSummary createBackup() {
+    requireWritable();
+    return backupManager.createBackup();
+  }
+
+  public List<BackupSummary> getBackups() {
+    return backupManager.getBackups();
+  }
+
+  // Repository internals
+  public GroupCommitStats getGroupCommitStats() {
+    return groupCommitWriter.stats();
+  }
+
+  public Map<String, CacheStats> getCacheStats() {
+    Map<String, CacheStats> stats = new LinkedHashMap<>();
+    userRepository.cacheStats()
+        .ifPresent(cacheStats -> stats.put(ColumnFamilyConfig.USER.getName(), cacheStats));
+    productRepository.cacheStats()
+        .ifPresent(cacheStats -> stats.put(ColumnFamilyConfig.PRODUCT.getName(), cacheStats));
+    return stats;
+  }
+
+  // CF 별 hot key / 접근 패턴
+  public Map<String, AccessProfile> getAccessProfiles() {
+    Map<String, AccessProfile> profiles = new LinkedHashMap<>();
+    profiles.put(ColumnFamilyConfig.USER.getName(), userRepository.accessProfile());
+    profiles.put(ColumnFamilyConfig.PRODUCT.getName(), productRepository.accessProfile());
+    return profiles;
+  }
+
+  public void resetAccessProfiles() {
+    userRepository.resetAccessProfile();
+    productRepository.resetAccessProfile();
+  }
+
+  // Live tuning
+  public Map<String, String> getColumnFamilyOptions(final String columnFamily) {
+    return columnFamilyTuner.currentOptions(columnFamily);
+  }
+
+  public Map<String, String> updateColumnFamilyOptions(final String columnFamily,
+      final Map<String, String> options) {
+    requireWritable();
+    return columnFamilyTuner.updateOptions(columnFamily, options);
+  }
+
+  // Runtime column families
+  public List<ColumnFamilyInfo> getColumnFamilies() {
+    return genericRepositories.columnFamilies();
+  }
+
+  public boolean columnFamilyExists(final String columnFamily) {
+    return genericRepositories.exists(columnFamily);
+  }
+
+  public void createColumnFamily(final String columnFamily) {
+    requireWritable();
+    genericRepositories.create(columnFamily);
+  }
+
+  public void dropColumnFamily(final String columnFamily) {
+    requireWritable();
+    genericRepositories.drop(columnFamily);
+  }
+
+  public JsonNode getDocument(final String columnFamily, final String key) {
+    return documents(columnFamily).find(key);
+  }
+
+  public JsonNode saveDocument(final String columnFamily, final String key,
+      final JsonNode document) {
+    requireWritable();
+    if (!document.isObject()) {
+      throw new IllegalArgumentException("Document must be a JSON object");
+    }
+    documents(columnFamily).save(key, document);
+    return document;
+  }
+
+  public void deleteDocument(final String columnFamily, final String key) {
+    requireWritable();
+    documents(columnFamily).delete(key);
+  }
+
+  public List<JsonNode> getDocumentsByPrefix(final String columnFamily, final String prefix) {
+    return documents(columnFamily).findByPrefix(prefix);
+  }
+
+  public long countDocuments(final String columnFamily) {
+    return documents(columnFamily).count();
+  }
+
+  private GenericRepository<JsonNode> documents(final String columnFamily) {
+    return genericRepositories.repository(columnFamily, JsonNode.class);
+  }
+
+  // Storage format migration
+  public Map<String, Long> migrateLegacyValues() {
+    requireWritable();
+    Map<String, Long> migrated = new LinkedHashMap<>();
+    migrated.put(ColumnFamilyConfig.USER.getName(), userRepository.migrateLegacyValues());
+    migrated.put(ColumnFamilyConfig.PRODUCT.getName(), productRepository.migrateLegacyValues());
+    return migrated;
+  }
+
+  // Secondary indexes
+  public Map<String, Long> buildIndexes() {
+    requireWritable();
+    Map<String, Long> indexed = new LinkedHashMap<>();
+    indexed.put(ColumnFamilyConfig.USER.getName(), userRepository.buildIndexes());
+    indexed.put(ColumnFamilyConfig.PRODUCT.getName(), productRepository.buildIndexes());
+    return indexed;
+  }
+
+  // 복제 (primary / 읽기 전용 secondary)
+  public ReplicationStatus getReplicationStatus() {
+    return replicationManager.status();
+  }
+
+  // secondary 전용: 다음 주기를 기다리지 않고 primary 를 따라잡는다
+  public ReplicationStatus catchUpWithPrimary() {
+    replicationManager.catchUp();
+    return replicationManager.status();
+  }
+
+  // secondary 인스턴스는 읽기 전용. 쓰기와 primary 만 하는 작업은 primary 로 보낸다
+  private void requireWritable() {
+    if (properties.getReplication().isSecondary()) {
+      throw new ReadOnlyReplicaException(properties.getReplication().getPrimaryUrl());
+    }
+  }
+
+  // 인덱스 도입 전부터 있던 데이터는 서비스 시작 후 백그라운드에서 인덱싱 (secondary 는 primary 가 빌드)
+  @EventListener(ApplicationReadyEvent.class)
+  void buildIndexesOnStartup() {
+    if (properties.getReplication().isSecondary()) {
+      return;
+    }
+    Thread.ofVirtual().name("index-build").start(() -> {
+      try {
+        log.info("Index build finished: {}", buildIndexes());
+      } catch (RuntimeException e) {
+        log.error("Index build failed", e);
+      }
+    });
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  void migrateLegacyValuesOnStartup() {
+    if (!properties.isMigrateCodecOnStartup() || properties.getReplication().isSecondary()) {
+      return;
+    }
+    Thread.ofVirtual().name("codec-migration").start(() -> {
+      try {
+        log.info("Codec migration finished: {}", migrateLegacyValues());
+      } catch (RuntimeException e) {
+        log.error("Codec migration failed", e);
+      }
+    });
+  }
 }
@@ -0,0 +1,44 @@
+package org.example.rocksdb.service;
+
+import lombok.RequiredArgsConstructor;
+import org.example.rocksdb.model.Product;
+import org.example.rocksdb.model.User;
+import org.example.rocksdb.repository.ProductRepository;
+import org.example.rocksdb.repository.UnitOfWork;
+import org.example.rocksdb.repository.UserRepository;
+
+/**
+ * {@link RocksDbService#inTransaction} 안에서 사용자/상품을 함께 읽고 쓴다. 여기서 쓴 값은 작업이
+ * 끝날 때 한 번에 커밋되며, 같은 트랜잭션 안의 조회는 앞서 쓴 값을 본다.
+ */
+@RequiredArgsConstructor
+public final class RocksDbTransaction {
+
+  private final UnitOfWork unitOfWork;
+  private final UserRepository userRepository;
+  private final ProductRepository productRepository;
+
+  public User findUser(final String key) {
+    return unitOfWork.find(userRepository, key);
+  }
+
+  public void saveUser(final String key, final User user) {
+    unitOfWork.save(userRepository, key, user);
+  }
+
+  public void deleteUser(final String key) {
+    unitOfWork.delete(userRepository, key);
+  }
+
+  public Product findProduct(final String key) {
+    return unitOfWork.find(productRepository, key);
+  }
+
+  public void saveProduct(final String key, final Product product) {
+    unitOfWork.save(productRepository, key, product);
+  }
+
+  public void deleteProduct(final String key) {
+    unitOfWork.delete(productRepository, key);
+  }
+}
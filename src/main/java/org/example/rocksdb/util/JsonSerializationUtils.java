@@ -2,7 +2,9 @@ package org.example.rocksdb.util;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.example.rocksdb.exception.RocksDbException;
@@ -27,4 +29,13 @@ public class JsonSerializationUtils {
       throw new RocksDbException("Failed to deserialize JSON to object", e);
     }
   }
+
+  // data 의 position 은 바꾸지 않는다
+  public static <T> T deserialize(ByteBuffer data, Class<T> objectType) {
+    try {
+      return objectMapper.readValue(new ByteBufferBackedInputStream(data.duplicate()), objectType);
+    } catch (IOException e) {
+      throw new RocksDbException("Failed to deserialize JSON to object", e);
+    }
+  }
 }
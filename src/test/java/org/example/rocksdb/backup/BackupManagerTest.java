@@ -0,0 +1,144 @@
+package org.example.rocksdb.backup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.RestoreSource;
+import org.example.rocksdb.model.Product;
+import org.example.rocksdb.model.User;
+import org.example.rocksdb.repository.ProductRepository;
+import org.example.rocksdb.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.ColumnFamilyDescriptor;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.DBOptions;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class BackupManagerTest {
+
+  @Autowired
+  private BackupManager backupManager;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private RocksDbProperties properties;
+
+  @AfterEach
+  void tearDown() {
+    userRepository.deleteAll(List.of("backup1", "backup2"));
+    productRepository.deleteAll(List.of("backup-prod1", "backup-prod2"));
+  }
+
+  @Test
+  @DisplayName("Checkpoint 생성/보존 개수 정리 후 hard link 복원 테스트")
+  void testCheckpointRetentionAndRestore(@TempDir Path directory) throws Exception {
+    // Given
+    userRepository.save("backup1", User.builder().id("backup1").name("Backup").age(1).build());
+    int toKeep = properties.getBackup().getCheckpointsToKeep();
+
+    // When
+    CheckpointSummary latest = null;
+    for (int i = 0; i <= toKeep; i++) {
+      latest = backupManager.createCheckpoint();
+    }
+    RocksDbProperties restoreProperties = restoreProperties(directory,
+        RestoreSource.LATEST_CHECKPOINT);
+    StartupRestore.restoreIfConfigured(restoreProperties);
+
+    // Then
+    List<CheckpointSummary> checkpoints = backupManager.getCheckpoints();
+    assertThat(checkpoints).hasSize(toKeep);
+    assertThat(checkpoints.get(toKeep - 1).name()).isEqualTo(latest.name());
+    assertThat(Files.readString(directory.resolve("db-before-restore").resolve("marker")))
+        .isEqualTo("old");
+    assertThat(read(directory.resolve("db"), ColumnFamilyConfig.USER, "backup1")).isNotNull();
+    try (var files = Files.list(directory.resolve("db"))) {
+      // SST 는 복사하지 않고 checkpoint 와 같은 파일을 가리킨다
+      assertThat(files.filter(file -> file.toString().endsWith(".sst")).toList())
+          .isNotEmpty()
+          .allSatisfy(file ->
+              assertThat((Integer) Files.getAttribute(file, "unix:nlink")).isGreaterThan(1));
+    }
+  }
+
+  @Test
+  @DisplayName("증분 백업 생성 후 최신 백업 복원 테스트")
+  void testIncrementalBackupAndRestore(@TempDir Path directory) throws Exception {
+    // Given: 여러 CF 에 쓰고, 백업 사이에도 쓴다 (memtable 에만 있는 쓰기도 복원되어야 한다)
+    userRepository.save("backup1", User.builder().id("backup1").name("Backup").age(1).build());
+    productRepository.save("backup-prod1", new Product("backup-prod1", "Backup", 1.0, 1));
+
+    // When
+    BackupSummary first = backupManager.createBackup();
+    userRepository.save("backup2", User.builder().id("backup2").name("Backup").age(2).build());
+    productRepository.save("backup-prod2", new Product("backup-prod2", "Backup", 2.0, 2));
+    BackupSummary second = backupManager.createBackup();
+    StartupRestore.restoreIfConfigured(restoreProperties(directory, RestoreSource.LATEST_BACKUP));
+
+    // Then
+    assertThat(second.id()).isGreaterThan(first.id());
+    assertThat(backupManager.getBackups())
+        .hasSizeLessThanOrEqualTo(properties.getBackup().getBackupsToKeep())
+        .extracting(BackupSummary::id).endsWith(first.id(), second.id());
+    Path restored = directory.resolve("db");
+    assertThat(read(restored, ColumnFamilyConfig.USER, "backup1")).isNotNull();
+    assertThat(read(restored, ColumnFamilyConfig.USER, "backup2")).isNotNull();
+    assertThat(read(restored, ColumnFamilyConfig.PRODUCT, "backup-prod1")).isNotNull();
+    assertThat(read(restored, ColumnFamilyConfig.PRODUCT, "backup-prod2")).isNotNull();
+  }
+
+  // 테스트용 DB 경로만 임시 디렉토리로 바꾸고 백업/checkpoint 는 실행 중인 DB 의 것을 사용
+  private RocksDbProperties restoreProperties(Path directory, RestoreSource source)
+      throws Exception {
+    Path dbDir = directory.resolve("db");
+    Files.createDirectories(dbDir);
+    Files.writeString(dbDir.resolve("marker"), "old");
+    RocksDbProperties restoreProperties = new RocksDbProperties();
+    restoreProperties.setPath(dbDir.toString());
+    restoreProperties.getBackup().setCheckpointDir(properties.checkpointDirectory().toString());
+    restoreProperties.getBackup().setBackupDir(properties.backupDirectory().toString());
+    restoreProperties.getBackup().setRestoreOnStartup(source);
+    return restoreProperties;
+  }
+
+  private static byte[] read(Path dbDir, ColumnFamilyConfig columnFamily, String key)
+      throws Exception {
+    List<ColumnFamilyDescriptor> descriptors = new ArrayList<>();
+    try (Options options = new Options()) {
+      for (byte[] name : RocksDB.listColumnFamilies(options, dbDir.toString())) {
+        descriptors.add(new ColumnFamilyDescriptor(name));
+      }
+    }
+    List<ColumnFamilyHandle> handles = new ArrayList<>();
+    try (DBOptions dbOptions = new DBOptions();
+        RocksDB restored = RocksDB.openReadOnly(dbOptions, dbDir.toString(), descriptors,
+            handles)) {
+      try {
+        ColumnFamilyHandle handle = handles.stream()
+            .filter(candidate -> columnFamily.getName().equals(new String(
+                descriptors.get(handles.indexOf(candidate)).getName())))
+            .findFirst().orElseThrow();
+        return restored.get(handle, key.getBytes());
+      } finally {
+        handles.forEach(ColumnFamilyHandle::close);
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package org.example.rocksdb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SegmentedLruCacheTest {
+
+  @Test
+  @DisplayName("자주 읽힌 항목은 한 번만 읽힌 항목에 밀려나지 않는지 테스트")
+  void testProtectedEntriesSurviveScan() {
+    // Given
+    SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(10, 1);
+    put(cache, "hot", "hot");
+    cache.get("hot");
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      put(cache, "cold" + i, "cold");
+    }
+
+    // Then
+    assertThat(cache.get("hot")).isEqualTo("hot");
+    assertThat(cache.stats().size()).isLessThanOrEqualTo(10);
+    assertThat(cache.stats().evictions()).isGreaterThan(0);
+  }
+
+  @Test
+  @DisplayName("로드 중 무효화된 값은 캐시에 들어가지 않는지 테스트")
+  void testStaleLoadIsRejected() {
+    // Given
+    SegmentedLruCache<String, String> cache = new SegmentedLruCache<>(10, 1);
+    long token = cache.loadToken("key");
+
+    // When
+    cache.invalidate("key");
+    cache.putIfValid("key", "stale", 1, token, System.nanoTime());
+
+    // Then
+    assertThat(cache.get("key")).isNull();
+  }
+
+  private static void put(SegmentedLruCache<String, String> cache, String key, String value) {
+    cache.putIfValid(key, value, 1, cache.loadToken(key), System.nanoTime());
+  }
+}
@@ -0,0 +1,80 @@
+package org.example.rocksdb.codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.example.rocksdb.model.Product;
+import org.example.rocksdb.model.User;
+import org.example.rocksdb.util.JsonSerializationUtils;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class BinaryCodecTest {
+
+  private final Codec<User> userCodec =
+      Codecs.create(CodecType.BINARY, new UserBinaryCodec(), User.class);
+  private final Codec<Product> productCodec =
+      Codecs.create(CodecType.BINARY, new ProductBinaryCodec(), Product.class);
+
+  @Test
+  @DisplayName("User 바이너리 인코딩/디코딩 테스트")
+  void testUserRoundTrip() {
+    // Given
+    User user = User.builder().id("user1").name("홍길동").age(-30).build();
+
+    // When
+    User decoded = userCodec.decode(userCodec.encode(user));
+
+    // Then
+    assertThat(decoded.getId()).isEqualTo("user1");
+    assertThat(decoded.getName()).isEqualTo("홍길동");
+    assertThat(decoded.getAge()).isEqualTo(-30);
+  }
+
+  @Test
+  @DisplayName("Product 바이너리 인코딩/디코딩 테스트 (null 필드 포함)")
+  void testProductRoundTrip() {
+    // Given
+    Product product = Product.builder().id("prod1").name(null).price(1200.50)
+        .stock(Integer.MIN_VALUE).build();
+
+    // When
+    Product decoded = productCodec.decode(productCodec.encode(product));
+
+    // Then
+    assertThat(decoded.getId()).isEqualTo("prod1");
+    assertThat(decoded.getName()).isNull();
+    assertThat(decoded.getPrice()).isEqualTo(1200.50);
+    assertThat(decoded.getStock()).isEqualTo(Integer.MIN_VALUE);
+  }
+
+  @Test
+  @DisplayName("바이너리 포맷이 JSON 보다 작은지 테스트")
+  void testBinaryIsSmallerThanJson() {
+    // Given
+    Product product = Product.builder().id("prod1").name("Laptop").price(1200.50).stock(10)
+        .build();
+
+    // When
+    byte[] binary = productCodec.encode(product);
+    byte[] json = JsonSerializationUtils.serialize(product);
+
+    // Then
+    assertThat(binary.length).isLessThan(json.length / 2);
+  }
+
+  @Test
+  @DisplayName("JSON 으로 저장된 기존 값 읽기 및 마이그레이션 대상 판별 테스트")
+  void testReadLegacyJson() {
+    // Given
+    byte[] json = JsonSerializationUtils.serialize(
+        User.builder().id("legacy1").name("Legacy").age(40).build());
+
+    // When
+    User decoded = userCodec.decode(json);
+
+    // Then
+    assertThat(decoded.getName()).isEqualTo("Legacy");
+    assertThat(userCodec.isLegacy(json)).isTrue();
+    assertThat(userCodec.isLegacy(userCodec.encode(decoded))).isFalse();
+  }
+}
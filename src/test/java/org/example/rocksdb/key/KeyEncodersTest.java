@@ -0,0 +1,70 @@
+package org.example.rocksdb.key;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeyEncodersTest {
+
+  @Test
+  @DisplayName("정수/실수/UUID 인코딩의 바이트 순서가 값의 순서와 같은지 테스트")
+  void testNumericOrder() {
+    assertOrdered(KeyEncoders.ints(),
+        List.of(Integer.MIN_VALUE, -1000, -1, 0, 1, 255, 256, Integer.MAX_VALUE));
+    assertOrdered(KeyEncoders.longs(),
+        List.of(Long.MIN_VALUE, -1L << 40, -1L, 0L, 1L, 1L << 40, Long.MAX_VALUE));
+    assertOrdered(KeyEncoders.doubles(),
+        List.of(Double.NEGATIVE_INFINITY, -1.5, -0.25, 0.0, 0.25, 1.5, Double.POSITIVE_INFINITY));
+    assertOrdered(KeyEncoders.uuids(), List.of(new UUID(-5, 3), new UUID(-5, 4),
+        new UUID(0, Long.MIN_VALUE), new UUID(0, 0), new UUID(7, -1)));
+    assertThat(KeyEncoders.doubles().encode(-0.0)).isEqualTo(KeyEncoders.doubles().encode(0.0));
+  }
+
+  @Test
+  @DisplayName("문자열 인코딩이 UTF-8 과 같고 튜플 중간에서도 순서와 경계가 유지되는지 테스트")
+  void testStrings() {
+    // Given
+    KeyEncoder<Tuple> encoder = KeyEncoders.tuple(KeyEncoders.strings(), KeyEncoders.ints());
+
+    // Then: 구분자 0x00 이 든 문자열과 앞부분이 같은 문자열의 순서
+    assertThat(KeyEncoders.strings().encode("키-€-😀")).isEqualTo("키-€-😀".getBytes(StandardCharsets.UTF_8));
+    assertOrdered(encoder, List.of(Tuple.of("a", 9), Tuple.of("a\0", 1), Tuple.of("a\0b", 0),
+        Tuple.of("ab", -1), Tuple.of("b", Integer.MIN_VALUE), Tuple.of("b", Integer.MAX_VALUE),
+        Tuple.of("한글", 0)));
+    Tuple key = Tuple.of("x\0y", Integer.MAX_VALUE);
+    assertThat(encoder.decode(encoder.encode(key))).isEqualTo(key);
+  }
+
+  @Test
+  @DisplayName("앞쪽 요소만 가진 튜플이 그 요소로 시작하는 키의 prefix 인지 테스트")
+  void testTuplePrefix() {
+    // Given
+    KeyEncoder<Tuple> encoder = KeyEncoders.tuple(KeyEncoders.strings(), KeyEncoders.longs());
+    byte[] prefix = encoder.encode(Tuple.of("tenant"));
+
+    // Then: "tenant" 의 키만 prefix 로 시작한다 ("tenant2" 는 제외)
+    assertThat(startsWith(encoder.encode(Tuple.of("tenant", 42L)), prefix)).isTrue();
+    assertThat(startsWith(encoder.encode(Tuple.of("tenant2", 42L)), prefix)).isFalse();
+    assertThatThrownBy(() -> encoder.encode(Tuple.of(1, 2L)))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> encoder.encode(Tuple.of("a", 1L, 2L)))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static <K> void assertOrdered(KeyEncoder<K> encoder, List<K> sorted) {
+    List<byte[]> encoded = sorted.stream().map(encoder::encode).toList();
+    assertThat(encoded).isSortedAccordingTo(Arrays::compareUnsigned);
+    assertThat(encoded.stream().map(encoder::decode).toList()).isEqualTo(sorted);
+    assertThat(encoded).doesNotHaveDuplicates();
+  }
+
+  private static boolean startsWith(byte[] key, byte[] prefix) {
+    return Arrays.equals(key, 0, prefix.length, prefix, 0, prefix.length);
+  }
+}
@@ -0,0 +1,51 @@
+package org.example.rocksdb.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.rocksdb.model.User;
+import org.example.rocksdb.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class RocksDbMetricsTest {
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @AfterEach
+  void tearDown() {
+    userRepository.delete("metrics1");
+  }
+
+  @Test
+  @DisplayName("Repository 연산 Timer 와 RocksDB 통계 노출 테스트")
+  void testRepositoryAndNativeMetrics() {
+    // Given
+    Timer saveTimer = meterRegistry.get("rocksdb.repository.operation")
+        .tag("cf", "users").tag("operation", "save").timer();
+    long savesBefore = saveTimer.count();
+
+    // When
+    userRepository.save("metrics1", User.builder().id("metrics1").name("Metrics").age(1).build());
+    userRepository.find("metrics1");
+
+    // Then
+    assertThat(saveTimer.count()).isEqualTo(savesBefore + 1);
+    assertThat(meterRegistry.get("rocksdb.repository.operation")
+        .tag("cf", "users").tag("operation", "find").timer().count()).isPositive();
+    assertThat(meterRegistry.get("rocksdb.bytes.written").functionCounter().count())
+        .isPositive();
+    assertThat(meterRegistry.get("rocksdb.db.get").tag("stat", "p99").gauge()).isNotNull();
+    assertThat(meterRegistry.get("rocksdb.cur.size.all.mem.tables").tag("cf", "users")
+        .gauge().value()).isPositive();
+  }
+}
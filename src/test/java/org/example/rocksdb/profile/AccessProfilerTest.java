@@ -0,0 +1,96 @@
+package org.example.rocksdb.profile;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.example.rocksdb.conf.RocksDbProperties.ProfilerProperties;
+import org.example.rocksdb.profile.AccessProfile.HotKey;
+import org.example.rocksdb.profile.AccessProfile.SizeBucket;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class AccessProfilerTest {
+
+  @Test
+  @DisplayName("count-min sketch 추정값이 실제 횟수 이상이고 작은 sketch 에서도 hot key 를 찾는지 테스트")
+  void testHotKeys() {
+    // Given: 좁은 sketch (충돌 많음), 긴 꼬리 10000 개 키 사이에 hot key 3 개
+    AccessProfiler profiler = new AccessProfiler(properties(1.0, 3, 64));
+    for (int i = 0; i < 10_000; i++) {
+      profiler.recordRead("tenant" + (i % 7) + ":cold" + i);
+      if (i % 10 == 0) {
+        profiler.recordRead("tenant0:hot-a");
+      }
+      if (i % 20 == 0) {
+        profiler.recordRead("tenant1:hot-b");
+        profiler.recordWrite("tenant1:hot-b");
+      }
+      if (i % 40 == 0) {
+        profiler.recordRead("tenant2:hot-c");
+      }
+    }
+
+    // When
+    AccessProfile profile = profiler.snapshot();
+
+    // Then
+    assertThat(profile.hotReadKeys()).extracting(HotKey::key)
+        .containsExactly("tenant0:hot-a", "tenant1:hot-b", "tenant2:hot-c");
+    assertThat(profile.hotReadKeys().get(0).sampledCount()).isGreaterThanOrEqualTo(1000);
+    assertThat(profile.hotWriteKeys()).extracting(HotKey::key).containsExactly("tenant1:hot-b");
+    assertThat(profile.hotReadPrefixes()).extracting(HotKey::key).first().isEqualTo("tenant0:");
+    assertThat(profile.sampledReads()).isEqualTo(10_000 + 1000 + 500 + 250);
+    assertThat(profile.readRatio()).isGreaterThan(0.9);
+  }
+
+  @Test
+  @DisplayName("값 크기 분포가 2 의 거듭제곱 버킷으로 집계되고 초기화되는지 테스트")
+  void testValueSizes() {
+    // Given
+    AccessProfiler profiler = new AccessProfiler(properties(1.0, 5, 256));
+
+    // When
+    for (int size : new int[] {1, 64, 65, 100, 128, 5000}) {
+      profiler.recordWriteSize(size);
+    }
+
+    // Then
+    assertThat(profiler.snapshot().writeValueSizes()).extracting(SizeBucket::upTo)
+        .containsExactly(1L, 64L, 128L, 8192L);
+    assertThat(profiler.snapshot().writeValueSizes()).extracting(SizeBucket::sampledCount)
+        .containsExactly(1L, 1L, 3L, 1L);
+
+    // When
+    profiler.reset();
+
+    // Then
+    assertThat(profiler.snapshot().writeValueSizes()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("표본 비율이 0 이면 아무것도 집계하지 않고, 표본 비율로 전체 호출 수를 추정하는지 테스트")
+  void testSampleRate() {
+    // Given
+    AccessProfiler disabled = new AccessProfiler(properties(0, 5, 256));
+    AccessProfiler sampled = new AccessProfiler(properties(0.1, 5, 256));
+
+    // When
+    for (int i = 0; i < 100_000; i++) {
+      disabled.recordRead("key");
+      sampled.recordRead("key");
+    }
+
+    // Then
+    assertThat(disabled.snapshot().sampledReads()).isZero();
+    assertThat(disabled.snapshot().hotReadKeys()).isEmpty();
+    assertThat(sampled.snapshot().hotReadKeys().get(0).estimatedCount())
+        .isBetween(90_000L, 110_000L);
+  }
+
+  private static ProfilerProperties properties(double sampleRate, int topKeys, int width) {
+    ProfilerProperties properties = new ProfilerProperties();
+    properties.setSampleRate(sampleRate);
+    properties.setTopKeys(topKeys);
+    properties.setSketchWidth(width);
+    return properties;
+  }
+}
@@ -0,0 +1,134 @@
+package org.example.rocksdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.example.rocksdb.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.Options;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class BulkImporterTest {
+
+  @Autowired
+  private BulkImporter bulkImporter;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @BeforeEach
+  void setUp() {
+    productRepository.buildIndexes();
+    productRepository.findAll().forEach(product -> productRepository.delete(product.getId()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    productRepository.findAll().forEach(product -> productRepository.delete(product.getId()));
+  }
+
+  @Test
+  @DisplayName("SST ingest 적재 후 카운터/인덱스/캐시 보정 테스트")
+  void testLoadFixesCounterAndIndexes() {
+    // Given
+    productRepository.save("bulk1", product("bulk1", 10.0));
+    productRepository.find("bulk1");
+    List<Map.Entry<String, Product>> entries = List.of(
+        Map.entry("bulk3", product("bulk3", 30.0)),
+        Map.entry("bulk1", product("bulk1", 99.0)),
+        Map.entry("bulk2", product("bulk2", 20.0)),
+        Map.entry("bulk3", product("bulk3", 31.0)));
+
+    // When
+    BulkLoadResult result = bulkImporter.load(productRepository, entries.iterator());
+
+    // Then
+    assertThat(result.entries()).isEqualTo(3);
+    assertThat(result.added()).isEqualTo(2);
+    assertThat(productRepository.count()).isEqualTo(3);
+    assertThat(productRepository.find("bulk1").getPrice()).isEqualTo(99.0);
+    assertThat(productRepository.find("bulk3").getPrice()).isEqualTo(31.0);
+    assertThat(productRepository.findByPrice(10.0, 10)).isEmpty();
+    assertThat(productRepository.findByPriceBetween(0.0, 100.0, 10))
+        .extracting(Product::getId).containsExactly("bulk2", "bulk3", "bulk1");
+  }
+
+  @Test
+  @DisplayName("적재 중 같은 키를 일반 쓰기로 바꿔도 카운터/인덱스가 맞는지 테스트")
+  void testLoadWithConcurrentWrites() {
+    // Given: 입력을 다 읽은 뒤 (snapshot 이후, ingest 전) 적재 대상 키를 저장/삭제
+    productRepository.save("bulk1", product("bulk1", 10.0));
+    productRepository.save("other", product("other", 50.0));
+    Iterator<Map.Entry<String, Product>> source = List.of(
+        Map.entry("bulk1", product("bulk1", 11.0)),
+        Map.entry("bulk2", product("bulk2", 21.0)),
+        Map.entry("bulk3", product("bulk3", 31.0))).iterator();
+    Iterator<Map.Entry<String, Product>> entries = new Iterator<>() {
+      @Override
+      public boolean hasNext() {
+        if (source.hasNext()) {
+          return true;
+        }
+        productRepository.delete("bulk1");
+        productRepository.save("bulk2", product("bulk2", 77.0));
+        productRepository.save("other", product("other", 88.0));
+        return false;
+      }
+
+      @Override
+      public Map.Entry<String, Product> next() {
+        return source.next();
+      }
+    };
+
+    // When
+    BulkLoadResult result = bulkImporter.load(productRepository, entries);
+
+    // Then: ingest 시점에 새 키는 bulk1 (그 사이 삭제됨), bulk3
+    assertThat(result.added()).isEqualTo(2);
+    assertThat(productRepository.count()).isEqualTo(4);
+    assertThat(productRepository.findAll()).hasSize(4);
+    assertThat(productRepository.findByPriceBetween(0.0, 100.0, 10))
+        .extracting(Product::getId).containsExactly("bulk1", "bulk2", "bulk3", "other");
+    assertThat(productRepository.findByPrice(77.0, 10)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("여러 run 을 merge 할 때 키 순서와 마지막 값 유지 테스트")
+  void testSortedRunsMerge(@TempDir Path directory) throws Exception {
+    // Given
+    List<String> merged = new ArrayList<>();
+    try (Options options = new Options();
+        SortedRuns runs = new SortedRuns(directory, options, 1, 1024 * 1024)) {
+      // run 크기가 1 바이트라 항목마다 run 파일이 생긴다
+      runs.add("c".getBytes(), "1".getBytes());
+      runs.add("a".getBytes(), "1".getBytes());
+      runs.add("c".getBytes(), "2".getBytes());
+      runs.add("b".getBytes(), "1".getBytes());
+
+      // When
+      List<String> files = runs.finish((key, value) ->
+          merged.add(new String(key) + "=" + new String(value)));
+
+      // Then
+      assertThat(files).hasSize(1);
+      assertThat(Files.exists(Path.of(files.get(0)))).isTrue();
+    }
+    assertThat(merged).containsExactly("a=1", "b=1", "c=2");
+  }
+
+  private static Product product(String id, double price) {
+    return Product.builder().id(id).name("Bulk " + id).price(price).stock(1).build();
+  }
+}
@@ -0,0 +1,55 @@
+package org.example.rocksdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ColumnFamilyTunerTest {
+
+  private static final String USER = ColumnFamilyConfig.USER.getName();
+  private static final String PRODUCT = ColumnFamilyConfig.PRODUCT.getName();
+
+  @Autowired
+  private ColumnFamilyTuner columnFamilyTuner;
+
+  @Test
+  @DisplayName("CF 별 tuning 프로파일 적용 및 mutable 옵션 변경 테스트")
+  void testProfileAndLiveUpdate() {
+    // Given
+    Map<String, String> before = columnFamilyTuner.currentOptions(PRODUCT);
+
+    try {
+      // When
+      Map<String, String> updated = columnFamilyTuner.updateOptions(PRODUCT,
+          Map.of("level0_file_num_compaction_trigger", "12"));
+
+      // Then
+      assertThat(before.get("write_buffer_size")).isEqualTo(String.valueOf(128 * 1024 * 1024));
+      assertThat(before.get("level0_file_num_compaction_trigger")).isEqualTo("8");
+      assertThat(updated.get("level0_file_num_compaction_trigger")).isEqualTo("12");
+      assertThat(columnFamilyTuner.currentOptions(USER)
+          .get("level0_file_num_compaction_trigger")).isEqualTo("4");
+    } finally {
+      columnFamilyTuner.updateOptions(PRODUCT,
+          Map.of("level0_file_num_compaction_trigger", "8"));
+    }
+  }
+
+  @Test
+  @DisplayName("재시작이 필요하거나 알 수 없는 옵션 거부 테스트")
+  void testRejectUnknownOption() {
+    assertThatThrownBy(() -> columnFamilyTuner.updateOptions(USER,
+        Map.of("compaction_style", "kCompactionStyleUniversal")))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> columnFamilyTuner.updateOptions(USER,
+        Map.of("no_such_option", "1")))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
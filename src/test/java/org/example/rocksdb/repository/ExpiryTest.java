@@ -0,0 +1,113 @@
+package org.example.rocksdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import org.example.rocksdb.model.Product;
+import org.example.rocksdb.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class ExpiryTest {
+
+  private static final Duration TTL = Duration.ofMillis(200);
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @AfterEach
+  void tearDown() {
+    userRepository.deleteAll(List.of("ttl-user1", "ttl-user2", "ttl-user3"));
+    productRepository.deleteAll(List.of("ttl-prod1", "ttl-prod2"));
+  }
+
+  @Test
+  @DisplayName("만료된 항목은 삭제 전에도 조회되지 않는다")
+  void testExpiredEntriesAreHidden() throws InterruptedException {
+    // Given
+    userRepository.save("ttl-user1", user("ttl-user1"), TTL);
+    userRepository.save("ttl-user2", user("ttl-user2"));
+
+    // When
+    Thread.sleep(TTL.toMillis() * 2);
+
+    // Then
+    assertThat(userRepository.find("ttl-user1")).isNull();
+    assertThat(userRepository.exists("ttl-user1")).isFalse();
+    assertThat(userRepository.findByPrefix("ttl-")).extracting(User::getId)
+        .containsExactly("ttl-user2");
+    assertThat(userRepository.findAll(List.of("ttl-user1", "ttl-user2")))
+        .containsOnlyKeys("ttl-user2");
+    // count() 는 만료 삭제 전까지 만료된 항목을 포함하지만 스캔하는 count(filter) 는 제외
+    assertThat(userRepository.count(user -> user.getId().startsWith("ttl-"))).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("만료 전에는 조회되고, 다시 저장하면 새 TTL 이 적용된다")
+  void testSaveReplacesTtl() throws InterruptedException {
+    // Given
+    userRepository.save("ttl-user1", user("ttl-user1"), TTL);
+    assertThat(userRepository.find("ttl-user1")).isNotNull();
+
+    // When: 만료 없이 덮어쓴다
+    userRepository.save("ttl-user1", user("ttl-user1"), null);
+    Thread.sleep(TTL.toMillis() * 2);
+    long purged = userRepository.purgeExpired();
+
+    // Then
+    assertThat(purged).isZero();
+    assertThat(userRepository.find("ttl-user1")).isNotNull();
+  }
+
+  @Test
+  @DisplayName("만료 삭제는 카운터, 보조 인덱스, 메트릭을 함께 갱신한다")
+  void testPurgeExpired() throws InterruptedException {
+    // Given
+    double expiredBefore = expiredCount("users") + expiredCount("products");
+    userRepository.saveAll(Map.of("ttl-user1", user("ttl-user1"),
+        "ttl-user2", user("ttl-user2")), TTL);
+    userRepository.save("ttl-user3", user("ttl-user3"));
+    productRepository.save("ttl-prod1", product("ttl-prod1", 777_777.0), TTL);
+    productRepository.save("ttl-prod2", product("ttl-prod2", 777_777.0));
+    long userCount = userRepository.count();
+
+    // When
+    Thread.sleep(TTL.toMillis() * 2);
+    userRepository.purgeExpired();
+    productRepository.purgeExpired();
+
+    // Then
+    assertThat(userRepository.count()).isEqualTo(userCount - 2);
+    assertThat(userRepository.find("ttl-user3")).isNotNull();
+    assertThat(productRepository.findByPrice(777_777.0, 10)).extracting(Product::getId)
+        .containsExactly("ttl-prod2");
+    assertThat(expiredCount("users") + expiredCount("products") - expiredBefore)
+        .isEqualTo(3);
+  }
+
+  private double expiredCount(String columnFamily) {
+    return meterRegistry.get(RepositoryMetrics.EXPIRED_METRIC).tag("cf", columnFamily)
+        .counter().count();
+  }
+
+  private static User user(String id) {
+    return User.builder().id(id).name("Ttl").age(30).build();
+  }
+
+  private static Product product(String id, double price) {
+    return Product.builder().id(id).name("Ttl").price(price).stock(1).build();
+  }
+}
@@ -0,0 +1,122 @@
+package org.example.rocksdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.util.List;
+import java.util.Map;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.conf.ColumnFamilyRegistry;
+import org.example.rocksdb.key.KeyEncoders;
+import org.example.rocksdb.key.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class GenericRepositoriesTest {
+
+  private static final String NAME = "generic-test";
+
+  @Autowired
+  private GenericRepositories genericRepositories;
+
+  @Autowired
+  private ColumnFamilyRegistry columnFamilyRegistry;
+
+  @AfterEach
+  void tearDown() {
+    if (genericRepositories.exists(NAME)) {
+      genericRepositories.drop(NAME);
+    }
+  }
+
+  @Test
+  @DisplayName("실행 중 CF 생성 후 저장/조회/카운트 및 삭제 테스트")
+  void testCreateUseAndDrop() {
+    // Given
+    genericRepositories.create(NAME);
+    GenericRepository<JsonNode> repository = genericRepositories.repository(NAME, JsonNode.class);
+    ObjectNode document = JsonNodeFactory.instance.objectNode().put("title", "hello");
+
+    // When
+    repository.save("doc1", document);
+    repository.save("doc2", document);
+
+    // Then
+    assertThat(repository.find("doc1").get("title").asText()).isEqualTo("hello");
+    assertThat(repository.count()).isEqualTo(2);
+    assertThat(genericRepositories.columnFamilies())
+        .anyMatch(info -> info.name().equals(NAME) && !info.builtIn());
+
+    // When
+    genericRepositories.drop(NAME);
+
+    // Then
+    assertThat(genericRepositories.exists(NAME)).isFalse();
+    assertThatThrownBy(() -> genericRepositories.repository(NAME, JsonNode.class))
+        .isInstanceOf(IllegalArgumentException.class);
+
+    // 같은 이름으로 다시 만들면 비어 있음
+    genericRepositories.create(NAME);
+    assertThat(genericRepositories.repository(NAME, JsonNode.class).count()).isZero();
+  }
+
+  @Test
+  @DisplayName("튜플 키 repository 의 범위/prefix 조회가 키 순서를 따르는지 테스트")
+  void testTypedKeyRepository() {
+    // Given: (tenant, timestamp) 키. 음수 timestamp 와 "acme" 로 시작하는 다른 tenant 포함
+    genericRepositories.create(NAME);
+    TypedKeyRepository<Tuple, JsonNode> repository = genericRepositories.typedRepository(NAME,
+        KeyEncoders.tuple(KeyEncoders.strings(), KeyEncoders.longs()), JsonNode.class);
+    for (long timestamp : new long[] {300, -5, 100, 200}) {
+      repository.save(Tuple.of("acme", timestamp), event(timestamp));
+    }
+    repository.save(Tuple.of("acme-labs", 150L), event(150));
+
+    // When
+    List<JsonNode> tenant = repository.findByPrefix(Tuple.of("acme"));
+    List<JsonNode> range = repository.findRange(Tuple.of("acme", 0L), Tuple.of("acme", 300L));
+
+    // Then
+    assertThat(tenant).extracting(node -> node.get("ts").asLong())
+        .containsExactly(-5L, 100L, 200L, 300L);
+    assertThat(range).extracting(node -> node.get("ts").asLong()).containsExactly(100L, 200L);
+    assertThat(repository.findAll(List.of(Tuple.of("acme-labs", 150L), Tuple.of("none", 1L))))
+        .containsOnlyKeys(Tuple.of("acme-labs", 150L));
+    assertThat(repository.find(Tuple.of("acme", -5L)).get("ts").asLong()).isEqualTo(-5L);
+
+    // 단건/일괄 쓰기도 인코딩된 키 바이트로 같은 항목을 가리키는지 확인
+    repository.saveAll(Map.of(Tuple.of("acme", 400L), event(400)));
+    repository.deleteAll(List.of(Tuple.of("acme", 300L), Tuple.of("acme", 300L)));
+    repository.delete(Tuple.of("acme", 100L));
+    assertThat(repository.exists(Tuple.of("acme", 400L))).isTrue();
+    assertThat(repository.exists(Tuple.of("acme", 300L))).isFalse();
+    assertThat(repository.find(Tuple.of("acme", 100L))).isNull();
+    assertThat(repository.count()).isEqualTo(4);
+    assertThat(repository.deleteByPrefix(Tuple.of("acme"), false).join()).isEqualTo(3);
+    assertThat(repository.count()).isEqualTo(1);
+    assertThatThrownBy(() -> genericRepositories.repository(NAME, JsonNode.class))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("고정 CF 삭제 및 잘못된 이름 거부 테스트")
+  void testRejectBuiltInAndInvalidName() {
+    assertThatThrownBy(() -> columnFamilyRegistry.drop(ColumnFamilyConfig.USER.getName()))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> genericRepositories.create("Invalid Name"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> genericRepositories.create(ColumnFamilyConfig.PRODUCT.getName()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static JsonNode event(long timestamp) {
+    return JsonNodeFactory.instance.objectNode().put("ts", timestamp);
+  }
+}
@@ -0,0 +1,120 @@
+package org.example.rocksdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.exception.RocksDbException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+
+class GroupCommitWriterTest {
+
+  @TempDir
+  Path dbDir;
+
+  private Options options;
+  private RocksDB rocksDB;
+  private GroupCommitWriter writer;
+
+  @BeforeEach
+  void setUp() throws RocksDBException {
+    RocksDB.loadLibrary();
+    options = new Options().setCreateIfMissing(true);
+    rocksDB = RocksDB.open(options, dbDir.toString());
+
+    RocksDbProperties properties = new RocksDbProperties();
+    properties.getGroupCommit().setEnabled(true);
+    properties.getGroupCommit().setMaxBatchSize(64);
+    properties.getGroupCommit().setMaxDelay(Duration.ofMillis(5));
+    writer = new GroupCommitWriter(rocksDB, properties);
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    writer.shutdown();
+    rocksDB.close();
+    options.close();
+  }
+
+  @Test
+  @DisplayName("동시 쓰기를 하나의 batch 로 모아서 기록하는지 테스트")
+  void testCoalesceConcurrentWrites() throws RocksDBException {
+    // Given
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      byte[] key = ("key" + i).getBytes();
+      futures.add(writer.submit(batch -> batch.put(key, key)));
+    }
+    CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+    // Then
+    assertThat(rocksDB.get("key0".getBytes())).isEqualTo("key0".getBytes());
+    assertThat(rocksDB.get("key99".getBytes())).isEqualTo("key99".getBytes());
+    GroupCommitStats stats = writer.stats();
+    assertThat(stats.operations()).isEqualTo(100);
+    assertThat(stats.batches()).isLessThan(100);
+    assertThat(stats.maxBatchSize()).isLessThanOrEqualTo(64);
+  }
+
+  @Test
+  @DisplayName("실패한 mutation 만 실패 처리되고 나머지는 기록되는지 테스트")
+  void testFailedMutationDoesNotAffectOthers() throws RocksDBException {
+    // Given
+    CompletableFuture<Void> ok = writer.submit(batch -> batch.put("ok".getBytes(), new byte[1]));
+    CompletableFuture<Void> failed = writer.submit(batch -> {
+      batch.put("partial".getBytes(), new byte[1]);
+      throw new RocksDbException("boom");
+    });
+
+    // When & Then
+    ok.join();
+    assertThatThrownBy(failed::join).hasCauseInstanceOf(RocksDbException.class);
+    assertThat(rocksDB.get("ok".getBytes())).isNotNull();
+    assertThat(rocksDB.get("partial".getBytes())).isNull();
+  }
+
+  @Test
+  @DisplayName("shutdown 과 동시에 들어온 쓰기도 완료 또는 실패로 끝나는지 테스트")
+  void testSubmitDuringShutdownNeverHangs() throws Exception {
+    // Given
+    List<CompletableFuture<Void>> futures = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch started = new CountDownLatch(4);
+    List<Thread> submitters = new ArrayList<>();
+    for (int t = 0; t < 4; t++) {
+      int thread = t;
+      submitters.add(Thread.ofPlatform().start(() -> {
+        started.countDown();
+        for (int i = 0; i < 2_000; i++) {
+          byte[] key = ("shutdown-" + thread + "-" + i).getBytes();
+          futures.add(writer.submit(batch -> batch.put(key, key)));
+        }
+      }));
+    }
+
+    // When
+    started.await();
+    writer.shutdown();
+    for (Thread submitter : submitters) {
+      submitter.join();
+    }
+
+    // Then: 모든 future 가 끝나 있어야 한다 (join 이 멈추지 않음)
+    assertThat(futures).hasSize(8_000).allMatch(CompletableFuture::isDone);
+  }
+}
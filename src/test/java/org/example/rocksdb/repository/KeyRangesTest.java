@@ -0,0 +1,58 @@
+package org.example.rocksdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.example.rocksdb.repository.KeyRanges.KeyRange;
+import org.example.rocksdb.repository.KeyRanges.SstFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class KeyRangesTest {
+
+  @Test
+  @DisplayName("SST 크기가 비슷하도록 파일 경계에서 나누는지 테스트")
+  void testBalancedSplit() {
+    // Given: 정렬되지 않은 크기 100 짜리 파일 8개
+    List<SstFile> files = List.of(file("g", 100), file("a", 100), file("c", 100),
+        file("e", 100), file("b", 100), file("d", 100), file("h", 100), file("f", 100));
+
+    // When
+    List<KeyRange> ranges = KeyRanges.balanced(files, 4, 1);
+
+    // Then
+    assertThat(ranges).extracting(range -> new String(range.start()))
+        .containsExactly("", "c", "e", "g");
+    assertThat(ranges).extracting(range -> range.end() == null ? null : new String(range.end()))
+        .containsExactly("c", "e", "g", null);
+  }
+
+  @Test
+  @DisplayName("작은 CF 나 parallelism 1 은 나누지 않는지 테스트")
+  void testNoSplit() {
+    List<SstFile> files = List.of(file("a", 100), file("b", 100));
+
+    assertThat(KeyRanges.balanced(files, 4, 1000)).isEqualTo(KeyRanges.ALL);
+    assertThat(KeyRanges.balanced(files, 1, 1)).isEqualTo(KeyRanges.ALL);
+    assertThat(KeyRanges.balanced(List.of(), 4, 1)).isEqualTo(KeyRanges.ALL);
+  }
+
+  @Test
+  @DisplayName("같은 최소 키로 시작하는 파일이 겹쳐도 경계가 중복되지 않는지 테스트")
+  void testOverlappingFiles() {
+    // Given: L0 처럼 같은 키에서 시작하는 파일들
+    List<SstFile> files = List.of(file("a", 100), file("a", 100), file("a", 100),
+        file("m", 100));
+
+    // When
+    List<KeyRange> ranges = KeyRanges.balanced(files, 4, 1);
+
+    // Then
+    assertThat(ranges).extracting(range -> new String(range.start()))
+        .containsExactly("", "a", "m");
+  }
+
+  private static SstFile file(String smallestKey, long size) {
+    return new SstFile(smallestKey.getBytes(), size);
+  }
+}
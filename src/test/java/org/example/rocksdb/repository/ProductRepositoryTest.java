@@ -1,15 +1,25 @@
 package org.example.rocksdb.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
 import org.example.rocksdb.model.Product;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.FlushOptions;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -19,6 +29,12 @@ class ProductRepositoryTest {
   @Autowired
   private ProductRepository productRepository;
 
+  @Autowired
+  private RocksDB rocksDB;
+
+  @Autowired
+  private Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap;
+
   @BeforeEach
   void setUp() {
     List<Product> allProducts = productRepository.findAll();
@@ -133,4 +149,227 @@ class ProductRepositoryTest {
     // Then
     assertThat(count).isEqualTo(2);
   }
+
+  @Test
+  @DisplayName("multiGet 배치 조회 테스트")
+  void testFindAllByKeys() {
+    // Given
+    productRepository.save("m1", Product.builder().id("m1").name("Multi 1").price(10.0).stock(1).build());
+    productRepository.save("m2", Product.builder().id("m2").name("Multi 2").price(20.0).stock(2).build());
+
+    // When
+    Map<String, Product> found = productRepository.findAll(List.of("m2", "missing", "m1", "m2"));
+
+    // Then
+    assertThat(found).containsOnlyKeys("m2", "m1");
+    assertThat(found.keySet()).containsExactly("m2", "m1");
+    assertThat(found.get("m1").getName()).isEqualTo("Multi 1");
+  }
+
+  @Test
+  @DisplayName("캐시된 상품이 저장/삭제 시 무효화되는지 테스트")
+  void testCacheInvalidation() {
+    // Given
+    productRepository.save("cache1", Product.builder().id("cache1").name("Before").price(1.0).stock(1).build());
+    productRepository.find("cache1");
+    long hitsBefore = productRepository.cacheStats().orElseThrow().hits();
+
+    // When
+    Product cached = productRepository.find("cache1");
+    productRepository.save("cache1", Product.builder().id("cache1").name("After").price(2.0).stock(2).build());
+    Product updated = productRepository.find("cache1");
+    productRepository.deleteAll(List.of("cache1"));
+
+    // Then
+    assertThat(cached.getName()).isEqualTo("Before");
+    assertThat(productRepository.cacheStats().orElseThrow().hits()).isEqualTo(hitsBefore + 1);
+    assertThat(updated.getName()).isEqualTo("After");
+    assertThat(productRepository.find("cache1")).isNull();
+  }
+
+  @Test
+  @DisplayName("조회한 객체를 변경해도 캐시된 값이 바뀌지 않는지 테스트")
+  void testCachedValueIsNotShared() {
+    // Given
+    productRepository.save("cache2", Product.builder().id("cache2").name("Stored").price(1.0).stock(1).build());
+    productRepository.find("cache2");
+
+    // When: 캐시에 맞은 조회 결과와 multiGet 결과를 각각 변경
+    productRepository.find("cache2").setName("Changed");
+    productRepository.findAll(List.of("cache2")).get("cache2").setStock(99);
+    Product found = productRepository.find("cache2");
+    Product multiGet = productRepository.findAll(List.of("cache2")).get("cache2");
+    productRepository.delete("cache2");
+
+    // Then
+    assertThat(found.getName()).isEqualTo("Stored");
+    assertThat(found.getStock()).isEqualTo(1);
+    assertThat(multiGet.getName()).isEqualTo("Stored");
+    assertThat(found).isNotSameAs(multiGet);
+  }
+
+  @Test
+  @DisplayName("가격/재고 인덱스 범위 조회 테스트")
+  void testFindByPriceAndStock() {
+    // Given
+    productRepository.buildIndexes();
+    productRepository.saveAll(Map.of(
+        "idx1", Product.builder().id("idx1").name("Cheap").price(9.99).stock(100).build(),
+        "idx2", Product.builder().id("idx2").name("Mid").price(120.0).stock(0).build(),
+        "idx3", Product.builder().id("idx3").name("Refund").price(-1.5).stock(3).build(),
+        "idx4", Product.builder().id("idx4").name("Expensive").price(1500.0).stock(3).build()));
+
+    // When
+    productRepository.deleteAll(List.of("idx4"));
+    List<Product> byPrice = productRepository.findByPriceBetween(-10.0, 200.0, 10);
+    List<Product> byExactPrice = productRepository.findByPrice(120.0, 10);
+    List<Product> inStock = productRepository.findByStockBetween(1, Integer.MAX_VALUE, 10);
+    List<Product> soldOut = productRepository.findByStock(0, 10);
+
+    // Then
+    assertThat(byPrice).extracting(Product::getId).containsExactly("idx3", "idx1", "idx2");
+    assertThat(byExactPrice).extracting(Product::getId).containsExactly("idx2");
+    assertThat(inStock).extracting(Product::getId).containsExactly("idx3", "idx1");
+    assertThat(soldOut).extracting(Product::getId).containsExactly("idx2");
+  }
+
+  @Test
+  @DisplayName("동시 재고 증감이 읽기 없이 모두 반영되는지 테스트")
+  void testConcurrentIncrementStock() throws Exception {
+    // Given
+    productRepository.save("hot1",
+        Product.builder().id("hot1").name("Hot").price(10.0).stock(5000).build());
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // When: 8개 thread 가 250번씩 1 감소
+    List<Future<?>> futures = new ArrayList<>();
+    for (int thread = 0; thread < 8; thread++) {
+      futures.add(executor.submit(() -> {
+        for (int i = 0; i < 250; i++) {
+          productRepository.incrementStock("hot1", -1);
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    // Then
+    assertThat(productRepository.find("hot1").getStock()).isEqualTo(3000);
+    productRepository.foldPatches();
+    assertThat(productRepository.find("hot1").getStock()).isEqualTo(3000);
+  }
+
+  @Test
+  @DisplayName("필드 patch 가 다른 필드를 유지하고 fold 후 인덱스에 반영되는지 테스트")
+  void testPatchAndFold() {
+    // Given
+    productRepository.buildIndexes();
+    productRepository.save("patch1",
+        Product.builder().id("patch1").name("Before").price(10.0).stock(7).build());
+
+    // When
+    productRepository.patch("patch1", Map.of("name", "After", "price", 12.5));
+    productRepository.increment("patch1", "price", 0.5);
+    Product patched = productRepository.find("patch1");
+    List<Product> byPrice = productRepository.findByPrice(13.0, 10);
+
+    // Then
+    assertThat(patched.getName()).isEqualTo("After");
+    assertThat(patched.getPrice()).isEqualTo(13.0);
+    assertThat(patched.getStock()).isEqualTo(7);
+    assertThat(byPrice).extracting(Product::getId).containsExactly("patch1");
+    assertThat(productRepository.findByPrice(10.0, 10)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("저장은 남은 patch 를 덮어쓰고, 없는 키의 patch 는 무시되는지 테스트")
+  void testSaveOverridesPatches() {
+    // Given
+    productRepository.save("patch2",
+        Product.builder().id("patch2").name("Old").price(1.0).stock(1).build());
+    productRepository.incrementStock("patch2", 10);
+    productRepository.incrementStock("missing", 10);
+
+    // When
+    productRepository.save("patch2",
+        Product.builder().id("patch2").name("New").price(2.0).stock(2).build());
+
+    // Then
+    assertThat(productRepository.find("patch2").getStock()).isEqualTo(2);
+    assertThat(productRepository.find("missing")).isNull();
+    assertThat(productRepository.foldPatches()).isZero();
+    assertThat(productRepository.find("patch2").getStock()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("알 수 없는 필드나 맞지 않는 타입의 patch 는 거부되는지 테스트")
+  void testInvalidPatch() {
+    assertThatThrownBy(() -> productRepository.increment("p", "name", 1))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> productRepository.increment("p", "stock", 0.5))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> productRepository.setField("p", "color", "red"))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> productRepository.setField("p", "stock", "many"))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("구간 삭제 시 남은 patch 도 함께 지워지는지 테스트")
+  void testDeleteByPrefixDiscardsPatches() {
+    // Given
+    productRepository.save("tenantA:p1",
+        Product.builder().id("tenantA:p1").name("Old").price(1.0).stock(1).build());
+    productRepository.incrementStock("tenantA:p1", 10);
+
+    // When
+    long deleted = productRepository.deleteByPrefix("tenantA:", false).join();
+    productRepository.save("tenantA:p1",
+        Product.builder().id("tenantA:p1").name("New").price(1.0).stock(2).build());
+
+    // Then
+    assertThat(deleted).isEqualTo(1);
+    assertThat(productRepository.find("tenantA:p1").getStock()).isEqualTo(2);
+    assertThat(productRepository.foldPatches()).isZero();
+  }
+
+  @Test
+  @DisplayName("SST 경계로 나눈 구간 병렬 스캔이 단일 스캔과 같은 결과인지 테스트")
+  void testParallelScan() throws RocksDBException {
+    // Given: SST 파일 두 개에 나눠 저장
+    ColumnFamilyHandle products = columnFamilyHandleMap.get(ColumnFamilyConfig.PRODUCT);
+    for (int file = 0; file < 2; file++) {
+      Map<String, Product> batch = new HashMap<>();
+      for (int i = 0; i < 50; i++) {
+        String key = "scan" + file + "-" + String.format("%02d", i);
+        batch.put(key, Product.builder().id(key).name(key).price(i).stock(i).build());
+      }
+      productRepository.saveAll(batch);
+      try (FlushOptions flushOptions = new FlushOptions().setWaitForFlush(true)) {
+        rocksDB.flush(flushOptions, products);
+      }
+    }
+    productRepository.incrementStock("scan1-49", 100);
+    List<KeyRanges.KeyRange> ranges =
+        KeyRanges.split(rocksDB, ColumnFamilyConfig.PRODUCT.getName(), 4, 1);
+
+    // When
+    List<Product> parallel = productRepository.findAll(product -> true, ranges);
+    List<Product> inStock = productRepository.findAll(product -> product.getStock() >= 40,
+        ranges);
+    long inStockCount = productRepository.count(product -> product.getStock() >= 40, ranges);
+
+    // Then
+    assertThat(ranges).hasSizeGreaterThan(1);
+    assertThat(parallel).extracting(Product::getId)
+        .containsExactlyElementsOf(productRepository.findAll(product -> true, KeyRanges.ALL)
+            .stream().map(Product::getId).toList())
+        .hasSize(100)
+        .isSorted();
+    assertThat(inStock).hasSize(20).extracting(Product::getStock).contains(149);
+    assertThat(inStockCount).isEqualTo(20);
+    assertThat(productRepository.findAll()).hasSize(100);
+  }
 }
@@ -0,0 +1,154 @@
+package org.example.rocksdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.example.rocksdb.RocksdbSampleApplication;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
+import org.example.rocksdb.conf.RocksDbProperties;
+import org.example.rocksdb.conf.RocksDbProperties.ReplicationRole;
+import org.example.rocksdb.exception.ReadOnlyReplicaException;
+import org.example.rocksdb.model.User;
+import org.example.rocksdb.service.RocksDbService;
+import org.example.rocksdb.util.JsonSerializationUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+@SpringBootTest
+class ReplicationManagerTest {
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ReplicationManager replicationManager;
+
+  @Autowired
+  private RocksDbProperties properties;
+
+  @Autowired
+  private RocksDB rocksDB;
+
+  @Autowired
+  private Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap;
+
+  @AfterEach
+  void tearDown() {
+    userRepository.deleteAll(List.of("repl-user1", "repl-user2", "repl-legacy1",
+        "repl-legacy2"));
+  }
+
+  @Test
+  @DisplayName("secondary 가 catch-up 후 primary 의 쓰기와 부분 갱신을 보고, 쓰기는 거절하는지 테스트")
+  void testSecondaryFollowsPrimary(@TempDir Path secondaryPath) throws Exception {
+    // Given: primary (이 테스트의 context) 에 쓴 뒤 같은 디렉토리를 secondary 로 연다
+    userRepository.save("repl-user1", new User("repl-user1", "Primary", 30));
+    try (ConfigurableApplicationContext secondary = secondary(secondaryPath)) {
+      RocksDbService service = secondary.getBean(RocksDbService.class);
+      ReplicationManager replication = secondary.getBean(ReplicationManager.class);
+      assertThat(service.getUser("repl-user1").getName()).isEqualTo("Primary");
+
+      // When: catch-up 전에는 보이지 않고, 후에는 보인다
+      userRepository.save("repl-user2", new User("repl-user2", "Later", 40));
+      userRepository.increment("repl-user1", "age", 5);
+      boolean visibleBefore = service.userExists("repl-user2");
+      ReplicationStatus status = service.catchUpWithPrimary();
+
+      // Then
+      assertThat(visibleBefore).isFalse();
+      assertThat(service.getUser("repl-user2").getName()).isEqualTo("Later");
+      // 부분 갱신은 secondary 가 기록해 두지 않아도 조회 시 적용된다
+      assertThat(service.getUser("repl-user1").getAge()).isEqualTo(35);
+      assertThat(service.getUsers(List.of("repl-user1", "repl-user2"))).hasSize(2);
+      // snapshot 없이 스캔/내보내기
+      assertThat(service.getUsersByPrefix("repl-user")).extracting(User::getId)
+          .containsExactly("repl-user1", "repl-user2");
+      assertThat(service.getAllUsers()).extracting(User::getId)
+          .contains("repl-user1", "repl-user2");
+      ByteArrayOutputStream exported = new ByteArrayOutputStream();
+      assertThat(service.exportUsers("repl-user", exported)).isEqualTo(2);
+      assertThat(exported.toString(StandardCharsets.UTF_8)).contains("\"age\":35");
+
+      assertThat(status.role()).isEqualTo(ReplicationRole.SECONDARY);
+      assertThat(status.catchUpFailures()).isZero();
+      // primary 는 기동 직후부터 heartbeat 를 쓴다
+      assertThat(status.primaryHeartbeat()).isNotNull();
+      assertThat(status.lagMillis()).isNotNull().isNotNegative();
+      assertThat(replication.status().sequenceNumber()).isPositive();
+
+      assertThatThrownBy(() -> service.saveUser("repl-user3", new User("repl-user3", "x", 1)))
+          .isInstanceOf(ReadOnlyReplicaException.class);
+      assertThatThrownBy(() -> service.deleteAllUsers(List.of("repl-user1")))
+          .isInstanceOf(ReadOnlyReplicaException.class);
+      assertThatThrownBy(service::createBackup).isInstanceOf(ReadOnlyReplicaException.class);
+    }
+    // secondary 는 primary 의 데이터를 바꾸지 않는다
+    assertThat(userRepository.find("repl-user1").getAge()).isEqualTo(35);
+  }
+
+  @Test
+  @DisplayName("secondary 가 이전 포맷 (JSON) 값을 다시 쓰지 않고 조회하는지 테스트")
+  void testSecondaryReadsLegacyValues(@TempDir Path secondaryPath) throws Exception {
+    // Given: 마이그레이션 전의 JSON 값
+    ColumnFamilyHandle users = columnFamilyHandleMap.get(ColumnFamilyConfig.USER);
+    userRepository.save("repl-legacy1", new User("repl-legacy1", "Legacy 1", 20));
+    userRepository.save("repl-legacy2", new User("repl-legacy2", "Legacy 2", 30));
+    byte[] legacy1 = JsonSerializationUtils.serialize(new User("repl-legacy1", "Legacy 1", 20));
+    rocksDB.put(users, "repl-legacy1".getBytes(), legacy1);
+    rocksDB.put(users, "repl-legacy2".getBytes(),
+        JsonSerializationUtils.serialize(new User("repl-legacy2", "Legacy 2", 30)));
+
+    try (ConfigurableApplicationContext secondary = secondary(secondaryPath)) {
+      RocksDbService service = secondary.getBean(RocksDbService.class);
+
+      // When
+      User found = service.getUser("repl-legacy1");
+      Map<String, User> multiGet = service.getUsers(List.of("repl-legacy1", "repl-legacy2"));
+
+      // Then
+      assertThat(found.getName()).isEqualTo("Legacy 1");
+      assertThat(multiGet.values()).extracting(User::getAge).containsExactlyInAnyOrder(20, 30);
+    }
+    // primary 의 값은 secondary 조회로 바뀌지 않는다
+    assertThat(rocksDB.get(users, "repl-legacy1".getBytes())).isEqualTo(legacy1);
+  }
+
+  @Test
+  @DisplayName("primary 는 heartbeat 를 기록하고 catch-up 은 거절하는지 테스트")
+  void testPrimaryStatus() {
+    // When
+    ReplicationStatus status = replicationManager.status();
+
+    // Then
+    assertThat(status.role()).isEqualTo(ReplicationRole.PRIMARY);
+    assertThat(status.primaryHeartbeat()).isNotNull();
+    assertThat(status.lastCatchUp()).isNull();
+    assertThat(status.lagMillis()).isNull();
+    assertThatThrownBy(replicationManager::catchUp).isInstanceOf(IllegalStateException.class);
+  }
+
+  // 두 번째 프로세스 대신 같은 JVM 안의 두 번째 context 를 secondary 로 띄운다
+  private ConfigurableApplicationContext secondary(Path secondaryPath) {
+    return new SpringApplicationBuilder(RocksdbSampleApplication.class)
+        .web(WebApplicationType.NONE)
+        .run("--rocksdb.path=" + properties.getPath(),
+            "--rocksdb.replication.role=secondary",
+            "--rocksdb.replication.secondary-path=" + secondaryPath,
+            // 주기적인 catch-up 은 사실상 끄고 테스트에서 직접 호출
+            "--rocksdb.replication.catch-up-interval=1h");
+  }
+}
@@ -0,0 +1,82 @@
+package org.example.rocksdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import org.example.rocksdb.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class RepositoryExecutorsTest {
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private RepositoryExecutors repositoryExecutors;
+
+  @AfterEach
+  void tearDown() {
+    userRepository.deleteAll(List.of("async1", "async2"));
+  }
+
+  @Test
+  @DisplayName("비동기 저장/조회/prefix 스캔 테스트")
+  void testAsyncOperations() {
+    // Given
+    AsyncKeyValueRepository<String, User> async = repositoryExecutors.async(userRepository);
+    User user1 = User.builder().id("async1").name("Async1").age(31).build();
+    User user2 = User.builder().id("async2").name("Async2").age(32).build();
+
+    // When
+    CompletableFuture.allOf(async.save("async1", user1),
+        async.saveAll(Map.of("async2", user2))).join();
+
+    // Then
+    assertThat(async.find("async1").join().getName()).isEqualTo("Async1");
+    assertThat(async.findByPrefix("async").join()).extracting(User::getId)
+        .containsExactly("async1", "async2");
+    assertThat(async.exists("async2").join()).isTrue();
+  }
+
+  @Test
+  @DisplayName("동시 실행 수와 대기열을 넘는 작업 거부 테스트")
+  void testBoundedExecutorRejectsWhenFull() throws InterruptedException {
+    // Given
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    try (BoundedExecutor executor = new BoundedExecutor("test", 1, 1)) {
+      executor.execute(() -> {
+        started.countDown();
+        awaitQuietly(release);
+      });
+      started.await();
+      executor.execute(() -> { });
+
+      // When / Then
+      assertThat(executor.active()).isEqualTo(1);
+      assertThat(executor.queued()).isEqualTo(1);
+      assertThatThrownBy(() -> executor.execute(() -> { }))
+          .isInstanceOf(RejectedExecutionException.class);
+      assertThat(executor.rejected()).isEqualTo(1);
+      release.countDown();
+    }
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,202 @@
+package org.example.rocksdb.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.rocksdb.exception.TransactionConflictException;
+import org.example.rocksdb.model.Product;
+import org.example.rocksdb.model.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles({"test", "transactions"})
+class TransactionRunnerTest {
+
+  @Autowired
+  private TransactionRunner transactionRunner;
+
+  @Autowired
+  private UserRepository userRepository;
+
+  @Autowired
+  private ProductRepository productRepository;
+
+  @Autowired
+  private MeterRegistry meterRegistry;
+
+  @AfterEach
+  void tearDown() {
+    userRepository.deleteAll(List.of("txn-user1", "txn-user2"));
+    productRepository.deleteAll(List.of("txn-prod1", "txn-prod2"));
+  }
+
+  @Test
+  @DisplayName("사용자와 상품 쓰기가 함께 커밋되고 카운터와 인덱스가 갱신된다")
+  void testCommitAcrossColumnFamilies() {
+    // Given
+    productRepository.save("txn-prod1", product("txn-prod1", 10));
+    long users = userRepository.count();
+    long products = productRepository.count();
+
+    // When: 주문 - 사용자 저장 + 재고 차감 + 새 상품
+    transactionRunner.execute(unitOfWork -> {
+      unitOfWork.save(userRepository, "txn-user1", new User("txn-user1", "buyer", 31));
+      Product product = unitOfWork.find(productRepository, "txn-prod1");
+      product.setStock(product.getStock() - 3);
+      unitOfWork.save(productRepository, "txn-prod1", product);
+      unitOfWork.save(productRepository, "txn-prod2", product("txn-prod2", 5));
+      // 같은 트랜잭션 안에서는 앞서 쓴 값을 본다
+      assertThat(unitOfWork.find(productRepository, "txn-prod1").getStock()).isEqualTo(7);
+      return null;
+    });
+
+    // Then
+    assertThat(userRepository.find("txn-user1").getName()).isEqualTo("buyer");
+    assertThat(productRepository.find("txn-prod1").getStock()).isEqualTo(7);
+    assertThat(userRepository.count()).isEqualTo(users + 1);
+    assertThat(productRepository.count()).isEqualTo(products + 1);
+    assertThat(productRepository.findByStock(7, 10)).extracting(Product::getId)
+        .contains("txn-prod1");
+    assertThat(productRepository.findByStock(10, 10)).extracting(Product::getId)
+        .doesNotContain("txn-prod1");
+  }
+
+  @Test
+  @DisplayName("작업 중 예외가 나면 아무것도 기록되지 않는다")
+  void testRollbackOnException() {
+    // Given
+    long users = userRepository.count();
+    double rolledBack = attempts("rolled_back");
+
+    // When & Then
+    assertThatThrownBy(() -> transactionRunner.execute(unitOfWork -> {
+      unitOfWork.save(userRepository, "txn-user1", new User("txn-user1", "buyer", 31));
+      throw new IllegalStateException("out of stock");
+    })).isInstanceOf(IllegalStateException.class);
+    assertThat(userRepository.find("txn-user1")).isNull();
+    assertThat(userRepository.count()).isEqualTo(users);
+    assertThat(attempts("rolled_back")).isEqualTo(rolledBack + 1);
+  }
+
+  @Test
+  @DisplayName("읽은 키가 커밋 전에 바뀌면 다시 실행해 최신 값 위에 쓴다")
+  void testRetryOnConflict() {
+    // Given
+    productRepository.save("txn-prod1", product("txn-prod1", 10));
+    double conflicts = attempts("conflict");
+    AtomicInteger runs = new AtomicInteger();
+
+    // When: 첫 실행 중에 다른 쓰기가 재고를 바꾼다
+    transactionRunner.execute(unitOfWork -> {
+      Product product = unitOfWork.find(productRepository, "txn-prod1");
+      if (runs.incrementAndGet() == 1) {
+        productRepository.save("txn-prod1", product("txn-prod1", 20));
+      }
+      product.setStock(product.getStock() - 1);
+      unitOfWork.save(productRepository, "txn-prod1", product);
+      return null;
+    });
+
+    // Then
+    assertThat(runs).hasValue(2);
+    assertThat(productRepository.find("txn-prod1").getStock()).isEqualTo(19);
+    assertThat(attempts("conflict")).isEqualTo(conflicts + 1);
+  }
+
+  @Test
+  @DisplayName("충돌이 계속되면 재시도 횟수를 넘긴 뒤 TransactionConflictException")
+  void testGiveUpAfterMaxRetries() {
+    // Given
+    productRepository.save("txn-prod1", product("txn-prod1", 10));
+    AtomicInteger runs = new AtomicInteger();
+
+    // When & Then
+    assertThatThrownBy(() -> transactionRunner.execute(unitOfWork -> {
+      unitOfWork.find(productRepository, "txn-prod1");
+      productRepository.save("txn-prod1", product("txn-prod1", runs.incrementAndGet()));
+      unitOfWork.save(productRepository, "txn-prod1", product("txn-prod1", 0));
+      return null;
+    })).isInstanceOf(TransactionConflictException.class);
+    assertThat(runs).hasValue(6); // 처음 1번 + 재시도 5번 (application.yml)
+    assertThat(productRepository.find("txn-prod1").getStock()).isEqualTo(6);
+  }
+
+  @Test
+  @DisplayName("서로 다른 키를 추가하는 트랜잭션은 카운터를 함께 갱신해도 충돌하지 않는다")
+  void testNoConflictOnDisjointKeys() {
+    // Given
+    long users = userRepository.count();
+    double conflicts = attempts("conflict");
+
+    // When: 한 트랜잭션이 진행 중일 때 다른 트랜잭션이 먼저 커밋한다
+    transactionRunner.execute(outer -> {
+      outer.save(userRepository, "txn-user1", new User("txn-user1", "a", 20));
+      transactionRunner.execute(inner -> {
+        inner.save(userRepository, "txn-user2", new User("txn-user2", "b", 21));
+        return null;
+      });
+      return null;
+    });
+
+    // Then
+    assertThat(attempts("conflict")).isEqualTo(conflicts);
+    assertThat(userRepository.count()).isEqualTo(users + 2);
+  }
+
+  @Test
+  @DisplayName("동시에 같은 재고를 차감해도 커밋된 만큼만 정확히 줄어든다")
+  void testConcurrentDecrements() throws Exception {
+    // Given
+    productRepository.save("txn-prod1", product("txn-prod1", 1000));
+    AtomicInteger committed = new AtomicInteger();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    // When
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      futures.add(executor.submit(() -> {
+        try {
+          transactionRunner.execute(unitOfWork -> {
+            Product product = unitOfWork.find(productRepository, "txn-prod1");
+            product.setStock(product.getStock() - 1);
+            unitOfWork.save(productRepository, "txn-prod1", product);
+            return null;
+          });
+          committed.incrementAndGet();
+        } catch (TransactionConflictException e) {
+          // 재시도를 다 쓴 경우는 반영되지 않는다
+        }
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get();
+    }
+    executor.shutdown();
+
+    // Then
+    assertThat(committed.get()).isPositive();
+    assertThat(productRepository.find("txn-prod1").getStock())
+        .isEqualTo(1000 - committed.get());
+  }
+
+  private double attempts(String result) {
+    return meterRegistry.get(TransactionRunner.ATTEMPTS_METRIC).tag("result", result)
+        .counter().count();
+  }
+
+  private static Product product(String id, int stock) {
+    return new Product(id, "product " + id, 1000.0, stock);
+  }
+}
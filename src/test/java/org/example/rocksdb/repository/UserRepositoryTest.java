@@ -1,15 +1,22 @@
 package org.example.rocksdb.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.example.rocksdb.conf.ColumnFamilyConfig;
 import org.example.rocksdb.model.User;
+import org.example.rocksdb.util.JsonSerializationUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.rocksdb.ColumnFamilyHandle;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -19,6 +26,12 @@ class UserRepositoryTest {
   @Autowired
   private UserRepository userRepository;
 
+  @Autowired
+  private RocksDB rocksDB;
+
+  @Autowired
+  private Map<ColumnFamilyConfig, ColumnFamilyHandle> columnFamilyHandleMap;
+
   @BeforeEach
   void setUp() {
     // Clean up before each test
@@ -181,4 +194,276 @@ class UserRepositoryTest {
     // Then
     assertThat(count).isEqualTo(3);
   }
+
+  @Test
+  @DisplayName("덮어쓰기/중복 삭제 시 카운트 유지 테스트")
+  void testCountWithOverwriteAndDelete() {
+    // Given
+    userRepository.save("count1", User.builder().id("count1").name("Count 1").age(20).build());
+    userRepository.save("count1", User.builder().id("count1").name("Count 1'").age(21).build());
+    userRepository.saveAll(Map.of(
+        "count1", User.builder().id("count1").name("Count 1").age(22).build(),
+        "count2", User.builder().id("count2").name("Count 2").age(30).build()));
+
+    // When
+    userRepository.delete("nonexistent");
+    userRepository.deleteAll(List.of("count2", "count2", "nonexistent"));
+
+    // Then
+    assertThat(userRepository.count()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("추정 카운트 테스트")
+  void testEstimatedCount() {
+    // Given
+    userRepository.save("estimate1", User.builder().id("estimate1").name("Estimate").age(20).build());
+
+    // When
+    long estimated = userRepository.estimatedCount();
+
+    // Then
+    assertThat(estimated).isGreaterThanOrEqualTo(0);
+  }
+
+  @Test
+  @DisplayName("커서 기반 페이지 조회 테스트")
+  void testFindPage() {
+    // Given
+    for (int i = 1; i <= 5; i++) {
+      userRepository.save("page" + i, User.builder().id("page" + i).name("Page " + i).age(i).build());
+    }
+
+    // When
+    List<String> forward = new ArrayList<>();
+    String cursor = null;
+    do {
+      Page<User> page = userRepository.findPage(cursor, 2, ScanDirection.FORWARD);
+      page.items().forEach(user -> forward.add(user.getId()));
+      cursor = page.nextCursor();
+    } while (cursor != null);
+
+    Page<User> reverse = userRepository.findPage(null, 3, ScanDirection.REVERSE);
+
+    // Then
+    assertThat(forward).containsExactly("page1", "page2", "page3", "page4", "page5");
+    assertThat(reverse.items()).extracting(User::getId).containsExactly("page5", "page4", "page3");
+    assertThat(reverse.hasNext()).isTrue();
+  }
+
+  @Test
+  @DisplayName("Prefix 페이지 조회 테스트")
+  void testFindPageByPrefix() {
+    // Given
+    userRepository.save("admin1", User.builder().id("admin1").name("Admin 1").age(35).build());
+    userRepository.save("admin2", User.builder().id("admin2").name("Admin 2").age(40).build());
+    userRepository.save("admin3", User.builder().id("admin3").name("Admin 3").age(45).build());
+    userRepository.save("user1", User.builder().id("user1").name("User 1").age(25).build());
+
+    // When
+    Page<User> first = userRepository.findPageByPrefix("admin", null, 2, ScanDirection.REVERSE);
+    Page<User> second = userRepository.findPageByPrefix("admin", first.nextCursor(), 2,
+        ScanDirection.REVERSE);
+
+    // Then
+    assertThat(first.items()).extracting(User::getId).containsExactly("admin3", "admin2");
+    assertThat(second.items()).extracting(User::getId).containsExactly("admin1");
+    assertThat(second.hasNext()).isFalse();
+  }
+
+  @Test
+  @DisplayName("Prefix extractor 길이와 다른 Prefix 검색 테스트")
+  void testFindByPrefixShorterAndLongerThanExtractor() {
+    // Given
+    userRepository.save("admin1", User.builder().id("admin1").name("Admin 1").age(35).build());
+    userRepository.save("adx", User.builder().id("adx").name("Adx").age(40).build());
+    userRepository.save("user1", User.builder().id("user1").name("User 1").age(25).build());
+
+    // When
+    List<User> shortPrefix = userRepository.findByPrefix("ad");
+    List<User> exactPrefix = userRepository.findByPrefix("admi");
+    List<User> missingPrefix = userRepository.findByPrefix("zzzz");
+
+    // Then
+    assertThat(shortPrefix).extracting(User::getId).containsExactly("admin1", "adx");
+    assertThat(exactPrefix).extracting(User::getId).containsExactly("admin1");
+    assertThat(missingPrefix).isEmpty();
+  }
+
+  @Test
+  @DisplayName("JSON 으로 저장된 기존 값 마이그레이션 테스트")
+  void testMigrateLegacyJsonValues() throws RocksDBException {
+    // Given
+    ColumnFamilyHandle users = columnFamilyHandleMap.get(ColumnFamilyConfig.USER);
+    userRepository.save("legacy1", User.builder().id("legacy1").name("Legacy 1").age(20).build());
+    userRepository.save("legacy2", User.builder().id("legacy2").name("Legacy 2").age(30).build());
+    rocksDB.put(users, "legacy1".getBytes(), JsonSerializationUtils.serialize(
+        User.builder().id("legacy1").name("Legacy 1").age(20).build()));
+    rocksDB.put(users, "legacy2".getBytes(), JsonSerializationUtils.serialize(
+        User.builder().id("legacy2").name("Legacy 2").age(30).build()));
+
+    // When
+    User lazilyMigrated = userRepository.find("legacy1");
+    long migrated = userRepository.migrateLegacyValues();
+
+    // Then
+    assertThat(lazilyMigrated.getName()).isEqualTo("Legacy 1");
+    assertThat(migrated).isEqualTo(1);
+    assertThat(rocksDB.get(users, "legacy1".getBytes())[0]).isNotEqualTo((byte) '{');
+    assertThat(userRepository.find("legacy2").getAge()).isEqualTo(30);
+    assertThat(userRepository.count()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("나이 인덱스 동등/범위 조회 테스트")
+  void testFindByAge() {
+    // Given
+    userRepository.buildIndexes();
+    userRepository.save("age1", User.builder().id("age1").name("Age 1").age(20).build());
+    userRepository.save("age2", User.builder().id("age2").name("Age 2").age(35).build());
+    userRepository.saveAll(Map.of(
+        "age3", User.builder().id("age3").name("Age 3").age(-5).build(),
+        "age4", User.builder().id("age4").name("Age 4").age(35).build()));
+
+    // When
+    userRepository.save("age1", User.builder().id("age1").name("Age 1").age(40).build());
+    userRepository.delete("age4");
+    List<User> exact = userRepository.findByAge(35, 10);
+    List<User> range = userRepository.findByAgeBetween(-10, 40, 10);
+    List<User> limited = userRepository.findByAgeBetween(-10, 40, 2);
+
+    // Then
+    assertThat(exact).extracting(User::getId).containsExactly("age2");
+    assertThat(range).extracting(User::getId).containsExactly("age3", "age2", "age1");
+    assertThat(limited).extracting(User::getId).containsExactly("age3", "age2");
+    assertThat(userRepository.findByAge(20, 10)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("snapshot 기준 prefix 순회 테스트 (순회 중 추가된 키 제외)")
+  void testForEachUsesSnapshot() throws Exception {
+    // Given
+    userRepository.save("exp1", User.builder().id("exp1").name("Export 1").age(10).build());
+    userRepository.save("exp2", User.builder().id("exp2").name("Export 2").age(20).build());
+    userRepository.save("other", User.builder().id("other").name("Other").age(30).build());
+    List<String> keys = new ArrayList<>();
+
+    // When
+    long count = userRepository.forEach("exp", (key, user) -> {
+      keys.add(key);
+      userRepository.save("exp3", User.builder().id("exp3").name("Export 3").age(30).build());
+    });
+
+    // Then
+    assertThat(count).isEqualTo(2);
+    assertThat(keys).containsExactly("exp1", "exp2");
+    assertThat(userRepository.exists("exp3")).isTrue();
+  }
+
+  @Test
+  @DisplayName("Prefix 구간 삭제 시 카운트/인덱스/캐시가 함께 정리되는지 테스트")
+  void testDeleteByPrefix() {
+    // Given
+    userRepository.buildIndexes();
+    userRepository.save("tenantA:1", User.builder().id("tenantA:1").name("A1").age(20).build());
+    userRepository.save("tenantA:2", User.builder().id("tenantA:2").name("A2").age(30).build());
+    userRepository.save("tenantA:3", User.builder().id("tenantA:3").name("A3").age(40).build());
+    userRepository.save("tenantB:1", User.builder().id("tenantB:1").name("B1").age(30).build());
+    assertThat(userRepository.find("tenantA:1")).isNotNull(); // 캐시에 적재
+
+    // When
+    long deleted = userRepository.deleteByPrefix("tenantA:", true).join();
+
+    // Then
+    assertThat(deleted).isEqualTo(3);
+    assertThat(userRepository.find("tenantA:1")).isNull();
+    assertThat(userRepository.findByPrefix("tenant")).extracting(User::getId)
+        .containsExactly("tenantB:1");
+    assertThat(userRepository.count()).isEqualTo(1);
+    assertThat(userRepository.findByAgeBetween(0, 100, 10)).extracting(User::getId)
+        .containsExactly("tenantB:1");
+    assertThat(userRepository.deleteByPrefix("tenantA:", false).join()).isZero();
+  }
+
+  @Test
+  @DisplayName("[start, end) 구간 삭제 테스트")
+  void testDeleteRange() {
+    // Given
+    for (int i = 1; i <= 5; i++) {
+      userRepository.save("range" + i,
+          User.builder().id("range" + i).name("Range " + i).age(i).build());
+    }
+
+    // When
+    long deleted = userRepository.deleteRange("range2", "range4", false).join();
+
+    // Then
+    assertThat(deleted).isEqualTo(2);
+    assertThat(userRepository.findByPrefix("range")).extracting(User::getId)
+        .containsExactly("range1", "range4", "range5");
+    assertThat(userRepository.count()).isEqualTo(3);
+    assertThatThrownBy(() -> userRepository.deleteRange("range4", "range2", false))
+        .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> userRepository.deleteByPrefix("", false))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("구간 삭제 중 같은 구간에 동시에 쓰여도 카운트와 인덱스가 맞는지 테스트")
+  void testDeleteRangeWithConcurrentWrites() throws Exception {
+    // Given
+    Map<String, User> users = new HashMap<>();
+    for (int i = 0; i < 5_000; i++) {
+      String id = String.format("crange:%05d", i);
+      users.put(id, User.builder().id(id).name("Range").age(i % 100).build());
+    }
+    userRepository.saveAll(users);
+
+    // When: 구간 삭제와 동시에 구간 안의 키를 저장/삭제
+    Thread concurrentWriter = Thread.ofPlatform().start(() -> {
+      for (int i = 0; i < 500; i++) {
+        String id = String.format("crange:%05d", i * 7);
+        if (i % 2 == 0) {
+          userRepository.delete(id);
+        } else {
+          userRepository.save(id + "x", User.builder().id(id + "x").name("New").age(1).build());
+        }
+      }
+    });
+    userRepository.deleteByPrefix("crange:", false).join();
+    concurrentWriter.join();
+
+    // Then: 구간 삭제 뒤에 남은 (또는 다시 쓰인) 키와 카운터, 인덱스가 일치
+    List<User> remaining = userRepository.findByPrefix("crange:");
+    assertThat(userRepository.count()).isEqualTo(remaining.size());
+    assertThat(userRepository.findByAgeBetween(0, 100, 10_000)).extracting(User::getId)
+        .containsExactlyInAnyOrderElementsOf(remaining.stream().map(User::getId).toList());
+  }
+
+  @Test
+  @DisplayName("direct buffer 조회: 버퍼보다 큰 값, 최대 크기를 넘는 값, virtual 스레드 조회 테스트")
+  void testFindWithDirectBuffers() throws Exception {
+    // Given: 기본 버퍼 (4KB) 보다 큰 값과 최대 크기 (1MB) 보다 큰 값, 한글 키
+    userRepository.save("user:10k", User.builder().id("user:10k").name("a".repeat(10_000))
+        .age(1).build());
+    userRepository.save("user:2m", User.builder().id("user:2m").name("b".repeat(2_000_000))
+        .age(2).build());
+    userRepository.save("사용자:1", User.builder().id("사용자:1").name("홍길동").age(3).build());
+
+    // When
+    User large = userRepository.find("user:10k");
+    User huge = userRepository.find("user:2m");
+    User[] fromVirtual = new User[2];
+    Thread.ofVirtual().start(() -> {
+      fromVirtual[0] = userRepository.find("사용자:1");
+      fromVirtual[1] = userRepository.find("user:10k");
+    }).join();
+
+    // Then
+    assertThat(large.getName()).hasSize(10_000);
+    assertThat(huge.getName()).hasSize(2_000_000);
+    assertThat(fromVirtual[0].getName()).isEqualTo("홍길동");
+    assertThat(fromVirtual[1].getAge()).isEqualTo(1);
+    assertThat(userRepository.find("user:none")).isNull();
+  }
 }
@@ -2,6 +2,10 @@ package org.example.rocksdb.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +31,9 @@ class RocksDbServiceTest {
   @Autowired
   private ProductRepository productRepository;
 
+  @Autowired
+  private ObjectMapper objectMapper;
+
   @AfterEach
   void tearDown() {
     // Clean up users
@@ -195,4 +202,24 @@ class RocksDbServiceTest {
     // Then
     assertThat(products).hasSize(2);
   }
+
+  @Test
+  @DisplayName("상품 NDJSON 내보내기 서비스 테스트")
+  void testExportProducts() throws Exception {
+    // Given
+    rocksDbService.saveProduct("p1", Product.builder().id("p1").name("Product 1").price(10.0).stock(5).build());
+    rocksDbService.saveProduct("p2", Product.builder().id("p2").name("Product 2").price(20.0).stock(10).build());
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    // When
+    long count = rocksDbService.exportProducts("", out);
+
+    // Then
+    List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+    assertThat(count).isEqualTo(2);
+    assertThat(lines).hasSize(2);
+    JsonNode first = objectMapper.readTree(lines.get(0));
+    assertThat(first.get("key").asText()).isEqualTo("p1");
+    assertThat(first.get("value").get("name").asText()).isEqualTo("Product 1");
+  }
 }